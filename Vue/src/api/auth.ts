@@ -18,14 +18,16 @@ export interface LoginRequest {
   password: string
 }
 
-/** 認証成功時のレスポンス（トークン・ユーザー名・ID） */
+/** 認証成功時のレスポンス（アクセストークン・リフレッシュトークン・有効秒数・ユーザー名・ID） */
 export interface AuthResponse {
   token: string
+  refreshToken: string
+  expiresIn: number
   username: string
   userId: number
 }
 
-/** 認証API（登録・ログイン） */
+/** 認証API（登録・ログイン・トークンの再発行・ログアウト） */
 export const authApi = {
   /** 新規ユーザーを登録する */
   register(data: RegisterRequest) {
@@ -35,4 +37,16 @@ export const authApi = {
   login(data: LoginRequest) {
     return base.post<AuthResponse>('/auth/login', data)
   },
+  /** リフレッシュトークンを新しいものと交換し、アクセストークンを取り直す */
+  refresh(refreshToken: string) {
+    return base.post<AuthResponse>('/auth/refresh', { refreshToken })
+  },
+  /** アクセストークンとリフレッシュトークンを失効させる */
+  logout(token: string | null, refreshToken: string | null) {
+    return base.post<void>(
+      '/auth/logout',
+      refreshToken ? { refreshToken } : undefined,
+      token ? { headers: { Authorization: `Bearer ${token}` } } : undefined
+    )
+  },
 }
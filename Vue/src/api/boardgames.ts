@@ -6,6 +6,8 @@ export interface UserBoardGame {
   bggId: string | null
   name: string
   thumbnailUrl: string | null
+  /** アップロード画像の低画質プレースホルダ（data URI） */
+  thumbnailPlaceholder: string | null
   yearPublished: number | null
   minPlayers: number | null
   maxPlayers: number | null
@@ -17,6 +19,8 @@ export interface UserBoardGame {
 /** ボードゲーム追加のリクエスト */
 export interface AddBoardGamePayload {
   name: string
+  /** BoardGameGeek のゲームID */
+  bggId?: string
   thumbnailUrl?: string
   yearPublished?: number
   minPlayers?: number
@@ -36,9 +40,53 @@ export interface UpdateBoardGamePayload {
   maxPlayTimeMinutes?: number
 }
 
-/** 画像アップロードのレスポンス（表示用URL） */
+/** 画像アップロードのレスポンス（表示用URLと低画質プレースホルダ） */
 export interface UploadImageResponse {
   url: string
+  placeholder: string | null
+}
+
+/** 分割アップロードのセッション状態 */
+interface UploadSession {
+  id: string
+  offset: number
+  size: number
+}
+
+/** 分割アップロードに切り替えるサイズとチャンクサイズ */
+const CHUNK_SIZE = 512 * 1024
+/** 1チャンクあたりの再送回数 */
+const CHUNK_RETRIES = 3
+
+/**
+ * 画像を分割して送る。失敗したチャンクはサーバーの受信済みオフセットから再開するため、
+ * 回線が不安定でも送信済みの部分を送り直さない。
+ */
+async function uploadImageInChunks(file: File): Promise<UploadImageResponse> {
+  const { data: created } = await client.post<UploadSession>('/me/upload-sessions', {
+    size: file.size,
+    filename: file.name,
+    contentType: file.type,
+  })
+  let offset = created.offset
+  let failures = 0
+  while (offset < file.size) {
+    try {
+      const chunk = file.slice(offset, Math.min(offset + CHUNK_SIZE, file.size))
+      const { data } = await client.put<UploadSession>(`/me/upload-sessions/${created.id}`, chunk, {
+        params: { offset },
+        headers: { 'Content-Type': 'application/octet-stream' },
+      })
+      offset = data.offset
+      failures = 0
+    } catch (err) {
+      if (++failures > CHUNK_RETRIES) throw err
+      const { data } = await client.get<UploadSession>(`/me/upload-sessions/${created.id}`)
+      offset = data.offset
+    }
+  }
+  const { data } = await client.post<UploadImageResponse>(`/me/upload-sessions/${created.id}/complete`)
+  return data
 }
 
 /** マイページのボードゲーム一覧・追加・更新・削除・画像アップロードAPI */
@@ -59,11 +107,17 @@ export const boardgamesApi = {
   delete(id: number) {
     return client.delete(`/me/boardgames/${id}`)
   },
-  /** 画像ファイルをアップロードし、表示用URLを返す */
+  /** 画像ファイルをリクエストボディとしてそのまま送り、表示用URLを返す。大きいファイルは分割して送る */
   async uploadImage(file: File): Promise<UploadImageResponse> {
-    const form = new FormData()
-    form.append('file', file)
-    const { data } = await client.post<UploadImageResponse>('/me/upload-image', form)
+    if (file.size > CHUNK_SIZE) {
+      return uploadImageInChunks(file)
+    }
+    const { data } = await client.post<UploadImageResponse>('/me/upload-image', file, {
+      headers: {
+        'Content-Type': file.type || 'application/octet-stream',
+        'X-Filename': encodeURIComponent(file.name),
+      },
+    })
     return data
   },
 }
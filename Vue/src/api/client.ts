@@ -3,7 +3,8 @@ import { useAuthStore } from '@/stores/auth'
 
 /**
  * /api 向けの axios インスタンス。
- * リクエストにJWTを付与し、401時はログイン画面へリダイレクトする。
+ * リクエストにJWTを付与し、401時はリフレッシュトークンでアクセストークンを取り直して1回だけ再送する。
+ * 取り直せなければログイン画面へリダイレクトする。
  */
 const client = axios.create({
   baseURL: '/api',
@@ -24,9 +25,14 @@ client.interceptors.request.use((config) => {
 
 client.interceptors.response.use(
   (r) => r,
-  (err) => {
+  async (err) => {
     if (err.response?.status === 401) {
       const auth = useAuthStore()
+      const config = err.config
+      if (config && !config._retried && (await auth.refresh())) {
+        config._retried = true
+        return client(config)
+      }
       auth.clearAuth()
       window.location.href = '/login'
     }
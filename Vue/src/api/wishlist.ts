@@ -5,6 +5,8 @@ export interface WishlistItem {
   id: number
   name: string
   thumbnailUrl: string | null
+  /** アップロード画像の低画質プレースホルダ（data URI） */
+  thumbnailPlaceholder: string | null
   addedAt: string
 }
 
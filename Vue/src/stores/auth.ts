@@ -3,26 +3,34 @@ import { ref, computed } from 'vue'
 import { authApi } from '@/api/auth'
 
 const TOKEN_KEY = 'boardgame_token'
+const REFRESH_TOKEN_KEY = 'boardgame_refreshToken'
 const USER_KEY = 'boardgame_user'
 
 /**
- * 認証状態（トークン・ユーザー名・ID）を保持するストア。
+ * 認証状態（アクセストークン・リフレッシュトークン・ユーザー名・ID）を保持するストア。
  * localStorage と同期する。
  */
 export const useAuthStore = defineStore('auth', () => {
   const token = ref<string | null>(localStorage.getItem(TOKEN_KEY))
+  const refreshToken = ref<string | null>(localStorage.getItem(REFRESH_TOKEN_KEY))
   const username = ref<string | null>(localStorage.getItem(USER_KEY))
   const storedUserId = localStorage.getItem('boardgame_userId')
   const userId = ref<number | null>(storedUserId ? parseInt(storedUserId, 10) : null)
 
   const isAuthenticated = computed(() => !!token.value)
 
-  /** ログイン成功時にトークン・ユーザー名・IDを保存する */
-  function setAuth(t: string, u: string, id: number) {
+  /** ログイン成功時・トークン再発行時にトークン・ユーザー名・IDを保存する */
+  function setAuth(t: string, u: string, id: number, r: string | null = null) {
     token.value = t
+    refreshToken.value = r
     username.value = u
     userId.value = id
     localStorage.setItem(TOKEN_KEY, t)
+    if (r) {
+      localStorage.setItem(REFRESH_TOKEN_KEY, r)
+    } else {
+      localStorage.removeItem(REFRESH_TOKEN_KEY)
+    }
     localStorage.setItem(USER_KEY, u)
     localStorage.setItem('boardgame_userId', String(id))
   }
@@ -30,19 +38,64 @@ export const useAuthStore = defineStore('auth', () => {
   /** ログアウト時に認証情報をクリアする */
   function clearAuth() {
     token.value = null
+    refreshToken.value = null
     username.value = null
     userId.value = null
     localStorage.removeItem(TOKEN_KEY)
+    localStorage.removeItem(REFRESH_TOKEN_KEY)
     localStorage.removeItem(USER_KEY)
     localStorage.removeItem('boardgame_userId')
   }
 
+  /**
+   * リフレッシュトークンでアクセストークンを取り直す。同時に呼ばれても交換は1回にまとめる。
+   * 別のタブが先に交換していれば、そのタブが保存したトークンを使う。
+   * @returns 取り直せたら true
+   */
+  let refreshing: Promise<boolean> | null = null
+  function refresh(): Promise<boolean> {
+    if (!refreshing) {
+      refreshing = (async () => {
+        const stored = localStorage.getItem(REFRESH_TOKEN_KEY)
+        if (stored && stored !== refreshToken.value) {
+          token.value = localStorage.getItem(TOKEN_KEY)
+          refreshToken.value = stored
+          return true
+        }
+        if (!refreshToken.value) return false
+        try {
+          const { data } = await authApi.refresh(refreshToken.value)
+          setAuth(data.token, data.username, data.userId, data.refreshToken)
+          return true
+        } catch {
+          return false
+        }
+      })().finally(() => {
+        refreshing = null
+      })
+    }
+    return refreshing
+  }
+
+  /** サーバー側でもトークンを失効させてから認証情報をクリアする */
+  async function logout() {
+    try {
+      await authApi.logout(token.value, refreshToken.value)
+    } catch {
+      // 失効に失敗しても手元の認証情報は消す
+    }
+    clearAuth()
+  }
+
   return {
     token,
+    refreshToken,
     username,
     userId,
     isAuthenticated,
     setAuth,
     clearAuth,
+    refresh,
+    logout,
   }
 })
@@ -0,0 +1,99 @@
+package com.boardgameapp;
+
+import com.boardgameapp.dto.PlayRecordResponse;
+import com.boardgameapp.dto.UserBoardGameResponse;
+import com.boardgameapp.entity.PlayRecord;
+import com.boardgameapp.entity.UserBoardGame;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * ベンチマーク用のデータを作る。乱数の種を固定し、実行ごとに同じ内容になるようにする。
+ */
+public final class BenchmarkFixtures {
+
+    /** HS256 に十分な長さのテスト用シークレット */
+    public static final String JWT_SECRET = "benchmark-secret-key-for-jwt-signing-0123456789";
+
+    private static final String[] NAMES = {"カタン", "カルカソンヌ", "ドミニオン", "アグリコラ", "宝石の煌き", "パンデミック"};
+
+    private BenchmarkFixtures() {
+    }
+
+    /** 所持ゲームのエンティティを1件作る。 */
+    public static UserBoardGame game(long id) {
+        SplittableRandom random = new SplittableRandom(id);
+        UserBoardGame e = new UserBoardGame();
+        e.setId(id);
+        e.setUserId(1L);
+        e.setBggId(String.valueOf(10_000 + id));
+        e.setName(NAMES[(int) (id % NAMES.length)] + " " + id);
+        e.setThumbnailUrl("/api/uploads/" + new UUID(id, id) + ".png");
+        e.setThumbnailPlaceholder("data:image/png;base64,iVBORw0KGgoAAAANSUhEUgAAABAAAAAMCAIAAAD");
+        e.setYearPublished(1995 + random.nextInt(30));
+        e.setMinPlayers(1 + random.nextInt(2));
+        e.setMaxPlayers(4 + random.nextInt(3));
+        e.setMinPlayTimeMinutes(30);
+        e.setMaxPlayTimeMinutes(30 + 15 * random.nextInt(6));
+        e.setAddedAt(Instant.parse("2024-01-01T00:00:00Z").plusSeconds(id * 3600));
+        return e;
+    }
+
+    /** プレイ記録のエンティティを1件作る。 */
+    public static PlayRecord play(long id) {
+        SplittableRandom random = new SplittableRandom(id);
+        PlayRecord r = new PlayRecord();
+        r.setId(id);
+        r.setUserId(1L);
+        r.setUserBoardGameId(1 + id % 50);
+        r.setPlayedAt(LocalDate.of(2024, 1, 1).plusDays(id % 365));
+        r.setMemo(random.nextInt(3) == 0 ? null : "接戦だった。次は別の戦略を試す #" + id);
+        r.setPlayerCount(2 + random.nextInt(4));
+        r.setCreatedAt(Instant.parse("2024-01-01T00:00:00Z").plusSeconds(id * 600));
+        return r;
+    }
+
+    /** 所持ゲームのレスポンスを size 件作る。 */
+    public static List<UserBoardGameResponse> gameResponses(int size) {
+        List<UserBoardGameResponse> list = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            UserBoardGame e = game(id);
+            UserBoardGameResponse r = new UserBoardGameResponse();
+            r.setId(e.getId());
+            r.setBggId(e.getBggId());
+            r.setName(e.getName());
+            r.setThumbnailUrl(e.getThumbnailUrl());
+            r.setThumbnailPlaceholder(e.getThumbnailPlaceholder());
+            r.setYearPublished(e.getYearPublished());
+            r.setMinPlayers(e.getMinPlayers());
+            r.setMaxPlayers(e.getMaxPlayers());
+            r.setMinPlayTimeMinutes(e.getMinPlayTimeMinutes());
+            r.setMaxPlayTimeMinutes(e.getMaxPlayTimeMinutes());
+            r.setAddedAt(e.getAddedAt());
+            list.add(r);
+        }
+        return list;
+    }
+
+    /** プレイ記録のレスポンスを size 件作る。 */
+    public static List<PlayRecordResponse> playResponses(int size) {
+        List<PlayRecordResponse> list = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            PlayRecord e = play(id);
+            PlayRecordResponse r = new PlayRecordResponse();
+            r.setId(e.getId());
+            r.setUserBoardGameId(e.getUserBoardGameId());
+            r.setPlayedAt(e.getPlayedAt());
+            r.setMemo(e.getMemo());
+            r.setPlayerCount(e.getPlayerCount());
+            r.setCreatedAt(e.getCreatedAt());
+            list.add(r);
+        }
+        return list;
+    }
+}
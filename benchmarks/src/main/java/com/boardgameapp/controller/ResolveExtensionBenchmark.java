@@ -0,0 +1,46 @@
+package com.boardgameapp.controller;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * アップロード時の拡張子判定 {@link ImageUploadController#resolveExtension} のベンチマーク。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResolveExtensionBenchmark {
+
+    /** Content-Type と元ファイル名の組（| 区切り、空はなし） */
+    @Param({"image/png|", "image/jpeg|photo.jpg", "application/octet-stream|IMG_0001.JPEG", "text/plain|notes.txt"})
+    public String input;
+
+    private String contentType;
+    private String filename;
+
+    @Setup
+    public void setUp() {
+        String[] parts = input.split("\\|", -1);
+        contentType = parts[0].isEmpty() ? null : parts[0];
+        filename = parts[1].isEmpty() ? null : parts[1];
+    }
+
+    @Benchmark
+    public String resolveExtension() {
+        return ImageUploadController.resolveExtension(contentType, filename);
+    }
+}
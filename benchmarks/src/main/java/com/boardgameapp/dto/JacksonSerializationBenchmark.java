@@ -0,0 +1,56 @@
+package com.boardgameapp.dto;
+
+import com.boardgameapp.BenchmarkFixtures;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一覧APIのレスポンス（所持ゲーム・プレイ記録のリスト）を JSON に変換するベンチマーク。
+ * ObjectMapper は Spring Boot と同じく Jackson2ObjectMapperBuilder で作る（日時は ISO 文字列）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonSerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<UserBoardGameResponse> games;
+    private List<PlayRecordResponse> plays;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        games = BenchmarkFixtures.gameResponses(size);
+        plays = BenchmarkFixtures.playResponses(size);
+    }
+
+    @Benchmark
+    public byte[] userBoardGames() throws Exception {
+        return objectMapper.writeValueAsBytes(games);
+    }
+
+    @Benchmark
+    public byte[] playRecords() throws Exception {
+        return objectMapper.writeValueAsBytes(plays);
+    }
+}
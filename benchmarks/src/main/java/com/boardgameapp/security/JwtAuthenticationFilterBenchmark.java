@@ -0,0 +1,77 @@
+package com.boardgameapp.security;
+
+import com.boardgameapp.BenchmarkFixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtAuthenticationFilter} を1リクエスト分通すベンチマーク。
+ * ユーザー検索はDBを使わない固定の UserDetailsService に置き換え、フィルタ自体の費用だけを測る。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    /** valid: 有効なトークン / invalid: 署名が壊れたトークン / none: Authorization ヘッダなし */
+    @Param({"valid", "invalid", "none"})
+    public String token;
+
+    private static final FilterChain NO_OP_CHAIN = (req, res) -> { };
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil(BenchmarkFixtures.JWT_SECRET, 3_600_000);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserDetails user = new User("benchuser", "hash", Collections.emptyList());
+        UserDetailsService userDetailsService = username -> user;
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, new RevokedTokens(meterRegistry, 60_000),
+                meterRegistry);
+        request = new MockHttpServletRequest("GET", "/api/me/boardgames");
+        response = new MockHttpServletResponse();
+        String jwt = jwtUtil.generateToken("benchuser", 42L);
+        switch (token) {
+            case "valid" -> request.addHeader("Authorization", "Bearer " + jwt);
+            case "invalid" -> request.addHeader("Authorization", "Bearer " + jwt.substring(0, jwt.length() - 2) + "xx");
+            default -> { }
+        }
+    }
+
+    @Benchmark
+    public Authentication doFilter() throws Exception {
+        try {
+            filter.doFilter(request, response, NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
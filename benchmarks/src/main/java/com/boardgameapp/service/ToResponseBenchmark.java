@@ -0,0 +1,71 @@
+package com.boardgameapp.service;
+
+import com.boardgameapp.BenchmarkFixtures;
+import com.boardgameapp.dto.PlayRecordResponse;
+import com.boardgameapp.dto.UserBoardGameResponse;
+import com.boardgameapp.dto.WishlistItemResponse;
+import com.boardgameapp.entity.PlayRecord;
+import com.boardgameapp.entity.UserBoardGame;
+import com.boardgameapp.entity.WishlistItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各サービスのエンティティ → レスポンスDTO 変換（toResponse）のベンチマーク。
+ * toResponse はリポジトリを使わないため、依存は null のままサービスを作る。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToResponseBenchmark {
+
+    private UserBoardGameService userBoardGameService;
+    private PlayRecordService playRecordService;
+    private WishlistService wishlistService;
+    private UserBoardGame game;
+    private PlayRecord play;
+    private WishlistItem wish;
+
+    @Setup
+    public void setUp() {
+        userBoardGameService = new UserBoardGameService(null, null, null, null, null, null);
+        playRecordService = new PlayRecordService(null, null, null, null, null);
+        wishlistService = new WishlistService(null, null, null, null, null);
+        game = BenchmarkFixtures.game(1);
+        play = BenchmarkFixtures.play(1);
+        wish = new WishlistItem();
+        wish.setId(1L);
+        wish.setUserId(1L);
+        wish.setName(game.getName());
+        wish.setThumbnailUrl(game.getThumbnailUrl());
+        wish.setThumbnailPlaceholder(game.getThumbnailPlaceholder());
+    }
+
+    @Benchmark
+    public UserBoardGameResponse userBoardGame() {
+        return userBoardGameService.toResponse(game);
+    }
+
+    @Benchmark
+    public PlayRecordResponse playRecord() {
+        return playRecordService.toResponse(play);
+    }
+
+    @Benchmark
+    public WishlistItemResponse wishlistItem() {
+        return wishlistService.toResponse(wish);
+    }
+}
@@ -2,6 +2,7 @@ package com.boardgameapp;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 /**
  * ボードゲーム管理アプリケーションのエントリポイント。
@@ -9,12 +10,18 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 @SpringBootApplication
 public class BoardGameApplication {
 
+    /** 記録する起動ステップの上限（Bean 1つにつき数ステップ。超えた分は捨てられる） */
+    private static final int STARTUP_STEP_CAPACITY = 10_000;
+
     /**
-     * アプリケーションを起動する。
+     * アプリケーションを起動する。起動ステップを記録し、準備完了時に
+     * {@link com.boardgameapp.monitoring.StartupReporter} が遅いステップをログに出す。
      *
      * @param args コマンドライン引数
      */
     public static void main(String[] args) {
-        SpringApplication.run(BoardGameApplication.class, args);
+        SpringApplication application = new SpringApplication(BoardGameApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+        application.run(args);
     }
 }
@@ -0,0 +1,20 @@
+package com.boardgameapp.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * メトリクスの設定。サービスクラスの {@code @Timed} をタイマーとして記録できるようにする。
+ * HTTP エンドポイント・リポジトリ・コネクションプールのメトリクスは Actuator の自動設定で記録される。
+ */
+@Configuration
+public class MetricsConfig {
+
+    /** {@code @Timed} を付けたクラス・メソッドの実行時間を記録するアスペクトを返す。 */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,43 @@
+package com.boardgameapp.config;
+
+import com.boardgameapp.monitoring.ProfilingCallableInterceptor;
+import com.boardgameapp.monitoring.QueryProfiler;
+import com.boardgameapp.monitoring.SlowRequestSampler;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 本番でも常時有効にしておけるプロファイリングの設定。Hibernate が発行する SQL を JFR イベントと遅いリクエストの記録に流す。
+ * 非同期処理（WebAsyncTask）のスレッドにもリクエストの記録を引き継ぐ。
+ * 記録を見るには {@code -XX:StartFlightRecording} 付きで起動するか、実行中に {@code jcmd <pid> JFR.start} する。
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.profiling.enabled", havingValue = "true", matchIfMissing = true)
+public class ProfilingConfig implements WebMvcConfigurer {
+
+    private final SlowRequestSampler slowRequestSampler;
+
+    public ProfilingConfig(SlowRequestSampler slowRequestSampler) {
+        this.slowRequestSampler = slowRequestSampler;
+    }
+
+    /** SQL の形を覚える StatementInspector と、実行時間を測るセッションイベントリスナを登録する。 */
+    @Bean
+    public HibernatePropertiesCustomizer queryProfilerCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryProfiler.Inspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, QueryProfiler.Listener.class.getName());
+        };
+    }
+
+    /** WebAsyncTask を実行するスレッドに、遅いリクエストの記録を紐づける。 */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new ProfilingCallableInterceptor(slowRequestSampler));
+    }
+}
@@ -0,0 +1,12 @@
+package com.boardgameapp.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定期処理（期限切れアップロードの掃除など）を有効にする設定。
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,15 +1,30 @@
 package com.boardgameapp.config;
 
+import com.boardgameapp.monitoring.ProfiledPasswordEncoder;
+import com.boardgameapp.security.BoundedPasswordEncoder;
 import com.boardgameapp.security.JwtAuthenticationFilter;
+import com.boardgameapp.security.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -24,13 +39,56 @@ import java.util.List;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /** メトリクスのスクレイプに必要なロール（アプリのユーザーには付かない） */
+    private static final String SCRAPE_ROLE = "METRICS_SCRAPER";
+
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter, RateLimitFilter rateLimitFilter) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.rateLimitFilter = rateLimitFilter;
+    }
+
+    /**
+     * /actuator/** のフィルタチェーン。ヘルスチェック（プローブ）だけは誰でも呼べる。
+     * それ以外（メトリクス・Prometheus）は app.metrics.scrape-username / scrape-password の Basic 認証を通した
+     * スクレイパーだけが読め、アプリのユーザーのトークンでは読めない。パスワードが未設定なら誰にも返さない。
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(
+            HttpSecurity http,
+            @Value("${app.metrics.scrape-username:prometheus}") String scrapeUsername,
+            @Value("${app.metrics.scrape-password:}") String scrapePassword) throws Exception {
+        boolean scrapeEnabled = !scrapePassword.isEmpty();
+        http
+                .securityMatcher("/actuator/**")
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session ->
+                        session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> {
+                    auth.requestMatchers("/actuator/health/**").permitAll();
+                    if (scrapeEnabled) {
+                        auth.anyRequest().hasRole(SCRAPE_ROLE);
+                    } else {
+                        auth.anyRequest().denyAll();
+                    }
+                })
+                .httpBasic(Customizer.withDefaults());
+        if (scrapeEnabled) {
+            DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+            provider.setUserDetailsService(new InMemoryUserDetailsManager(User.withUsername(scrapeUsername)
+                    .password("{noop}" + scrapePassword)
+                    .roles(SCRAPE_ROLE)
+                    .build()));
+            provider.setPasswordEncoder(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+            http.authenticationManager(new ProviderManager(provider));
+        }
+        return http.build();
     }
 
-    /** 認証・認可とCORSのフィルタチェーンを定義する。 */
+    /** 認証・認可とCORSのフィルタチェーンを定義する（レート制限はユーザー名が分かる JWT 認証の後）。 */
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -39,11 +97,17 @@ public class SecurityConfig {
                 .sessionManagement(session ->
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/auth/register", "/api/auth/login").permitAll()
+                        // WebAsyncTask の結果を返す再ディスパッチ。認可は最初のディスパッチで済んでいる
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers("/api/auth/register", "/api/auth/login", "/api/auth/refresh", "/api/auth/logout")
+                        .permitAll()
                         .requestMatchers("/api/uploads/**").permitAll()
                         .requestMatchers("/api/**").authenticated()
                         .anyRequest().permitAll())
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                // 未認証・期限切れ・失効済みのトークンは 401（クライアントはリフレッシュトークンで取り直す）
+                .exceptionHandling(e -> e.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
         return http.build();
     }
 
@@ -60,9 +124,18 @@ public class SecurityConfig {
         return source;
     }
 
-    /** パスワードハッシュ用のBCryptエンコーダを返す。 */
+    /**
+     * パスワードハッシュ用のBCryptエンコーダを返す。ハッシュ化・照合は専用のスレッドプールで行い
+     * （threads が 0 ならコア数の半分）、その時間を JFR イベントに記録する。
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.hash.threads:0}") int threads,
+            @Value("${app.auth.hash.queue-capacity:32}") int queueCapacity,
+            @Value("${app.auth.hash.timeout-ms:3000}") long timeoutMs) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new ProfiledPasswordEncoder(new BCryptPasswordEncoder()),
+                poolSize, queueCapacity, timeoutMs, meterRegistry);
     }
 }
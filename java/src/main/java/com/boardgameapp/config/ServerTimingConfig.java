@@ -0,0 +1,39 @@
+package com.boardgameapp.config;
+
+import com.boardgameapp.monitoring.RepositoryTimingPostProcessor;
+import com.boardgameapp.monitoring.ServerTimingCallableInterceptor;
+import com.boardgameapp.monitoring.ServerTimingJsonConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Server-Timing ヘッダ用の計測の設定（リポジトリ呼び出しと JSON 変換の計測、非同期処理のスレッドへの引き継ぎ）。
+ * app.server-timing.enabled が false なら登録しない。
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.server-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingConfig implements WebMvcConfigurer {
+
+    /** リポジトリ呼び出しの時間を記録する。リポジトリより先に登録する必要があるため static にする。 */
+    @Bean
+    public static RepositoryTimingPostProcessor repositoryTimingPostProcessor() {
+        return new RepositoryTimingPostProcessor();
+    }
+
+    /** Spring Boot 既定の Jackson コンバータを、JSON 変換の時間を記録するものに置き換える。 */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new ServerTimingJsonConverter(objectMapper);
+    }
+
+    /** WebAsyncTask を実行するスレッドに、リクエストの集計を紐づける。 */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new ServerTimingCallableInterceptor());
+    }
+}
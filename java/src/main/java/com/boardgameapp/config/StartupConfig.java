@@ -0,0 +1,34 @@
+package com.boardgameapp.config;
+
+import com.boardgameapp.controller.AuthController;
+import com.boardgameapp.controller.MeBoardGameController;
+import com.boardgameapp.controller.MePlayRecordController;
+import com.boardgameapp.controller.MeWishlistController;
+import com.boardgameapp.monitoring.SlowRequestSampler;
+import com.boardgameapp.security.JwtUtil;
+import com.boardgameapp.security.RateLimitFilter;
+import com.boardgameapp.security.RevokedTokens;
+import com.boardgameapp.service.RefreshTokenService;
+import com.boardgameapp.service.UploadGarbageCollector;
+import com.boardgameapp.service.UploadSessionService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 起動時間に関する設定。fast-start プロファイルでは Bean を遅延初期化するが、
+ * 定期処理を持つ Bean（遅延させると {@code @Scheduled} が登録されない）と、
+ * 最初のリクエストで必ず通る認証・一覧の経路は起動時に作っておく。
+ */
+@Configuration
+public class StartupConfig {
+
+    /** 遅延初期化の対象から外す Bean（依存先のサービス・リポジトリもあわせて起動時に作られる）。 */
+    @Bean
+    static LazyInitializationExcludeFilter eagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                SlowRequestSampler.class, UploadGarbageCollector.class, UploadSessionService.class,
+                RateLimitFilter.class, RevokedTokens.class, RefreshTokenService.class, JwtUtil.class, AuthController.class, MeBoardGameController.class,
+                MePlayRecordController.class, MeWishlistController.class);
+    }
+}
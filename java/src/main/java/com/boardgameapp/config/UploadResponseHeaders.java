@@ -0,0 +1,27 @@
+package com.boardgameapp.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Locale;
+
+/**
+ * /api/uploads/** の応答に、画像をページとして開かれてもスクリプトを実行させないヘッダを付ける。
+ * SVG は受け付けなくなったが、それ以前に保存された SVG は中身を検証していないため、さらに添付ファイルとして返す
+ * （img 要素からの表示には影響しない）。
+ */
+class UploadResponseHeaders implements HandlerInterceptor {
+
+    static final String CONTENT_SECURITY_POLICY = "default-src 'none'; style-src 'unsafe-inline'; sandbox";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        response.setHeader("Content-Security-Policy", CONTENT_SECURITY_POLICY);
+        if (request.getRequestURI().toLowerCase(Locale.ROOT).endsWith(".svg")) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment");
+        }
+        return true;
+    }
+}
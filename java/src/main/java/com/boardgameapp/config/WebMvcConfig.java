@@ -2,13 +2,14 @@ package com.boardgameapp.config;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.nio.file.Path;
 
 /**
- * WebMvc の設定（アップロード画像の静的な配信パス）。
+ * WebMvc の設定（アップロード画像の静的な配信パスと、その応答ヘッダ）。
  */
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
@@ -25,4 +26,10 @@ public class WebMvcConfig implements WebMvcConfigurer {
                 .addResourceLocations(location)
                 .resourceChain(true);
     }
+
+    /** アップロード画像の応答に CSP（SVG は添付ファイル扱いも）を付ける。 */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new UploadResponseHeaders()).addPathPatterns("/api/uploads/**");
+    }
 }
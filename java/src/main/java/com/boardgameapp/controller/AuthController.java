@@ -2,23 +2,30 @@ package com.boardgameapp.controller;
 
 import com.boardgameapp.dto.AuthResponse;
 import com.boardgameapp.dto.LoginRequest;
+import com.boardgameapp.dto.RefreshRequest;
 import com.boardgameapp.dto.RegisterRequest;
+import com.boardgameapp.resilience.Bulkheads;
 import com.boardgameapp.service.AuthService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 /**
- * 認証API（登録・ログイン）を提供するコントローラ。
+ * 認証API（登録・ログイン・トークンの再発行・ログアウト）を提供するコントローラ。
+ * 登録・ログインはパスワードのハッシュ計算を含むため、認証用のプール（{@link Bulkheads}）で実行する。
  */
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
     private final AuthService authService;
+    private final Bulkheads bulkheads;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, Bulkheads bulkheads) {
         this.authService = authService;
+        this.bulkheads = bulkheads;
     }
 
     /**
@@ -28,9 +35,8 @@ public class AuthController {
      * @return トークンとユーザー情報
      */
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
-        AuthResponse response = authService.register(request);
-        return ResponseEntity.ok(response);
+    public WebAsyncTask<ResponseEntity<AuthResponse>> register(@Valid @RequestBody RegisterRequest request) {
+        return bulkheads.auth(() -> ResponseEntity.ok(authService.register(request)));
     }
 
     /**
@@ -40,8 +46,35 @@ public class AuthController {
      * @return トークンとユーザー情報
      */
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        AuthResponse response = authService.login(request);
-        return ResponseEntity.ok(response);
+    public WebAsyncTask<ResponseEntity<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
+        return bulkheads.auth(() -> ResponseEntity.ok(authService.login(request)));
+    }
+
+    /**
+     * リフレッシュトークンを新しいものと交換し、アクセストークンを発行し直す。
+     *
+     * @param request リフレッシュトークン
+     * @return 新しいトークンの組とユーザー情報
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshRequest request) {
+        return ResponseEntity.ok(authService.refresh(request));
+    }
+
+    /**
+     * ログアウトし、アクセストークン（Authorization ヘッダ）とリフレッシュトークンを失効させる。
+     *
+     * @param authorization Authorization ヘッダ（省略可）
+     * @param request リフレッシュトークン（省略可）
+     * @return 204 No Content
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody(required = false) RefreshRequest request) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7) : null;
+        authService.logout(accessToken, request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
     }
 }
@@ -1,5 +1,9 @@
 package com.boardgameapp.controller;
 
+import com.boardgameapp.service.InvalidRefreshTokenException;
+import com.boardgameapp.service.ServiceBusyException;
+import com.boardgameapp.service.UploadOffsetMismatchException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -59,4 +63,46 @@ public class GlobalExceptionHandler {
         body.put("error", "Invalid username or password");
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(body);
     }
+
+    /**
+     * 使えないリフレッシュトークンを 401 で返す。
+     *
+     * @param ex リフレッシュトークンの例外
+     * @return error メッセージ
+     */
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidRefreshToken(InvalidRefreshTokenException ex) {
+        Map<String, String> body = new HashMap<>();
+        body.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(body);
+    }
+
+    /**
+     * 分割アップロードのオフセット不一致を 409 で返す。offset に再開位置を含める。
+     *
+     * @param ex オフセット不一致の例外
+     * @return error メッセージと offset
+     */
+    @ExceptionHandler(UploadOffsetMismatchException.class)
+    public ResponseEntity<Map<String, String>> handleOffsetMismatch(UploadOffsetMismatchException ex) {
+        Map<String, String> body = new HashMap<>();
+        body.put("error", ex.getMessage());
+        body.put("offset", String.valueOf(ex.getExpectedOffset()));
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    /**
+     * 処理枠の飽和（同時アップロード数の上限など）を 503 と Retry-After で返す。
+     *
+     * @param ex 飽和を表す例外
+     * @return error メッセージ
+     */
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<Map<String, String>> handleServiceBusy(ServiceBusyException ex) {
+        Map<String, String> body = new HashMap<>();
+        body.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(body);
+    }
 }
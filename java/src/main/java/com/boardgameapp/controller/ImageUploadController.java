@@ -1,60 +1,108 @@
 package com.boardgameapp.controller;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.boardgameapp.resilience.Bulkheads;
+import com.boardgameapp.service.ImageStorageService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.util.Set;
-import java.util.UUID;
 
 /**
  * 認証ユーザー向けの画像アップロードAPIを提供するコントローラ。
+ * ボディの受信と保存はアップロード用のプール（{@link Bulkheads}）で行い、API のリクエストスレッドを塞がない。
  */
 @RestController
 @RequestMapping("/api/me")
 public class ImageUploadController {
 
-    @Value("${app.upload.dir:uploads}")
-    private String uploadDir;
+    private final ImageStorageService imageStorageService;
+    private final Bulkheads bulkheads;
+
+    public ImageUploadController(ImageStorageService imageStorageService, Bulkheads bulkheads) {
+        this.imageStorageService = imageStorageService;
+        this.bulkheads = bulkheads;
+    }
 
     /**
-     * 画像ファイルをアップロードし、公開URLを返す。
+     * 画像ファイルを multipart/form-data でアップロードし、公開URLを返す。
+     * multipart の解析は遅延させ（spring.servlet.multipart.resolve-lazily）、ボディの受信もアップロード用のプールで行う。
      *
      * @param auth 認証情報
-     * @param file アップロードする画像ファイル
+     * @param request file パートを含む multipart リクエスト
      * @return アクセス用URL（/api/uploads/xxx）
      */
     @PostMapping(value = "/upload-image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<UploadImageResponse> uploadImage(
+    public WebAsyncTask<ResponseEntity<UploadImageResponse>> uploadImage(
+            Authentication auth,
+            MultipartHttpServletRequest request) {
+        return bulkheads.upload(() -> {
+            MultipartFile file = request.getFile("file");
+            if (file == null || file.isEmpty()) {
+                return ResponseEntity.badRequest().build();
+            }
+            if (resolveExtension(file.getContentType(), file.getOriginalFilename()) == null) {
+                return ResponseEntity.badRequest().build();
+            }
+            try (InputStream in = file.getInputStream()) {
+                ImageStorageService.StoredImage stored = imageStorageService.store(in);
+                return ResponseEntity.ok(new UploadImageResponse(stored.url(), stored.placeholder()));
+            }
+        });
+    }
+
+    /**
+     * 画像ファイルをリクエストボディそのもの（image/* または application/octet-stream）で受け取り、
+     * 一時ファイルを介さず保存先へ直接ストリーミングする。
+     *
+     * @param auth 認証情報
+     * @param request ボディを読むためのリクエスト
+     * @param filename 元のファイル名（URLエンコード済み、任意）
+     * @return アクセス用URL（/api/uploads/xxx）
+     */
+    @PostMapping(value = "/upload-image", consumes = {"image/*", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public WebAsyncTask<ResponseEntity<UploadImageResponse>> uploadImageStream(
             Authentication auth,
-            @RequestParam("file") MultipartFile file) throws IOException {
-        if (file.isEmpty()) {
+            HttpServletRequest request,
+            @RequestHeader(value = "X-Filename", required = false) String filename) {
+        return bulkheads.upload(() -> storeBody(request, filename));
+    }
+
+    private ResponseEntity<UploadImageResponse> storeBody(HttpServletRequest request, String filename)
+            throws IOException {
+        long contentLength = request.getContentLengthLong();
+        if (contentLength == 0) {
             return ResponseEntity.badRequest().build();
         }
-        String contentType = file.getContentType();
-        String ext = resolveExtension(contentType, file.getOriginalFilename());
-        if (ext == null) {
+        if (contentLength > imageStorageService.getMaxBytes()) {
+            throw new MaxUploadSizeExceededException(imageStorageService.getMaxBytes());
+        }
+        String originalFilename = filename != null ? URLDecoder.decode(filename, StandardCharsets.UTF_8) : null;
+        if (originalFilename != null && resolveExtension(request.getContentType(), originalFilename) == null) {
             return ResponseEntity.badRequest().build();
         }
-        String filename = UUID.randomUUID() + "." + ext;
-        Path dir = Path.of(uploadDir).toAbsolutePath();
-        Files.createDirectories(dir);
-        Path target = dir.resolve(filename);
-        file.transferTo(target.toFile());
-        String url = "/api/uploads/" + filename;
-        return ResponseEntity.ok(new UploadImageResponse(url));
+        ImageStorageService.StoredImage stored = imageStorageService.store(request.getInputStream());
+        return ResponseEntity.ok(new UploadImageResponse(stored.url(), stored.placeholder()));
     }
 
-    private static final Set<String> IMAGE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "webp", "bmp", "svg");
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "webp", "bmp");
 
-    /** Content-Type またはファイル名から拡張子を決定。画像でなければ null */
-    private static String resolveExtension(String contentType, String originalFilename) {
+    /**
+     * Content-Type またはファイル名から拡張子を決定。画像でなければ null。
+     * クライアントの申告なので明らかに画像でない要求を早めに弾くためだけに使い、
+     * 保存形式は {@link ImageStorageService} が中身のマジックナンバーで決める。
+     */
+    static String resolveExtension(String contentType, String originalFilename) {
         if (contentType != null && contentType.startsWith("image/")) {
             return extensionFromContentType(contentType);
         }
@@ -71,7 +119,7 @@ public class ImageUploadController {
      * Content-Type から保存用拡張子を返す。
      *
      * @param contentType 例: image/png
-     * @return 拡張子（jpg, png など）
+     * @return 拡張子（jpg, png など）。受け付けない SVG なら null
      */
     private static String extensionFromContentType(String contentType) {
         if (contentType == null) return "jpg";
@@ -81,15 +129,16 @@ public class ImageUploadController {
             case "image/gif" -> "gif";
             case "image/webp" -> "webp";
             case "image/bmp" -> "bmp";
-            case "image/svg+xml" -> "svg";
+            case "image/svg+xml" -> null;
             default -> "jpg";
         };
     }
 
     /**
-     * アップロード結果。画像へのアクセスURLを保持する。
+     * アップロード結果。画像へのアクセスURLと低画質プレースホルダを保持する。
      *
      * @param url 例: /api/uploads/xxx.jpg
+     * @param placeholder data URI（作れない形式では null）
      */
-    public record UploadImageResponse(String url) {}
+    public record UploadImageResponse(String url, String placeholder) {}
 }
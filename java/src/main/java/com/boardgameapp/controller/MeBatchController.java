@@ -0,0 +1,42 @@
+package com.boardgameapp.controller;
+
+import com.boardgameapp.dto.BatchRequest;
+import com.boardgameapp.dto.BatchResponse;
+import com.boardgameapp.service.BatchService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 認証ユーザーのボードゲーム・プレイ記録・ほしいものをまとめて追加・更新・削除する一括操作APIのコントローラ。
+ */
+@RestController
+@RequestMapping("/api/me/batch")
+public class MeBatchController {
+
+    private final BatchService batchService;
+
+    public MeBatchController(BatchService batchService) {
+        this.batchService = batchService;
+    }
+
+    /**
+     * 操作を順に1つのトランザクションで実行する。
+     *
+     * @param auth 認証情報
+     * @param request 操作の一覧
+     * @return 操作ごとの結果。すべて反映できれば 200、1件でも失敗すれば何も反映せず 400
+     */
+    @PostMapping
+    public ResponseEntity<BatchResponse> execute(Authentication auth, @Valid @RequestBody BatchRequest request) {
+        String username = auth.getName();
+        BatchResponse response = batchService.execute(username, request.getOperations());
+        return response.isCommitted()
+                ? ResponseEntity.ok(response)
+                : ResponseEntity.badRequest().body(response);
+    }
+}
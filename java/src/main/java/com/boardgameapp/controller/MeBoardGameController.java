@@ -3,6 +3,7 @@ package com.boardgameapp.controller;
 import com.boardgameapp.dto.AddBoardGameRequest;
 import com.boardgameapp.dto.UpdateBoardGameRequest;
 import com.boardgameapp.dto.UserBoardGameResponse;
+import com.boardgameapp.service.RemoteImageProxyService;
 import com.boardgameapp.service.UserBoardGameService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -19,9 +20,12 @@ import java.util.List;
 public class MeBoardGameController {
 
     private final UserBoardGameService userBoardGameService;
+    private final RemoteImageProxyService remoteImageProxyService;
 
-    public MeBoardGameController(UserBoardGameService userBoardGameService) {
+    public MeBoardGameController(UserBoardGameService userBoardGameService,
+                                 RemoteImageProxyService remoteImageProxyService) {
         this.userBoardGameService = userBoardGameService;
+        this.remoteImageProxyService = remoteImageProxyService;
     }
 
     /**
@@ -38,7 +42,7 @@ public class MeBoardGameController {
     }
 
     /**
-     * 認証ユーザーにボードゲームを1件追加する。
+     * 認証ユーザーにボードゲームを1件追加する。外部サイトのサムネイルURLはローカルに取り込んでから保存する。
      *
      * @param auth 認証情報
      * @param request ゲーム名・サムネURL・年など
@@ -49,12 +53,14 @@ public class MeBoardGameController {
             Authentication auth,
             @Valid @RequestBody AddBoardGameRequest request) {
         String username = auth.getName();
+        // 外部画像の取得は DB トランザクションの外で行う
+        request.setThumbnailUrl(remoteImageProxyService.localize(request.getThumbnailUrl()));
         UserBoardGameResponse created = userBoardGameService.add(username, request);
         return ResponseEntity.ok(created);
     }
 
     /**
-     * 指定IDのボードゲームを更新する。
+     * 指定IDのボードゲームを更新する。外部サイトのサムネイルURLはローカルに取り込んでから保存する。
      *
      * @param auth 認証情報
      * @param id ゲームID
@@ -67,6 +73,7 @@ public class MeBoardGameController {
             @PathVariable Long id,
             @Valid @RequestBody UpdateBoardGameRequest request) {
         String username = auth.getName();
+        request.setThumbnailUrl(remoteImageProxyService.localize(request.getThumbnailUrl()));
         UserBoardGameResponse updated = userBoardGameService.update(username, id, request);
         return ResponseEntity.ok(updated);
     }
@@ -0,0 +1,52 @@
+package com.boardgameapp.controller;
+
+import com.boardgameapp.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * 認証ユーザーの全データをダウンロードするエクスポートAPIのコントローラ。
+ */
+@RestController
+@RequestMapping("/api/me/export")
+public class MeExportController {
+
+    private final ExportService exportService;
+
+    public MeExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * 所持ゲーム・プレイ記録・ほしいものを指定形式で書き出す。DB から読んだ行を順にレスポンスへ流す。
+     *
+     * @param auth 認証情報
+     * @param format ndjson（既定）・csv・zip（CSV とアップロード画像）
+     * @param resource csv のときのデータの種類（boardgames・plays・wishlist）
+     * @param response 書き出し先
+     */
+    @GetMapping
+    public void export(Authentication auth,
+                       @RequestParam(defaultValue = "ndjson") String format,
+                       @RequestParam(required = false) String resource,
+                       HttpServletResponse response) throws IOException {
+        ExportService.Format exportFormat = ExportService.Format.of(format);
+        ExportService.Section section = exportFormat == ExportService.Format.CSV
+                ? ExportService.Section.of(resource)
+                : null;
+        String filename = "boardgame-export" + (section != null ? "-" + section.getFileName() : "")
+                + "." + exportFormat.getExtension();
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+        exportService.export(auth.getName(), exportFormat, section, response.getOutputStream());
+    }
+}
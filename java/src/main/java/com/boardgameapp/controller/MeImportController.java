@@ -0,0 +1,79 @@
+package com.boardgameapp.controller;
+
+import com.boardgameapp.dto.ImportJobResponse;
+import com.boardgameapp.resilience.Bulkheads;
+import com.boardgameapp.service.ImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.net.URI;
+
+/**
+ * 所持ゲーム・プレイ記録の CSV を取り込むAPI（取り込み開始・進捗取得）のコントローラ。
+ */
+@RestController
+@RequestMapping("/api/me/imports")
+public class MeImportController {
+
+    private final ImportService importService;
+    private final Bulkheads bulkheads;
+
+    public MeImportController(ImportService importService, Bulkheads bulkheads) {
+        this.importService = importService;
+        this.bulkheads = bulkheads;
+    }
+
+    /**
+     * CSV ファイル（リクエストボディそのもの）を受け取り、取り込みを開始する。取り込みの完了は待たない。
+     *
+     * @param auth 認証情報
+     * @param request ボディを読むためのリクエスト
+     * @return 202 Accepted と取り込みの状態（Location は進捗の取得先）
+     */
+    @PostMapping
+    public WebAsyncTask<ResponseEntity<ImportJobResponse>> start(Authentication auth, HttpServletRequest request) {
+        String username = auth.getName();
+        return bulkheads.upload(() -> {
+            ImportService.ImportJob job = importService.start(username, request.getInputStream());
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/me/imports/" + job.getId()))
+                    .body(toResponse(job));
+        });
+    }
+
+    /**
+     * 取り込みの進捗を返す。
+     *
+     * @param auth 認証情報
+     * @param id 取り込みID
+     * @return 取り込みの状態
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobResponse> get(Authentication auth, @PathVariable String id) {
+        return ResponseEntity.ok(toResponse(importService.get(auth.getName(), id)));
+    }
+
+    private static ImportJobResponse toResponse(ImportService.ImportJob job) {
+        ImportJobResponse response = new ImportJobResponse();
+        response.setId(job.getId());
+        response.setStatus(job.getStatus().name());
+        response.setSize(job.getSize());
+        response.setBytesRead(job.getBytesRead());
+        response.setRowsRead(job.getRowsRead());
+        response.setGamesCreated(job.getGamesCreated());
+        response.setGamesMatched(job.getGamesMatched());
+        response.setPlaysCreated(job.getPlaysCreated());
+        response.setPlaysMatched(job.getPlaysMatched());
+        response.setSkipped(job.getSkipped());
+        response.setErrors(job.getErrors());
+        response.setMessage(job.getMessage());
+        return response;
+    }
+}
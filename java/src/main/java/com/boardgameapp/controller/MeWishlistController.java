@@ -2,6 +2,7 @@ package com.boardgameapp.controller;
 
 import com.boardgameapp.dto.AddWishlistItemRequest;
 import com.boardgameapp.dto.WishlistItemResponse;
+import com.boardgameapp.service.RemoteImageProxyService;
 import com.boardgameapp.service.WishlistService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -18,9 +19,11 @@ import java.util.List;
 public class MeWishlistController {
 
     private final WishlistService wishlistService;
+    private final RemoteImageProxyService remoteImageProxyService;
 
-    public MeWishlistController(WishlistService wishlistService) {
+    public MeWishlistController(WishlistService wishlistService, RemoteImageProxyService remoteImageProxyService) {
         this.wishlistService = wishlistService;
+        this.remoteImageProxyService = remoteImageProxyService;
     }
 
     /**
@@ -37,7 +40,7 @@ public class MeWishlistController {
     }
 
     /**
-     * ほしいものリストに1件追加する。
+     * ほしいものリストに1件追加する。外部サイトのサムネイルURLはローカルに取り込んでから保存する。
      *
      * @param auth 認証情報
      * @param request ゲーム名・BGG IDなど
@@ -48,6 +51,8 @@ public class MeWishlistController {
             Authentication auth,
             @Valid @RequestBody AddWishlistItemRequest request) {
         String username = auth.getName();
+        // 外部画像の取得は DB トランザクションの外で行う
+        request.setThumbnailUrl(remoteImageProxyService.localize(request.getThumbnailUrl()));
         WishlistItemResponse created = wishlistService.add(username, request);
         return ResponseEntity.ok(created);
     }
@@ -0,0 +1,119 @@
+package com.boardgameapp.controller;
+
+import com.boardgameapp.dto.CreateUploadSessionRequest;
+import com.boardgameapp.dto.UploadSessionResponse;
+import com.boardgameapp.resilience.Bulkheads;
+import com.boardgameapp.service.ImageStorageService;
+import com.boardgameapp.service.UploadSessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.io.IOException;
+
+/**
+ * 再開可能な分割画像アップロードAPI（セッション作成・チャンク送信・状態取得・完了・取消）を提供するコントローラ。
+ */
+@RestController
+@RequestMapping("/api/me/upload-sessions")
+public class UploadSessionController {
+
+    private final UploadSessionService uploadSessionService;
+    private final Bulkheads bulkheads;
+
+    public UploadSessionController(UploadSessionService uploadSessionService, Bulkheads bulkheads) {
+        this.uploadSessionService = uploadSessionService;
+        this.bulkheads = bulkheads;
+    }
+
+    /**
+     * 分割アップロードのセッションを作成する。
+     *
+     * @param auth 認証情報
+     * @param request 総サイズ・元のファイル名・Content-Type
+     * @return セッションID と受信済みオフセット（0）
+     */
+    @PostMapping
+    public ResponseEntity<UploadSessionResponse> create(
+            Authentication auth,
+            @Valid @RequestBody CreateUploadSessionRequest request) throws IOException {
+        if (ImageUploadController.resolveExtension(request.getContentType(), request.getFilename()) == null) {
+            throw new IllegalArgumentException("Unsupported image type");
+        }
+        UploadSessionService.UploadSession session = uploadSessionService.create(auth.getName(), request.getSize());
+        return ResponseEntity.ok(toResponse(session));
+    }
+
+    /**
+     * セッションの受信済みオフセットを返す。再開時はこのオフセットからチャンクを送る。
+     *
+     * @param auth 認証情報
+     * @param id セッションID
+     * @return セッション状態
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<UploadSessionResponse> get(Authentication auth, @PathVariable String id) {
+        return ResponseEntity.ok(toResponse(uploadSessionService.get(auth.getName(), id)));
+    }
+
+    /**
+     * チャンク（リクエストボディそのもの）を offset の位置に書き込む。
+     *
+     * @param auth 認証情報
+     * @param id セッションID
+     * @param offset チャンクの開始位置
+     * @param request ボディを読むためのリクエスト
+     * @return 書き込み後のセッション状態
+     */
+    @PutMapping("/{id}")
+    public WebAsyncTask<ResponseEntity<UploadSessionResponse>> putChunk(
+            Authentication auth,
+            @PathVariable String id,
+            @RequestParam long offset,
+            HttpServletRequest request) {
+        String username = auth.getName();
+        return bulkheads.upload(() -> {
+            UploadSessionService.UploadSession session =
+                    uploadSessionService.writeChunk(username, id, offset, request.getInputStream());
+            return ResponseEntity.ok(toResponse(session));
+        });
+    }
+
+    /**
+     * すべて受信したセッションを完了し、画像の公開URLを返す。
+     *
+     * @param auth 認証情報
+     * @param id セッションID
+     * @return アクセス用URL（/api/uploads/xxx）
+     */
+    @PostMapping("/{id}/complete")
+    public WebAsyncTask<ResponseEntity<ImageUploadController.UploadImageResponse>> complete(
+            Authentication auth,
+            @PathVariable String id) {
+        String username = auth.getName();
+        return bulkheads.upload(() -> {
+            ImageStorageService.StoredImage stored = uploadSessionService.complete(username, id);
+            return ResponseEntity.ok(new ImageUploadController.UploadImageResponse(stored.url(), stored.placeholder()));
+        });
+    }
+
+    /**
+     * セッションを取り消す。
+     *
+     * @param auth 認証情報
+     * @param id セッションID
+     * @return 204 No Content
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancel(Authentication auth, @PathVariable String id) throws IOException {
+        uploadSessionService.cancel(auth.getName(), id);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static UploadSessionResponse toResponse(UploadSessionService.UploadSession session) {
+        return new UploadSessionResponse(session.getId(), session.getReceived(), session.getSize());
+    }
+}
@@ -0,0 +1,394 @@
+package com.boardgameapp.dataset;
+
+import com.boardgameapp.service.ImageStorageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.sql.DataSource;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * スケール試験用の大量データを設定済みのDBに投入する（dataset プロファイルでのみ有効）。
+ * <ul>
+ *   <li>所持ゲーム数・ゲームごとのプレイ数・ほしいもの数はパレート分布で偏らせる（多くは少数、一部が大量）</li>
+ *   <li>プレイ日はゲームの追加日以降（追加直後ほど多い）で、年末年始・GW・お盆・週末に多くなるよう季節で重み付けする</li>
+ *   <li>タイトルは人気の偏り（Zipf）を付けて選び、一部のゲーム・ほしいものに生成した画像ファイルを割り当てる</li>
+ * </ul>
+ * 行は JDBC のバッチ INSERT で入れ、ID は既存の最大値の続きから明示的に振る（投入後に IDENTITY を進める）。
+ * 内容は seed と end-date だけで決まり、ユーザーごとの乱数はユーザー番号から作るので、同じ設定なら毎回同じデータになる。
+ * パスワードハッシュは全ユーザーで共通（BCrypt を数十万回計算しないため）。
+ */
+@Component
+@Profile("dataset")
+public class DatasetGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    /** 人気順のタイトル（名前・BGG ID・発売年・人数・時間） */
+    static final List<Title> TITLES = List.of(
+            new Title("カタン", "13", 1995, 3, 4, 60, 120),
+            new Title("カルカソンヌ", "822", 2000, 2, 5, 30, 45),
+            new Title("パンデミック", "30549", 2008, 2, 4, 45, 45),
+            new Title("宝石の煌き", "148228", 2014, 2, 4, 30, 30),
+            new Title("ドミニオン", "36218", 2008, 2, 4, 30, 30),
+            new Title("アズール", "230802", 2017, 2, 4, 30, 45),
+            new Title("チケット・トゥ・ライド", "9209", 2004, 2, 5, 30, 60),
+            new Title("コードネーム", "178900", 2015, 2, 8, 15, 15),
+            new Title("ウイングスパン", "266192", 2019, 1, 5, 40, 70),
+            new Title("世界の七不思議", "68448", 2010, 2, 7, 30, 30),
+            new Title("ラブレター", "129622", 2012, 2, 4, 20, 20),
+            new Title("テラフォーミング・マーズ", "167791", 2016, 1, 5, 120, 120),
+            new Title("アグリコラ", "31260", 2007, 1, 4, 30, 150),
+            new Title("花火", "98778", 2010, 2, 5, 25, 25),
+            new Title("ブルゴーニュ", "84876", 2011, 2, 4, 30, 90),
+            new Title("カスカディア", "295947", 2021, 1, 4, 30, 45),
+            new Title("サイズ", "169786", 2016, 1, 5, 90, 115),
+            new Title("エバーデール", "199792", 2018, 1, 4, 40, 80),
+            new Title("コンコルディア", "124361", 2013, 2, 5, 100, 100),
+            new Title("プエルトリコ", "3076", 2002, 3, 5, 90, 150),
+            new Title("電力会社", "2651", 2004, 2, 6, 120, 120),
+            new Title("スピリットアイランド", "162886", 2017, 1, 4, 90, 120),
+            new Title("ブラス：バーミンガム", "224517", 2018, 2, 4, 60, 120),
+            new Title("グルームヘイヴン", "174430", 2017, 1, 4, 60, 120));
+
+    /** {@link #seasonalWeight} の上限（棄却法の包絡線） */
+    private static final double MAX_SEASONAL_WEIGHT = 4.0;
+
+    /** ゲームを追加してからプレイするまでの平均日数 */
+    private static final int MEAN_DAYS_TO_PLAY = 180;
+
+    private static final String[] MEMOS = {null, null, null, "楽しかった", "初プレイ", "接戦", "リベンジ成功", "インスト込み"};
+
+    private final DataSource dataSource;
+    private final ImageStorageService imageStorageService;
+    private final PasswordEncoder passwordEncoder;
+    private final int users;
+    private final long seed;
+    private final LocalDate endDate;
+    private final int years;
+    private final int maxGamesPerUser;
+    private final int maxPlaysPerGame;
+    private final int maxWishlistPerUser;
+    private final int images;
+    private final int batchSize;
+    private final String password;
+
+    public DatasetGenerator(
+            DataSource dataSource,
+            ImageStorageService imageStorageService,
+            PasswordEncoder passwordEncoder,
+            @Value("${app.dataset.users:100000}") int users,
+            @Value("${app.dataset.seed:42}") long seed,
+            @Value("${app.dataset.end-date:}") String endDate,
+            @Value("${app.dataset.years:3}") int years,
+            @Value("${app.dataset.max-games-per-user:500}") int maxGamesPerUser,
+            @Value("${app.dataset.max-plays-per-game:300}") int maxPlaysPerGame,
+            @Value("${app.dataset.max-wishlist-per-user:100}") int maxWishlistPerUser,
+            @Value("${app.dataset.images:200}") int images,
+            @Value("${app.dataset.batch-size:1000}") int batchSize,
+            @Value("${app.dataset.password:password}") String password) {
+        this.dataSource = dataSource;
+        this.imageStorageService = imageStorageService;
+        this.passwordEncoder = passwordEncoder;
+        this.users = users;
+        this.seed = seed;
+        this.endDate = endDate.isBlank() ? LocalDate.now(ZoneOffset.UTC) : LocalDate.parse(endDate);
+        this.years = years;
+        this.maxGamesPerUser = maxGamesPerUser;
+        this.maxPlaysPerGame = maxPlaysPerGame;
+        this.maxWishlistPerUser = maxWishlistPerUser;
+        this.images = images;
+        this.batchSize = batchSize;
+        this.password = password;
+    }
+
+    /**
+     * データを投入する。既存の行は残し、ID はその続きから振る。
+     *
+     * @return 投入した件数と所要時間
+     */
+    public Summary generate() throws SQLException, IOException {
+        long started = System.nanoTime();
+        log.info("Generating dataset: users={} seed={} end-date={} years={}", users, seed, endDate, years);
+        List<ImageStorageService.StoredImage> stored = createImages();
+        String passwordHash = passwordEncoder.encode(password);
+        LocalDate startDate = endDate.minusYears(years);
+        long days = ChronoUnit.DAYS.between(startDate, endDate);
+
+        long gameCount = 0;
+        long playCount = 0;
+        long wishlistCount = 0;
+        try (Connection con = dataSource.getConnection()) {
+            con.setAutoCommit(false);
+            long userId = nextId(con, "users");
+            long gameId = nextId(con, "user_board_games");
+            long playId = nextId(con, "play_records");
+            long wishlistId = nextId(con, "wishlist_items");
+            try (PreparedStatement userInsert = con.prepareStatement(
+                    "insert into users (id, username, email, password_hash, created_at) values (?, ?, ?, ?, ?)");
+                 PreparedStatement gameInsert = con.prepareStatement(
+                         "insert into user_board_games (id, user_id, bgg_id, name, thumbnail_url, thumbnail_placeholder,"
+                                 + " year_published, min_players, max_players, min_play_time_minutes,"
+                                 + " max_play_time_minutes, added_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+                 PreparedStatement playInsert = con.prepareStatement(
+                         "insert into play_records (id, user_id, user_board_game_id, played_at, memo, player_count,"
+                                 + " created_at) values (?, ?, ?, ?, ?, ?, ?)");
+                 PreparedStatement wishlistInsert = con.prepareStatement(
+                         "insert into wishlist_items (id, user_id, name, thumbnail_url, thumbnail_placeholder, added_at)"
+                                 + " values (?, ?, ?, ?, ?, ?)")) {
+                for (int u = 0; u < users; u++) {
+                    SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + u);
+                    long uid = userId++;
+                    LocalDate joined = startDate.plusDays(random.nextLong(days + 1));
+                    userInsert.setLong(1, uid);
+                    userInsert.setString(2, "user" + uid);
+                    userInsert.setString(3, "user" + uid + "@example.com");
+                    userInsert.setString(4, passwordHash);
+                    userInsert.setTimestamp(5, timestamp(joined, random));
+                    userInsert.addBatch();
+
+                    int games = skewed(random, 0.15, 3, 1.1, maxGamesPerUser);
+                    for (int g = 0; g < games; g++) {
+                        long gid = gameId++;
+                        Title title = TITLES.get(zipf(random, TITLES.size()));
+                        LocalDate added = joined.plusDays(random.nextLong(ChronoUnit.DAYS.between(joined, endDate) + 1));
+                        ImageStorageService.StoredImage image = pickImage(random, stored, 0.6);
+                        gameInsert.setLong(1, gid);
+                        gameInsert.setLong(2, uid);
+                        gameInsert.setString(3, title.bggId());
+                        gameInsert.setString(4, title.name());
+                        setImage(gameInsert, 5, image);
+                        gameInsert.setInt(7, title.year());
+                        gameInsert.setInt(8, title.minPlayers());
+                        gameInsert.setInt(9, title.maxPlayers());
+                        gameInsert.setInt(10, title.minMinutes());
+                        gameInsert.setInt(11, title.maxMinutes());
+                        gameInsert.setTimestamp(12, timestamp(added, random));
+                        gameInsert.addBatch();
+                        gameCount++;
+
+                        int plays = skewed(random, 0.25, 2, 1.3, maxPlaysPerGame);
+                        for (int p = 0; p < plays; p++) {
+                            LocalDate playedAt = seasonalDate(random, added, endDate);
+                            playInsert.setLong(1, playId++);
+                            playInsert.setLong(2, uid);
+                            playInsert.setLong(3, gid);
+                            playInsert.setObject(4, playedAt);
+                            playInsert.setString(5, MEMOS[random.nextInt(MEMOS.length)]);
+                            playInsert.setInt(6, title.minPlayers()
+                                    + random.nextInt(title.maxPlayers() - title.minPlayers() + 1));
+                            playInsert.setTimestamp(7, timestamp(playedAt, random));
+                            playInsert.addBatch();
+                            playCount++;
+                        }
+                    }
+
+                    int wishes = skewed(random, 0.4, 2, 1.5, maxWishlistPerUser);
+                    for (int w = 0; w < wishes; w++) {
+                        ImageStorageService.StoredImage image = pickImage(random, stored, 0.4);
+                        wishlistInsert.setLong(1, wishlistId++);
+                        wishlistInsert.setLong(2, uid);
+                        wishlistInsert.setString(3, TITLES.get(zipf(random, TITLES.size())).name() + " 拡張");
+                        setImage(wishlistInsert, 4, image);
+                        wishlistInsert.setTimestamp(6, timestamp(joined.plusDays(random.nextInt(30)), random));
+                        wishlistInsert.addBatch();
+                        wishlistCount++;
+                    }
+
+                    if ((u + 1) % batchSize == 0 || u == users - 1) {
+                        // 外部キーの順（ユーザー → ゲーム → プレイ記録）で流してからコミットする
+                        userInsert.executeBatch();
+                        gameInsert.executeBatch();
+                        playInsert.executeBatch();
+                        wishlistInsert.executeBatch();
+                        con.commit();
+                        if ((u + 1) % (batchSize * 20) == 0) {
+                            log.info("Generated {}/{} users ({} games, {} plays)", u + 1, users, gameCount, playCount);
+                        }
+                    }
+                }
+            }
+            restartIdentity(con, "users", userId);
+            restartIdentity(con, "user_board_games", gameId);
+            restartIdentity(con, "play_records", playId);
+            restartIdentity(con, "wishlist_items", wishlistId);
+            con.commit();
+        }
+        Summary summary = new Summary(users, gameCount, playCount, wishlistCount, stored.size(),
+                Duration.ofNanos(System.nanoTime() - started));
+        log.info("Generated dataset: {}", summary);
+        return summary;
+    }
+
+    /**
+     * 偏りのある件数を返す。zeroRate の割合で 0、それ以外はパレート分布（尺度 scale、形状 alpha）で 1 以上 max 以下。
+     */
+    static int skewed(SplittableRandom random, double zeroRate, double scale, double alpha, int max) {
+        if (max <= 0 || random.nextDouble() < zeroRate) {
+            return 0;
+        }
+        double pareto = scale * Math.pow(1 - random.nextDouble(), -1 / alpha);
+        return (int) Math.min(max, Math.max(1, Math.round(pareto - scale + 1)));
+    }
+
+    /** 0 から n-1 のうち小さい番号ほど選ばれやすい番号（Zipf 分布、指数 1）を返す。 */
+    static int zipf(SplittableRandom random, int n) {
+        double harmonic = 0;
+        for (int i = 1; i <= n; i++) {
+            harmonic += 1.0 / i;
+        }
+        double target = random.nextDouble() * harmonic;
+        double sum = 0;
+        for (int i = 1; i <= n; i++) {
+            sum += 1.0 / i;
+            if (sum >= target) {
+                return i - 1;
+            }
+        }
+        return n - 1;
+    }
+
+    /**
+     * from 以上 to 以下のプレイ日を選ぶ。追加直後ほど遊ばれやすいよう from からの日数を指数分布（平均
+     * {@value #MEAN_DAYS_TO_PLAY} 日）で取り、{@link #seasonalWeight} に比例する確率で採用する（棄却法）。
+     */
+    static LocalDate seasonalDate(SplittableRandom random, LocalDate from, LocalDate to) {
+        long span = ChronoUnit.DAYS.between(from, to) + 1;
+        while (true) {
+            long offset = (long) (-Math.log(1 - random.nextDouble()) * MEAN_DAYS_TO_PLAY);
+            if (offset >= span) {
+                offset = random.nextLong(span);
+            }
+            LocalDate candidate = from.plusDays(offset);
+            if (random.nextDouble() * MAX_SEASONAL_WEIGHT < seasonalWeight(candidate)) {
+                return candidate;
+            }
+        }
+    }
+
+    /**
+     * プレイのしやすさの重み（1〜4）。冬（1月中旬が山）に多く、年末年始・GW・お盆と週末はさらに多い。
+     */
+    static double seasonalWeight(LocalDate date) {
+        double weight = 1.25 + 0.5 * Math.cos(2 * Math.PI * (date.getDayOfYear() - 15) / 365.0);
+        int month = date.getMonthValue();
+        int day = date.getDayOfMonth();
+        boolean holiday = (month == 12 && day >= 28) || (month == 1 && day <= 4)
+                || (month == 5 && day <= 6) || (month == 4 && day >= 29)
+                || (month == 8 && day >= 11 && day <= 16);
+        if (holiday) {
+            weight += 1.0;
+        }
+        DayOfWeek dow = date.getDayOfWeek();
+        if (dow == DayOfWeek.SATURDAY || dow == DayOfWeek.SUNDAY) {
+            weight += 0.75;
+        }
+        return weight;
+    }
+
+    /** サムネイル用の画像を生成し、アップロードと同じ経路で保存する（プレースホルダも作られる）。 */
+    private List<ImageStorageService.StoredImage> createImages() throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<ImageStorageService.StoredImage> stored = new ArrayList<>(images);
+        for (int i = 0; i < images; i++) {
+            int width = 200 + random.nextInt(400);
+            int height = 200 + random.nextInt(400);
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = image.createGraphics();
+            try {
+                for (int band = 0; band < 4; band++) {
+                    g.setColor(new Color(random.nextInt(0x1000000)));
+                    g.fillRect(0, band * height / 4, width, height / 4 + 1);
+                }
+            } finally {
+                g.dispose();
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, random.nextBoolean() ? "png" : "jpg", out);
+            stored.add(imageStorageService.store(new ByteArrayInputStream(out.toByteArray())));
+        }
+        return stored;
+    }
+
+    private static ImageStorageService.StoredImage pickImage(
+            SplittableRandom random, List<ImageStorageService.StoredImage> stored, double rate) {
+        if (stored.isEmpty() || random.nextDouble() >= rate) {
+            return null;
+        }
+        return stored.get(random.nextInt(stored.size()));
+    }
+
+    private static void setImage(PreparedStatement ps, int index, ImageStorageService.StoredImage image)
+            throws SQLException {
+        if (image == null) {
+            ps.setNull(index, Types.VARCHAR);
+            ps.setNull(index + 1, Types.VARCHAR);
+        } else {
+            ps.setString(index, image.url());
+            ps.setString(index + 1, image.placeholder());
+        }
+    }
+
+    private static Timestamp timestamp(LocalDate date, SplittableRandom random) {
+        Instant instant = date.atStartOfDay(ZoneOffset.UTC).toInstant().plusSeconds(random.nextInt(86_400));
+        return Timestamp.from(instant);
+    }
+
+    private static long nextId(Connection con, String table) throws SQLException {
+        try (Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery("select coalesce(max(id), 0) + 1 from " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /** 明示的に振った ID の続きからアプリが採番するよう IDENTITY を進める（H2・PostgreSQL の構文）。 */
+    private static void restartIdentity(Connection con, String table, long next) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            st.execute("alter table " + table + " alter column id restart with " + next);
+        }
+    }
+
+    /**
+     * 人気タイトル。
+     */
+    record Title(String name, String bggId, int year, int minPlayers, int maxPlayers, int minMinutes, int maxMinutes) {}
+
+    /**
+     * 投入結果。
+     *
+     * @param users ユーザー数
+     * @param games 所持ゲーム数
+     * @param plays プレイ記録数
+     * @param wishlistItems ほしいもの数
+     * @param images 画像ファイル数
+     * @param elapsed 所要時間
+     */
+    public record Summary(long users, long games, long plays, long wishlistItems, int images, Duration elapsed) {}
+}
@@ -0,0 +1,30 @@
+package com.boardgameapp.dataset;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * dataset プロファイルで起動したとき、データを投入して終了する。
+ */
+@Component
+@Profile("dataset")
+public class DatasetRunner implements ApplicationRunner {
+
+    private final DatasetGenerator datasetGenerator;
+    private final ConfigurableApplicationContext context;
+
+    public DatasetRunner(DatasetGenerator datasetGenerator, ConfigurableApplicationContext context) {
+        this.datasetGenerator = datasetGenerator;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        datasetGenerator.generate();
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
@@ -10,6 +10,10 @@ public class AddBoardGameRequest {
     @Size(max = 500)
     private String name;
 
+    /** BoardGameGeek のゲームID（任意） */
+    @Size(max = 20)
+    private String bggId;
+
     @Size(max = 1000)
     private String thumbnailUrl;
 
@@ -27,6 +31,14 @@ public class AddBoardGameRequest {
         this.name = name;
     }
 
+    public String getBggId() {
+        return bggId;
+    }
+
+    public void setBggId(String bggId) {
+        this.bggId = bggId;
+    }
+
     public String getThumbnailUrl() {
         return thumbnailUrl;
     }
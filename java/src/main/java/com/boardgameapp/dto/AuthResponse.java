@@ -1,9 +1,11 @@
 package com.boardgameapp.dto;
 
-/** 認証成功時のレスポンス（JWTトークン・ユーザー名・ID）。 */
+/** 認証成功時のレスポンス（JWTトークン・リフレッシュトークン・アクセストークンの有効秒数・ユーザー名・ID）。 */
 public class AuthResponse {
 
     private String token;
+    private String refreshToken;
+    private long expiresIn;
     private String username;
     private Long userId;
 
@@ -16,6 +18,12 @@ public class AuthResponse {
         this.userId = userId;
     }
 
+    public AuthResponse(String token, String refreshToken, long expiresIn, String username, Long userId) {
+        this(token, username, userId);
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+    }
+
     public String getToken() {
         return token;
     }
@@ -24,6 +32,22 @@ public class AuthResponse {
         this.token = token;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+
+    public void setExpiresIn(long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
+
     public String getUsername() {
         return username;
     }
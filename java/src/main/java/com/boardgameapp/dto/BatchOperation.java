@@ -0,0 +1,80 @@
+package com.boardgameapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * 一括操作APIの1件の操作。body には個別APIと同じ JSON（追加・更新のリクエスト）を入れる。
+ */
+public class BatchOperation {
+
+    /** 操作の種類 */
+    public enum Op {
+        @JsonProperty("create") CREATE,
+        @JsonProperty("update") UPDATE,
+        @JsonProperty("delete") DELETE
+    }
+
+    /** 操作の対象 */
+    public enum Resource {
+        @JsonProperty("boardgames") BOARD_GAMES,
+        @JsonProperty("plays") PLAYS,
+        @JsonProperty("wishlist") WISHLIST
+    }
+
+    @NotNull(message = "op is required")
+    private Op op;
+
+    @NotNull(message = "resource is required")
+    private Resource resource;
+
+    /** update / delete の対象ID */
+    private Long id;
+
+    /** plays の create で、記録を付けるユーザー所持ゲームID */
+    private Long userBoardGameId;
+
+    /** create / update の内容 */
+    private JsonNode body;
+
+    public Op getOp() {
+        return op;
+    }
+
+    public void setOp(Op op) {
+        this.op = op;
+    }
+
+    public Resource getResource() {
+        return resource;
+    }
+
+    public void setResource(Resource resource) {
+        this.resource = resource;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserBoardGameId() {
+        return userBoardGameId;
+    }
+
+    public void setUserBoardGameId(Long userBoardGameId) {
+        this.userBoardGameId = userBoardGameId;
+    }
+
+    public JsonNode getBody() {
+        return body;
+    }
+
+    public void setBody(JsonNode body) {
+        this.body = body;
+    }
+}
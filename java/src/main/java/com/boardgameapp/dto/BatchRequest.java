@@ -0,0 +1,22 @@
+package com.boardgameapp.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/** 一括操作APIのリクエスト。operations は先頭から順に実行する。 */
+public class BatchRequest {
+
+    @NotEmpty(message = "operations is required")
+    private List<@Valid @NotNull BatchOperation> operations;
+
+    public List<BatchOperation> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<BatchOperation> operations) {
+        this.operations = operations;
+    }
+}
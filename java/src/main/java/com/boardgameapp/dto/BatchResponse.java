@@ -0,0 +1,88 @@
+package com.boardgameapp.dto;
+
+import java.util.List;
+
+/**
+ * 一括操作APIのレスポンス。results はリクエストの operations と同じ順で1件ずつ返す。
+ * committed が false のときはすべての操作を取り消しており、失敗した操作以外の status は 424。
+ */
+public class BatchResponse {
+
+    private boolean committed;
+    private List<Result> results;
+
+    public BatchResponse() {
+    }
+
+    public BatchResponse(boolean committed, List<Result> results) {
+        this.committed = committed;
+        this.results = results;
+    }
+
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    public void setCommitted(boolean committed) {
+        this.committed = committed;
+    }
+
+    public List<Result> getResults() {
+        return results;
+    }
+
+    public void setResults(List<Result> results) {
+        this.results = results;
+    }
+
+    /** 1件の操作の結果。data は個別APIと同じレスポンス（delete では null）。 */
+    public static class Result {
+
+        private int index;
+        private int status;
+        private Object data;
+        private String error;
+
+        public Result() {
+        }
+
+        public Result(int index, int status, Object data, String error) {
+            this.index = index;
+            this.status = status;
+            this.data = data;
+            this.error = error;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public void setStatus(int status) {
+            this.status = status;
+        }
+
+        public Object getData() {
+            return data;
+        }
+
+        public void setData(Object data) {
+            this.data = data;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.boardgameapp.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+/** 分割アップロードのセッション作成APIのリクエスト。 */
+public class CreateUploadSessionRequest {
+
+    @NotNull(message = "Size is required")
+    @Positive
+    private Long size;
+
+    @Size(max = 255)
+    private String filename;
+
+    @Size(max = 100)
+    private String contentType;
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+}
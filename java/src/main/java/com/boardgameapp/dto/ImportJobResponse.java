@@ -0,0 +1,153 @@
+package com.boardgameapp.dto;
+
+import java.util.List;
+
+/** CSV 取り込みの進捗（読んだバイト数・行数と、追加・照合・スキップした件数）。 */
+public class ImportJobResponse {
+
+    private String id;
+    /** QUEUED・RUNNING・COMPLETED・FAILED */
+    private String status;
+    private long size;
+    private long bytesRead;
+    private long rowsRead;
+    private long gamesCreated;
+    /** 既存のゲームと照合でき、追加しなかった行数 */
+    private long gamesMatched;
+    private long playsCreated;
+    /** 同じ内容のプレイ記録が既にあり、追加しなかった行数 */
+    private long playsMatched;
+    /** 不正な行や所持していないゲームの行など、取り込まなかった行数 */
+    private long skipped;
+    /** 不正な行（先頭の一定件数のみ） */
+    private List<RowError> errors;
+    /** FAILED のときの理由 */
+    private String message;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public void setBytesRead(long bytesRead) {
+        this.bytesRead = bytesRead;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getGamesCreated() {
+        return gamesCreated;
+    }
+
+    public void setGamesCreated(long gamesCreated) {
+        this.gamesCreated = gamesCreated;
+    }
+
+    public long getGamesMatched() {
+        return gamesMatched;
+    }
+
+    public void setGamesMatched(long gamesMatched) {
+        this.gamesMatched = gamesMatched;
+    }
+
+    public long getPlaysCreated() {
+        return playsCreated;
+    }
+
+    public void setPlaysCreated(long playsCreated) {
+        this.playsCreated = playsCreated;
+    }
+
+    public long getPlaysMatched() {
+        return playsMatched;
+    }
+
+    public void setPlaysMatched(long playsMatched) {
+        this.playsMatched = playsMatched;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(long skipped) {
+        this.skipped = skipped;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    /** 取り込めなかった行の行番号（ヘッダ行が1）と理由 */
+    public static class RowError {
+
+        private long line;
+        private String message;
+
+        public RowError() {
+        }
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.boardgameapp.dto;
 
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 import java.time.LocalDate;
 
@@ -10,6 +11,7 @@ public class PlayRecordRequest {
     @NotNull(message = "Play date is required")
     private LocalDate playedAt;
 
+    @Size(max = 2000)
     private String memo;
     private Integer playerCount;
 
@@ -0,0 +1,18 @@
+package com.boardgameapp.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/** アクセストークンの再発行・ログアウトのリクエスト（リフレッシュトークン）。 */
+public class RefreshRequest {
+
+    @NotBlank(message = "Refresh token is required")
+    private String refreshToken;
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
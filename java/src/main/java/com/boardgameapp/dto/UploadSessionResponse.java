@@ -0,0 +1,42 @@
+package com.boardgameapp.dto;
+
+/** 分割アップロードのセッション状態（受信済みオフセットと総サイズ）。 */
+public class UploadSessionResponse {
+
+    private String id;
+    private long offset;
+    private long size;
+
+    public UploadSessionResponse() {
+    }
+
+    public UploadSessionResponse(String id, long offset, long size) {
+        this.id = id;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+}
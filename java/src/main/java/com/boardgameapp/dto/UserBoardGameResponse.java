@@ -9,6 +9,7 @@ public class UserBoardGameResponse {
     private String bggId;
     private String name;
     private String thumbnailUrl;
+    private String thumbnailPlaceholder;
     private Integer yearPublished;
     private Integer minPlayers;
     private Integer maxPlayers;
@@ -48,6 +49,14 @@ public class UserBoardGameResponse {
         this.thumbnailUrl = thumbnailUrl;
     }
 
+    public String getThumbnailPlaceholder() {
+        return thumbnailPlaceholder;
+    }
+
+    public void setThumbnailPlaceholder(String thumbnailPlaceholder) {
+        this.thumbnailPlaceholder = thumbnailPlaceholder;
+    }
+
     public Integer getYearPublished() {
         return yearPublished;
     }
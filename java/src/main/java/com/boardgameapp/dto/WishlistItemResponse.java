@@ -8,6 +8,7 @@ public class WishlistItemResponse {
     private Long id;
     private String name;
     private String thumbnailUrl;
+    private String thumbnailPlaceholder;
     private Instant addedAt;
 
     public Long getId() {
@@ -34,6 +35,14 @@ public class WishlistItemResponse {
         this.thumbnailUrl = thumbnailUrl;
     }
 
+    public String getThumbnailPlaceholder() {
+        return thumbnailPlaceholder;
+    }
+
+    public void setThumbnailPlaceholder(String thumbnailPlaceholder) {
+        this.thumbnailPlaceholder = thumbnailPlaceholder;
+    }
+
     public Instant getAddedAt() {
         return addedAt;
     }
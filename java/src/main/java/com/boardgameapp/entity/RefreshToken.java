@@ -0,0 +1,109 @@
+package com.boardgameapp.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * リフレッシュトークン1件を表すエンティティ。トークンそのものは保存せず SHA-256 のハッシュだけを持つ。
+ * 使うたびに同じ family の新しいトークンに置き換え（ローテーション）、使用済みのトークンが再び使われたら
+ * 漏えいとみなして family ごと無効にする。
+ */
+@Entity
+@Table(name = "refresh_tokens",
+        uniqueConstraints = @UniqueConstraint(name = "uk_refresh_tokens_token_hash", columnNames = "tokenHash"),
+        indexes = {
+                @Index(name = "idx_refresh_tokens_family_id", columnList = "familyId"),
+                @Index(name = "idx_refresh_tokens_expires_at", columnList = "expiresAt")})
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /** トークンの SHA-256（16進） */
+    @Column(nullable = false, length = 64)
+    private String tokenHash;
+
+    /** ログイン1回ごとの系列。ローテーションしても変わらない */
+    @Column(nullable = false, length = 36)
+    private String familyId;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    /** 新しいトークンと交換した日時。未使用なら null */
+    private Instant usedAt;
+
+    @Column(nullable = false)
+    private boolean revoked;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt = Instant.now();
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public void setFamilyId(String familyId) {
+        this.familyId = familyId;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public Instant getUsedAt() {
+        return usedAt;
+    }
+
+    public void setUsedAt(Instant usedAt) {
+        this.usedAt = usedAt;
+    }
+
+    public boolean isRevoked() {
+        return revoked;
+    }
+
+    public void setRevoked(boolean revoked) {
+        this.revoked = revoked;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -7,7 +7,8 @@ import java.time.Instant;
  * ユーザーが所持するボードゲーム1件を表すエンティティ。
  */
 @Entity
-@Table(name = "user_board_games")
+@Table(name = "user_board_games",
+        indexes = @Index(name = "idx_user_board_games_thumbnail_url", columnList = "thumbnailUrl"))
 public class UserBoardGame {
 
     @Id
@@ -26,6 +27,10 @@ public class UserBoardGame {
     @Column(length = 1000)
     private String thumbnailUrl;
 
+    /** アップロード画像の低画質プレースホルダ（data URI）。外部URLや作れない形式では null */
+    @Column(name = "thumbnail_placeholder", length = 2048)
+    private String thumbnailPlaceholder;
+
     private Integer yearPublished;
     private Integer minPlayers;
     private Integer maxPlayers;
@@ -79,6 +84,14 @@ public class UserBoardGame {
         this.thumbnailUrl = thumbnailUrl;
     }
 
+    public String getThumbnailPlaceholder() {
+        return thumbnailPlaceholder;
+    }
+
+    public void setThumbnailPlaceholder(String thumbnailPlaceholder) {
+        this.thumbnailPlaceholder = thumbnailPlaceholder;
+    }
+
     public Integer getYearPublished() {
         return yearPublished;
     }
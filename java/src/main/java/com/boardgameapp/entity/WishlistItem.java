@@ -7,7 +7,8 @@ import java.time.Instant;
  * ほしいものリストの1件を表すエンティティ。
  */
 @Entity
-@Table(name = "wishlist_items")
+@Table(name = "wishlist_items",
+        indexes = @Index(name = "idx_wishlist_items_thumbnail_url", columnList = "thumbnailUrl"))
 public class WishlistItem {
 
     @Id
@@ -23,6 +24,10 @@ public class WishlistItem {
     @Column(length = 1000)
     private String thumbnailUrl;
 
+    /** アップロード画像の低画質プレースホルダ（data URI）。外部URLや作れない形式では null */
+    @Column(name = "thumbnail_placeholder", length = 2048)
+    private String thumbnailPlaceholder;
+
     @Column(nullable = false, updatable = false)
     private Instant addedAt = Instant.now();
 
@@ -62,6 +67,14 @@ public class WishlistItem {
         this.thumbnailUrl = thumbnailUrl;
     }
 
+    public String getThumbnailPlaceholder() {
+        return thumbnailPlaceholder;
+    }
+
+    public void setThumbnailPlaceholder(String thumbnailPlaceholder) {
+        this.thumbnailPlaceholder = thumbnailPlaceholder;
+    }
+
     public Instant getAddedAt() {
         return addedAt;
     }
@@ -0,0 +1,73 @@
+package com.boardgameapp.monitoring;
+
+import com.boardgameapp.warmup.WarmupRunner;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * JVM 起動から最初の API リクエストに応答し終えるまでの時間を測るフィルタ。
+ * ヘルスチェックなど /api/ 以外と、JIT ウォームアップ（{@link WarmupRunner#isWarmupRequest}）のリクエストは数えない。結果は INFO ログと
+ * {@code boardgame.startup.first-request} メトリクスに出す。2件目以降はフラグを見るだけ。
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FirstRequestTimer extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(FirstRequestTimer.class);
+
+    /** ウォームアップを持たない構成（@WebMvcTest のスライスなど）では空 */
+    private final ObjectProvider<WarmupRunner> warmupRunner;
+    private final AtomicBoolean done = new AtomicBoolean();
+    private volatile long firstRequestMs = -1;
+
+    public FirstRequestTimer(ObjectProvider<WarmupRunner> warmupRunner, MeterRegistry meterRegistry) {
+        this.warmupRunner = warmupRunner;
+        TimeGauge.builder("boardgame.startup.first-request", this, TimeUnit.MILLISECONDS, t -> t.firstRequestMs)
+                .description("JVM 起動から最初の API リクエストの応答完了までの時間（未到達なら負）")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return done.get() || !request.getRequestURI().startsWith("/api/")
+                || isWarmupRequest(request);
+    }
+
+    private boolean isWarmupRequest(HttpServletRequest request) {
+        WarmupRunner runner = warmupRunner.getIfAvailable();
+        return runner != null && runner.isWarmupRequest(request);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (done.compareAndSet(false, true)) {
+                firstRequestMs = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+                log.info("First API request served {} ms after JVM start (request {} ms): {} {}",
+                        firstRequestMs, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                        request.getMethod(), request.getRequestURI());
+            }
+        }
+    }
+}
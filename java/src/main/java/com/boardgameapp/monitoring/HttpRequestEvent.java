@@ -0,0 +1,26 @@
+package com.boardgameapp.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** HTTP リクエスト1件の処理を表す JFR イベント。 */
+@Name("com.boardgameapp.HttpRequest")
+@Label("HTTP Request")
+@Category({"BoardGame App", "HTTP"})
+@Description("HTTP リクエストの処理時間")
+@StackTrace(false)
+public class HttpRequestEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Status")
+    public int status;
+}
@@ -0,0 +1,20 @@
+package com.boardgameapp.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** JWT の署名検証を表す JFR イベント。 */
+@Name("com.boardgameapp.JwtVerification")
+@Label("JWT Verification")
+@Category({"BoardGame App", "Security"})
+@Description("JWT の署名検証とクレーム取得の時間")
+@StackTrace(false)
+public class JwtVerificationEvent extends Event {
+
+    @Label("Valid")
+    public boolean valid;
+}
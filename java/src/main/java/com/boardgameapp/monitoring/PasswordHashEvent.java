@@ -0,0 +1,20 @@
+package com.boardgameapp.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** パスワードのハッシュ化・照合（BCrypt）を表す JFR イベント。 */
+@Name("com.boardgameapp.PasswordHash")
+@Label("Password Hash")
+@Category({"BoardGame App", "Security"})
+@Description("登録時のハッシュ化（encode）とログイン時の照合（matches）の時間")
+@StackTrace(false)
+public class PasswordHashEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+}
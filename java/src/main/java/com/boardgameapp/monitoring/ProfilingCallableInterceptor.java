@@ -0,0 +1,40 @@
+package com.boardgameapp.monitoring;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 非同期処理（WebAsyncTask）を実行するスレッドに、{@link ProfilingFilter} が始めたリクエストの記録を紐づける。
+ * 実行中はそのスレッドのスタックを採取し、発行したクエリを記録する。
+ */
+public class ProfilingCallableInterceptor implements CallableProcessingInterceptor {
+
+    private final SlowRequestSampler slowRequestSampler;
+
+    public ProfilingCallableInterceptor(SlowRequestSampler slowRequestSampler) {
+        this.slowRequestSampler = slowRequestSampler;
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        RequestProfile profile = profile(request);
+        if (profile != null) {
+            slowRequestSampler.resume(profile);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        RequestProfile profile = profile(request);
+        if (profile != null) {
+            slowRequestSampler.suspend(profile);
+        }
+    }
+
+    private static RequestProfile profile(NativeWebRequest request) {
+        return (RequestProfile) request.getAttribute(ProfilingFilter.PROFILE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+}
@@ -0,0 +1,75 @@
+package com.boardgameapp.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * リクエストごとに {@link HttpRequestEvent} を記録し、{@link SlowRequestSampler} に処理中のリクエストとして登録するフィルタ。
+ * JFR の記録中でなければイベントは作るだけで書き出さない。
+ * 非同期処理（WebAsyncTask）に移ったリクエストは、結果を返す再ディスパッチが終わった時点で記録を終える。
+ * その間の処理スレッドへの紐づけは {@link ProfilingCallableInterceptor} が行う。
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "app.profiling.enabled", havingValue = "true", matchIfMissing = true)
+public class ProfilingFilter extends OncePerRequestFilter {
+
+    /** 非同期処理に移ったリクエストの記録を再ディスパッチへ引き継ぐためのリクエスト属性 */
+    static final String PROFILE_ATTRIBUTE = ProfilingFilter.class.getName() + ".profile";
+    private static final String EVENT_ATTRIBUTE = ProfilingFilter.class.getName() + ".event";
+
+    private final SlowRequestSampler slowRequestSampler;
+
+    public ProfilingFilter(SlowRequestSampler slowRequestSampler) {
+        this.slowRequestSampler = slowRequestSampler;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RequestProfile profile = (RequestProfile) request.getAttribute(PROFILE_ATTRIBUTE);
+        HttpRequestEvent event = (HttpRequestEvent) request.getAttribute(EVENT_ATTRIBUTE);
+        if (profile == null || event == null) {
+            event = new HttpRequestEvent();
+            event.begin();
+            profile = slowRequestSampler.start(request.getMethod(), request.getRequestURI());
+            request.setAttribute(PROFILE_ATTRIBUTE, profile);
+            request.setAttribute(EVENT_ATTRIBUTE, event);
+        } else {
+            slowRequestSampler.resume(profile);
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (isAsyncStarted(request)) {
+                slowRequestSampler.suspend(profile);
+            } else {
+                slowRequestSampler.finish(profile, response.getStatus());
+                event.end();
+                if (event.shouldCommit()) {
+                    event.method = request.getMethod();
+                    event.path = request.getRequestURI();
+                    event.status = response.getStatus();
+                    event.commit();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.boardgameapp.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** JDBC 文1回の実行を表す JFR イベント。SQL はバインド値を含まない形（? のまま）で記録する。 */
+@Name("com.boardgameapp.Query")
+@Label("JPA Query")
+@Category({"BoardGame App", "Database"})
+@Description("Hibernate が発行した SQL の実行時間")
+@StackTrace(false)
+public class QueryEvent extends Event {
+
+    @Label("SQL")
+    public String sql;
+}
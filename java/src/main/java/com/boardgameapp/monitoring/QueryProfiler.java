@@ -0,0 +1,74 @@
+package com.boardgameapp.monitoring;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate が発行する SQL の実行時間を {@link QueryEvent} と {@link RequestProfile} に記録する。
+ * {@link Inspector} が文の準備時に SQL（バインド値を含まない形）をスレッドに覚えておき、
+ * セッションごとに作られる {@link Listener} が直後の実行時間と組にする。
+ */
+public final class QueryProfiler {
+
+    private static final ThreadLocal<String> LAST_SQL = new ThreadLocal<>();
+
+    private QueryProfiler() {
+    }
+
+    /** 準備する SQL をスレッドに覚えておく StatementInspector。SQL 自体は書き換えない。 */
+    public static class Inspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            LAST_SQL.set(sql);
+            return sql;
+        }
+    }
+
+    /** JDBC 文の実行時間を記録するセッションイベントリスナ（hibernate.session.events.auto で登録する）。 */
+    public static class Listener implements SessionEventListener {
+
+        private transient QueryEvent event;
+        private transient long startNanos;
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            statementStart();
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            statementEnd();
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            statementStart();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            statementEnd();
+        }
+
+        private void statementStart() {
+            startNanos = System.nanoTime();
+            event = new QueryEvent();
+            event.begin();
+        }
+
+        private void statementEnd() {
+            if (event == null) {
+                return;
+            }
+            long elapsed = System.nanoTime() - startNanos;
+            String sql = LAST_SQL.get();
+            event.end();
+            if (event.shouldCommit()) {
+                event.sql = sql;
+                event.commit();
+            }
+            event = null;
+            RequestProfile.recordQuery(sql, elapsed);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.boardgameapp.monitoring;
+
+import com.boardgameapp.repository.UserRepository;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * すべてのリポジトリ呼び出しの所要時間を {@link ServerTiming} に記録する BeanPostProcessor。
+ * ユーザー名での検索は {@link ServerTiming#USER}、それ以外は {@link ServerTiming#DB} に分けて集計する。
+ */
+public class RepositoryTimingPostProcessor implements BeanPostProcessor {
+
+    private static final RepositoryMethodInvocationListener LISTENER = invocation -> {
+        if (!ServerTiming.isActive()) {
+            return;
+        }
+        boolean userLookup = invocation.getRepositoryInterface() == UserRepository.class
+                && invocation.getMethod().getName().equals("findByUsername");
+        ServerTiming.record(userLookup ? ServerTiming.USER : ServerTiming.DB,
+                invocation.getDuration(TimeUnit.NANOSECONDS));
+    };
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(LISTENER));
+        }
+        return bean;
+    }
+}
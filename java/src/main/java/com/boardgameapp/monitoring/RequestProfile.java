@@ -0,0 +1,98 @@
+package com.boardgameapp.monitoring;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 遅いリクエストの調査用に、処理中のリクエスト1件の情報（開始時刻・発行したクエリ・採取したスタック）を保持する。
+ * {@link ProfilingFilter} がリクエストごとに作り、処理スレッドに紐づける。非同期処理（WebAsyncTask）では
+ * 処理するスレッドが替わるたびに紐づけ直す（{@link SlowRequestSampler#resume} / {@link SlowRequestSampler#suspend}）。
+ * クエリは紐づいているスレッドだけが追加し、スタックは {@link SlowRequestSampler} が別スレッドから設定する。
+ */
+public final class RequestProfile {
+
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+    /** 紐づいている処理スレッド（非同期処理の待ち中は null） */
+    private volatile Thread thread;
+    private final String method;
+    private final String path;
+    private final long startNanos = System.nanoTime();
+    private final int maxQueries;
+    private final List<String> queries = new ArrayList<>();
+    private int droppedQueries;
+    private volatile StackTraceElement[] stackSnapshot;
+
+    RequestProfile(Thread thread, String method, String path, int maxQueries) {
+        this.thread = thread;
+        this.method = method;
+        this.path = path;
+        this.maxQueries = maxQueries;
+    }
+
+    static void bind(RequestProfile profile) {
+        CURRENT.set(profile);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    /** 処理中のリクエストがあれば、発行したクエリ（SQL の形と所要時間）を記録する。上限を超えた分は件数だけ数える。 */
+    static void recordQuery(String sql, long nanos) {
+        RequestProfile profile = CURRENT.get();
+        if (profile == null) {
+            return;
+        }
+        if (profile.queries.size() < profile.maxQueries) {
+            profile.queries.add(String.format(Locale.ROOT, "%.2fms %s", nanos / 1_000_000.0, sql));
+        } else {
+            profile.droppedQueries++;
+        }
+    }
+
+    Thread thread() {
+        return thread;
+    }
+
+    void thread(Thread thread) {
+        this.thread = thread;
+    }
+
+    String method() {
+        return method;
+    }
+
+    String path() {
+        return path;
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    StackTraceElement[] stackSnapshot() {
+        return stackSnapshot;
+    }
+
+    void stackSnapshot(StackTraceElement[] stack) {
+        this.stackSnapshot = stack;
+    }
+
+    /** 発行したクエリを1行ずつ並べた文字列を返す。 */
+    String queriesText() {
+        StringBuilder sb = new StringBuilder();
+        for (String query : queries) {
+            sb.append(query).append('\n');
+        }
+        if (droppedQueries > 0) {
+            sb.append("... ").append(droppedQueries).append(" more\n");
+        }
+        return sb.toString();
+    }
+
+    int queryCount() {
+        return queries.size() + droppedQueries;
+    }
+}
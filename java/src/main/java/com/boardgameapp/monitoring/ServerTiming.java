@@ -0,0 +1,146 @@
+package com.boardgameapp.monitoring;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * 1リクエスト内の処理時間の内訳（JWT検証・ユーザー検索・DBクエリ・DTO変換・JSON変換）を集計する。
+ * {@link ServerTimingFilter} がリクエストごとに開始・終了し、各処理は {@link #record} / {@link #time} で時間を足し込む。
+ * リクエストを処理しているスレッドに紐づけて保持するため、計測中でなければ何もしない。
+ * 内訳は全リクエストで集計するが、Server-Timing ヘッダを返すのは求めたリクエストだけ（{@link #isHeaderEnabled()}）。
+ * 非同期処理（WebAsyncTask）では、処理するスレッドが替わるたびに {@link #resume} で紐づけ直す。
+ */
+public final class ServerTiming {
+
+    /** JWT の署名検証 */
+    public static final String JWT = "jwt";
+    /** ユーザー名からのユーザー検索（クエリを含む） */
+    public static final String USER = "user";
+    /** ユーザー検索以外のリポジトリ呼び出し */
+    public static final String DB = "db";
+    /** エンティティからレスポンスDTOへの変換 */
+    public static final String MAP = "map";
+    /** レスポンスのJSON変換 */
+    public static final String JSON = "json";
+    /** リクエスト開始からレスポンス送信開始まで */
+    public static final String APP = "app";
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final boolean headerEnabled;
+
+    private ServerTiming(boolean headerEnabled) {
+        this.headerEnabled = headerEnabled;
+    }
+
+    /**
+     * 現在のスレッドで計測を開始する。
+     *
+     * @param headerEnabled このリクエストで Server-Timing ヘッダを返すか
+     */
+    static ServerTiming begin(boolean headerEnabled) {
+        ServerTiming timing = new ServerTiming(headerEnabled);
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /** 非同期処理を引き継いだ現在のスレッドに、計測中の集計を紐づけ直す。 */
+    static void resume(ServerTiming timing) {
+        CURRENT.set(timing);
+    }
+
+    /** 現在のスレッドから集計を外す（非同期処理に移った場合は、集計は再ディスパッチで続く）。 */
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /** このリクエストで Server-Timing ヘッダを返すか。 */
+    boolean isHeaderRequested() {
+        return headerEnabled;
+    }
+
+    /** 計測中なら metric に所要時間を足し込む。 */
+    public static void record(String metric, long nanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.add(metric, nanos);
+        }
+    }
+
+    /** 計測中なら action の所要時間を metric に足し込み、action の結果を返す。 */
+    public static <T> T time(String metric, Supplier<T> action) {
+        if (CURRENT.get() == null) {
+            return action.get();
+        }
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            record(metric, System.nanoTime() - start);
+        }
+    }
+
+    /** 現在のスレッドで計測中かどうか。 */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /** 現在のスレッドで計測中で、かつ Server-Timing ヘッダを返すリクエストかどうか。 */
+    public static boolean isHeaderEnabled() {
+        ServerTiming timing = CURRENT.get();
+        return timing != null && timing.headerEnabled;
+    }
+
+    void add(String metric, long nanos) {
+        Entry entry = entries.computeIfAbsent(metric, k -> new Entry());
+        entry.nanos += nanos;
+        entry.count++;
+    }
+
+    /** 開始からの経過時間（ナノ秒）。 */
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Server-Timing ヘッダの値を返す。例: {@code jwt;dur=0.41, db;dur=3.20;desc="4 calls", app;dur=7.93}
+     * 2回以上呼ばれた項目には回数を desc に付ける。
+     */
+    String toHeaderValue() {
+        StringJoiner joiner = new StringJoiner(", ");
+        entries.forEach((metric, entry) -> {
+            String value = metric + ";dur=" + millis(entry.nanos);
+            if (entry.count > 1) {
+                value += ";desc=\"" + entry.count + " calls\"";
+            }
+            joiner.add(value);
+        });
+        joiner.add(APP + ";dur=" + millis(elapsedNanos()));
+        return joiner.toString();
+    }
+
+    /** 構造化ログ用に、項目名 → ミリ秒 の組を key=value 形式で返す。 */
+    String toLogFields() {
+        StringJoiner joiner = new StringJoiner(" ");
+        joiner.add(APP + "_ms=" + millis(elapsedNanos()));
+        entries.forEach((metric, entry) -> {
+            joiner.add(metric + "_ms=" + millis(entry.nanos));
+            joiner.add(metric + "_count=" + entry.count);
+        });
+        return joiner.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+
+    private static final class Entry {
+        private long nanos;
+        private int count;
+    }
+}
@@ -0,0 +1,28 @@
+package com.boardgameapp.monitoring;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 非同期処理（WebAsyncTask）を実行するスレッドに、{@link ServerTimingFilter} が始めた集計を紐づける。
+ * 実行中のリポジトリ呼び出しやパスワード照合の時間も、同じリクエストの内訳に入る。
+ */
+public class ServerTimingCallableInterceptor implements CallableProcessingInterceptor {
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        ServerTiming timing = (ServerTiming) request.getAttribute(ServerTimingFilter.TIMING_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (timing != null) {
+            ServerTiming.resume(timing);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        ServerTiming.end();
+    }
+}
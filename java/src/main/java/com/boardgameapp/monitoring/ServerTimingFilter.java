@@ -0,0 +1,159 @@
+package com.boardgameapp.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * リクエストごとに {@link ServerTiming} で処理時間の内訳を集計し、Server-Timing レスポンスヘッダとして返すフィルタ。
+ * ヘッダを返すのは、{@value #REQUEST_HEADER} リクエストヘッダかクエリ {@value #QUERY_FLAG} で求めたリクエストだけで、
+ * 本文の書き込みが始まる直前（JSON 変換の計測後）に付ける。求めていないリクエストはレスポンスを包まない。
+ * app.server-timing.log が true なら、リクエスト完了時に内訳を key=value 形式の1行ログにも出す（ヘッダの有無によらない）。
+ * 非同期処理（WebAsyncTask）に移ったリクエストは、結果を返す再ディスパッチまで集計を続ける
+ * （処理スレッドへの引き継ぎは {@link ServerTimingCallableInterceptor}）。
+ * Security のフィルタより外側で動かし、JWT 検証の時間も含める。
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "app.server-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    /** レスポンスヘッダ名 */
+    public static final String HEADER = "Server-Timing";
+    /** このリクエストヘッダ（値は問わない）があればレスポンスヘッダを返す */
+    public static final String REQUEST_HEADER = "X-Server-Timing";
+    /** このクエリパラメータ（値は問わない）があればレスポンスヘッダを返す（ブラウザで開いて確かめる用） */
+    public static final String QUERY_FLAG = "server-timing";
+
+    /** 非同期処理に移ったリクエストの集計を再ディスパッチへ引き継ぐためのリクエスト属性 */
+    static final String TIMING_ATTRIBUTE = ServerTimingFilter.class.getName() + ".timing";
+
+    private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    private final boolean logEnabled;
+
+    public ServerTimingFilter(@Value("${app.server-timing.log:false}") boolean logEnabled) {
+        this.logEnabled = logEnabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        ServerTiming timing = (ServerTiming) request.getAttribute(TIMING_ATTRIBUTE);
+        if (timing == null) {
+            timing = ServerTiming.begin(isRequested(request));
+            request.setAttribute(TIMING_ATTRIBUTE, timing);
+        } else {
+            ServerTiming.resume(timing);
+        }
+        TimingResponse timingResponse = timing.isHeaderRequested() ? new TimingResponse(response, timing) : null;
+        try {
+            filterChain.doFilter(request, timingResponse != null ? timingResponse : response);
+        } finally {
+            ServerTiming.end();
+            if (!isAsyncStarted(request)) {
+                if (timingResponse != null) {
+                    timingResponse.writeHeader();
+                }
+                if (logEnabled) {
+                    log.info("method={} path={} status={} {}", request.getMethod(), request.getRequestURI(),
+                            response.getStatus(), timing.toLogFields());
+                }
+            }
+        }
+    }
+
+    /** Server-Timing ヘッダを求めているリクエストか（リクエストヘッダかクエリのフラグ）。本文は読まない。 */
+    static boolean isRequested(HttpServletRequest request) {
+        if (request.getHeader(REQUEST_HEADER) != null) {
+            return true;
+        }
+        String query = request.getQueryString();
+        if (query == null) {
+            return false;
+        }
+        for (String param : query.split("&")) {
+            if (param.equals(QUERY_FLAG) || param.startsWith(QUERY_FLAG + "=")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** 本文の書き込み開始・コミットの直前に Server-Timing ヘッダを付けるレスポンスラッパー。 */
+    static final class TimingResponse extends HttpServletResponseWrapper {
+
+        private final ServerTiming timing;
+        private boolean headerWritten;
+
+        TimingResponse(HttpServletResponse response, ServerTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        void writeHeader() {
+            if (!headerWritten && !isCommitted()) {
+                setHeader(HEADER, timing.toHeaderValue());
+            }
+            headerWritten = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.boardgameapp.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * JSON 変換の時間を {@link ServerTiming#JSON} に記録する Jackson コンバータ。
+ * Server-Timing ヘッダを返すリクエストでだけ、いったんメモリ上に書き出してから送信する。
+ * こうすると変換時間だけを測れ、ヘッダもコミット前に付けられる。
+ * それ以外のリクエストは通常どおり直接書き込み、計測中なら書き込みを含めた時間をログ用に記録する。
+ */
+public class ServerTimingJsonConverter extends MappingJackson2HttpMessageConverter {
+
+    public ServerTimingJsonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (!ServerTiming.isHeaderEnabled()) {
+            long start = System.nanoTime();
+            super.writeInternal(object, type, outputMessage);
+            ServerTiming.record(ServerTiming.JSON, System.nanoTime() - start);
+            return;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        long start = System.nanoTime();
+        super.writeInternal(object, type, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return buffer;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return outputMessage.getHeaders();
+            }
+        });
+        ServerTiming.record(ServerTiming.JSON, System.nanoTime() - start);
+        buffer.writeTo(outputMessage.getBody());
+    }
+}
@@ -0,0 +1,32 @@
+package com.boardgameapp.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** しきい値を超えた遅いリクエストを表す JFR イベント。処理中に採取したスタックと発行したクエリを持つ。 */
+@Name("com.boardgameapp.SlowRequest")
+@Label("Slow Request")
+@Category({"BoardGame App", "HTTP"})
+@Description("app.profiling.slow-request-ms を超えたリクエスト")
+@StackTrace(false)
+public class SlowRequestEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Stack Snapshot")
+    public String stackSnapshot;
+
+    @Label("Queries")
+    public String queries;
+}
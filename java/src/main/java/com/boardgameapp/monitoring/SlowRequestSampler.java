@@ -0,0 +1,130 @@
+package com.boardgameapp.monitoring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 処理時間がしきい値を超えたリクエストを記録するサンプラー。
+ * 処理中のリクエストを一定間隔で見回り、しきい値を超えたものだけ処理スレッドのスタックを1回採取する。
+ * 終了時にしきい値を超えていれば、スタックと発行したクエリの一覧を WARN ログと {@link SlowRequestEvent} に出す。
+ * 速いリクエストにかかる費用は登録と削除だけなので、常時有効にしておける。
+ * 見回りは専用のスレッドで行い、@Scheduled の共有スレッドで動く掃除処理が長引いても止まらない。
+ */
+@Component
+public class SlowRequestSampler implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowRequestSampler.class);
+
+    /** ログ・イベントに残すスタックの最大フレーム数 */
+    private static final int MAX_FRAMES = 40;
+
+    private final long thresholdNanos;
+    private final int maxQueries;
+    private final Set<RequestProfile> active = ConcurrentHashMap.newKeySet();
+    /** 見回り用のスレッド（sampleIntervalMs が 0 以下なら作らない） */
+    private final ScheduledExecutorService sampler;
+
+    public SlowRequestSampler(
+            @Value("${app.profiling.slow-request-ms:1000}") long thresholdMs,
+            @Value("${app.profiling.max-queries:50}") int maxQueries,
+            @Value("${app.profiling.sample-interval-ms:250}") long sampleIntervalMs) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.maxQueries = maxQueries;
+        if (sampleIntervalMs > 0) {
+            this.sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "slow-request-sampler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sampler.scheduleWithFixedDelay(this::sample, sampleIntervalMs, sampleIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.sampler = null;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (sampler != null) {
+            sampler.shutdownNow();
+        }
+    }
+
+    /** 現在のスレッドでリクエストの記録を開始する。 */
+    RequestProfile start(String method, String path) {
+        RequestProfile profile = new RequestProfile(Thread.currentThread(), method, path, maxQueries);
+        RequestProfile.bind(profile);
+        active.add(profile);
+        return profile;
+    }
+
+    /** 非同期処理に移るため、リクエストを現在のスレッドから外す（待ち中はスタックを採取しない）。 */
+    void suspend(RequestProfile profile) {
+        profile.thread(null);
+        RequestProfile.unbind();
+    }
+
+    /** 非同期処理を引き継いだ現在のスレッドにリクエストを紐づけ直す。 */
+    void resume(RequestProfile profile) {
+        profile.thread(Thread.currentThread());
+        RequestProfile.bind(profile);
+    }
+
+    /** リクエストの記録を終了し、しきい値を超えていればログとイベントに出す。 */
+    void finish(RequestProfile profile, int status) {
+        active.remove(profile);
+        profile.thread(null);
+        RequestProfile.unbind();
+        long elapsed = profile.elapsedNanos();
+        if (elapsed < thresholdNanos) {
+            return;
+        }
+        String stack = format(profile.stackSnapshot());
+        String queries = profile.queriesText();
+        log.warn("Slow request: method={} path={} status={} duration_ms={} queries={}\nQueries:\n{}Stack snapshot:\n{}",
+                profile.method(), profile.path(), status, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                profile.queryCount(), queries, stack);
+        SlowRequestEvent event = new SlowRequestEvent();
+        if (event.isEnabled()) {
+            event.method = profile.method();
+            event.path = profile.path();
+            event.status = status;
+            event.stackSnapshot = stack;
+            event.queries = queries;
+            event.commit();
+        }
+    }
+
+    /** しきい値を超えてまだスタックを採取していない処理中のリクエストについて、スタックを採取する。 */
+    void sample() {
+        for (RequestProfile profile : active) {
+            Thread thread = profile.thread();
+            if (thread != null && profile.stackSnapshot() == null && profile.elapsedNanos() >= thresholdNanos) {
+                profile.stackSnapshot(thread.getStackTrace());
+            }
+        }
+    }
+
+    private static String format(StackTraceElement[] stack) {
+        if (stack == null) {
+            return "(not sampled)\n";
+        }
+        StringBuilder sb = new StringBuilder();
+        int frames = Math.min(stack.length, MAX_FRAMES);
+        for (int i = 0; i < frames; i++) {
+            sb.append("\tat ").append(stack[i]).append('\n');
+        }
+        if (stack.length > frames) {
+            sb.append("\t... ").append(stack.length - frames).append(" more\n");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,93 @@
+package com.boardgameapp.monitoring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * 起動時間の内訳をログに出すコンポーネント。
+ * {@link BufferingApplicationStartup} で記録した起動ステップを、子ステップの時間を除いた自身の時間の長い順に
+ * 上位だけ INFO ログに出す。出力後は記録を捨ててメモリを返す。
+ * main 以外（テストなど）で起動して記録がない場合は何もしない。
+ */
+@Component
+public class StartupReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupReporter.class);
+
+    private final boolean enabled;
+    private final int top;
+
+    public StartupReporter(
+            @Value("${app.startup.report.enabled:true}") boolean enabled,
+            @Value("${app.startup.report.top:15}") int top) {
+        this.enabled = enabled;
+        this.top = top;
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (!(startup instanceof BufferingApplicationStartup buffering)) {
+            return;
+        }
+        StartupTimeline timeline = buffering.drainBufferedTimeline();
+        if (!enabled) {
+            return;
+        }
+        long sinceJvmStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        log.info("Ready {} ms after JVM start (context {} ms). Slowest startup steps by self time:\n{}",
+                sinceJvmStart, event.getTimeTaken() == null ? -1 : event.getTimeTaken().toMillis(),
+                format(slowestSteps(timeline.getEvents(), top)));
+    }
+
+    /** 子ステップの時間を差し引いた自身の時間の長い順に、上位 {@code limit} 件を返す。 */
+    static List<StepTime> slowestSteps(List<StartupTimeline.TimelineEvent> events, int limit) {
+        Map<Long, Duration> childTime = new HashMap<>();
+        for (StartupTimeline.TimelineEvent e : events) {
+            Long parentId = e.getStartupStep().getParentId();
+            if (parentId != null) {
+                childTime.merge(parentId, e.getDuration(), Duration::plus);
+            }
+        }
+        return events.stream()
+                .map(e -> new StepTime(e.getStartupStep().getName(), tags(e.getStartupStep()), e.getDuration(),
+                        e.getDuration().minus(childTime.getOrDefault(e.getStartupStep().getId(), Duration.ZERO))))
+                .sorted(Comparator.comparing(StepTime::self).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private static String tags(StartupStep step) {
+        return StreamSupport.stream(step.getTags().spliterator(), false)
+                .map(tag -> tag.getKey() + "=" + tag.getValue())
+                .collect(Collectors.joining(" "));
+    }
+
+    private static String format(List<StepTime> steps) {
+        return steps.stream()
+                .map(s -> String.format("%6d ms self %6d ms total  %s %s",
+                        s.self().toMillis(), s.total().toMillis(), s.name(), s.tags()))
+                .collect(Collectors.joining("\n"));
+    }
+
+    /** 起動ステップ1つの名前・タグ・全体の時間・自身の時間。 */
+    record StepTime(String name, String tags, Duration total, Duration self) {
+    }
+}
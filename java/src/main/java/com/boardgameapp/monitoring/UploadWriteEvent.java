@@ -0,0 +1,26 @@
+package com.boardgameapp.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** アップロード画像のディスク書き込みを表す JFR イベント。 */
+@Name("com.boardgameapp.UploadWrite")
+@Label("Upload Write")
+@Category({"BoardGame App", "Upload"})
+@Description("アップロードを受信してファイルへ書き込んだ時間とバイト数")
+@StackTrace(false)
+public class UploadWriteEvent extends Event {
+
+    @Label("Kind")
+    @Description("direct（1回で送信）または chunk（分割アップロードの1チャンク）")
+    public String kind;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
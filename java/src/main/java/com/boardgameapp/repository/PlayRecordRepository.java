@@ -1,10 +1,20 @@
 package com.boardgameapp.repository;
 
 import com.boardgameapp.entity.PlayRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /** プレイ記録の永続化を行うリポジトリ。 */
 public interface PlayRecordRepository extends JpaRepository<PlayRecord, Long> {
@@ -18,6 +28,41 @@ public interface PlayRecordRepository extends JpaRepository<PlayRecord, Long> {
     /** ID とユーザーID で1件取得する。 */
     Optional<PlayRecord> findByIdAndUserId(Long id, Long userId);
 
-    /** 指定ゲームに紐づくプレイ記録を一括削除する。 */
-    void deleteByUserBoardGameId(Long userBoardGameId);
+    /** ユーザーID と複数の ID でまとめて取得する（一括操作の事前読み込み用）。 */
+    List<PlayRecord> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    /**
+     * 指定ゲームに紐づくプレイ記録を1文の DELETE で一括削除する。
+     * 派生クエリの deleteBy は1件ずつ読み込んで削除するため使わない。
+     */
+    @Modifying
+    @Query("delete from PlayRecord p where p.userBoardGameId = :userBoardGameId")
+    int deleteByUserBoardGameId(@Param("userBoardGameId") Long userBoardGameId);
+
+    /**
+     * ユーザーの全件を ID 順にカーソルで1件ずつ読む（エクスポート用）。
+     * 読み取り専用トランザクション内で使い、読み終えた Stream は閉じること。
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from PlayRecord p where p.userId = :userId order by p.id")
+    Stream<PlayRecord> streamByUserId(@Param("userId") Long userId);
+
+    /**
+     * {@link #streamByUserId} と同じ順に、各プレイ記録とそのゲームの名前・BGG ID を読む（CSV エクスポート用）。
+     * 行は [PlayRecord, String name, String bggId]。
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p, g.name, g.bggId from PlayRecord p left join UserBoardGame g on g.id = p.userBoardGameId"
+            + " where p.userId = :userId order by p.id")
+    Stream<Object[]> streamWithGameByUserId(@Param("userId") Long userId);
+
+    /** 指定ゲーム・プレイ日で、指定時刻より前に作ったプレイ記録をまとめて取得する（取り込み時の重複確認用）。 */
+    List<PlayRecord> findByUserIdAndUserBoardGameIdInAndPlayedAtInAndCreatedAtBefore(
+            Long userId, Collection<Long> userBoardGameIds, Collection<LocalDate> playedAts, Instant createdBefore);
 }
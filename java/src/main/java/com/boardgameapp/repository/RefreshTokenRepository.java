@@ -0,0 +1,39 @@
+package com.boardgameapp.repository;
+
+import com.boardgameapp.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/** リフレッシュトークンの永続化を行うリポジトリ。 */
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    /** トークンのハッシュで1件取得する。 */
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /** 未使用・未失効なら使用済みにする。同時に同じトークンが使われても1件だけが 1 を返す。 */
+    @Modifying
+    @Query("update RefreshToken t set t.usedAt = :now where t.id = :id and t.usedAt is null and t.revoked = false")
+    int markUsed(@Param("id") Long id, @Param("now") Instant now);
+
+    /** family のトークンをすべて失効させる。 */
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true where t.familyId = :familyId and t.revoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    /** ユーザーのトークンをすべて削除する。 */
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshToken t where t.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    /** 有効期限を過ぎたトークンを削除する。 */
+    @Modifying
+    @Query("delete from RefreshToken t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
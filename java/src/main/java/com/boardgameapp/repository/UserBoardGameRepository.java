@@ -1,10 +1,17 @@
 package com.boardgameapp.repository;
 
 import com.boardgameapp.entity.UserBoardGame;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /** ユーザー所持ボードゲームの永続化を行うリポジトリ。 */
 public interface UserBoardGameRepository extends JpaRepository<UserBoardGame, Long> {
@@ -14,4 +21,35 @@ public interface UserBoardGameRepository extends JpaRepository<UserBoardGame, Lo
 
     /** ID とユーザーID で1件取得する。 */
     Optional<UserBoardGame> findByIdAndUserId(Long id, Long userId);
+
+    /** ユーザーID と複数の ID でまとめて取得する（一括操作の事前読み込み用）。 */
+    List<UserBoardGame> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    /** ユーザーID と複数の BGG ID でまとめて取得する（インポートの照合用）。 */
+    @Query("select g from UserBoardGame g where g.userId = :userId and g.bggId in :bggIds order by g.id")
+    List<UserBoardGame> findByUserIdAndBggIdIn(@Param("userId") Long userId, @Param("bggIds") Collection<String> bggIds);
+
+    /** ユーザーID と複数の名前で大文字小文字を区別せずまとめて取得する。names は小文字で渡す（インポートの照合用）。 */
+    @Query("select g from UserBoardGame g where g.userId = :userId and lower(g.name) in :names order by g.id")
+    List<UserBoardGame> findByUserIdAndLowerNameIn(@Param("userId") Long userId, @Param("names") Collection<String> names);
+
+    /** 指定URLのうち、いずれかの行の thumbnailUrl として参照されているものを返す。 */
+    @Query("select distinct g.thumbnailUrl from UserBoardGame g where g.thumbnailUrl in :urls")
+    List<String> findReferencedThumbnailUrls(@Param("urls") Collection<String> urls);
+
+    /**
+     * ユーザーの全件を ID 順にカーソルで1件ずつ読む（エクスポート用）。
+     * 読み取り専用トランザクション内で使い、読み終えた Stream は閉じること。
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select g from UserBoardGame g where g.userId = :userId order by g.id")
+    Stream<UserBoardGame> streamByUserId(@Param("userId") Long userId);
+
+    /** ユーザーの行が参照しているサムネイルURLを重複なしで読む（エクスポート用）。 */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query("select distinct g.thumbnailUrl from UserBoardGame g where g.userId = :userId and g.thumbnailUrl is not null")
+    Stream<String> streamThumbnailUrlsByUserId(@Param("userId") Long userId);
 }
@@ -3,6 +3,7 @@ package com.boardgameapp.repository;
 import com.boardgameapp.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 /** ユーザーエンティティの永続化を行うリポジトリ。 */
@@ -19,4 +20,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     /** メールアドレスの存在有無を返す。 */
     boolean existsByEmail(String email);
+
+    /** 全ユーザーのユーザー名とメールアドレスだけを取得する。 */
+    List<UserKeys> findAllKeysBy();
+
+    /** ユーザー名とメールアドレスだけのプロジェクション。 */
+    interface UserKeys {
+        String getUsername();
+
+        String getEmail();
+    }
 }
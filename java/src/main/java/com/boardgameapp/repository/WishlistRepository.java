@@ -1,10 +1,17 @@
 package com.boardgameapp.repository;
 
 import com.boardgameapp.entity.WishlistItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /** ほしいものリストの永続化を行うリポジトリ。 */
 public interface WishlistRepository extends JpaRepository<WishlistItem, Long> {
@@ -14,4 +21,27 @@ public interface WishlistRepository extends JpaRepository<WishlistItem, Long> {
 
     /** ID とユーザーID で1件取得する。 */
     Optional<WishlistItem> findByIdAndUserId(Long id, Long userId);
+
+    /** ユーザーID と複数の ID でまとめて取得する（一括操作の事前読み込み用）。 */
+    List<WishlistItem> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    /** 指定URLのうち、いずれかの行の thumbnailUrl として参照されているものを返す。 */
+    @Query("select distinct w.thumbnailUrl from WishlistItem w where w.thumbnailUrl in :urls")
+    List<String> findReferencedThumbnailUrls(@Param("urls") Collection<String> urls);
+
+    /**
+     * ユーザーの全件を ID 順にカーソルで1件ずつ読む（エクスポート用）。
+     * 読み取り専用トランザクション内で使い、読み終えた Stream は閉じること。
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select w from WishlistItem w where w.userId = :userId order by w.id")
+    Stream<WishlistItem> streamByUserId(@Param("userId") Long userId);
+
+    /** ユーザーの行が参照しているサムネイルURLを重複なしで読む（エクスポート用）。 */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query("select distinct w.thumbnailUrl from WishlistItem w where w.userId = :userId and w.thumbnailUrl is not null")
+    Stream<String> streamThumbnailUrlsByUserId(@Param("userId") Long userId);
 }
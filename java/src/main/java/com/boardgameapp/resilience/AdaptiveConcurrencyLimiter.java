@@ -0,0 +1,106 @@
+package com.boardgameapp.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 応答時間の変化から同時実行数の上限を自動で決めるリミッタ（Gradient 方式）。
+ * 直近の応答時間（短期平均）が普段の応答時間（長期平均）の tolerance 倍を超えると、比に応じて上限を下げ、
+ * 収まっていれば上限を √上限 ずつ広げる。上限の半分も使っていないときは情報がないので上限を変えない。
+ * 受け付け判定は CAS だけで行い、応答時間の反映だけを排他する。
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final int SHORT_WINDOW = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final int longWindow;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    /**
+     * @param initialLimit 最初の上限
+     * @param minLimit 上限の下限
+     * @param maxLimit 上限の上限
+     * @param tolerance 普段の応答時間の何倍までを正常とみなすか
+     * @param smoothing 新しい上限をどれだけ反映するか（0〜1）
+     * @param longWindow 普段の応答時間を平均するサンプル数
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                                      double smoothing, int longWindow) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.longWindow = longWindow;
+    }
+
+    /**
+     * 上限の share 倍までの枠が空いていれば1つ確保する。
+     *
+     * @param share 使ってよい上限の割合（優先度の低い要求ほど小さくし、混雑時に先に断る）
+     * @return 確保できたら処理中の件数（確保した分を含む）、空いていなければ -1
+     */
+    public int tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (limit * share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * 確保した枠を返し、応答時間を上限の計算に反映する。
+     *
+     * @param rttNanos 処理にかかった時間。負なら反映しない（応答時間が処理内容で大きく変わる要求など）
+     * @param inFlightAtStart 確保したときの処理中の件数
+     */
+    public void release(long rttNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        if (rttNanos >= 0) {
+            update(rttNanos, inFlightAtStart);
+        }
+    }
+
+    private synchronized void update(long rttNanos, int inFlightAtStart) {
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+        shortRttNanos += (rttNanos - shortRttNanos) / SHORT_WINDOW;
+        longRttNanos += (rttNanos - longRttNanos) / longWindow;
+        // 混雑が解けた後に普段の応答時間が高止まりしないよう、短期平均よりずっと大きければ下げていく
+        if (longRttNanos > 2 * shortRttNanos) {
+            longRttNanos *= 0.95;
+        }
+        double current = limit;
+        if (inFlightAtStart < current / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+        double target = current * gradient + Math.sqrt(current);
+        limit = Math.max(minLimit, Math.min(maxLimit, current * (1 - smoothing) + target * smoothing));
+    }
+
+    /** 現在の上限。 */
+    public double getLimit() {
+        return limit;
+    }
+
+    /** 処理中の件数。 */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
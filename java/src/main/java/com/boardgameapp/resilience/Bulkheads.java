@@ -0,0 +1,101 @@
+package com.boardgameapp.resilience;
+
+import com.boardgameapp.service.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 画像アップロードと認証（登録・ログイン）を、JSON API（Tomcat のリクエストスレッド）とは別のスレッドプールで実行する。
+ * コントローラは {@link WebAsyncTask} を返し、リクエストスレッドはすぐに Tomcat に戻る。
+ * 遅いアップロードや BCrypt がそれぞれのプールを埋めても、一覧・更新などの API は影響を受けない。
+ * プールの待ち行列が埋まっていれば待たずに {@link ServiceBusyException} で断り（503）、
+ * 処理が timeout を超えれば打ち切る（503）。
+ * 各プールの使用状況は executor.* メトリクス（name=upload / auth）に出す。
+ */
+@Component
+public class Bulkheads implements DisposableBean {
+
+    private final Pool upload;
+    private final Pool auth;
+
+    public Bulkheads(
+            MeterRegistry meterRegistry,
+            @Value("${app.bulkhead.upload.threads:4}") int uploadThreads,
+            @Value("${app.bulkhead.upload.queue-capacity:16}") int uploadQueueCapacity,
+            @Value("${app.bulkhead.upload.timeout-ms:60000}") long uploadTimeoutMs,
+            @Value("${app.bulkhead.auth.threads:8}") int authThreads,
+            @Value("${app.bulkhead.auth.queue-capacity:32}") int authQueueCapacity,
+            @Value("${app.bulkhead.auth.timeout-ms:10000}") long authTimeoutMs) {
+        this.upload = new Pool("upload", uploadThreads, uploadQueueCapacity, uploadTimeoutMs, meterRegistry);
+        this.auth = new Pool("auth", authThreads, authQueueCapacity, authTimeoutMs, meterRegistry);
+    }
+
+    /**
+     * アップロード用のプールで実行するタスクを返す。
+     *
+     * @param task 処理
+     * @return コントローラの戻り値にする非同期タスク
+     */
+    public <T> WebAsyncTask<T> upload(Callable<T> task) {
+        return upload.task(task);
+    }
+
+    /**
+     * 認証用のプールで実行するタスクを返す。
+     *
+     * @param task 処理
+     * @return コントローラの戻り値にする非同期タスク
+     */
+    public <T> WebAsyncTask<T> auth(Callable<T> task) {
+        return auth.task(task);
+    }
+
+    @Override
+    public void destroy() {
+        upload.executor.shutdownNow();
+        auth.executor.shutdownNow();
+    }
+
+    /** 固定サイズのスレッドプール1つと、その待ち時間の上限。 */
+    private static final class Pool {
+        private final ThreadPoolExecutor executor;
+        private final TaskExecutorAdapter adapter;
+        private final long timeoutMs;
+
+        Pool(String name, int threads, int queueCapacity, long timeoutMs, MeterRegistry meterRegistry) {
+            Counter rejected = Counter.builder("boardgame.bulkhead.rejected")
+                    .description("プールの待ち行列が埋まっていて断った要求の件数")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+            AtomicInteger sequence = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                        Thread thread = new Thread(runnable, name + "-" + sequence.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }, (runnable, pool) -> {
+                        rejected.increment();
+                        throw new ServiceBusyException("Server is busy", 1);
+                    });
+            ExecutorServiceMetrics.monitor(meterRegistry, executor, name);
+            this.adapter = new TaskExecutorAdapter(executor);
+            this.timeoutMs = timeoutMs;
+        }
+
+        <T> WebAsyncTask<T> task(Callable<T> task) {
+            return new WebAsyncTask<>(timeoutMs, adapter, task);
+        }
+    }
+}
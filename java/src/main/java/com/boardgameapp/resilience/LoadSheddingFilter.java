@@ -0,0 +1,163 @@
+package com.boardgameapp.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * /api/** の同時実行数を {@link AdaptiveConcurrencyLimiter} で絞り、超えた要求を待たせずに 503 と Retry-After で返すフィルタ。
+ * 過負荷で Tomcat の待ち行列に溜めて全員が遅くなる代わりに、早めに断って受け付けた要求の応答時間を保つ。
+ * 要求は優先度で分け、混雑時は画像アップロード・認証・エクスポート（重い）、書き込み、読み取りの順に断る。
+ * 上限の計算に使う応答時間は読み取りと書き込みのものだけ（重い要求は応答時間が内容次第で大きく変わるため）。
+ * 別プールで非同期に処理する要求（{@link Bulkheads}）は、応答を返し終えるまで枠を持ち続ける。
+ * 計測・プロファイリングのフィルタの内側、Security のフィルタより外側で動かし、断る費用を小さくする。
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@ConditionalOnProperty(name = "app.load-shedding.enabled", havingValue = "true", matchIfMissing = true)
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    /** 要求の優先度と、使ってよい上限の割合 */
+    enum Priority {
+        READ(1.0), WRITE(0.9), EXPENSIVE(0.6);
+
+        final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+    }
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Map<Priority, Counter> shed = new EnumMap<>(Priority.class);
+
+    public LoadSheddingFilter(
+            MeterRegistry meterRegistry,
+            @Value("${app.load-shedding.initial-limit:20}") int initialLimit,
+            @Value("${app.load-shedding.min-limit:4}") int minLimit,
+            @Value("${app.load-shedding.max-limit:200}") int maxLimit,
+            @Value("${app.load-shedding.tolerance:2.0}") double tolerance,
+            @Value("${app.load-shedding.smoothing:0.2}") double smoothing,
+            @Value("${app.load-shedding.long-window:600}") int longWindow) {
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, tolerance, smoothing,
+                longWindow);
+        for (Priority priority : Priority.values()) {
+            shed.put(priority, Counter.builder("boardgame.load-shedding.rejected")
+                    .description("同時実行数の上限を超えて 503 を返した件数（優先度別）")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("boardgame.load-shedding.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("現在の同時実行数の上限")
+                .register(meterRegistry);
+        Gauge.builder("boardgame.load-shedding.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("処理中の /api/** の要求数")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        Priority priority = priorityOf(request);
+        int inFlight = limiter.tryAcquire(priority.share);
+        if (inFlight < 0) {
+            shed.get(priority).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Server is busy\"}");
+            return;
+        }
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (request.isAsyncStarted()) {
+                // 別プールで処理中（Bulkheads）。枠は応答を返し終えたときに返す
+                request.getAsyncContext().addListener(new ReleaseOnComplete(priority, start, inFlight));
+            } else {
+                boolean sample = completed && priority != Priority.EXPENSIVE;
+                limiter.release(sample ? System.nanoTime() - start : -1, inFlight);
+            }
+        }
+    }
+
+    /** 非同期処理の完了・失敗・タイムアウトのいずれかで1度だけ枠を返す。 */
+    private final class ReleaseOnComplete implements AsyncListener {
+        private final Priority priority;
+        private final long start;
+        private final int inFlight;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnComplete(Priority priority, long start, int inFlight) {
+            this.priority = priority;
+            this.start = start;
+            this.inFlight = inFlight;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(priority != Priority.EXPENSIVE);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(false);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(false);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // startAsync が再度呼ばれるとリスナーは外れるため付け直す
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release(boolean sample) {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(sample ? System.nanoTime() - start : -1, inFlight);
+            }
+        }
+    }
+
+    static Priority priorityOf(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+        if (path.startsWith("/api/auth/") || path.startsWith("/api/me/upload-") || path.startsWith("/api/me/export")
+                || ("POST".equals(method) && path.equals("/api/me/imports"))) {
+            return Priority.EXPENSIVE;
+        }
+        return "GET".equals(method) || "HEAD".equals(method) ? Priority.READ : Priority.WRITE;
+    }
+}
@@ -0,0 +1,115 @@
+package com.boardgameapp.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 同じユーザーの同じ一覧を同時に読む要求を1回の読み込みにまとめる（single-flight）。
+ * 最初の要求（リーダー）だけが読み込み、その間に来た同じ要求はリーダーの結果（例外も含む）を待って共有する。
+ * 結果は保持しない。読み込みが終われば次の要求はまた DB を読む。
+ * 書き込みのコミット後に {@link #forgetAfterCommit} を呼ぶと、そのユーザーの読み込み中の要求を忘れ、
+ * 書き込みの応答の後に来た読み込みがコミット前に始まった読み込みに相乗りしないようにする。
+ * 共有する結果は呼び出し側で変更しないこと。
+ */
+@Component
+public class SingleFlight {
+
+    /** 一覧の種類とユーザー名の組 */
+    private record Key(String name, String username) {
+    }
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 同じ name・username の読み込みが進行中ならその結果を待ち、なければ loader を実行する。
+     *
+     * @param name 一覧の種類（メトリクスのタグにもなる）
+     * @param username ユーザー名
+     * @param loader 読み込み処理
+     * @return 読み込み結果
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(String name, String username, Supplier<V> loader) {
+        Key key = new Key(name, username);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            counter(name, "coalesced").increment();
+            return (V) await(leader);
+        }
+        counter(name, "leader").increment();
+        try {
+            V result = loader.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * 指定ユーザーの読み込み中の要求をすべて忘れる。進行中のリーダーはそのまま完了し、待っている要求にも結果を返す。
+     *
+     * @param username ユーザー名
+     */
+    public void forget(String username) {
+        inFlight.keySet().removeIf(key -> key.username().equals(username));
+    }
+
+    /**
+     * トランザクション中ならコミット後に、そうでなければすぐに {@link #forget} する。
+     *
+     * @param username ユーザー名
+     */
+    public void forgetAfterCommit(String username) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            forget(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                forget(username);
+            }
+        });
+    }
+
+    private static Object await(CompletableFuture<Object> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            if (e.getCause() instanceof Error err) {
+                throw err;
+            }
+            throw e;
+        }
+    }
+
+    private Counter counter(String name, String result) {
+        return Counter.builder("boardgame.single-flight.requests")
+                .description("一覧の読み込み要求の件数（自分で読み込んだ leader / 相乗りした coalesced）")
+                .tag("name", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
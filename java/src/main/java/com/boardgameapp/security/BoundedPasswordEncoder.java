@@ -0,0 +1,109 @@
+package com.boardgameapp.security;
+
+import com.boardgameapp.service.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * パスワードのハッシュ化・照合（BCrypt）を専用の固定サイズのスレッドプールで実行する PasswordEncoder。
+ * ログインや登録が集中しても BCrypt が使う CPU はプールのスレッド数までに抑えられ、通常の API は遅くならない。
+ * 待ち行列が埋まっていれば待たずに、待ち時間が上限を超えれば打ち切って {@link ServiceBusyException}（503）を投げる。
+ * 待っているリクエストスレッドは CPU を使わない。
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final Counter rejected;
+    private final Counter timedOut;
+
+    /**
+     * @param delegate 実際にハッシュ化・照合するエンコーダ
+     * @param threads ハッシュ用スレッド数
+     * @param queueCapacity 実行待ちにできる件数（超えた要求は即座に拒否する）
+     * @param timeoutMs 呼び出し側が結果を待つ上限（待ち行列の時間を含む）
+     * @param meterRegistry プールの使用状況と拒否件数の記録先
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long timeoutMs,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password-hash");
+        this.rejected = busyCounter(meterRegistry, "rejected");
+        this.timedOut = busyCounter(meterRegistry, "timeout");
+    }
+
+    private static Counter busyCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("boardgame.password-hash.busy")
+                .description("処理枠が埋まっていて断ったパスワードのハッシュ化・照合の件数（理由別）")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return call(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return call(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T call(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceBusyException("Too many concurrent sign-ins", 1);
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw new ServiceBusyException("Too many concurrent sign-ins", 1);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Sign-in interrupted", 1);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /** ハッシュ用スレッドを止める（コンテキスト終了時に呼ばれる）。 */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -1,5 +1,10 @@
 package com.boardgameapp.security;
 
+import com.boardgameapp.monitoring.JwtVerificationEvent;
+import com.boardgameapp.monitoring.ServerTiming;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,19 +20,39 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * リクエストの Authorization: Bearer からJWTを解析し、SecurityContext に認証情報を設定するフィルタ。
+ * 署名と有効期限を検証したうえで、リクエストごとに {@link UserDetailsService} でユーザーを読み、
+ * 削除されたユーザーのトークンは有効期限内でも認証しない。ログアウトで失効させたトークン（{@link RevokedTokens}）は
+ * ユーザーを読む前に弾く。
+ * 署名検証の所要時間を boardgame.jwt.verification タイマーと JFR イベントに記録する。
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final RevokedTokens revokedTokens;
+    private final Timer validTokenTimer;
+    private final Timer invalidTokenTimer;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+                                   RevokedTokens revokedTokens, MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.revokedTokens = revokedTokens;
+        this.validTokenTimer = verificationTimer(meterRegistry, "valid");
+        this.invalidTokenTimer = verificationTimer(meterRegistry, "invalid");
+    }
+
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("boardgame.jwt.verification")
+                .description("JWT の署名検証とクレーム取得にかかった時間")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     @Override
@@ -38,18 +63,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = parseJwt(request);
             if (jwt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                String username = jwtUtil.extractUsername(jwt);
-                if (username != null) {
+                // parseClaims は署名と有効期限の検証を含む（不正・期限切れなら例外）
+                Claims claims = verify(jwt);
+                String username = claims.getSubject();
+                if (StringUtils.hasText(username) && !revokedTokens.isRevoked(claims.getId(), claims.getExpiration())) {
+                    // 削除済みのユーザーなら UsernameNotFoundException で未認証のままにする
                     UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                    if (jwtUtil.validateToken(jwt, userDetails.getUsername())) {
-                        UsernamePasswordAuthenticationToken auth =
-                                new UsernamePasswordAuthenticationToken(
-                                        userDetails,
-                                        null,
-                                        userDetails.getAuthorities());
-                        auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(auth);
-                    }
+                    UsernamePasswordAuthenticationToken auth =
+                            new UsernamePasswordAuthenticationToken(
+                                    userDetails,
+                                    null,
+                                    userDetails.getAuthorities());
+                    auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(auth);
                 }
             }
         } catch (Exception e) {
@@ -58,6 +84,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /** トークンを検証してクレームを返し、所要時間を結果別に記録する。 */
+    private Claims verify(String jwt) {
+        JwtVerificationEvent event = new JwtVerificationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean valid = false;
+        try {
+            Claims claims = jwtUtil.parseClaims(jwt);
+            valid = true;
+            return claims;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            (valid ? validTokenTimer : invalidTokenTimer).record(elapsed, TimeUnit.NANOSECONDS);
+            ServerTiming.record(ServerTiming.JWT, elapsed);
+            event.end();
+            if (event.shouldCommit()) {
+                event.valid = valid;
+                event.commit();
+            }
+        }
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String header = request.getHeader("Authorization");
         if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.UUID;
 
 /**
  * JWT トークンの生成・検証・クレーム取得を行うユーティリティ。
@@ -25,9 +26,10 @@ public class JwtUtil {
         this.expirationMs = expirationMs;
     }
 
-    /** ユーザー名とIDをクレームに含むJWTを発行する。 */
+    /** ユーザー名とIDをクレームに含むJWTを発行する。失効できるよう jti（ランダムなID）を付ける。 */
     public String generateToken(String username, Long userId) {
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
                 .claim("userId", userId)
                 .issuedAt(new Date())
@@ -56,6 +58,20 @@ public class JwtUtil {
         }
     }
 
+    /** アクセストークンの有効期間（ミリ秒）。 */
+    public long getExpirationMs() {
+        return expirationMs;
+    }
+
+    /**
+     * 署名と有効期限を検証してクレームを返す。
+     *
+     * @throws JwtException 不正・期限切れの場合
+     */
+    public Claims parseClaims(String token) {
+        return getClaims(token);
+    }
+
     private Claims getClaims(String token) {
         return Jwts.parser()
                 .verifyWith(key)
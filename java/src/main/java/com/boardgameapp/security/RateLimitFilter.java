@@ -0,0 +1,158 @@
+package com.boardgameapp.security;
+
+import com.boardgameapp.warmup.WarmupRunner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * ログイン・登録・画像アップロードと /api/me/** の書き込みにかけるレート制限フィルタ。
+ * ルートごとに {@link RateLimiter} を持ち、未ログインのルートは IP アドレス、ログイン後のルートはユーザー名で数える。
+ * 上限を超えた要求は 429 と Retry-After で返す。JWT 認証フィルタの後ろで動かす（SecurityConfig 参照）。
+ * IP アドレスは接続元のもの（リバースプロキシの後ろでは server.forward-headers-strategy を設定する）。
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    /** ウォームアップを持たない構成（@WebMvcTest のスライスなど）では空 */
+    private final ObjectProvider<WarmupRunner> warmupRunner;
+    private final List<Rule> rules;
+
+    public RateLimitFilter(
+            ObjectProvider<WarmupRunner> warmupRunner,
+            MeterRegistry meterRegistry,
+            @Value("${app.rate-limit.enabled:true}") boolean enabled,
+            @Value("${app.rate-limit.max-keys:100000}") int maxKeys,
+            @Value("${app.rate-limit.login.capacity:10}") int loginCapacity,
+            @Value("${app.rate-limit.login.per-minute:10}") int loginPerMinute,
+            @Value("${app.rate-limit.register.capacity:5}") int registerCapacity,
+            @Value("${app.rate-limit.register.per-minute:2}") int registerPerMinute,
+            @Value("${app.rate-limit.upload.capacity:40}") int uploadCapacity,
+            @Value("${app.rate-limit.upload.per-minute:120}") int uploadPerMinute,
+            @Value("${app.rate-limit.write.capacity:60}") int writeCapacity,
+            @Value("${app.rate-limit.write.per-minute:300}") int writePerMinute) {
+        this.enabled = enabled;
+        this.warmupRunner = warmupRunner;
+        // 先に一致したルールだけを適用する
+        this.rules = List.of(
+                new Rule("login", r -> isPost(r) && r.getRequestURI().equals("/api/auth/login"), false,
+                        new RateLimiter(loginCapacity, loginPerMinute, maxKeys), meterRegistry),
+                new Rule("register", r -> isPost(r) && r.getRequestURI().equals("/api/auth/register"), false,
+                        new RateLimiter(registerCapacity, registerPerMinute, maxKeys), meterRegistry),
+                new Rule("upload", RateLimitFilter::isUpload, true,
+                        new RateLimiter(uploadCapacity, uploadPerMinute, maxKeys), meterRegistry),
+                new Rule("write", r -> !isRead(r) && r.getRequestURI().startsWith("/api/me/"), true,
+                        new RateLimiter(writeCapacity, writePerMinute, maxKeys), meterRegistry));
+    }
+
+    private static boolean isPost(HttpServletRequest request) {
+        return "POST".equals(request.getMethod());
+    }
+
+    /**
+     * ファイルを受け取る要求か: 画像アップロード、分割アップロードのセッション作成・チャンク送信・完了、CSV の取り込み。
+     */
+    private static boolean isUpload(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (uri.startsWith("/api/me/upload-sessions")) {
+            return isPost(request) || "PUT".equals(request.getMethod());
+        }
+        return isPost(request) && (uri.equals("/api/me/upload-image") || uri.equals("/api/me/imports"));
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || isRead(request) || isWarmupRequest(request);
+    }
+
+    private boolean isWarmupRequest(HttpServletRequest request) {
+        WarmupRunner runner = warmupRunner.getIfAvailable();
+        return runner != null && runner.isWarmupRequest(request);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        for (Rule rule : rules) {
+            if (!rule.matcher().test(request)) {
+                continue;
+            }
+            String key = rule.byUser() ? username() : request.getRemoteAddr();
+            // ログインが必要なルートで未認証なら、この後の認可で 401 になる
+            if (key != null) {
+                long waitNanos = rule.limiter().tryAcquire(key, System.nanoTime());
+                if (waitNanos > 0) {
+                    rule.rejected().increment();
+                    reject(response, waitNanos);
+                    return;
+                }
+            }
+            break;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static String username() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.isAuthenticated() ? auth.getName() : null;
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too many requests\"}");
+    }
+
+    /** 満杯に戻ったバケットを定期的に捨てる。 */
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        for (Rule rule : rules) {
+            rule.limiter().evictIdle(now);
+        }
+    }
+
+    /** ルート1つ分の判定条件・キーの種類・バケット・拒否件数。 */
+    private record Rule(String name, Predicate<HttpServletRequest> matcher, boolean byUser, RateLimiter limiter,
+                        Counter rejected) {
+        Rule(String name, Predicate<HttpServletRequest> matcher, boolean byUser, RateLimiter limiter,
+             MeterRegistry meterRegistry) {
+            this(name, matcher, byUser, limiter, Counter.builder("boardgame.rate-limit.rejected")
+                    .description("レート制限で 429 を返した件数（ルート別）")
+                    .tag("route", name)
+                    .register(meterRegistry));
+            Gauge.builder("boardgame.rate-limit.keys", limiter, RateLimiter::size)
+                    .description("レート制限で保持しているキーの数（ルート別）")
+                    .tag("route", name)
+                    .register(meterRegistry);
+        }
+    }
+}
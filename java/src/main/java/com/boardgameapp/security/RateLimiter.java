@@ -0,0 +1,101 @@
+package com.boardgameapp.security;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * キー（ユーザー名や IP アドレス）ごとのトークンバケット。
+ * バケットは GCRA（次に満杯へ戻る理論上の時刻を1つの long で持つ形）で表し、消費は CAS だけで行うのでロックを取らない。
+ * 満杯に戻ったバケットは持っていても意味がないので {@link #evictIdle} で捨てる。キーの数が上限に達したら
+ * 最も古く作ったバケットから捨てて新しいキーの分を空ける（IP を変えながらの大量アクセスでもメモリは増え続けず、
+ * 新しい利用者が他人と同じバケットで断られることもない）。
+ */
+public class RateLimiter {
+
+    /** バケットを作った順に並べたもの。既に捨てたバケットも含みうる（取り出したときと {@link #evictIdle} で読み飛ばす） */
+    private record Entry(String key, AtomicLong bucket) {
+    }
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final int maxKeys;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final Queue<Entry> order = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param capacity 連続して受け付けられる件数（バケットの大きさ）
+     * @param perMinute 1分あたりに補充される件数
+     * @param maxKeys 保持するキーの上限
+     */
+    public RateLimiter(int capacity, int perMinute, int maxKeys) {
+        if (capacity < 1 || perMinute < 1) {
+            throw new IllegalArgumentException("capacity and perMinute must be positive");
+        }
+        this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / perMinute;
+        this.toleranceNanos = intervalNanos * (capacity - 1);
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * キーのバケットから1件分を取り出す。
+     *
+     * @param key ユーザー名や IP アドレス
+     * @param nowNanos 現在時刻（{@link System#nanoTime()}）
+     * @return 受け付けたら 0、断った場合は次に受け付けられるまでのナノ秒
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                // 全件を走査する evictIdle は定期的な掃除に任せ、ここでは古いものを1件ずつ捨てるだけにする
+                evictOldest();
+            }
+            bucket = buckets.computeIfAbsent(key, k -> {
+                AtomicLong created = new AtomicLong(nowNanos);
+                order.add(new Entry(k, created));
+                return created;
+            });
+        }
+        while (true) {
+            long full = bucket.get();
+            long base = Math.max(full, nowNanos);
+            long wait = base - toleranceNanos - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, base + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 満杯に戻ったバケットを捨てる。
+     *
+     * @param nowNanos 現在時刻（{@link System#nanoTime()}）
+     */
+    public void evictIdle(long nowNanos) {
+        buckets.values().removeIf(bucket -> bucket.get() - nowNanos <= 0);
+        order.removeIf(entry -> buckets.get(entry.key()) != entry.bucket());
+    }
+
+    /** キーの数が上限を下回るまで、最も古く作ったバケットから捨てる。 */
+    private void evictOldest() {
+        while (buckets.size() >= maxKeys) {
+            Entry oldest = order.poll();
+            if (oldest == null) {
+                return;
+            }
+            buckets.remove(oldest.key(), oldest.bucket());
+        }
+    }
+
+    /** 保持しているキーの数。 */
+    public int size() {
+        return buckets.size();
+    }
+}
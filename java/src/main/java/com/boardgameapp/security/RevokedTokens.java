@@ -0,0 +1,72 @@
+package com.boardgameapp.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ログアウトで失効させたアクセストークン（JWT の jti）の一覧。
+ * トークンの有効期限ごとのバケット（bucket-ms 単位）に分けて持ち、照会はトークン自身の有効期限からバケットを引いて
+ * 1回のハッシュ参照で済ませる（失効が1件も無ければ何もしない）。期限を過ぎたトークンは署名の検証で弾かれるため、
+ * バケットは期限を過ぎたら丸ごと捨てる。メモリ上だけに持つので、再起動や他のインスタンスには引き継がれない
+ * （アクセストークンの有効期限を短くして、その間だけの問題にしている）。
+ */
+@Component
+public class RevokedTokens {
+
+    private final long bucketMs;
+    private final Map<Long, Set<String>> buckets = new ConcurrentHashMap<>();
+
+    public RevokedTokens(
+            MeterRegistry meterRegistry,
+            @Value("${app.jwt.revocation.bucket-ms:60000}") long bucketMs) {
+        this.bucketMs = bucketMs;
+        Gauge.builder("boardgame.jwt.revoked", this, RevokedTokens::size)
+                .description("失効させた有効期限内のアクセストークンの件数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * アクセストークンを有効期限まで失効させる。
+     *
+     * @param jti トークンID
+     * @param expiresAt トークンの有効期限
+     */
+    public void revoke(String jti, Date expiresAt) {
+        if (jti == null || expiresAt == null || expiresAt.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        buckets.computeIfAbsent(bucketOf(expiresAt), b -> ConcurrentHashMap.newKeySet()).add(jti);
+    }
+
+    /** 失効させたトークンなら true を返す。 */
+    public boolean isRevoked(String jti, Date expiresAt) {
+        if (buckets.isEmpty() || jti == null || expiresAt == null) {
+            return false;
+        }
+        Set<String> bucket = buckets.get(bucketOf(expiresAt));
+        return bucket != null && bucket.contains(jti);
+    }
+
+    /** 有効期限がすべて過ぎたバケットを捨てる。 */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.sweep-ms:60000}")
+    public void sweep() {
+        long current = System.currentTimeMillis() / bucketMs;
+        buckets.keySet().removeIf(bucket -> bucket < current);
+    }
+
+    int size() {
+        return buckets.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private long bucketOf(Date expiresAt) {
+        return expiresAt.getTime() / bucketMs;
+    }
+}
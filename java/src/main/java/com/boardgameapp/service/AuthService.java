@@ -2,10 +2,17 @@ package com.boardgameapp.service;
 
 import com.boardgameapp.dto.AuthResponse;
 import com.boardgameapp.dto.LoginRequest;
+import com.boardgameapp.dto.RefreshRequest;
 import com.boardgameapp.dto.RegisterRequest;
 import com.boardgameapp.entity.User;
 import com.boardgameapp.repository.UserRepository;
 import com.boardgameapp.security.JwtUtil;
+import com.boardgameapp.security.RevokedTokens;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -14,45 +21,81 @@ import org.springframework.stereotype.Service;
 
 /**
  * ユーザー登録・ログインとJWT発行を行うサービス。
+ * 有効期間の短いアクセストークン（JWT）と、ローテーションするリフレッシュトークンを組で返す。
  */
 @Service
+@Timed(value = "boardgame.service", histogram = true)
 public class AuthService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final TakenUserKeys takenUserKeys;
+    private final RefreshTokenService refreshTokenService;
+    private final RevokedTokens revokedTokens;
 
     public AuthService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
                        JwtUtil jwtUtil,
-                       AuthenticationManager authenticationManager) {
+                       AuthenticationManager authenticationManager,
+                       TakenUserKeys takenUserKeys,
+                       RefreshTokenService refreshTokenService,
+                       RevokedTokens revokedTokens) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
         this.authenticationManager = authenticationManager;
+        this.takenUserKeys = takenUserKeys;
+        this.refreshTokenService = refreshTokenService;
+        this.revokedTokens = revokedTokens;
     }
 
     /**
      * 新規ユーザーを登録し、JWTトークンとユーザー情報を返す。
+     * 重複の最終判定は users の一意制約で行い、新しいユーザー名・メールアドレスなら INSERT 1回で済ませる。
+     * 使用済みかもしれない値（{@link TakenUserKeys}）だけはパスワードのハッシュ化の前に DB で確かめる。
      *
      * @param request ユーザー名・メール・パスワード
      * @return トークンとユーザー名・ID
      */
     public AuthResponse register(RegisterRequest request) {
-        if (userRepository.existsByUsername(request.getUsername())) {
+        String username = request.getUsername();
+        String email = request.getEmail();
+        if (takenUserKeys.mightHaveUsername(username) && userRepository.existsByUsername(username)) {
             throw new IllegalArgumentException("Username already exists");
         }
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (takenUserKeys.mightHaveEmail(email) && userRepository.existsByEmail(email)) {
             throw new IllegalArgumentException("Email already exists");
         }
         User user = new User();
-        user.setUsername(request.getUsername());
-        user.setEmail(request.getEmail());
+        user.setUsername(username);
+        user.setEmail(email);
         user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
-        user = userRepository.save(user);
-        String token = jwtUtil.generateToken(user.getUsername(), user.getId());
-        return new AuthResponse(token, user.getUsername(), user.getId());
+        try {
+            user = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateOf(e, username, email);
+        }
+        takenUserKeys.add(username, email);
+        return issueTokens(user.getUsername(), user.getId(), refreshTokenService.issue(user.getId()));
+    }
+
+    /** 一意制約違反を、どちらが重複したかのメッセージに変換する。制約名が取れなければ DB で確かめる。 */
+    private RuntimeException duplicateOf(DataIntegrityViolationException e, String username, String email) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                ? violation.getConstraintName().toLowerCase() : "";
+        if (constraint.contains(User.USERNAME_CONSTRAINT)
+                || (!constraint.contains(User.EMAIL_CONSTRAINT) && userRepository.existsByUsername(username))) {
+            takenUserKeys.add(username, null);
+            return new IllegalArgumentException("Username already exists");
+        }
+        if (constraint.contains(User.EMAIL_CONSTRAINT) || userRepository.existsByEmail(email)) {
+            takenUserKeys.add(null, email);
+            return new IllegalArgumentException("Email already exists");
+        }
+        return e;
     }
 
     /**
@@ -67,7 +110,46 @@ public class AuthService {
         String username = authentication.getName();
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        String token = jwtUtil.generateToken(username, user.getId());
-        return new AuthResponse(token, username, user.getId());
+        return issueTokens(username, user.getId(), refreshTokenService.issue(user.getId()));
+    }
+
+    /**
+     * リフレッシュトークンを新しいものと交換し、アクセストークンを発行し直す。
+     *
+     * @param request リフレッシュトークン
+     * @return 新しいトークンの組とユーザー名・ID
+     * @throws InvalidRefreshTokenException リフレッシュトークンが使えない場合
+     */
+    public AuthResponse refresh(RefreshRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        User user = userRepository.findById(rotation.userId())
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+        return issueTokens(user.getUsername(), user.getId(), rotation.refreshToken());
+    }
+
+    /**
+     * ログアウトする。アクセストークンは有効期限まで失効させ、リフレッシュトークンは family ごと失効させる。
+     * どちらも省略でき、不正・期限切れのものは無視する。
+     *
+     * @param accessToken Authorization ヘッダのアクセストークン（null 可）
+     * @param refreshToken リフレッシュトークン（null 可）
+     */
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null) {
+            try {
+                Claims claims = jwtUtil.parseClaims(accessToken);
+                revokedTokens.revoke(claims.getId(), claims.getExpiration());
+            } catch (JwtException | IllegalArgumentException e) {
+                // 期限切れ・不正なトークンは失効させるまでもない
+            }
+        }
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken);
+        }
+    }
+
+    private AuthResponse issueTokens(String username, Long userId, String refreshToken) {
+        String token = jwtUtil.generateToken(username, userId);
+        return new AuthResponse(token, refreshToken, jwtUtil.getExpirationMs() / 1000, username, userId);
     }
 }
@@ -0,0 +1,349 @@
+package com.boardgameapp.service;
+
+import com.boardgameapp.dto.AddBoardGameRequest;
+import com.boardgameapp.dto.AddWishlistItemRequest;
+import com.boardgameapp.dto.BatchOperation;
+import com.boardgameapp.dto.BatchResponse;
+import com.boardgameapp.dto.PlayRecordRequest;
+import com.boardgameapp.dto.UpdateBoardGameRequest;
+import com.boardgameapp.entity.PlayRecord;
+import com.boardgameapp.entity.User;
+import com.boardgameapp.entity.UserBoardGame;
+import com.boardgameapp.entity.WishlistItem;
+import com.boardgameapp.repository.PlayRecordRepository;
+import com.boardgameapp.repository.UserBoardGameRepository;
+import com.boardgameapp.repository.UserRepository;
+import com.boardgameapp.repository.WishlistRepository;
+import com.boardgameapp.resilience.SingleFlight;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * ボードゲーム・プレイ記録・ほしいものの追加・更新・削除をまとめて1つのトランザクションで実行するサービス。
+ * 操作は先頭から順に実行し、1件でも失敗すればすべて取り消す（all-or-nothing）。
+ * <p>
+ * body の解析・検証と外部サムネイルの取り込みはトランザクションの前に済ませる。取り込みはすべての操作の検証が通ってから行い、
+ * 同じURLは1回だけ取得する。1リクエストで取り込む外部URLは max-remote-thumbnails 件まで。
+ * トランザクション内では、ユーザーを1回だけ引き、更新・削除の対象を種類ごとに1回の IN 検索で読み込む。
+ * 更新と削除はコミット時にまとめて flush され、hibernate.jdbc.batch_size で JDBC バッチになる。
+ * 追加は ID（IDENTITY）を結果に返すため1件ずつ INSERT する。
+ */
+@Service
+@Timed(value = "boardgame.service", histogram = true)
+public class BatchService {
+
+    /** 失敗した操作があり、取り消された操作の status */
+    static final int NOT_APPLIED = HttpStatus.FAILED_DEPENDENCY.value();
+
+    private final UserRepository userRepository;
+    private final UserBoardGameRepository userBoardGameRepository;
+    private final PlayRecordRepository playRecordRepository;
+    private final WishlistRepository wishlistRepository;
+    private final UserBoardGameService userBoardGameService;
+    private final PlayRecordService playRecordService;
+    private final WishlistService wishlistService;
+    private final RemoteImageProxyService remoteImageProxyService;
+    private final SingleFlight singleFlight;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate tx;
+    private final int maxOperations;
+    private final int maxRemoteThumbnails;
+
+    public BatchService(UserRepository userRepository,
+                        UserBoardGameRepository userBoardGameRepository,
+                        PlayRecordRepository playRecordRepository,
+                        WishlistRepository wishlistRepository,
+                        UserBoardGameService userBoardGameService,
+                        PlayRecordService playRecordService,
+                        WishlistService wishlistService,
+                        RemoteImageProxyService remoteImageProxyService,
+                        SingleFlight singleFlight,
+                        ObjectMapper objectMapper,
+                        Validator validator,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${app.batch.max-operations:500}") int maxOperations,
+                        @Value("${app.batch.max-remote-thumbnails:20}") int maxRemoteThumbnails) {
+        this.userRepository = userRepository;
+        this.userBoardGameRepository = userBoardGameRepository;
+        this.playRecordRepository = playRecordRepository;
+        this.wishlistRepository = wishlistRepository;
+        this.userBoardGameService = userBoardGameService;
+        this.playRecordService = playRecordService;
+        this.wishlistService = wishlistService;
+        this.remoteImageProxyService = remoteImageProxyService;
+        this.singleFlight = singleFlight;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.maxOperations = maxOperations;
+        this.maxRemoteThumbnails = maxRemoteThumbnails;
+    }
+
+    /**
+     * 操作を順に実行する。
+     *
+     * @param username ユーザー名
+     * @param operations 操作の一覧
+     * @return 操作ごとの結果。1件でも失敗した場合は committed=false で、何も反映しない
+     */
+    public BatchResponse execute(String username, List<BatchOperation> operations) {
+        if (operations.size() > maxOperations) {
+            throw new IllegalArgumentException("Too many operations (max " + maxOperations + ")");
+        }
+        List<Object> requests = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            try {
+                requests.add(parse(operations.get(i)));
+            } catch (IllegalArgumentException e) {
+                return failed(operations.size(), i, e.getMessage());
+            }
+        }
+        localizeThumbnails(requests);
+        return tx.execute(status -> {
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+            Targets targets = prefetch(user.getId(), operations);
+            List<BatchResponse.Result> results = new ArrayList<>(operations.size());
+            for (int i = 0; i < operations.size(); i++) {
+                try {
+                    results.add(apply(i, user.getId(), operations.get(i), requests.get(i), targets));
+                } catch (IllegalArgumentException e) {
+                    status.setRollbackOnly();
+                    return failed(operations.size(), i, e.getMessage());
+                }
+            }
+            singleFlight.forgetAfterCommit(username);
+            return new BatchResponse(true, results);
+        });
+    }
+
+    /** body を個別APIと同じリクエストDTOにして検証する。delete は null。 */
+    private Object parse(BatchOperation operation) {
+        BatchOperation.Op op = operation.getOp();
+        if (op != BatchOperation.Op.CREATE && operation.getId() == null) {
+            throw new IllegalArgumentException("id is required");
+        }
+        return switch (operation.getResource()) {
+            case BOARD_GAMES -> switch (op) {
+                case CREATE -> read(operation, AddBoardGameRequest.class);
+                case UPDATE -> read(operation, UpdateBoardGameRequest.class);
+                case DELETE -> null;
+            };
+            case PLAYS -> {
+                if (op == BatchOperation.Op.CREATE && operation.getUserBoardGameId() == null) {
+                    throw new IllegalArgumentException("userBoardGameId is required");
+                }
+                yield op == BatchOperation.Op.DELETE ? null : read(operation, PlayRecordRequest.class);
+            }
+            case WISHLIST -> switch (op) {
+                case CREATE -> read(operation, AddWishlistItemRequest.class);
+                case UPDATE -> throw new IllegalArgumentException("Unsupported operation");
+                case DELETE -> null;
+            };
+        };
+    }
+
+    /**
+     * 検証済みのリクエストの外部サムネイルURLを取り込み、ローカルURLに置き換える。同じURLは1回だけ取得する。
+     *
+     * @throws IllegalArgumentException 異なる外部URLが max-remote-thumbnails 件を超える場合（何も取得しない）
+     */
+    private void localizeThumbnails(List<Object> requests) {
+        Map<String, String> localized = new LinkedHashMap<>();
+        replaceThumbnailUrls(requests, url -> {
+            if (RemoteImageProxyService.isRemote(url)) {
+                localized.put(url, url);
+            }
+            return url;
+        });
+        if (localized.isEmpty()) {
+            return;
+        }
+        if (localized.size() > maxRemoteThumbnails) {
+            throw new IllegalArgumentException("Too many remote thumbnails (max " + maxRemoteThumbnails + ")");
+        }
+        localized.replaceAll((url, unused) -> remoteImageProxyService.localize(url));
+        replaceThumbnailUrls(requests, url -> localized.getOrDefault(url, url));
+    }
+
+    /** サムネイルURLを持つリクエストについて、URLを関数の結果に置き換える。 */
+    private static void replaceThumbnailUrls(List<Object> requests, UnaryOperator<String> replace) {
+        for (Object request : requests) {
+            if (request instanceof AddBoardGameRequest add) {
+                add.setThumbnailUrl(replace.apply(add.getThumbnailUrl()));
+            } else if (request instanceof UpdateBoardGameRequest update) {
+                update.setThumbnailUrl(replace.apply(update.getThumbnailUrl()));
+            } else if (request instanceof AddWishlistItemRequest wish) {
+                wish.setThumbnailUrl(replace.apply(wish.getThumbnailUrl()));
+            }
+        }
+    }
+
+    private <T> T read(BatchOperation operation, Class<T> type) {
+        if (operation.getBody() == null || operation.getBody().isNull()) {
+            throw new IllegalArgumentException("body is required");
+        }
+        T request;
+        try {
+            request = objectMapper.treeToValue(operation.getBody(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid body");
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<T> first = violations.stream()
+                    .min(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                    .get();
+            throw new IllegalArgumentException(first.getPropertyPath() + ": " + first.getMessage());
+        }
+        return request;
+    }
+
+    /** 更新・削除の対象（と、プレイ記録を付けるゲーム）を種類ごとに1回の検索で読み込む。 */
+    private Targets prefetch(Long userId, List<BatchOperation> operations) {
+        Set<Long> gameIds = new HashSet<>();
+        Set<Long> playIds = new HashSet<>();
+        Set<Long> wishIds = new HashSet<>();
+        for (BatchOperation operation : operations) {
+            boolean create = operation.getOp() == BatchOperation.Op.CREATE;
+            switch (operation.getResource()) {
+                case BOARD_GAMES -> {
+                    if (!create) {
+                        gameIds.add(operation.getId());
+                    }
+                }
+                case PLAYS -> {
+                    if (create) {
+                        gameIds.add(operation.getUserBoardGameId());
+                    } else {
+                        playIds.add(operation.getId());
+                    }
+                }
+                case WISHLIST -> {
+                    if (!create) {
+                        wishIds.add(operation.getId());
+                    }
+                }
+            }
+        }
+        return new Targets(
+                byId(gameIds, ids -> userBoardGameRepository.findByUserIdAndIdIn(userId, ids), UserBoardGame::getId),
+                byId(playIds, ids -> playRecordRepository.findByUserIdAndIdIn(userId, ids), PlayRecord::getId),
+                byId(wishIds, ids -> wishlistRepository.findByUserIdAndIdIn(userId, ids), WishlistItem::getId));
+    }
+
+    private static <E> Map<Long, E> byId(Set<Long> ids, Function<Set<Long>, List<E>> finder, Function<E, Long> id) {
+        Map<Long, E> map = new HashMap<>();
+        if (!ids.isEmpty()) {
+            finder.apply(ids).forEach(e -> map.put(id.apply(e), e));
+        }
+        return map;
+    }
+
+    private BatchResponse.Result apply(int index, Long userId, BatchOperation operation, Object request,
+                                       Targets targets) {
+        Object data = switch (operation.getResource()) {
+            case BOARD_GAMES -> applyBoardGame(userId, operation, request, targets);
+            case PLAYS -> applyPlay(userId, operation, request, targets);
+            case WISHLIST -> applyWishlist(userId, operation, request, targets);
+        };
+        return new BatchResponse.Result(index,
+                data == null ? HttpStatus.NO_CONTENT.value() : HttpStatus.OK.value(), data, null);
+    }
+
+    private Object applyBoardGame(Long userId, BatchOperation operation, Object request, Targets targets) {
+        if (operation.getOp() == BatchOperation.Op.CREATE) {
+            UserBoardGame game = userBoardGameRepository.save(
+                    userBoardGameService.newEntity(userId, (AddBoardGameRequest) request));
+            targets.games().put(game.getId(), game);
+            return userBoardGameService.toResponse(game);
+        }
+        Long id = operation.getId();
+        UserBoardGame game = find(targets.games(), id, "Board game not found");
+        if (operation.getOp() == BatchOperation.Op.UPDATE) {
+            userBoardGameService.apply(game, (UpdateBoardGameRequest) request);
+            return userBoardGameService.toResponse(game);
+        }
+        // 単体の削除と同じく紐づくプレイ記録も消す。以降の操作からも見えないようにする
+        playRecordRepository.deleteByUserBoardGameId(id);
+        userBoardGameRepository.delete(game);
+        targets.games().remove(id);
+        targets.plays().values().removeIf(p -> id.equals(p.getUserBoardGameId()));
+        return null;
+    }
+
+    private Object applyPlay(Long userId, BatchOperation operation, Object request, Targets targets) {
+        if (operation.getOp() == BatchOperation.Op.CREATE) {
+            UserBoardGame game = find(targets.games(), operation.getUserBoardGameId(), "Board game not found");
+            PlayRecord play = playRecordRepository.save(
+                    playRecordService.newEntity(userId, game.getId(), (PlayRecordRequest) request));
+            targets.plays().put(play.getId(), play);
+            return playRecordService.toResponse(play);
+        }
+        PlayRecord play = find(targets.plays(), operation.getId(), "Play record not found");
+        if (operation.getOp() == BatchOperation.Op.UPDATE) {
+            playRecordService.apply(play, (PlayRecordRequest) request);
+            return playRecordService.toResponse(play);
+        }
+        playRecordRepository.delete(play);
+        targets.plays().remove(operation.getId());
+        return null;
+    }
+
+    private Object applyWishlist(Long userId, BatchOperation operation, Object request, Targets targets) {
+        if (operation.getOp() == BatchOperation.Op.CREATE) {
+            WishlistItem item = wishlistRepository.save(
+                    wishlistService.newEntity(userId, (AddWishlistItemRequest) request));
+            targets.wishes().put(item.getId(), item);
+            return wishlistService.toResponse(item);
+        }
+        WishlistItem item = find(targets.wishes(), operation.getId(), "Wishlist item not found");
+        wishlistRepository.delete(item);
+        targets.wishes().remove(operation.getId());
+        return null;
+    }
+
+    private static <E> E find(Map<Long, E> targets, Long id, String notFound) {
+        E entity = targets.get(id);
+        if (entity == null) {
+            throw new IllegalArgumentException(notFound);
+        }
+        return entity;
+    }
+
+    /** index の操作が失敗した結果。ほかの操作は取り消し扱いにする。 */
+    private static BatchResponse failed(int size, int index, String error) {
+        List<BatchResponse.Result> results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            results.add(i == index
+                    ? new BatchResponse.Result(i, HttpStatus.BAD_REQUEST.value(), null, error)
+                    : new BatchResponse.Result(i, NOT_APPLIED, null, null));
+        }
+        return new BatchResponse(false, results);
+    }
+
+    /** 読み込み済みの操作対象（ID → 管理状態のエンティティ） */
+    private record Targets(Map<Long, UserBoardGame> games, Map<Long, PlayRecord> plays,
+                           Map<Long, WishlistItem> wishes) {
+    }
+}
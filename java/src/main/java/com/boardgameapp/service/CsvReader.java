@@ -0,0 +1,114 @@
+package com.boardgameapp.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RFC 4180 形式の CSV を1行ずつ読む（{@link CsvWriter} の逆）。ダブルクォートで囲んだ値の中のカンマ・改行も扱い、
+ * 先頭の BOM は読み飛ばす。行末は CRLF・LF・CR のいずれでもよい。
+ * 保持するのは読んでいる1行分だけで、1行が maxRowChars 文字を超えたら（閉じ忘れた引用符など）
+ * {@link IllegalArgumentException} にする。バッファリングとクローズは呼び出し側で行う。
+ */
+final class CsvReader {
+
+    private static final int NONE = -2;
+
+    private final Reader in;
+    private final int maxRowChars;
+    /** 次に読む文字の行番号（1始まり） */
+    private long line = 1;
+    /** 直前に返した行の開始行番号 */
+    private long rowLine;
+    /** 先読みして戻した1文字 */
+    private int pushedBack = NONE;
+    private boolean started;
+
+    CsvReader(Reader in, int maxRowChars) {
+        this.in = in;
+        this.maxRowChars = maxRowChars;
+    }
+
+    /**
+     * 次の1行を読む。
+     *
+     * @return 列の値（空欄は空文字）。終端なら null
+     */
+    List<String> next() throws IOException {
+        int c = read();
+        if (!started) {
+            started = true;
+            if (c == '\uFEFF') {
+                c = read();
+            }
+        }
+        if (c == -1) {
+            return null;
+        }
+        rowLine = line;
+        List<String> values = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean fieldStart = true;
+        boolean quoted = false;
+        int chars = 0;
+        while (true) {
+            if (++chars > maxRowChars) {
+                throw new IllegalArgumentException("Row too long at line " + rowLine);
+            }
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quote at line " + rowLine);
+                }
+                if (c == '"') {
+                    int d = read();
+                    if (d != '"') {
+                        quoted = false;
+                        c = d;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    line++;
+                }
+                field.append((char) c);
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else if (c == ',') {
+                values.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                values.add(field.toString());
+                if (c == '\r') {
+                    int d = read();
+                    if (d != '\n') {
+                        pushedBack = d;
+                    }
+                }
+                if (c != -1) {
+                    line++;
+                }
+                return values;
+            } else {
+                field.append((char) c);
+                fieldStart = false;
+            }
+            c = read();
+        }
+    }
+
+    /** 直前に {@link #next()} で返した行の開始行番号（ヘッダ行が1） */
+    long getLine() {
+        return rowLine;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != NONE) {
+            int c = pushedBack;
+            pushedBack = NONE;
+            return c;
+        }
+        return in.read();
+    }
+}
@@ -0,0 +1,49 @@
+package com.boardgameapp.service;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * RFC 4180 形式の CSV を1行ずつ書く。カンマ・ダブルクォート・改行を含む値だけダブルクォートで囲む。
+ * null は空欄にする。行末は CRLF。バッファリングとクローズは呼び出し側で行う。
+ */
+final class CsvWriter {
+
+    private final Writer out;
+
+    CsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * 1行書く。
+     *
+     * @param values 列の値（toString で書く）
+     */
+    void row(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (values[i] != null) {
+                writeField(values[i].toString());
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,328 @@
+package com.boardgameapp.service;
+
+import com.boardgameapp.entity.PlayRecord;
+import com.boardgameapp.entity.User;
+import com.boardgameapp.repository.PlayRecordRepository;
+import com.boardgameapp.repository.UserBoardGameRepository;
+import com.boardgameapp.repository.UserRepository;
+import com.boardgameapp.repository.WishlistRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * ユーザーの全データ（所持ゲーム・プレイ記録・ほしいもの）を NDJSON・CSV・ZIP でエクスポートするサービス。
+ * 行は DB のカーソルから1件ずつ読んで（{@code streamByUserId}）そのまま出力へ書き、
+ * 書き終えたエンティティは永続化コンテキストから外す。全件をメモリに載せたり一時ファイルに書いたりしないため、
+ * 件数が多くてもメモリ使用量は一定。ZIP はセクションごとの CSV とアップロード済みのサムネイル画像を含む。
+ * 読み取り専用トランザクション（とその DB 接続）は書き終えるまで持ち続けるため、遅いクライアントへの書き出しが
+ * 接続プールを使い切らないよう、同時に行うエクスポートを max-concurrent 件までに絞る（空きがなければ待たずに 503）。
+ */
+@Service
+@Timed(value = "boardgame.service", histogram = true)
+public class ExportService {
+
+    /** 出力形式 */
+    public enum Format {
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv; charset=UTF-8"),
+        ZIP("application/zip");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /** ファイル名に使う拡張子 */
+        public String getExtension() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public static Format of(String value) {
+            for (Format format : values()) {
+                if (format.getExtension().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format");
+        }
+    }
+
+    /** データの種類。CSV は種類ごとに1ファイル */
+    public enum Section {
+        BOARD_GAMES("boardgames", "boardgame"),
+        PLAYS("plays", "play"),
+        WISHLIST("wishlist", "wishlist");
+
+        private final String fileName;
+        private final String type;
+
+        Section(String fileName, String type) {
+            this.fileName = fileName;
+            this.type = type;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public static Section of(String value) {
+            for (Section section : values()) {
+                if (section.fileName.equalsIgnoreCase(value)) {
+                    return section;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export resource");
+        }
+    }
+
+    /** 各 CSV のヘッダ行。インポートもこの列名で読む */
+    static final String[] BOARD_GAME_COLUMNS = {"id", "bggId", "name", "thumbnailUrl", "yearPublished",
+            "minPlayers", "maxPlayers", "minPlayTimeMinutes", "maxPlayTimeMinutes", "addedAt"};
+    /** name・bggId は別のアカウントへ取り込むときのゲームの照合に使う */
+    static final String[] PLAY_COLUMNS = {"id", "userBoardGameId", "name", "bggId", "playedAt", "playerCount", "memo",
+            "createdAt"};
+    static final String[] WISHLIST_COLUMNS = {"id", "name", "thumbnailUrl", "addedAt"};
+
+    /** Excel で文字化けしないよう CSV の先頭に付ける */
+    private static final char BOM = '\uFEFF';
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final UserRepository userRepository;
+    private final UserBoardGameRepository userBoardGameRepository;
+    private final PlayRecordRepository playRecordRepository;
+    private final WishlistRepository wishlistRepository;
+    private final UserBoardGameService userBoardGameService;
+    private final PlayRecordService playRecordService;
+    private final WishlistService wishlistService;
+    private final ImageStorageService imageStorageService;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    /** 書き出しの間ずっと接続を持つため、許可を得てからトランザクションを始める */
+    private final TransactionTemplate readOnlyTx;
+    private final Semaphore exportPermits;
+
+    public ExportService(UserRepository userRepository,
+                         UserBoardGameRepository userBoardGameRepository,
+                         PlayRecordRepository playRecordRepository,
+                         WishlistRepository wishlistRepository,
+                         UserBoardGameService userBoardGameService,
+                         PlayRecordService playRecordService,
+                         WishlistService wishlistService,
+                         ImageStorageService imageStorageService,
+                         ObjectMapper objectMapper,
+                         EntityManager entityManager,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.export.max-concurrent:2}") int maxConcurrent) {
+        this.userRepository = userRepository;
+        this.userBoardGameRepository = userBoardGameRepository;
+        this.playRecordRepository = playRecordRepository;
+        this.wishlistRepository = wishlistRepository;
+        this.userBoardGameService = userBoardGameService;
+        this.playRecordService = playRecordService;
+        this.wishlistService = wishlistService;
+        this.imageStorageService = imageStorageService;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.exportPermits = new Semaphore(maxConcurrent);
+        Gauge.builder("boardgame.export.permits.available", exportPermits, Semaphore::availablePermits)
+                .description("空いている同時エクスポート枠の数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 指定ユーザーのデータを出力へ書く。出力は閉じない。
+     *
+     * @param username ユーザー名
+     * @param format 出力形式
+     * @param section CSV のときのデータの種類（それ以外は無視）
+     * @param out 出力先
+     * @throws ServiceBusyException 同時に行えるエクスポートの数を超えた場合
+     */
+    public void export(String username, Format format, Section section, OutputStream out) throws IOException {
+        if (!exportPermits.tryAcquire()) {
+            throw new ServiceBusyException("Too many concurrent exports", 5);
+        }
+        try {
+            readOnlyTx.executeWithoutResult(status -> {
+                try {
+                    write(username, format, section, out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            exportPermits.release();
+        }
+    }
+
+    private void write(String username, Format format, Section section, OutputStream out) throws IOException {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        switch (format) {
+            case NDJSON -> writeNdjson(user.getId(), out);
+            case CSV -> {
+                Writer writer = writer(out);
+                writer.write(BOM);
+                writeCsv(user.getId(), section, writer);
+                writer.flush();
+            }
+            case ZIP -> writeZip(user.getId(), out);
+        }
+    }
+
+    private void writeNdjson(Long userId, OutputStream out) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        for (Section section : Section.values()) {
+            forEachRow(section, userId, response -> {
+                ObjectNode line = objectMapper.createObjectNode().put("type", section.type);
+                line.setAll((ObjectNode) objectMapper.valueToTree(response));
+                buffered.write(objectMapper.writeValueAsBytes(line));
+                buffered.write('\n');
+            });
+        }
+        buffered.flush();
+    }
+
+    private void writeCsv(Long userId, Section section, Writer writer) throws IOException {
+        CsvWriter csv = new CsvWriter(writer);
+        switch (section) {
+            case BOARD_GAMES -> {
+                csv.row((Object[]) BOARD_GAME_COLUMNS);
+                forEach(userBoardGameRepository.streamByUserId(userId), g -> csv.row(g.getId(), g.getBggId(),
+                        g.getName(), g.getThumbnailUrl(), g.getYearPublished(), g.getMinPlayers(),
+                        g.getMaxPlayers(), g.getMinPlayTimeMinutes(), g.getMaxPlayTimeMinutes(), g.getAddedAt()));
+            }
+            case PLAYS -> {
+                csv.row((Object[]) PLAY_COLUMNS);
+                forEach(playRecordRepository.streamWithGameByUserId(userId), row -> {
+                    PlayRecord p = (PlayRecord) row[0];
+                    csv.row(p.getId(), p.getUserBoardGameId(), row[1], row[2], p.getPlayedAt(), p.getPlayerCount(),
+                            p.getMemo(), p.getCreatedAt());
+                });
+            }
+            case WISHLIST -> {
+                csv.row((Object[]) WISHLIST_COLUMNS);
+                forEach(wishlistRepository.streamByUserId(userId), w -> csv.row(w.getId(), w.getName(),
+                        w.getThumbnailUrl(), w.getAddedAt()));
+            }
+        }
+    }
+
+    private void writeZip(Long userId, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+        for (Section section : Section.values()) {
+            zip.putNextEntry(new ZipEntry(section.fileName + ".csv"));
+            Writer writer = writer(zip);
+            writer.write(BOM);
+            writeCsv(userId, section, writer);
+            writer.flush();
+            zip.closeEntry();
+        }
+        // 同じ画像をゲームとほしいものの両方から参照していることがあるため、書いたファイル名だけ覚えておく
+        Set<String> written = new HashSet<>();
+        for (Function<Long, Stream<String>> query : List.<Function<Long, Stream<String>>>of(
+                userBoardGameRepository::streamThumbnailUrlsByUserId, wishlistRepository::streamThumbnailUrlsByUserId)) {
+            try (Stream<String> urls = query.apply(userId)) {
+                for (Iterator<String> it = urls.iterator(); it.hasNext(); ) {
+                    Path image = localImage(it.next());
+                    if (image != null && written.add(image.getFileName().toString())) {
+                        zip.putNextEntry(new ZipEntry("images/" + image.getFileName()));
+                        Files.copy(image, zip);
+                        zip.closeEntry();
+                    }
+                }
+            }
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    /** アップロード済み画像のURLならそのファイル（残っていれば）を返す。外部URLなどは null。 */
+    private Path localImage(String url) {
+        if (!url.startsWith(ImageStorageService.URL_PREFIX)) {
+            return null;
+        }
+        Path dir = imageStorageService.getUploadDir();
+        Path file = dir.resolve(url.substring(ImageStorageService.URL_PREFIX.length())).normalize();
+        return file.getParent() != null && file.getParent().equals(dir) && Files.isRegularFile(file) ? file : null;
+    }
+
+    /** 種類ごとの行を個別APIと同じレスポンスDTOにして渡す。 */
+    private void forEachRow(Section section, Long userId, RowWriter<Object> writer) throws IOException {
+        switch (section) {
+            case BOARD_GAMES -> forEach(userBoardGameRepository.streamByUserId(userId),
+                    mapped(userBoardGameService::toResponse, writer));
+            case PLAYS -> forEach(playRecordRepository.streamByUserId(userId),
+                    mapped(playRecordService::toResponse, writer));
+            case WISHLIST -> forEach(wishlistRepository.streamByUserId(userId),
+                    mapped(wishlistService::toResponse, writer));
+        }
+    }
+
+    private static <E> RowWriter<E> mapped(Function<E, ?> toResponse, RowWriter<Object> writer) {
+        return row -> writer.write(toResponse.apply(row));
+    }
+
+    /**
+     * エンティティの Stream を1件ずつ書き、書き終えた行は永続化コンテキストから外す（複数列の行は先頭の列のエンティティ）。
+     * Stream は必ず閉じる。
+     */
+    private <E> void forEach(Stream<E> rows, RowWriter<E> writer) throws IOException {
+        try (rows) {
+            for (Iterator<E> it = rows.iterator(); it.hasNext(); ) {
+                E row = it.next();
+                writer.write(row);
+                entityManager.detach(row instanceof Object[] columns ? columns[0] : row);
+            }
+        }
+    }
+
+    private static Writer writer(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /** 1行を書く処理 */
+    @FunctionalInterface
+    private interface RowWriter<E> {
+        void write(E row) throws IOException;
+    }
+}
@@ -0,0 +1,267 @@
+package com.boardgameapp.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * アップロード画像の検証を行うサービス。
+ * まずヘッダだけを読んで形式とピクセル寸法を取り出し、上限を超える画像は展開せずに拒否する。
+ * 展開の直前にもデコーダが返す1枚目の寸法を確かめる（GIF のヘッダの論理画面サイズはフレームの寸法と一致しないことがある）。
+ * 寸法が許容範囲なら、間引き読み込み（サブサンプリング）で小さな画像として展開し、
+ * 壊れたファイルや偽装ファイルを弾く。展開の同時実行数はセマフォで制限する。
+ */
+@Service
+public class ImageInspector {
+
+    private static final int HEADER_BYTES = 32;
+
+    private final int maxWidth;
+    private final int maxHeight;
+    private final long maxPixels;
+    private final int previewMaxSide;
+    private final long decodeTimeoutMs;
+    private final Semaphore decodePermits;
+
+    public ImageInspector(
+            @Value("${app.upload.image.max-width:8000}") int maxWidth,
+            @Value("${app.upload.image.max-height:8000}") int maxHeight,
+            @Value("${app.upload.image.max-pixels:40000000}") long maxPixels,
+            @Value("${app.upload.image.preview-max-side:256}") int previewMaxSide,
+            @Value("${app.upload.image.max-concurrent-decoders:2}") int maxConcurrentDecoders,
+            @Value("${app.upload.image.decode-timeout-ms:2000}") long decodeTimeoutMs) {
+        this.maxWidth = maxWidth;
+        this.maxHeight = maxHeight;
+        this.maxPixels = maxPixels;
+        this.previewMaxSide = previewMaxSide;
+        this.decodeTimeoutMs = decodeTimeoutMs;
+        this.decodePermits = new Semaphore(maxConcurrentDecoders, true);
+        ImageIO.setUseCache(false);
+    }
+
+    /**
+     * 保存済みの画像ファイルを検証する。ヘッダで寸法を確認してから、縮小展開して読めることを確かめる。
+     *
+     * @param file 画像ファイル
+     * @param format 先頭バイトから判定した形式（jpg, png, gif, webp, bmp）
+     * @return 寸法と縮小展開した画像（展開できない形式では preview は null）
+     * @throws IllegalArgumentException ヘッダが壊れている・寸法が上限を超える・展開できない場合
+     * @throws ServiceBusyException 展開の同時実行数の上限に達している場合
+     */
+    public ImageInfo validate(Path file, String format) throws IOException {
+        ImageInfo header = readHeader(file, format);
+        checkDimensions(header.width(), header.height());
+        BufferedImage preview = decodeSubsampled(file, header);
+        return new ImageInfo(format, header.width(), header.height(), preview);
+    }
+
+    /**
+     * ヘッダのみを読み、形式とピクセル寸法を返す。
+     *
+     * @param file 画像ファイル
+     * @param format 先頭バイトから判定した形式
+     * @return 寸法（preview は null）
+     * @throws IllegalArgumentException ヘッダが読めない場合
+     */
+    ImageInfo readHeader(Path file, String format) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(ch, head, 0);
+            head.flip();
+            int[] size = switch (format) {
+                case "png" -> pngSize(head);
+                case "gif" -> gifSize(head);
+                case "bmp" -> bmpSize(head);
+                case "webp" -> webpSize(head);
+                case "jpg" -> jpegSize(ch);
+                default -> null;
+            };
+            if (size == null || size[0] <= 0 || size[1] <= 0) {
+                throw new IllegalArgumentException("Invalid image header");
+            }
+            return new ImageInfo(format, size[0], size[1], null);
+        }
+    }
+
+    /** 長辺が previewMaxSide 以下になる間隔で間引きながら展開する。ImageIO が読めない形式（webp）は null。 */
+    private BufferedImage decodeSubsampled(Path file, ImageInfo header) throws IOException {
+        acquireDecodePermit();
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width;
+                int height;
+                try {
+                    width = reader.getWidth(0);
+                    height = reader.getHeight(0);
+                } catch (IOException | RuntimeException e) {
+                    throw new IllegalArgumentException("Corrupt image");
+                }
+                checkDimensions(width, height);
+                int step = Math.max(1, (int) Math.ceil(
+                        (double) Math.max(Math.max(width, height), Math.max(header.width(), header.height()))
+                                / previewMaxSide));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return read(reader, param);
+            } finally {
+                reader.dispose();
+            }
+        } finally {
+            decodePermits.release();
+        }
+    }
+
+    private static BufferedImage read(ImageReader reader, ImageReadParam param) {
+        try {
+            return reader.read(0, param);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Corrupt image");
+        }
+    }
+
+    private void checkDimensions(int width, int height) {
+        if (width > maxWidth || height > maxHeight || (long) width * height > maxPixels) {
+            throw new IllegalArgumentException("Image dimensions exceed limit");
+        }
+    }
+
+    private void acquireDecodePermit() {
+        try {
+            if (!decodePermits.tryAcquire(decodeTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new ServiceBusyException("Too many concurrent image decodes", 1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Image decode interrupted", 1);
+        }
+    }
+
+    private static int[] pngSize(ByteBuffer head) {
+        if (head.limit() < 24) {
+            return null;
+        }
+        return new int[]{head.getInt(16), head.getInt(20)};
+    }
+
+    private static int[] gifSize(ByteBuffer head) {
+        if (head.limit() < 10) {
+            return null;
+        }
+        head.order(ByteOrder.LITTLE_ENDIAN);
+        return new int[]{head.getShort(6) & 0xFFFF, head.getShort(8) & 0xFFFF};
+    }
+
+    private static int[] bmpSize(ByteBuffer head) {
+        if (head.limit() < 26) {
+            return null;
+        }
+        head.order(ByteOrder.LITTLE_ENDIAN);
+        if (head.getInt(14) == 12) {
+            return new int[]{head.getShort(18) & 0xFFFF, head.getShort(20) & 0xFFFF};
+        }
+        // 高さが負ならトップダウン形式
+        return new int[]{head.getInt(18), Math.abs(head.getInt(22))};
+    }
+
+    private static int[] webpSize(ByteBuffer head) {
+        if (head.limit() < 30) {
+            return null;
+        }
+        head.order(ByteOrder.LITTLE_ENDIAN);
+        String chunk = new String(new byte[]{head.get(12), head.get(13), head.get(14), head.get(15)},
+                StandardCharsets.US_ASCII);
+        return switch (chunk) {
+            case "VP8 " -> new int[]{head.getShort(26) & 0x3FFF, head.getShort(28) & 0x3FFF};
+            case "VP8L" -> {
+                int bits = head.getInt(21);
+                yield new int[]{(bits & 0x3FFF) + 1, ((bits >>> 14) & 0x3FFF) + 1};
+            }
+            case "VP8X" -> new int[]{uint24(head, 24) + 1, uint24(head, 27) + 1};
+            default -> null;
+        };
+    }
+
+    private static int uint24(ByteBuffer head, int offset) {
+        return (head.get(offset) & 0xFF) | (head.get(offset + 1) & 0xFF) << 8 | (head.get(offset + 2) & 0xFF) << 16;
+    }
+
+    /** JPEG のマーカーを長さフィールドで読み飛ばしながら SOF を探す。画像データ本体は読まない。 */
+    private static int[] jpegSize(FileChannel ch) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(9);
+        long pos = 2;
+        while (true) {
+            buf.clear().limit(4);
+            if (!readFully(ch, buf, pos) || (buf.get(0) & 0xFF) != 0xFF) {
+                return null;
+            }
+            int marker = buf.get(1) & 0xFF;
+            if (marker == 0xFF) {
+                pos++;
+                continue;
+            }
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD8)) {
+                pos += 2;
+                continue;
+            }
+            if (marker == 0xD9 || marker == 0xDA) {
+                return null;
+            }
+            int length = buf.getShort(2) & 0xFFFF;
+            if (isStartOfFrame(marker)) {
+                buf.clear().limit(9);
+                if (!readFully(ch, buf, pos)) {
+                    return null;
+                }
+                return new int[]{buf.getShort(7) & 0xFFFF, buf.getShort(5) & 0xFFFF};
+            }
+            pos += 2 + length;
+        }
+    }
+
+    private static boolean isStartOfFrame(int marker) {
+        return marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+    }
+
+    private static boolean readFully(FileChannel ch, ByteBuffer buf, long position) throws IOException {
+        long pos = position;
+        while (buf.hasRemaining()) {
+            int n = ch.read(buf, pos);
+            if (n < 0) {
+                return false;
+            }
+            pos += n;
+        }
+        return true;
+    }
+
+    /**
+     * 画像の検証結果。
+     *
+     * @param format 形式（jpg, png など）
+     * @param width 幅
+     * @param height 高さ
+     * @param preview 間引き展開した画像（長辺は preview-max-side 以下）。展開していなければ null
+     */
+    public record ImageInfo(String format, int width, int height, BufferedImage preview) {}
+}
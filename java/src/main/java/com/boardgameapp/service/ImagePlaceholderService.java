@@ -0,0 +1,124 @@
+package com.boardgameapp.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Base64;
+
+/**
+ * アップロード画像の低画質プレースホルダ（長辺数十ピクセル以下の PNG の data URI）を作るサービス。
+ * アップロード時に検証で縮小展開した画像から1度だけ作り、画像ファイルと同名のサイドカーファイルに保存しておく。
+ * ゲーム・ほしいものの保存時にサムネイルURLからサイドカーを引いてエンティティに持たせ、
+ * 一覧はサムネイル本体を待たずにプレースホルダで描画できるようにする。
+ */
+@Service
+public class ImagePlaceholderService {
+
+    /** サイドカーファイルを置くサブディレクトリ名（配信対象の画像と区別する） */
+    public static final String PLACEHOLDER_DIR = ".placeholders";
+
+    /** エンティティに保存できる data URI の最大長 */
+    public static final int MAX_LENGTH = 2048;
+
+    private static final String DATA_URI_PREFIX = "data:image/png;base64,";
+
+    private final Path placeholderDir;
+    private final int maxSide;
+
+    public ImagePlaceholderService(
+            @Value("${app.upload.dir:uploads}") String uploadDir,
+            @Value("${app.upload.placeholder.max-side:16}") int maxSide) {
+        this.placeholderDir = Path.of(uploadDir).toAbsolutePath().resolve(PLACEHOLDER_DIR);
+        this.maxSide = maxSide;
+    }
+
+    /**
+     * 縮小展開済みの画像からプレースホルダを作り、サイドカーファイルに保存する。
+     *
+     * @param filename 保存した画像のファイル名（例: uuid.png）
+     * @param preview 検証時に縮小展開した画像。null なら何もしない
+     * @return data URI。作れない場合や長すぎる場合は null
+     */
+    public String create(String filename, BufferedImage preview) throws IOException {
+        if (preview == null) {
+            return null;
+        }
+        String dataUri = encode(preview);
+        if (dataUri == null) {
+            return null;
+        }
+        Files.createDirectories(placeholderDir);
+        Files.writeString(sidecar(filename), dataUri, StandardCharsets.US_ASCII);
+        return dataUri;
+    }
+
+    /**
+     * サムネイルURLに対応するプレースホルダを返す。アップロード画像以外や、プレースホルダがない場合は null。
+     *
+     * @param thumbnailUrl サムネイルURL
+     * @return data URI または null
+     */
+    public String lookup(String thumbnailUrl) {
+        if (thumbnailUrl == null || !thumbnailUrl.startsWith(ImageStorageService.URL_PREFIX)) {
+            return null;
+        }
+        String filename = thumbnailUrl.substring(ImageStorageService.URL_PREFIX.length());
+        if (filename.isEmpty() || filename.contains("/") || filename.contains("\\") || filename.startsWith(".")) {
+            return null;
+        }
+        try {
+            return Files.readString(sidecar(filename), StandardCharsets.US_ASCII);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            // プレースホルダは表示の補助なので、読めなくても保存処理は続ける
+            return null;
+        }
+    }
+
+    /**
+     * 画像ファイルに対応するサイドカーファイルを削除する。
+     *
+     * @param filename 画像のファイル名
+     */
+    public void delete(String filename) throws IOException {
+        Files.deleteIfExists(sidecar(filename));
+    }
+
+    /** 長辺が maxSide 以下になるよう縮小して PNG の data URI にする。MAX_LENGTH を超えたら null。 */
+    String encode(BufferedImage preview) throws IOException {
+        double scale = Math.min(1.0, (double) maxSide / Math.max(preview.getWidth(), preview.getHeight()));
+        int w = Math.max(1, (int) Math.round(preview.getWidth() * scale));
+        int h = Math.max(1, (int) Math.round(preview.getHeight() * scale));
+        int type = preview.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage small = new BufferedImage(w, h, type);
+        Graphics2D g = small.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(preview, 0, 0, w, h, null);
+        } finally {
+            g.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        if (!ImageIO.write(small, "png", out)) {
+            return null;
+        }
+        String dataUri = DATA_URI_PREFIX + Base64.getEncoder().encodeToString(out.toByteArray());
+        return dataUri.length() <= MAX_LENGTH ? dataUri : null;
+    }
+
+    private Path sidecar(String filename) {
+        return placeholderDir.resolve(filename + ".txt");
+    }
+}
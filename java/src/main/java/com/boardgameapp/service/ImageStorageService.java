@@ -0,0 +1,312 @@
+package com.boardgameapp.service;
+
+import com.boardgameapp.monitoring.UploadWriteEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * アップロード画像をアップロードディレクトリへ保存するサービス。
+ * 入力ストリームを一度だけ読み、先頭バイトで画像形式を判定したうえで NIO チャネルで最終保存先へ直接書き込む。
+ * 形式はマジックナンバーだけで決め、クライアントが申告する Content-Type や拡張子は信用しない。
+ * SVG は寸法やマジックナンバーで検証できず、スクリプトや外部参照を含められるため受け付けない。
+ * 書き込み後は {@link ImageInspector} で寸法と中身を検証し、不正なファイルは削除する。
+ * 検証に通った画像は {@link ImagePlaceholderService} で低画質プレースホルダも作っておく。
+ * 同時アップロード数はセマフォで制限し、枠が空くまで最大 app.upload.acquire-timeout-ms だけ待つ。
+ * それでも空かなければ {@link ServiceBusyException}（503）で返す。
+ * 受信バイト数と保存件数、空いている同時アップロード枠をメトリクスとして公開する。
+ */
+@Service
+public class ImageStorageService {
+
+    /** 保存した画像を配信するURLのプレフィックス */
+    public static final String URL_PREFIX = "/api/uploads/";
+
+    /** 形式判定に使う先頭バイト数 */
+    private static final int SNIFF_BYTES = 256;
+
+    private final ImageInspector imageInspector;
+    private final ImagePlaceholderService imagePlaceholderService;
+    private final Path uploadDir;
+    private final long maxBytes;
+    private final long acquireTimeoutMs;
+    private final Semaphore uploadPermits;
+    private final Counter directBytes;
+    private final Counter chunkBytes;
+    private final Counter storedFiles;
+
+    public ImageStorageService(
+            ImageInspector imageInspector,
+            ImagePlaceholderService imagePlaceholderService,
+            MeterRegistry meterRegistry,
+            @Value("${app.upload.dir:uploads}") String uploadDir,
+            @Value("${app.upload.max-bytes:5242880}") long maxBytes,
+            @Value("${app.upload.max-concurrent:4}") int maxConcurrent,
+            @Value("${app.upload.acquire-timeout-ms:2000}") long acquireTimeoutMs) {
+        this.imageInspector = imageInspector;
+        this.imagePlaceholderService = imagePlaceholderService;
+        this.uploadDir = Path.of(uploadDir).toAbsolutePath();
+        this.maxBytes = maxBytes;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.uploadPermits = new Semaphore(maxConcurrent, true);
+        this.directBytes = bytesCounter(meterRegistry, "direct");
+        this.chunkBytes = bytesCounter(meterRegistry, "chunk");
+        this.storedFiles = Counter.builder("boardgame.upload.files")
+                .description("検証を通って保存した画像の件数")
+                .register(meterRegistry);
+        Gauge.builder("boardgame.upload.permits.available", uploadPermits, Semaphore::availablePermits)
+                .description("空いている同時アップロード枠の数")
+                .register(meterRegistry);
+    }
+
+    private static Counter bytesCounter(MeterRegistry meterRegistry, String kind) {
+        return Counter.builder("boardgame.upload.bytes")
+                .description("受信して書き込んだアップロードのバイト数")
+                .baseUnit("bytes")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 画像を読み込みながら保存し、検証する。形式は先頭バイトのマジックナンバーから判定する。
+     *
+     * @param in 画像データ（呼び出し側で close する）
+     * @return 保存結果
+     * @throws IllegalArgumentException 画像でない・空・寸法が上限を超える・壊れている場合
+     * @throws MaxUploadSizeExceededException サイズ上限を超えた場合
+     * @throws ServiceBusyException 同時アップロード数の上限に達したまま待ち時間を過ぎた場合
+     */
+    public StoredImage store(InputStream in) throws IOException {
+        acquirePermit();
+        try {
+            byte[] head = in.readNBytes(SNIFF_BYTES);
+            if (head.length == 0) {
+                throw new IllegalArgumentException("Empty file");
+            }
+            String ext = sniffExtension(head, head.length);
+            if (ext == null) {
+                throw new IllegalArgumentException("Unsupported image type");
+            }
+            Files.createDirectories(uploadDir);
+            String filename = UUID.randomUUID() + "." + ext;
+            Path target = uploadDir.resolve(filename);
+            long size = writeChannel(target, head, Channels.newChannel(in));
+            directBytes.increment(size);
+            ImageInspector.ImageInfo info = validateOrDelete(target, ext);
+            storedFiles.increment();
+            return new StoredImage(filename, target, URL_PREFIX + filename, size, info,
+                    imagePlaceholderService.create(filename, info.preview()));
+        } finally {
+            uploadPermits.release();
+        }
+    }
+
+    /**
+     * 分割アップロードの1チャンクを part ファイルの offset 位置へ書き込む。既に書いた部分は読み直さない。
+     *
+     * @param part 書き込み先の part ファイル
+     * @param offset 書き込み開始位置
+     * @param in チャンクのデータ（呼び出し側で close する）
+     * @param maxLength このチャンクで書き込める最大バイト数
+     * @return 実際に書き込んだバイト数
+     * @throws MaxUploadSizeExceededException maxLength を超えるデータが送られた場合
+     * @throws ServiceBusyException 同時アップロード数の上限に達したまま待ち時間を過ぎた場合
+     */
+    public long writeChunk(Path part, long offset, InputStream in, long maxLength) throws IOException {
+        acquirePermit();
+        UploadWriteEvent event = new UploadWriteEvent();
+        event.begin();
+        long written = 0;
+        try (ReadableByteChannel src = Channels.newChannel(in);
+             FileChannel out = FileChannel.open(part, StandardOpenOption.WRITE)) {
+            while (written <= maxLength) {
+                long n = out.transferFrom(src, offset + written, maxLength + 1 - written);
+                if (n <= 0) {
+                    break;
+                }
+                written += n;
+            }
+            chunkBytes.increment(written);
+            if (written > maxLength) {
+                out.truncate(offset + maxLength);
+                throw new MaxUploadSizeExceededException(maxBytes);
+            }
+            return written;
+        } finally {
+            uploadPermits.release();
+            commit(event, "chunk", written);
+        }
+    }
+
+    /**
+     * 組み立て済みの part ファイルを形式判定・検証し、公開ファイル名へ移動（リネーム）する。
+     *
+     * @param part 組み立て済みのファイル（アップロードディレクトリ配下）
+     * @return 保存結果
+     * @throws IllegalArgumentException 画像でない・寸法が上限を超える・壊れている場合（part ファイルは削除する）
+     */
+    public StoredImage promote(Path part) throws IOException {
+        byte[] head = new byte[SNIFF_BYTES];
+        int length;
+        try (FileChannel ch = FileChannel.open(part, StandardOpenOption.READ)) {
+            length = Math.max(ch.read(ByteBuffer.wrap(head), 0), 0);
+        }
+        String ext = sniffExtension(head, length);
+        if (ext == null) {
+            Files.deleteIfExists(part);
+            throw new IllegalArgumentException("Unsupported image type");
+        }
+        ImageInspector.ImageInfo info = validateOrDelete(part, ext);
+        String filename = UUID.randomUUID() + "." + ext;
+        Path target = uploadDir.resolve(filename);
+        long size = Files.size(part);
+        Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+        storedFiles.increment();
+        return new StoredImage(filename, target, URL_PREFIX + filename, size, info,
+                imagePlaceholderService.create(filename, info.preview()));
+    }
+
+    /** アップロードディレクトリの絶対パスを返す。 */
+    public Path getUploadDir() {
+        return uploadDir;
+    }
+
+    /** 1ファイルあたりの最大バイト数を返す。 */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    private void acquirePermit() {
+        try {
+            if (!uploadPermits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new ServiceBusyException("Too many concurrent uploads", 1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Upload interrupted", 1);
+        }
+    }
+
+    /** 書き込んだファイルを検証し、不正なら削除して例外を投げ直す。 */
+    private ImageInspector.ImageInfo validateOrDelete(Path file, String ext) throws IOException {
+        boolean valid = false;
+        try {
+            ImageInspector.ImageInfo info = imageInspector.validate(file, ext);
+            valid = true;
+            return info;
+        } finally {
+            if (!valid) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /** 先頭バイトと残りのチャネルを target に書き込み、書き込んだバイト数を返す。上限超過時はファイルを消す。 */
+    private long writeChannel(Path target, byte[] head, ReadableByteChannel rest) throws IOException {
+        UploadWriteEvent event = new UploadWriteEvent();
+        event.begin();
+        boolean completed = false;
+        long written = head.length;
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ByteBuffer headBuffer = ByteBuffer.wrap(head);
+            while (headBuffer.hasRemaining()) {
+                out.write(headBuffer);
+            }
+            while (written <= maxBytes) {
+                // 上限 + 1 バイトまで転送し、超過したかどうかだけを判定する
+                long n = out.transferFrom(rest, written, maxBytes + 1 - written);
+                if (n <= 0) {
+                    break;
+                }
+                written += n;
+            }
+            if (written > maxBytes) {
+                throw new MaxUploadSizeExceededException(maxBytes);
+            }
+            completed = true;
+            return written;
+        } finally {
+            commit(event, "direct", written);
+            if (!completed) {
+                Files.deleteIfExists(target);
+            }
+        }
+    }
+
+    private static void commit(UploadWriteEvent event, String kind, long bytes) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = kind;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    /**
+     * 先頭バイトのマジックナンバーから保存用拡張子を返す。判定できなければ null。
+     *
+     * @param head 先頭バイト
+     * @param length head の有効長
+     * @return jpg, png, gif, webp, bmp のいずれか、または null（SVG も null）
+     */
+    static String sniffExtension(byte[] head, int length) {
+        if (startsWith(head, length, 0, 0xFF, 0xD8, 0xFF)) {
+            return "jpg";
+        }
+        if (startsWith(head, length, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return "png";
+        }
+        if (startsWith(head, length, 0, 'G', 'I', 'F', '8')) {
+            return "gif";
+        }
+        if (startsWith(head, length, 0, 'R', 'I', 'F', 'F') && startsWith(head, length, 8, 'W', 'E', 'B', 'P')) {
+            return "webp";
+        }
+        if (startsWith(head, length, 0, 'B', 'M')) {
+            return "bmp";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] head, int length, int offset, int... magic) {
+        if (length < offset + magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if ((head[offset + i] & 0xFF) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 保存済み画像の情報。
+     *
+     * @param filename 保存ファイル名（例: uuid.png）
+     * @param path 保存先の絶対パス
+     * @param url 配信URL（例: /api/uploads/uuid.png）
+     * @param size バイト数
+     * @param info 寸法と縮小展開した画像
+     * @param placeholder 低画質プレースホルダの data URI（作れない形式では null）
+     */
+    public record StoredImage(String filename, Path path, String url, long size, ImageInspector.ImageInfo info,
+                              String placeholder) {}
+}
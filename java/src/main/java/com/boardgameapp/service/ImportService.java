@@ -0,0 +1,849 @@
+package com.boardgameapp.service;
+
+import com.boardgameapp.dto.AddBoardGameRequest;
+import com.boardgameapp.dto.ImportJobResponse;
+import com.boardgameapp.dto.PlayRecordRequest;
+import com.boardgameapp.entity.PlayRecord;
+import com.boardgameapp.entity.User;
+import com.boardgameapp.entity.UserBoardGame;
+import com.boardgameapp.repository.PlayRecordRepository;
+import com.boardgameapp.repository.UserBoardGameRepository;
+import com.boardgameapp.repository.UserRepository;
+import com.boardgameapp.resilience.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 他のサービスから移行するユーザー向けに、所持ゲームかプレイ記録の CSV を取り込むサービス。
+ * このアプリのエクスポート（boardgames.csv・plays.csv）と BoardGameGeek のコレクションのエクスポートを読める。
+ * <p>
+ * 受け取ったファイルは一時ファイルに書いた時点で応答し、取り込みは専用のスレッドプールで行う。
+ * 進捗は {@link ImportJob} を取得して確認する。ファイルは {@link CsvReader} で1行ずつ読み、
+ * chunk-size 行ごとに1トランザクションで取り込む。既存のゲームとの照合（BGG ID、なければ名前）はチャンクごとの IN 検索で行い、
+ * 追加は JDBC のバッチ insert にする。外部のサムネイルURLは {@link RemoteImageProxyService} で取り込む。保持するのは1チャンク分の行だけなので、ファイルがどれだけ大きくてもメモリ使用量は一定。
+ * 不正な行は飛ばして先頭の max-errors 件だけ行番号付きで記録する。途中で失敗しても取り込み済みのチャンクは取り消さない。
+ */
+@Service
+public class ImportService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportService.class);
+
+    /** 取り込みの状態 */
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    /** 1行の文字数の上限。引用符の閉じ忘れでファイル全体を1行として読み込まないようにする */
+    private static final int MAX_ROW_CHARS = 64 * 1024;
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("uuuu-M-d");
+
+    private static final String INSERT_GAME = "insert into user_board_games (user_id, bgg_id, name, thumbnail_url,"
+            + " thumbnail_placeholder, year_published, min_players, max_players, min_play_time_minutes,"
+            + " max_play_time_minutes, added_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PLAY = "insert into play_records (user_id, user_board_game_id, played_at, memo,"
+            + " player_count, created_at) values (?, ?, ?, ?, ?, ?)";
+
+    private final UserRepository userRepository;
+    private final UserBoardGameRepository userBoardGameRepository;
+    private final PlayRecordRepository playRecordRepository;
+    private final UserBoardGameService userBoardGameService;
+    private final PlayRecordService playRecordService;
+    private final RemoteImageProxyService remoteImageProxyService;
+    private final SingleFlight singleFlight;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final ThreadPoolExecutor executor;
+    private final long maxBytes;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final int maxRemoteThumbnails;
+    private final Duration jobTtl;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    /** ファイルを一時ファイルに書いている途中のユーザー（jobs とあわせて jobs のロックの中で読み書きする） */
+    private final Set<String> spooling = new HashSet<>();
+
+    public ImportService(UserRepository userRepository,
+                         UserBoardGameRepository userBoardGameRepository,
+                         PlayRecordRepository playRecordRepository,
+                         UserBoardGameService userBoardGameService,
+                         PlayRecordService playRecordService,
+                         RemoteImageProxyService remoteImageProxyService,
+                         SingleFlight singleFlight,
+                         Validator validator,
+                         JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.import.max-bytes:52428800}") long maxBytes,
+                         @Value("${app.import.chunk-size:500}") int chunkSize,
+                         @Value("${app.import.max-errors:100}") int maxErrors,
+                         @Value("${app.import.threads:2}") int threads,
+                         @Value("${app.import.queue-capacity:8}") int queueCapacity,
+                         @Value("${app.import.job-ttl-minutes:60}") long jobTtlMinutes,
+                         @Value("${app.import.max-remote-thumbnails:200}") int maxRemoteThumbnails) {
+        this.userRepository = userRepository;
+        this.userBoardGameRepository = userBoardGameRepository;
+        this.playRecordRepository = playRecordRepository;
+        this.userBoardGameService = userBoardGameService;
+        this.playRecordService = playRecordService;
+        this.remoteImageProxyService = remoteImageProxyService;
+        this.singleFlight = singleFlight;
+        this.validator = validator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.maxBytes = maxBytes;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        this.maxRemoteThumbnails = maxRemoteThumbnails;
+        this.jobTtl = Duration.ofMinutes(jobTtlMinutes);
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "import-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, (runnable, pool) -> {
+                    throw new ServiceBusyException("Server is busy", 1);
+                });
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "import");
+    }
+
+    /**
+     * ファイルを一時ファイルに書き、取り込みを開始する。取り込みの完了は待たない。
+     * 同じユーザーの取り込みが終わっていなければ、ファイルを読む前に受け付けない。
+     *
+     * @param username ユーザー名
+     * @param in ファイルの内容（UTF-8 の CSV）
+     * @return 開始した取り込み
+     */
+    public ImportJob start(String username, InputStream in) throws IOException {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        synchronized (jobs) {
+            if (spooling.contains(username)
+                    || jobs.values().stream().anyMatch(j -> j.username.equals(username) && j.finishedAt == null)) {
+                throw new IllegalArgumentException("Import already in progress");
+            }
+            spooling.add(username);
+        }
+        Path file = null;
+        try {
+            file = Files.createTempFile("boardgame-import-", ".csv");
+            long size = spool(in, file);
+            if (size == 0) {
+                throw new IllegalArgumentException("Empty file");
+            }
+            ImportJob job = new ImportJob(UUID.randomUUID().toString(), username, user.getId(), size);
+            Path spooled = file;
+            synchronized (jobs) {
+                executor.execute(() -> run(job, spooled));
+                jobs.put(job.id, job);
+            }
+            return job;
+        } catch (IOException | RuntimeException e) {
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+            throw e;
+        } finally {
+            synchronized (jobs) {
+                spooling.remove(username);
+            }
+        }
+    }
+
+    /**
+     * 取り込みの現在の状態を返す。
+     *
+     * @param username ユーザー名
+     * @param id 取り込みID
+     * @return 取り込み
+     */
+    public ImportJob get(String username, String id) {
+        ImportJob job = jobs.get(id);
+        if (job == null || !job.username.equals(username)) {
+            throw new IllegalArgumentException("Import not found");
+        }
+        return job;
+    }
+
+    /** 終わってから job-ttl-minutes を過ぎた取り込みの状態を破棄する。 */
+    @Scheduled(fixedDelayString = "${app.import.sweep-ms:60000}")
+    public void expireJobs() {
+        Instant deadline = Instant.now().minus(jobTtl);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(deadline));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private long spool(InputStream in, Path file) throws IOException {
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (int n; (n = in.read(buffer)) != -1; ) {
+                total += n;
+                if (total > maxBytes) {
+                    throw new IllegalArgumentException("File too large");
+                }
+                out.write(buffer, 0, n);
+            }
+        }
+        return total;
+    }
+
+    private void run(ImportJob job, Path file) {
+        job.startedAt = Instant.now();
+        job.status = Status.RUNNING;
+        try (CountingInputStream counting = new CountingInputStream(Files.newInputStream(file));
+             Reader reader = new BufferedReader(new InputStreamReader(counting, StandardCharsets.UTF_8))) {
+            CsvReader csv = new CsvReader(reader, MAX_ROW_CHARS);
+            List<String> header = csv.next();
+            if (header == null) {
+                throw new IllegalArgumentException("Empty file");
+            }
+            Columns columns = Columns.of(header);
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            for (List<String> values; (values = csv.next()) != null; ) {
+                if (values.stream().allMatch(String::isBlank)) {
+                    continue;
+                }
+                job.rowsRead++;
+                chunk.add(new Row(csv.getLine(), values));
+                if (chunk.size() == chunkSize) {
+                    importChunk(job, columns, chunk);
+                    chunk.clear();
+                    job.bytesRead = counting.count;
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(job, columns, chunk);
+            }
+            job.bytesRead = job.size;
+            job.status = Status.COMPLETED;
+        } catch (IllegalArgumentException e) {
+            job.fail(e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Import {} failed", job.id, e);
+            job.fail("Import failed");
+        } finally {
+            job.finishedAt = Instant.now();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // 一時ディレクトリに残るだけ
+            }
+        }
+    }
+
+    /** チャンクを1トランザクションで取り込み、コミットできてから追加・照合の件数を取り込みに足す。 */
+    private void importChunk(ImportJob job, Columns columns, List<Row> rows) {
+        localizeThumbnails(job, columns, rows);
+        ChunkCounts counts = new ChunkCounts();
+        tx.executeWithoutResult(status -> {
+            if (columns.playedAt >= 0) {
+                importPlays(job, columns, rows, counts);
+            } else {
+                importGames(job, columns, rows, counts);
+            }
+            singleFlight.forgetAfterCommit(job.username);
+        });
+        job.gamesCreated += counts.gamesCreated;
+        job.gamesMatched += counts.gamesMatched;
+        job.playsCreated += counts.playsCreated;
+        job.playsMatched += counts.playsMatched;
+    }
+
+    /**
+     * 外部のサムネイルURLを、手入力の追加と同じく取り込んでローカルURLに置き換える。取得に時間がかかるため
+     * トランザクションの外で行い、チャンク内の同じURLは1回だけ取得する。1回の取り込みで取得する異なるURLは
+     * max-remote-thumbnails 件までとし、それを超えた分は元のURLのまま保存する。照合できて追加しなかった行の分の画像は
+     * どこからも参照されず、アップロード画像の掃除で消える。
+     */
+    private void localizeThumbnails(ImportJob job, Columns columns, List<Row> rows) {
+        if (columns.thumbnailUrl < 0) {
+            return;
+        }
+        Map<String, String> localized = new HashMap<>();
+        for (Row row : rows) {
+            String url = row.text(columns.thumbnailUrl);
+            if (url != null && !"0".equals(row.text(columns.own))) {
+                row.values.set(columns.thumbnailUrl, localized.computeIfAbsent(url, u -> localize(job, u)));
+            }
+        }
+    }
+
+    /** 取り込み全体での取得件数の上限までは外部URLを取り込み、超えたら元のURLを返す。 */
+    private String localize(ImportJob job, String url) {
+        if (!RemoteImageProxyService.isRemote(url)) {
+            return url;
+        }
+        if (!job.remoteThumbnails.contains(url)) {
+            if (job.remoteThumbnails.size() >= maxRemoteThumbnails) {
+                return url;
+            }
+            job.remoteThumbnails.add(url);
+        }
+        return remoteImageProxyService.localize(url);
+    }
+
+    /** 所持ゲームの行を取り込む。照合できたゲームは追加せず、BGG ID がなければ埋める。 */
+    private void importGames(ImportJob job, Columns columns, List<Row> rows, ChunkCounts counts) {
+        List<AddBoardGameRequest> requests = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            // BGG のコレクションには所持していないゲーム（ほしいもの・以前所持など）も含まれる
+            if ("0".equals(row.text(columns.own))) {
+                job.skipped++;
+                continue;
+            }
+            try {
+                requests.add(validate(columns.game(row)));
+            } catch (IllegalArgumentException e) {
+                rowError(job, row.line, e.getMessage());
+            }
+        }
+        GameIndex index = loadIndex(job.userId, Set.of(), requests);
+        List<UserBoardGame> created = new ArrayList<>();
+        for (AddBoardGameRequest request : requests) {
+            UserBoardGame game = index.find(request.getBggId(), request.getName());
+            if (game != null) {
+                index.fillBggId(game, request.getBggId());
+                counts.gamesMatched++;
+            } else {
+                game = userBoardGameService.newEntity(job.userId, request);
+                index.add(game);
+                created.add(game);
+            }
+        }
+        insertGames(created);
+        counts.gamesCreated += created.size();
+    }
+
+    /**
+     * プレイ記録の行を取り込む。ゲームは userBoardGameId・BGG ID・名前の順に照合し、見つからなければ名前から追加する。
+     * 同じゲーム・プレイ日・人数・メモのプレイ記録が既にあれば追加しない（同じファイルを取り込み直しても重複しない）。
+     */
+    private void importPlays(ImportJob job, Columns columns, List<Row> rows, ChunkCounts counts) {
+        List<PlayRow> plays = new ArrayList<>(rows.size());
+        Set<Long> gameIds = new HashSet<>();
+        for (Row row : rows) {
+            try {
+                Long gameId = row.number(columns.userBoardGameId, "userBoardGameId");
+                AddBoardGameRequest game = columns.game(row);
+                if (game.getName() != null) {
+                    validate(game);
+                } else if (gameId == null && game.getBggId() == null) {
+                    throw new IllegalArgumentException("name: Game name is required");
+                }
+                plays.add(new PlayRow(row.line, gameId, game, validate(columns.play(row))));
+                if (gameId != null) {
+                    gameIds.add(gameId);
+                }
+            } catch (IllegalArgumentException e) {
+                rowError(job, row.line, e.getMessage());
+            }
+        }
+        GameIndex index = loadIndex(job.userId, gameIds, plays.stream().map(PlayRow::game).toList());
+        List<UserBoardGame> created = new ArrayList<>();
+        List<PlayRow> resolved = new ArrayList<>(plays.size());
+        for (PlayRow play : plays) {
+            UserBoardGame game = play.gameId != null ? index.byId.get(play.gameId) : null;
+            if (game == null) {
+                game = index.find(play.game.getBggId(), play.game.getName());
+            }
+            if (game != null) {
+                index.fillBggId(game, play.game.getBggId());
+            } else if (play.game.getName() != null) {
+                game = userBoardGameService.newEntity(job.userId, play.game);
+                index.add(game);
+                created.add(game);
+            } else {
+                rowError(job, play.line, "Board game not found");
+                continue;
+            }
+            resolved.add(play.withTarget(game));
+        }
+        insertGames(created);
+        Map<List<Object>, Integer> existing = loadExistingPlays(job, resolved);
+        List<PlayRecord> records = new ArrayList<>(resolved.size());
+        for (PlayRow play : resolved) {
+            PlayRecord record = playRecordService.newEntity(job.userId, play.target.getId(), play.request);
+            List<Object> key = playKey(record);
+            Integer count = existing.get(key);
+            if (count == null) {
+                records.add(record);
+            } else {
+                // 既存の1件に照合できるのはファイルの1行だけ（同じ内容の行が複数あれば既存の件数を超えた分は追加する）
+                if (count == 1) {
+                    existing.remove(key);
+                } else {
+                    existing.put(key, count - 1);
+                }
+                counts.playsMatched++;
+            }
+        }
+        insertPlays(records);
+        counts.gamesCreated += created.size();
+        counts.playsCreated += records.size();
+    }
+
+    /**
+     * チャンク内の行と同じゲーム・プレイ日の既存のプレイ記録を1回の検索で読み、内容ごとの件数にする。
+     * この取り込みの前のチャンクで追加したものは含めない（ファイル内の同じ内容の行はすべて追加する）。
+     */
+    private Map<List<Object>, Integer> loadExistingPlays(ImportJob job, List<PlayRow> plays) {
+        Set<Long> gameIds = new HashSet<>();
+        Set<LocalDate> dates = new HashSet<>();
+        for (PlayRow play : plays) {
+            gameIds.add(play.target.getId());
+            dates.add(play.request.getPlayedAt());
+        }
+        Map<List<Object>, Integer> counts = new HashMap<>();
+        if (!gameIds.isEmpty()) {
+            List<PlayRecord> records = playRecordRepository
+                    .findByUserIdAndUserBoardGameIdInAndPlayedAtInAndCreatedAtBefore(job.userId, gameIds, dates,
+                            job.startedAt);
+            for (PlayRecord record : records) {
+                counts.merge(playKey(record), 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    /** 重複の判定に使うプレイ記録の内容（ゲーム・プレイ日・人数・メモ） */
+    private static List<Object> playKey(PlayRecord record) {
+        return Arrays.asList(record.getUserBoardGameId(), record.getPlayedAt(), record.getPlayerCount(),
+                record.getMemo());
+    }
+
+    /** チャンク内の行が参照するゲームを ID・BGG ID・名前ごとに1回の検索で読み込む。 */
+    private GameIndex loadIndex(Long userId, Set<Long> ids, List<AddBoardGameRequest> games) {
+        Set<String> bggIds = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (AddBoardGameRequest game : games) {
+            if (game.getBggId() != null) {
+                bggIds.add(game.getBggId());
+            }
+            if (game.getName() != null) {
+                names.add(GameIndex.key(game.getName()));
+            }
+        }
+        GameIndex index = new GameIndex();
+        if (!ids.isEmpty()) {
+            userBoardGameRepository.findByUserIdAndIdIn(userId, ids).forEach(index::add);
+        }
+        if (!bggIds.isEmpty()) {
+            userBoardGameRepository.findByUserIdAndBggIdIn(userId, bggIds).forEach(index::add);
+        }
+        if (!names.isEmpty()) {
+            userBoardGameRepository.findByUserIdAndLowerNameIn(userId, names).forEach(index::add);
+        }
+        return index;
+    }
+
+    /** 追加するゲームを1回のバッチで insert し、採番された ID をエンティティに設定する。 */
+    private void insertGames(List<UserBoardGame> games) {
+        if (games.isEmpty()) {
+            return;
+        }
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_GAME, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        UserBoardGame game = games.get(i);
+                        ps.setLong(1, game.getUserId());
+                        ps.setString(2, game.getBggId());
+                        ps.setString(3, game.getName());
+                        ps.setString(4, game.getThumbnailUrl());
+                        ps.setString(5, game.getThumbnailPlaceholder());
+                        ps.setObject(6, game.getYearPublished(), Types.INTEGER);
+                        ps.setObject(7, game.getMinPlayers(), Types.INTEGER);
+                        ps.setObject(8, game.getMaxPlayers(), Types.INTEGER);
+                        ps.setObject(9, game.getMinPlayTimeMinutes(), Types.INTEGER);
+                        ps.setObject(10, game.getMaxPlayTimeMinutes(), Types.INTEGER);
+                        ps.setTimestamp(11, Timestamp.from(game.getAddedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return games.size();
+                    }
+                }, keys);
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < games.size(); i++) {
+            games.get(i).setId(((Number) generated.get(i).values().iterator().next()).longValue());
+        }
+    }
+
+    private void insertPlays(List<PlayRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_PLAY, records, records.size(), (ps, record) -> {
+            ps.setLong(1, record.getUserId());
+            ps.setLong(2, record.getUserBoardGameId());
+            ps.setObject(3, record.getPlayedAt());
+            ps.setString(4, record.getMemo());
+            ps.setObject(5, record.getPlayerCount(), Types.INTEGER);
+            ps.setTimestamp(6, Timestamp.from(record.getCreatedAt()));
+        });
+    }
+
+    private <T> T validate(T request) {
+        Set<ConstraintViolation<T>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<T> first = violations.stream()
+                    .min(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                    .get();
+            throw new IllegalArgumentException(first.getPropertyPath() + ": " + first.getMessage());
+        }
+        return request;
+    }
+
+    private void rowError(ImportJob job, long line, String message) {
+        job.skipped++;
+        if (job.errors.size() < maxErrors) {
+            job.errors.add(new ImportJobResponse.RowError(line, message));
+        }
+    }
+
+    /** CSV の1行と、その開始行番号 */
+    private record Row(long line, List<String> values) {
+
+        /** 列の値（前後の空白を除く）。列がないか空欄なら null */
+        String text(int column) {
+            if (column < 0 || column >= values.size()) {
+                return null;
+            }
+            String value = values.get(column).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        Long number(int column, String field) {
+            String value = text(column);
+            try {
+                return value != null ? Long.valueOf(value) : null;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(field + ": must be a number");
+            }
+        }
+
+        Integer integer(int column, String field) {
+            Long value = number(column, field);
+            if (value != null && (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)) {
+                throw new IllegalArgumentException(field + ": must be a number");
+            }
+            return value != null ? value.intValue() : null;
+        }
+
+        /** BGG は不明な年・人数・時間を 0 で書くため、0 以下は未設定として読む */
+        Integer positive(int column, String field) {
+            Integer value = integer(column, field);
+            return value != null && value > 0 ? value : null;
+        }
+
+        /** yyyy-MM-dd（yyyy/M/d や時刻付きも可） */
+        LocalDate date(int column, String field) {
+            String value = text(column);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return LocalDate.parse(value.split("[ T]")[0].replace('/', '-'), DATE);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException(field + ": must be a date (yyyy-MM-dd)");
+            }
+        }
+    }
+
+    /**
+     * ヘッダから求めた各項目の列位置（なければ -1）。列名は大文字小文字・空白・記号を無視して照合し、
+     * このアプリのエクスポートの列名のほか BGG のエクスポートの列名（objectname・objectid など）も受け付ける。
+     * playedAt の列があればプレイ記録、なければ所持ゲームのファイルとして読む。
+     */
+    private record Columns(int name, int bggId, int thumbnailUrl, int yearPublished, int minPlayers, int maxPlayers,
+                           int minPlayTime, int maxPlayTime, int own,
+                           int userBoardGameId, int playedAt, int playerCount, int memo) {
+
+        static Columns of(List<String> header) {
+            List<String> keys = header.stream()
+                    .map(h -> h.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]", ""))
+                    .toList();
+            Columns columns = new Columns(
+                    find(keys, "name", "objectname", "game", "gamename", "title"),
+                    find(keys, "bggid", "objectid"),
+                    find(keys, "thumbnailurl", "thumbnail", "image"),
+                    find(keys, "yearpublished", "year"),
+                    find(keys, "minplayers"),
+                    find(keys, "maxplayers"),
+                    find(keys, "minplaytimeminutes", "minplaytime"),
+                    find(keys, "maxplaytimeminutes", "maxplaytime", "playingtime"),
+                    find(keys, "own"),
+                    find(keys, "userboardgameid"),
+                    find(keys, "playedat", "playdate", "date"),
+                    find(keys, "playercount", "numplayers", "players"),
+                    find(keys, "memo", "comments", "comment", "notes"));
+            if (columns.name < 0 && columns.bggId < 0 && columns.userBoardGameId < 0) {
+                throw new IllegalArgumentException("Missing column: name");
+            }
+            return columns;
+        }
+
+        private static int find(List<String> keys, String... aliases) {
+            for (String alias : aliases) {
+                int index = keys.indexOf(alias);
+                if (index >= 0) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+
+        AddBoardGameRequest game(Row row) {
+            AddBoardGameRequest request = new AddBoardGameRequest();
+            request.setName(row.text(name));
+            request.setBggId(row.text(bggId));
+            request.setThumbnailUrl(row.text(thumbnailUrl));
+            request.setYearPublished(row.positive(yearPublished, "yearPublished"));
+            request.setMinPlayers(row.positive(minPlayers, "minPlayers"));
+            request.setMaxPlayers(row.positive(maxPlayers, "maxPlayers"));
+            request.setMinPlayTimeMinutes(row.positive(minPlayTime, "minPlayTimeMinutes"));
+            request.setMaxPlayTimeMinutes(row.positive(maxPlayTime, "maxPlayTimeMinutes"));
+            return request;
+        }
+
+        PlayRecordRequest play(Row row) {
+            PlayRecordRequest request = new PlayRecordRequest();
+            request.setPlayedAt(row.date(playedAt, "playedAt"));
+            request.setPlayerCount(row.positive(playerCount, "playerCount"));
+            request.setMemo(row.text(memo));
+            return request;
+        }
+    }
+
+    /** プレイ記録の1行。target は照合・追加したゲーム */
+    private record PlayRow(long line, Long gameId, AddBoardGameRequest game, PlayRecordRequest request,
+                           UserBoardGame target) {
+
+        PlayRow(long line, Long gameId, AddBoardGameRequest game, PlayRecordRequest request) {
+            this(line, gameId, game, request, null);
+        }
+
+        PlayRow withTarget(UserBoardGame target) {
+            return new PlayRow(line, gameId, game, request, target);
+        }
+    }
+
+    /** 1チャンクで追加・照合した件数。トランザクションがコミットできてから取り込みの件数に足す */
+    private static final class ChunkCounts {
+        private long gamesCreated;
+        private long gamesMatched;
+        private long playsCreated;
+        private long playsMatched;
+    }
+
+    /** チャンク内で参照するゲームの索引。チャンク内で追加するゲームも加え、同じゲームの行を重複して追加しない */
+    private static final class GameIndex {
+        private final Map<Long, UserBoardGame> byId = new HashMap<>();
+        private final Map<String, UserBoardGame> byBggId = new HashMap<>();
+        private final Map<String, UserBoardGame> byName = new HashMap<>();
+
+        static String key(String name) {
+            return name.trim().toLowerCase(Locale.ROOT);
+        }
+
+        void add(UserBoardGame game) {
+            if (game.getId() != null) {
+                byId.putIfAbsent(game.getId(), game);
+            }
+            if (game.getBggId() != null) {
+                byBggId.putIfAbsent(game.getBggId(), game);
+            }
+            byName.putIfAbsent(key(game.getName()), game);
+        }
+
+        /** BGG ID が一致するゲーム。なければ名前が一致し BGG ID が食い違わないゲーム */
+        UserBoardGame find(String bggId, String name) {
+            UserBoardGame game = bggId != null ? byBggId.get(bggId) : null;
+            if (game == null && name != null) {
+                UserBoardGame named = byName.get(key(name));
+                if (named != null && (bggId == null || named.getBggId() == null)) {
+                    game = named;
+                }
+            }
+            return game;
+        }
+
+        /** 名前で照合したゲームに BGG ID がなければ埋める（既存のゲームはコミット時に update される） */
+        void fillBggId(UserBoardGame game, String bggId) {
+            if (bggId != null && game.getBggId() == null) {
+                game.setBggId(bggId);
+                byBggId.putIfAbsent(bggId, game);
+            }
+        }
+    }
+
+    /** 読んだバイト数を数える（進捗表示用） */
+    private static final class CountingInputStream extends FilterInputStream {
+        private volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+
+    /**
+     * 取り込み1件の状態。カウンタは取り込みスレッドだけが更新する。
+     */
+    public static final class ImportJob {
+        private final String id;
+        private final String username;
+        private final Long userId;
+        private final long size;
+        private volatile Status status = Status.QUEUED;
+        private volatile long bytesRead;
+        private volatile long rowsRead;
+        private volatile long gamesCreated;
+        private volatile long gamesMatched;
+        private volatile long playsCreated;
+        private volatile long playsMatched;
+        private volatile long skipped;
+        /** 取り込みを試みた外部サムネイルURL（取り込みのスレッドだけが読み書きする） */
+        private final Set<String> remoteThumbnails = new HashSet<>();
+        private final List<ImportJobResponse.RowError> errors = new CopyOnWriteArrayList<>();
+        private volatile String message;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+
+        ImportJob(String id, String username, Long userId, long size) {
+            this.id = id;
+            this.username = username;
+            this.userId = userId;
+            this.size = size;
+        }
+
+        void fail(String message) {
+            this.message = message;
+            this.status = Status.FAILED;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getBytesRead() {
+            return bytesRead;
+        }
+
+        public long getRowsRead() {
+            return rowsRead;
+        }
+
+        public long getGamesCreated() {
+            return gamesCreated;
+        }
+
+        public long getGamesMatched() {
+            return gamesMatched;
+        }
+
+        public long getPlaysCreated() {
+            return playsCreated;
+        }
+
+        public long getPlaysMatched() {
+            return playsMatched;
+        }
+
+        public long getSkipped() {
+            return skipped;
+        }
+
+        public List<ImportJobResponse.RowError> getErrors() {
+            return List.copyOf(errors);
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.boardgameapp.service;
+
+/**
+ * リフレッシュトークンが存在しない・期限切れ・失効済み・使用済みであることを表す例外。
+ * 401 を返し、クライアントにログインし直してもらう。
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,290 @@
+package com.boardgameapp.service;
+
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 検証済みの IP アドレスへ直接接続し、HTTP/1.1 の GET を1回だけ行う最小限のクライアント。
+ * java.net.http.HttpClient は接続時に名前解決をやり直すため、検証の後で DNS の応答を差し替えられると
+ * （DNS リバインディング）内部アドレスへ接続してしまう。ここでは検証したアドレスにソケットを張り、
+ * TLS の SNI とホスト名検証にだけ元のホスト名を使う。
+ * 接続から本文の読み終わりまでを1つの期限で打ち切る（読み込みのたびに残り時間をソケットのタイムアウトにする）。
+ */
+final class PinnedHttpClient {
+
+    /** ステータス行とヘッダの合計の上限 */
+    private static final int MAX_HEADER_BYTES = 16 * 1024;
+
+    private final Duration connectTimeout;
+    private final SSLSocketFactory sslSocketFactory;
+
+    PinnedHttpClient(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        this.sslSocketFactory = (SSLSocketFactory) SSLSocketFactory.getDefault();
+    }
+
+    /**
+     * GET を送り、ステータスとヘッダを読んだところで返す。本文は {@link Response#body()} から読む。
+     *
+     * @param uri 取得するURL（http / https）
+     * @param address 接続先（uri のホストを名前解決して検証したアドレス）
+     * @param accept Accept ヘッダ
+     * @param deadline 本文を読み終えるまでの期限（{@link System#nanoTime()} 基準）
+     * @return 応答（呼び出し側で close する）
+     * @throws SocketTimeoutException 期限を過ぎた場合
+     */
+    Response get(URI uri, InetAddress address, String accept, long deadline) throws IOException {
+        boolean https = "https".equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() != -1 ? uri.getPort() : https ? 443 : 80;
+        String host = uri.getHost();
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(address, port),
+                    (int) Math.min(connectTimeout.toMillis(), remainingMillis(deadline)));
+            if (https) {
+                // IPv6 リテラルの [] を外した名前で SNI とホスト名検証を行う
+                String tlsHost = host.startsWith("[") ? host.substring(1, host.length() - 1) : host;
+                SSLSocket ssl = (SSLSocket) sslSocketFactory.createSocket(socket, tlsHost, port, true);
+                SSLParameters parameters = ssl.getSSLParameters();
+                parameters.setEndpointIdentificationAlgorithm("HTTPS");
+                ssl.setSSLParameters(parameters);
+                socket = ssl;
+                socket.setSoTimeout((int) remainingMillis(deadline));
+                ssl.startHandshake();
+            }
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+            String target = uri.getRawQuery() != null ? path + "?" + uri.getRawQuery() : path;
+            String request = "GET " + target + " HTTP/1.1\r\n"
+                    + "Host: " + host + (uri.getPort() != -1 ? ":" + port : "") + "\r\n"
+                    + "Accept: " + accept + "\r\n"
+                    + "Accept-Encoding: identity\r\n"
+                    + "Connection: close\r\n\r\n";
+            OutputStream out = socket.getOutputStream();
+            out.write(request.getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+
+            InputStream in = new BufferedInputStream(new DeadlineInputStream(socket, deadline));
+            int[] budget = {MAX_HEADER_BYTES};
+            String[] statusLine = readLine(in, budget).split(" ", 3);
+            if (statusLine.length < 2 || !statusLine[0].startsWith("HTTP/")) {
+                throw new IOException("Invalid status line");
+            }
+            int status = parseStatus(statusLine[1]);
+            Map<String, String> headers = new HashMap<>();
+            for (String line; !(line = readLine(in, budget)).isEmpty(); ) {
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    headers.putIfAbsent(line.substring(0, colon).trim().toLowerCase(Locale.ROOT),
+                            line.substring(colon + 1).trim());
+                }
+            }
+            InputStream body;
+            if ("chunked".equalsIgnoreCase(headers.get("transfer-encoding"))) {
+                body = new ChunkedInputStream(in);
+            } else if (headers.containsKey("content-length")) {
+                body = new LimitedInputStream(in, parseLength(headers.get("content-length")));
+            } else {
+                body = in;
+            }
+            return new Response(status, headers, body, socket);
+        } catch (IOException | RuntimeException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    private static long remainingMillis(long deadline) throws SocketTimeoutException {
+        long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remaining <= 0) {
+            throw new SocketTimeoutException("Deadline exceeded");
+        }
+        return Math.min(remaining, Integer.MAX_VALUE);
+    }
+
+    private static int parseStatus(String value) throws IOException {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid status line");
+        }
+    }
+
+    private static long parseLength(String value) throws IOException {
+        try {
+            long length = Long.parseLong(value);
+            if (length < 0) {
+                throw new IOException("Invalid Content-Length");
+            }
+            return length;
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid Content-Length");
+        }
+    }
+
+    /** CRLF（または LF）までの1行を読む。budget[0] はヘッダ全体で読める残りバイト数。 */
+    private static String readLine(InputStream in, int[] budget) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (int c; (c = in.read()) != '\n'; ) {
+            if (c == -1) {
+                throw new IOException("Unexpected end of response");
+            }
+            if (--budget[0] < 0) {
+                throw new IOException("Response header too large");
+            }
+            if (c != '\r') {
+                line.append((char) c);
+            }
+        }
+        return line.toString();
+    }
+
+    /**
+     * 応答のステータス・ヘッダ（名前は小文字、同名は最初の値）と本文。close でソケットを閉じる。
+     */
+    record Response(int status, Map<String, String> headers, InputStream body, Socket socket) implements Closeable {
+
+        Optional<String> header(String name) {
+            return Optional.ofNullable(headers.get(name.toLowerCase(Locale.ROOT)));
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    /** 読み込みのたびに期限までの残り時間をソケットのタイムアウトにする */
+    private static final class DeadlineInputStream extends FilterInputStream {
+        private final Socket socket;
+        private final long deadline;
+
+        DeadlineInputStream(Socket socket, long deadline) throws IOException {
+            super(socket.getInputStream());
+            this.socket = socket;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public int read() throws IOException {
+            socket.setSoTimeout((int) remainingMillis(deadline));
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            socket.setSoTimeout((int) remainingMillis(deadline));
+            return super.read(b, off, len);
+        }
+    }
+
+    /** Content-Length の分だけ読む */
+    private static final class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b != -1) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+    }
+
+    /** Transfer-Encoding: chunked の本文を復号する（拡張とトレーラは読み捨てる） */
+    private static final class ChunkedInputStream extends FilterInputStream {
+        private long remaining;
+        private boolean started;
+        private boolean eof;
+
+        ChunkedInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining == 0 && !eof) {
+                nextChunk();
+            }
+            if (eof) {
+                return -1;
+            }
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n == -1) {
+                throw new IOException("Unexpected end of chunked body");
+            }
+            remaining -= n;
+            return n;
+        }
+
+        private void nextChunk() throws IOException {
+            int[] budget = {MAX_HEADER_BYTES};
+            if (started) {
+                // 前のチャンクの末尾の CRLF
+                readLine(in, budget);
+            }
+            started = true;
+            String size = readLine(in, budget);
+            int semicolon = size.indexOf(';');
+            try {
+                remaining = Long.parseLong((semicolon >= 0 ? size.substring(0, semicolon) : size).trim(), 16);
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid chunk size");
+            }
+            if (remaining < 0) {
+                throw new IOException("Invalid chunk size");
+            }
+            if (remaining == 0) {
+                while (!readLine(in, budget).isEmpty()) {
+                    // トレーラは使わない
+                }
+                eof = true;
+            }
+        }
+    }
+}
@@ -5,31 +5,48 @@ import com.boardgameapp.dto.PlayRecordResponse;
 import com.boardgameapp.entity.PlayRecord;
 import com.boardgameapp.entity.User;
 import com.boardgameapp.entity.UserBoardGame;
+import com.boardgameapp.monitoring.ServerTiming;
 import com.boardgameapp.repository.PlayRecordRepository;
 import com.boardgameapp.repository.UserBoardGameRepository;
 import com.boardgameapp.repository.UserRepository;
+import com.boardgameapp.resilience.SingleFlight;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * プレイ記録の一覧・追加・更新・削除を行うサービス。
+ * 同じユーザーの全プレイ記録の同時読み込みは {@link SingleFlight} で1回にまとめる。
  */
 @Service
+@Timed(value = "boardgame.service", histogram = true)
 public class PlayRecordService {
 
+    /** {@link SingleFlight} 上の一覧の名前 */
+    static final String LIST = "plays";
+
     private final PlayRecordRepository playRecordRepository;
     private final UserRepository userRepository;
     private final UserBoardGameRepository userBoardGameRepository;
+    private final SingleFlight singleFlight;
+    /** 一覧の読み込み用。相乗りする要求が接続を持ったまま待たないよう、まとめた後にトランザクションを始める */
+    private final TransactionTemplate readOnlyTx;
 
     public PlayRecordService(PlayRecordRepository playRecordRepository,
                              UserRepository userRepository,
-                             UserBoardGameRepository userBoardGameRepository) {
+                             UserBoardGameRepository userBoardGameRepository,
+                             SingleFlight singleFlight,
+                             PlatformTransactionManager transactionManager) {
         this.playRecordRepository = playRecordRepository;
         this.userRepository = userRepository;
         this.userBoardGameRepository = userBoardGameRepository;
+        this.singleFlight = singleFlight;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
     }
 
     /**
@@ -45,26 +62,30 @@ public class PlayRecordService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
         UserBoardGame ubg = userBoardGameRepository.findByIdAndUserId(userBoardGameId, user.getId())
                 .orElseThrow(() -> new IllegalArgumentException("Board game not found"));
-        return playRecordRepository.findByUserBoardGameIdOrderByPlayedAtDesc(ubg.getId())
-                .stream()
+        List<PlayRecord> records = playRecordRepository.findByUserBoardGameIdOrderByPlayedAtDesc(ubg.getId());
+        return ServerTiming.time(ServerTiming.MAP, () -> records.stream()
                 .map(this::toResponse)
-                .collect(Collectors.toList());
+                .toList());
     }
 
     /**
      * 指定ユーザーの全プレイ記録をプレイ日の降順で取得する。
+     * 同じユーザーの読み込みが進行中ならその結果を共有する（そのため返す一覧は変更できない）。
      *
      * @param username ユーザー名
      * @return プレイ記録一覧
      */
-    @Transactional(readOnly = true)
     public List<PlayRecordResponse> listAllByUsername(String username) {
+        return singleFlight.execute(LIST, username, () -> readOnlyTx.execute(status -> loadAll(username)));
+    }
+
+    private List<PlayRecordResponse> loadAll(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        return playRecordRepository.findByUserIdOrderByPlayedAtDesc(user.getId())
-                .stream()
+        List<PlayRecord> records = playRecordRepository.findByUserIdOrderByPlayedAtDesc(user.getId());
+        return ServerTiming.time(ServerTiming.MAP, () -> records.stream()
                 .map(this::toResponse)
-                .collect(Collectors.toList());
+                .toList());
     }
 
     /**
@@ -81,13 +102,8 @@ public class PlayRecordService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
         UserBoardGame ubg = userBoardGameRepository.findByIdAndUserId(userBoardGameId, user.getId())
                 .orElseThrow(() -> new IllegalArgumentException("Board game not found"));
-        PlayRecord record = new PlayRecord();
-        record.setUserId(user.getId());
-        record.setUserBoardGameId(ubg.getId());
-        record.setPlayedAt(request.getPlayedAt());
-        record.setMemo(request.getMemo());
-        record.setPlayerCount(request.getPlayerCount());
-        record = playRecordRepository.save(record);
+        PlayRecord record = playRecordRepository.save(newEntity(user.getId(), ubg.getId(), request));
+        singleFlight.forgetAfterCommit(username);
         return toResponse(record);
     }
 
@@ -105,10 +121,9 @@ public class PlayRecordService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
         PlayRecord record = playRecordRepository.findByIdAndUserId(playRecordId, user.getId())
                 .orElseThrow(() -> new IllegalArgumentException("Play record not found"));
-        record.setPlayedAt(request.getPlayedAt());
-        record.setMemo(request.getMemo());
-        record.setPlayerCount(request.getPlayerCount());
+        apply(record, request);
         record = playRecordRepository.save(record);
+        singleFlight.forgetAfterCommit(username);
         return toResponse(record);
     }
 
@@ -125,10 +140,27 @@ public class PlayRecordService {
         PlayRecord record = playRecordRepository.findByIdAndUserId(playRecordId, user.getId())
                 .orElseThrow(() -> new IllegalArgumentException("Play record not found"));
         playRecordRepository.delete(record);
+        singleFlight.forgetAfterCommit(username);
+    }
+
+    /** 追加リクエストから未保存のエンティティを作る（一括操作と共通）。 */
+    PlayRecord newEntity(Long userId, Long userBoardGameId, PlayRecordRequest request) {
+        PlayRecord record = new PlayRecord();
+        record.setUserId(userId);
+        record.setUserBoardGameId(userBoardGameId);
+        apply(record, request);
+        return record;
+    }
+
+    /** 更新リクエストの内容をエンティティに反映する（一括操作と共通）。 */
+    void apply(PlayRecord record, PlayRecordRequest request) {
+        record.setPlayedAt(request.getPlayedAt());
+        record.setMemo(request.getMemo());
+        record.setPlayerCount(request.getPlayerCount());
     }
 
-    /** エンティティをレスポンスDTOに変換する。 */
-    private PlayRecordResponse toResponse(PlayRecord r) {
+    /** エンティティをレスポンスDTOに変換する（ベンチマークから呼べるようパッケージプライベート）。 */
+    PlayRecordResponse toResponse(PlayRecord r) {
         PlayRecordResponse res = new PlayRecordResponse();
         res.setId(r.getId());
         res.setUserBoardGameId(r.getUserBoardGameId());
@@ -0,0 +1,141 @@
+package com.boardgameapp.service;
+
+import com.boardgameapp.entity.RefreshToken;
+import com.boardgameapp.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * リフレッシュトークンの発行・ローテーション・失効を行うサービス。
+ * トークンはランダムな 256 ビット値で、DB には SHA-256 のハッシュだけを保存する。
+ * 使ったトークンは使用済みにして同じ family の新しいトークンを返す。使用済みのトークンが reuse-grace-ms を
+ * 過ぎてから再び使われたら、盗まれたトークンとみなして family ごと失効させる（grace 内なら断るだけ。
+ * 複数タブが同時に更新した場合に正規のセッションを巻き込まないため）。
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration ttl;
+    private final Duration reuseGrace;
+    private final SecureRandom random = new SecureRandom();
+    private final Counter reused;
+
+    public RefreshTokenService(
+            RefreshTokenRepository refreshTokenRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.jwt.refresh-expiration-ms:2592000000}") long ttlMs,
+            @Value("${app.jwt.refresh-reuse-grace-ms:10000}") long reuseGraceMs) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.ttl = Duration.ofMillis(ttlMs);
+        this.reuseGrace = Duration.ofMillis(reuseGraceMs);
+        this.reused = Counter.builder("boardgame.refresh-token.reused")
+                .description("使用済みのリフレッシュトークンが再び使われ、family ごと失効させた件数")
+                .register(meterRegistry);
+    }
+
+    /** ローテーションの結果（ユーザーIDと新しいリフレッシュトークン）。 */
+    public record Rotation(Long userId, String refreshToken) {}
+
+    /**
+     * 新しい family のリフレッシュトークンを発行する（ログイン・登録時）。
+     *
+     * @param userId ユーザーID
+     * @return リフレッシュトークン
+     */
+    @Transactional
+    public String issue(Long userId) {
+        return issue(userId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * リフレッシュトークンを使用済みにし、同じ family の新しいトークンを発行する。
+     *
+     * @param token リフレッシュトークン
+     * @return ユーザーIDと新しいリフレッシュトークン
+     * @throws InvalidRefreshTokenException 存在しない・期限切れ・失効済み・使用済みの場合
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String token) {
+        Instant now = Instant.now();
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(token))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+        if (current.isRevoked() || !current.getExpiresAt().isAfter(now)) {
+            throw new InvalidRefreshTokenException("Invalid refresh token");
+        }
+        Instant usedAt = current.getUsedAt();
+        if (usedAt != null && usedAt.plus(reuseGrace).isBefore(now)) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            reused.increment();
+            log.warn("Refresh token reused; revoked token family of user {}", current.getUserId());
+            throw new InvalidRefreshTokenException("Invalid refresh token");
+        }
+        // grace 内の再使用と、同時に同じトークンで更新して負けた場合は断るだけ
+        if (usedAt != null || refreshTokenRepository.markUsed(current.getId(), now) == 0) {
+            throw new InvalidRefreshTokenException("Invalid refresh token");
+        }
+        return new Rotation(current.getUserId(), issue(current.getUserId(), current.getFamilyId()));
+    }
+
+    /**
+     * リフレッシュトークンの family を失効させる（ログアウト）。存在しないトークンは無視する。
+     *
+     * @param token リフレッシュトークン
+     */
+    @Transactional
+    public void revoke(String token) {
+        refreshTokenRepository.findByTokenHash(hash(token))
+                .ifPresent(t -> refreshTokenRepository.revokeFamily(t.getFamilyId()));
+    }
+
+    /** 有効期限を過ぎたトークンを削除する。 */
+    @Scheduled(initialDelayString = "${app.jwt.refresh-sweep-ms:3600000}",
+            fixedDelayString = "${app.jwt.refresh-sweep-ms:3600000}")
+    @Transactional
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    private String issue(Long userId, String familyId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        RefreshToken entity = new RefreshToken();
+        entity.setUserId(userId);
+        entity.setTokenHash(hash(token));
+        entity.setFamilyId(familyId);
+        entity.setExpiresAt(Instant.now().plus(ttl));
+        refreshTokenRepository.save(entity);
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.boardgameapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 外部サイトのサムネイルURLを取り込み、アップロード画像と同じローカルURLに置き換えるサービス。
+ * 画像は1度だけ取得して {@link ImageStorageService} で保存・検証し（プレースホルダもそこで作られる）、
+ * 以降は取得済みのローカルURLを返す。同じURLへの初回の同時要求は1回の取得にまとめる。
+ * 取得に失敗した場合は元のURLをそのまま返し、ゲーム・ほしいものの保存は妨げない。失敗したURLは failure-ttl-ms の間覚えておき、
+ * その間は取得し直さずに元のURLを返す。相乗りした要求はリーダーの取得の期限まで待つ。
+ * 取得は名前解決して検証したアドレスへ直接接続し（{@link PinnedHttpClient}）、リダイレクトと本文の読み込みを含めて
+ * request-timeout-ms で打ち切る。SVG は取り込まない。
+ * キャッシュのヒット・ミス・相乗り・失敗・失敗の記憶による省略の件数とエントリ数をメトリクスとして公開する。
+ */
+@Service
+public class RemoteImageProxyService {
+
+    private static final Logger log = LoggerFactory.getLogger(RemoteImageProxyService.class);
+
+    private final ImageStorageService imageStorageService;
+    private final PinnedHttpClient httpClient;
+    private final boolean enabled;
+    private final Duration requestTimeout;
+    private final int maxRedirects;
+    private final boolean allowPrivateHosts;
+    private final long failureTtlNanos;
+
+    /** 外部URL → ローカルURL。古いものから捨てる */
+    private final Map<String, String> cache;
+
+    /** 取得に失敗した外部URL → 取得し直さない期限（System.nanoTime）。古いものから捨てる */
+    private final Map<String, Long> failed;
+
+    /** 取得中の外部URL → 取得結果（ローカルURL、失敗時は元のURL）と取得の期限 */
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter failures;
+    private final Counter negativeHits;
+
+    /** 取得中の結果と、リーダーが取得を打ち切る期限（System.nanoTime） */
+    private record InFlight(CompletableFuture<String> result, long deadline) {
+    }
+
+    public RemoteImageProxyService(
+            ImageStorageService imageStorageService,
+            MeterRegistry meterRegistry,
+            @Value("${app.upload.remote.enabled:true}") boolean enabled,
+            @Value("${app.upload.remote.connect-timeout-ms:3000}") long connectTimeoutMs,
+            @Value("${app.upload.remote.request-timeout-ms:5000}") long requestTimeoutMs,
+            @Value("${app.upload.remote.max-redirects:3}") int maxRedirects,
+            @Value("${app.upload.remote.allow-private-hosts:false}") boolean allowPrivateHosts,
+            @Value("${app.upload.remote.cache-size:1000}") int cacheSize,
+            @Value("${app.upload.remote.failure-ttl-ms:60000}") long failureTtlMs) {
+        this.imageStorageService = imageStorageService;
+        this.enabled = enabled;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.maxRedirects = maxRedirects;
+        this.allowPrivateHosts = allowPrivateHosts;
+        this.failureTtlNanos = TimeUnit.MILLISECONDS.toNanos(failureTtlMs);
+        // リダイレクト先も private アドレスでないか確認するため、リダイレクトは fetch で1回ずつ追う
+        this.httpClient = new PinnedHttpClient(Duration.ofMillis(connectTimeoutMs));
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        this.failed = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        this.hits = cacheCounter(meterRegistry, "hit");
+        this.misses = cacheCounter(meterRegistry, "miss");
+        this.coalesced = cacheCounter(meterRegistry, "coalesced");
+        this.failures = cacheCounter(meterRegistry, "failure");
+        this.negativeHits = cacheCounter(meterRegistry, "negative");
+        Gauge.builder("boardgame.remote-image.cache.size", cache, Map::size)
+                .description("取り込み済みの外部URLの件数")
+                .register(meterRegistry);
+    }
+
+    private static Counter cacheCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("boardgame.remote-image.cache.requests")
+                .description("外部サムネイルURLの取り込み要求の件数（結果別）")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * サムネイルURLが外部の http(s) URL なら取り込み、ローカルURLを返す。それ以外はそのまま返す。
+     * 呼び出したスレッドで取得するため、最大で request-timeout-ms（と保存の同時実行枠の待ち）だけかかる。
+     *
+     * @param url サムネイルURL（null 可）
+     * @return ローカルURL。取り込めなかった場合や外部URLでない場合は引数のURL
+     */
+    public String localize(String url) {
+        if (!enabled || !isRemote(url)) {
+            return url;
+        }
+        String cached = cachedLocalUrl(url);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        if (recentlyFailed(url)) {
+            negativeHits.increment();
+            return url;
+        }
+        InFlight mine = new InFlight(new CompletableFuture<>(), System.nanoTime() + requestTimeout.toNanos());
+        InFlight leader = inFlight.putIfAbsent(url, mine);
+        if (leader != null) {
+            coalesced.increment();
+            return await(leader, url);
+        }
+        try {
+            // putIfAbsent の直前に別スレッドが取得を終えていた場合
+            String local = cachedLocalUrl(url);
+            if (local == null) {
+                misses.increment();
+                local = fetch(url, mine.deadline());
+                cache.put(url, local);
+            }
+            mine.result().complete(local);
+            return local;
+        } catch (IOException | RuntimeException e) {
+            log.debug("Failed to fetch remote thumbnail {}", url, e);
+            failures.increment();
+            failed.put(url, System.nanoTime() + failureTtlNanos);
+            mine.result().complete(url);
+            return url;
+        } finally {
+            inFlight.remove(url, mine);
+        }
+    }
+
+    /** failure-ttl-ms 以内に取得に失敗したURLか。期限を過ぎていれば忘れる。 */
+    private boolean recentlyFailed(String url) {
+        Long until = failed.get(url);
+        if (until == null) {
+            return false;
+        }
+        if (System.nanoTime() - until < 0) {
+            return true;
+        }
+        failed.remove(url, until);
+        return false;
+    }
+
+    /** 取得済みでファイルが残っていればローカルURLを返す（掃除で消えていたら捨てる）。 */
+    private String cachedLocalUrl(String url) {
+        String local = cache.get(url);
+        if (local == null) {
+            return null;
+        }
+        String filename = local.substring(ImageStorageService.URL_PREFIX.length());
+        if (Files.exists(imageStorageService.getUploadDir().resolve(filename))) {
+            return local;
+        }
+        cache.remove(url, local);
+        return null;
+    }
+
+    /** リーダーの取得の期限まで結果を待つ。期限を過ぎたら元のURLを返す。 */
+    private String await(InFlight leader, String url) {
+        try {
+            return leader.result().get(Math.max(leader.deadline() - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return url;
+        } catch (ExecutionException | TimeoutException e) {
+            return url;
+        }
+    }
+
+    /**
+     * 期限（System.nanoTime）までにリダイレクトを追って本文を読み終える。期限を過ぎたら打ち切る。
+     * 接続は {@link #resolve} で検証したアドレスに対して行う。
+     */
+    private String fetch(String url, long deadline) throws IOException {
+        URI uri = URI.create(url);
+        for (int redirects = 0; redirects <= maxRedirects; redirects++) {
+            InetAddress address = resolve(uri);
+            try (PinnedHttpClient.Response response = httpClient.get(uri, address, "image/*", deadline)) {
+                int status = response.status();
+                if (status >= 300 && status < 400) {
+                    String location = response.header("Location")
+                            .orElseThrow(() -> new IOException("Redirect without Location"));
+                    uri = uri.resolve(location);
+                    continue;
+                }
+                if (status != 200) {
+                    throw new IOException("Unexpected status " + status);
+                }
+                long length = response.header("Content-Length").map(Long::parseLong).orElse(-1L);
+                if (length > imageStorageService.getMaxBytes()) {
+                    throw new IOException("Remote image too large");
+                }
+                return imageStorageService.store(response.body()).url();
+            }
+        }
+        throw new IOException("Too many redirects");
+    }
+
+    /**
+     * http(s) 以外や、許可していない場合のループバック・プライベートアドレスへの取得を拒否し、接続先のアドレスを返す。
+     * 名前解決の結果のうち1つでも許可しないアドレスがあれば拒否する。
+     */
+    private InetAddress resolve(URI uri) throws UnknownHostException {
+        String scheme = uri.getScheme();
+        if (uri.getHost() == null || !("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme))) {
+            throw new IllegalArgumentException("Unsupported URL");
+        }
+        InetAddress[] addresses = InetAddress.getAllByName(uri.getHost());
+        if (!allowPrivateHosts) {
+            for (InetAddress address : addresses) {
+                if (isPrivate(address)) {
+                    throw new IllegalArgumentException("Private address not allowed");
+                }
+            }
+        }
+        return addresses[0];
+    }
+
+    /**
+     * 外部から取得してはいけないアドレスか。ループバック・プライベート・リンクローカル・マルチキャストに加え、
+     * 0.0.0.0/8、CGNAT（100.64.0.0/10）、IPv6 のユニークローカル（fc00::/7）を含む。
+     */
+    static boolean isPrivate(InetAddress address) {
+        if (address.isLoopbackAddress() || address.isSiteLocalAddress() || address.isLinkLocalAddress()
+                || address.isAnyLocalAddress() || address.isMulticastAddress()) {
+            return true;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet4Address) {
+            int first = bytes[0] & 0xFF;
+            int second = bytes[1] & 0xFF;
+            return first == 0 || (first == 100 && (second & 0xC0) == 64);
+        }
+        return (bytes[0] & 0xFE) == 0xFC;
+    }
+
+    /** 取り込みの対象になる外部の http(s) URL か */
+    static boolean isRemote(String url) {
+        if (url == null) {
+            return false;
+        }
+        String lower = url.toLowerCase();
+        return lower.startsWith("http://") || lower.startsWith("https://");
+    }
+}
@@ -0,0 +1,20 @@
+package com.boardgameapp.service;
+
+/**
+ * サーバー側の処理枠が埋まっており、いまは要求を受け付けられないことを表す例外。
+ * 503 と Retry-After でクライアントに再試行を促す。
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /** クライアントが再試行するまでの推奨待ち時間（秒）。 */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,86 @@
+package com.boardgameapp.service;
+
+import com.boardgameapp.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 使用済みのユーザー名・メールアドレスをブルームフィルタで覚えておき、登録時の重複確認を DB に問い合わせずに済ませる。
+ * フィルタに無い値は確実に未使用なので、登録はそのまま1回の INSERT（一意制約が最終判定）に進める。
+ * フィルタにある値は誤検知がありうるため、呼び出し側が DB で確かめる。
+ * 起動時に既存ユーザーを読み込み、以後は登録のたびに追加する。他のインスタンスで登録された値は
+ * ここには入らないが、その場合も一意制約で重複を検出できる。
+ */
+@Component
+public class TakenUserKeys {
+
+    private static final Logger log = LoggerFactory.getLogger(TakenUserKeys.class);
+
+    private final UserRepository userRepository;
+    private final BloomFilter usernames;
+    private final BloomFilter emails;
+    private final Counter absent;
+    private final Counter present;
+
+    public TakenUserKeys(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.taken-keys.expected-users:1000000}") long expectedUsers,
+            @Value("${app.auth.taken-keys.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.usernames = new BloomFilter(expectedUsers, falsePositiveRate);
+        this.emails = new BloomFilter(expectedUsers, falsePositiveRate);
+        this.absent = lookupCounter(meterRegistry, "absent");
+        this.present = lookupCounter(meterRegistry, "maybe-present");
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("boardgame.register.taken-keys.lookups")
+                .description("登録時のユーザー名・メールアドレスの使用済み判定の件数（maybe-present は DB で確かめた件数）")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /** 既存ユーザーのユーザー名とメールアドレスを読み込む。 */
+    @EventListener(ApplicationStartedEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        int count = 0;
+        for (UserRepository.UserKeys keys : userRepository.findAllKeysBy()) {
+            add(keys.getUsername(), keys.getEmail());
+            count++;
+        }
+        log.info("Loaded {} registered usernames/emails in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** ユーザー名が使用済みかもしれなければ true（false なら確実に未使用）。 */
+    public boolean mightHaveUsername(String username) {
+        return record(usernames.mightContain(username));
+    }
+
+    /** メールアドレスが使用済みかもしれなければ true（false なら確実に未使用）。 */
+    public boolean mightHaveEmail(String email) {
+        return record(emails.mightContain(email));
+    }
+
+    /** 登録済みのユーザー名とメールアドレスを追加する。 */
+    public void add(String username, String email) {
+        if (username != null) {
+            usernames.put(username);
+        }
+        if (email != null) {
+            emails.put(email);
+        }
+    }
+
+    private boolean record(boolean maybePresent) {
+        (maybePresent ? present : absent).increment();
+        return maybePresent;
+    }
+}
@@ -0,0 +1,184 @@
+package com.boardgameapp.service;
+
+import com.boardgameapp.repository.UserBoardGameRepository;
+import com.boardgameapp.repository.WishlistRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * どのゲーム・ほしいものからも参照されなくなったアップロード画像を少しずつ削除するサービス。
+ * 1回の実行ではファイル名順に batchSize 件だけを調べ、次回は続きのファイル名から再開する。
+ * アップロード直後でまだ保存されていない画像を消さないよう、猶予期間内のファイルは対象外とし、
+ * 削除は毎秒の件数を絞ってリクエスト処理のディスクI/Oと競合しないようにする。
+ * 間隔を空けながらの削除は専用のスレッドで行い、@Scheduled の共有スレッドを止めない（他の定期処理を待たせない）。
+ * 画像を消すときは対応するプレースホルダのサイドカーファイルも消す。
+ */
+@Service
+public class UploadGarbageCollector implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadGarbageCollector.class);
+
+    private final ImageStorageService imageStorageService;
+    private final ImagePlaceholderService imagePlaceholderService;
+    private final UserBoardGameRepository userBoardGameRepository;
+    private final WishlistRepository wishlistRepository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration gracePeriod;
+    private final long deleteIntervalMs;
+
+    /** 掃除を実行するスレッド（最初の実行時に作る） */
+    private final ExecutorService sweeper = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "upload-gc");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** 掃除の実行中か（前回の掃除が終わっていなければ次の回は飛ばす） */
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /** 前回の実行で調べた最後のファイル名。null なら先頭から */
+    private String cursor;
+
+    public UploadGarbageCollector(
+            ImageStorageService imageStorageService,
+            ImagePlaceholderService imagePlaceholderService,
+            UserBoardGameRepository userBoardGameRepository,
+            WishlistRepository wishlistRepository,
+            @Value("${app.upload.gc.enabled:true}") boolean enabled,
+            @Value("${app.upload.gc.batch-size:200}") int batchSize,
+            @Value("${app.upload.gc.grace-period-hours:24}") long gracePeriodHours,
+            @Value("${app.upload.gc.max-deletes-per-second:20}") int maxDeletesPerSecond) {
+        this.imageStorageService = imageStorageService;
+        this.imagePlaceholderService = imagePlaceholderService;
+        this.userBoardGameRepository = userBoardGameRepository;
+        this.wishlistRepository = wishlistRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.gracePeriod = Duration.ofHours(gracePeriodHours);
+        this.deleteIntervalMs = maxDeletesPerSecond > 0 ? 1000L / maxDeletesPerSecond : 0;
+    }
+
+    /** 定期実行のエントリポイント。1バッチ分の掃除を専用のスレッドに渡し、終わるのを待たずに戻る。 */
+    @Scheduled(initialDelayString = "${app.upload.gc.initial-delay-ms:60000}",
+            fixedDelayString = "${app.upload.gc.interval-ms:300000}")
+    public void scheduledSweep() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        sweeper.execute(() -> {
+            try {
+                int deleted = sweepBatch();
+                if (deleted > 0) {
+                    log.info("Deleted {} orphaned upload(s)", deleted);
+                }
+            } catch (IOException e) {
+                log.warn("Orphaned upload sweep failed", e);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * 次のバッチを調べ、参照されていない画像を削除する。
+     *
+     * @return 削除したファイル数
+     */
+    public synchronized int sweepBatch() throws IOException {
+        Path dir = imageStorageService.getUploadDir();
+        if (!Files.isDirectory(dir)) {
+            return 0;
+        }
+        TreeMap<String, Path> batch = nextBatch(dir);
+        cursor = batch.size() < batchSize ? null : batch.lastKey();
+
+        Instant deadline = Instant.now().minus(gracePeriod);
+        List<String> candidates = new ArrayList<>();
+        for (Path file : batch.values()) {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            if (attrs.isRegularFile() && attrs.lastModifiedTime().toInstant().isBefore(deadline)) {
+                candidates.add(ImageStorageService.URL_PREFIX + file.getFileName());
+            }
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        Set<String> referenced = new HashSet<>(userBoardGameRepository.findReferencedThumbnailUrls(candidates));
+        referenced.addAll(wishlistRepository.findReferencedThumbnailUrls(candidates));
+
+        int deleted = 0;
+        for (String url : candidates) {
+            if (referenced.contains(url)) {
+                continue;
+            }
+            if (deleted > 0 && !throttle()) {
+                break;
+            }
+            String filename = url.substring(ImageStorageService.URL_PREFIX.length());
+            if (Files.deleteIfExists(dir.resolve(filename))) {
+                deleted++;
+            }
+            imagePlaceholderService.delete(filename);
+        }
+        return deleted;
+    }
+
+    /** cursor より後ろのファイル名を、名前順に最大 batchSize 件だけ集める（ディレクトリ全体は保持しない）。 */
+    private TreeMap<String, Path> nextBatch(Path dir) throws IOException {
+        TreeMap<String, Path> batch = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(".") || (cursor != null && name.compareTo(cursor) <= 0)) {
+                    continue;
+                }
+                if (batch.size() < batchSize) {
+                    batch.put(name, file);
+                } else if (name.compareTo(batch.lastKey()) < 0) {
+                    batch.pollLastEntry();
+                    batch.put(name, file);
+                }
+            }
+        }
+        return batch;
+    }
+
+    /** 次の削除まで間隔を空ける。停止のため割り込まれたら false（残りはカーソルが一周したときに調べ直す）。 */
+    private boolean throttle() {
+        if (deleteIntervalMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(deleteIntervalMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.boardgameapp.service;
+
+/**
+ * 分割アップロードのチャンク位置がサーバーの受信済みオフセットと食い違っていることを表す例外。
+ * クライアントは返されたオフセットから送信を再開する。
+ */
+public class UploadOffsetMismatchException extends RuntimeException {
+
+    private final long expectedOffset;
+
+    public UploadOffsetMismatchException(long expectedOffset) {
+        super("Unexpected chunk offset");
+        this.expectedOffset = expectedOffset;
+    }
+
+    /** サーバーが次に期待するオフセット（受信済みバイト数）。 */
+    public long getExpectedOffset() {
+        return expectedOffset;
+    }
+}
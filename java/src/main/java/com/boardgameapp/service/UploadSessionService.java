@@ -0,0 +1,267 @@
+package com.boardgameapp.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 再開可能な分割画像アップロードのセッションを管理するサービス。
+ * セッション作成 → オフセット付きのチャンク書き込み → 完了 の順で1ファイルを組み立てる。
+ * チャンクは part ファイルの指定位置へ直接書き、完了時はリネームだけで公開ファイルにする。
+ * part ファイルは配信されるアップロードディレクトリの外（session-dir、既定はその隣の {@code <upload.dir>-sessions}）に置く。
+ * 1ユーザーが同時に開けるセッションは max-sessions-per-user 件まで。一定時間更新のないセッションは定期的に破棄する。
+ * チャンク書き込み・完了・取り消しの間はセッションを使用中にし（ロックは持たない）、同じセッションへの
+ * 同時の要求は {@link UploadOffsetMismatchException} で断る。定期的な破棄は使用中のセッションを飛ばす。
+ */
+@Service
+public class UploadSessionService {
+
+    private final ImageStorageService imageStorageService;
+    private final Path sessionDir;
+    private final Duration sessionTtl;
+    private final int maxSessionsPerUser;
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+    /** ユーザーごとの開いているセッション数 */
+    private final Map<String, Integer> openSessions = new ConcurrentHashMap<>();
+
+    public UploadSessionService(
+            ImageStorageService imageStorageService,
+            @Value("${app.upload.session-dir:}") String sessionDir,
+            @Value("${app.upload.session-ttl-minutes:30}") long sessionTtlMinutes,
+            @Value("${app.upload.max-sessions-per-user:4}") int maxSessionsPerUser) {
+        this.imageStorageService = imageStorageService;
+        Path uploadDir = imageStorageService.getUploadDir();
+        // 完了時はリネームで公開するため、同じファイルシステム上のアップロードディレクトリの隣を既定にする
+        this.sessionDir = sessionDir.isBlank()
+                ? uploadDir.resolveSibling(uploadDir.getFileName() + "-sessions")
+                : Path.of(sessionDir).toAbsolutePath();
+        this.sessionTtl = Duration.ofMinutes(sessionTtlMinutes);
+        this.maxSessionsPerUser = maxSessionsPerUser;
+    }
+
+    /**
+     * 分割アップロードのセッションを作成する。
+     *
+     * @param username ユーザー名
+     * @param size 最終的なファイルサイズ（バイト）
+     * @return 作成したセッション
+     * @throws IllegalArgumentException 開いているセッションが max-sessions-per-user 件に達している場合など
+     */
+    public UploadSession create(String username, long size) throws IOException {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Empty file");
+        }
+        if (size > imageStorageService.getMaxBytes()) {
+            throw new IllegalArgumentException("File too large");
+        }
+        openSessions.compute(username, (key, count) -> {
+            int open = count != null ? count : 0;
+            if (open >= maxSessionsPerUser) {
+                throw new IllegalArgumentException("Too many upload sessions");
+            }
+            return open + 1;
+        });
+        String id = UUID.randomUUID().toString();
+        Path part = sessionDir.resolve(id + ".part");
+        try {
+            Files.createDirectories(sessionDir);
+            Files.createFile(part);
+        } catch (IOException | RuntimeException e) {
+            release(username);
+            throw e;
+        }
+        UploadSession session = new UploadSession(id, username, size, part);
+        sessions.put(id, session);
+        return session;
+    }
+
+    /**
+     * セッションの現在の状態（受信済みオフセット）を返す。
+     *
+     * @param username ユーザー名
+     * @param id セッションID
+     * @return セッション
+     */
+    public UploadSession get(String username, String id) {
+        UploadSession session = sessions.get(id);
+        if (session == null || !session.username.equals(username)) {
+            throw new IllegalArgumentException("Upload session not found");
+        }
+        return session;
+    }
+
+    /**
+     * チャンクを offset の位置に書き込む。offset は受信済みオフセット以下でなければならない
+     * （以下であれば再送として上書きする）。
+     *
+     * @param username ユーザー名
+     * @param id セッションID
+     * @param offset チャンクの開始位置
+     * @param in チャンクのデータ
+     * @return 書き込み後のセッション
+     * @throws UploadOffsetMismatchException offset が受信済みオフセットより先の場合、または別の要求が使用中の場合
+     */
+    public UploadSession writeChunk(String username, String id, long offset, InputStream in) throws IOException {
+        UploadSession session = acquire(username, id);
+        try {
+            if (offset < 0 || offset > session.received) {
+                throw new UploadOffsetMismatchException(session.received);
+            }
+            long written = imageStorageService.writeChunk(session.part, offset, in, session.size - offset);
+            session.received = Math.max(session.received, offset + written);
+            session.touch();
+            return session;
+        } finally {
+            session.busy.set(false);
+        }
+    }
+
+    /**
+     * すべてのチャンクを受信したセッションを完了し、公開URLを持つ画像として確定する。
+     *
+     * @param username ユーザー名
+     * @param id セッションID
+     * @return 保存結果
+     */
+    public ImageStorageService.StoredImage complete(String username, String id) throws IOException {
+        UploadSession session = acquire(username, id);
+        if (session.received != session.size) {
+            session.busy.set(false);
+            throw new UploadOffsetMismatchException(session.received);
+        }
+        // 取り除いたセッションは使用中のまま（以後の要求は見つからない扱いになる）
+        remove(session);
+        return imageStorageService.promote(session.part);
+    }
+
+    /**
+     * セッションを取り消し、part ファイルを削除する。
+     *
+     * @param username ユーザー名
+     * @param id セッションID
+     */
+    public void cancel(String username, String id) throws IOException {
+        UploadSession session = acquire(username, id);
+        remove(session);
+        Files.deleteIfExists(session.part);
+    }
+
+    /** 一定時間更新のないセッションと、再起動前に残った part ファイルを削除する。使用中のセッションは待たずに飛ばす。 */
+    @Scheduled(fixedDelayString = "${app.upload.session-sweep-ms:60000}")
+    public void expireSessions() {
+        Instant deadline = Instant.now().minus(sessionTtl);
+        for (UploadSession session : sessions.values()) {
+            if (session.lastTouched.isAfter(deadline) || !session.busy.compareAndSet(false, true)) {
+                continue;
+            }
+            remove(session);
+            deleteQuietly(session.part);
+        }
+        if (!Files.isDirectory(sessionDir)) {
+            return;
+        }
+        try (DirectoryStream<Path> parts = Files.newDirectoryStream(sessionDir, "*.part")) {
+            for (Path part : parts) {
+                String id = part.getFileName().toString().replace(".part", "");
+                FileTime modified = Files.getLastModifiedTime(part);
+                if (!sessions.containsKey(id) && modified.toInstant().isBefore(deadline)) {
+                    deleteQuietly(part);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** part ファイルを置くディレクトリの絶対パスを返す。 */
+    public Path getSessionDir() {
+        return sessionDir;
+    }
+
+    /**
+     * セッションを使用中にして返す。使用を終えたら busy を戻す（取り除いたセッションはそのままでよい）。
+     *
+     * @throws UploadOffsetMismatchException 別の要求が使用中の場合
+     * @throws IllegalArgumentException セッションがない、または取り除かれた場合
+     */
+    private UploadSession acquire(String username, String id) {
+        UploadSession session = get(username, id);
+        if (!session.busy.compareAndSet(false, true)) {
+            throw new UploadOffsetMismatchException(session.received);
+        }
+        if (sessions.get(id) != session) {
+            session.busy.set(false);
+            throw new IllegalArgumentException("Upload session not found");
+        }
+        return session;
+    }
+
+    private void remove(UploadSession session) {
+        if (sessions.remove(session.id) != null) {
+            release(session.username);
+        }
+    }
+
+    private void release(String username) {
+        openSessions.computeIfPresent(username, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // 次回の掃除で再試行する
+        }
+    }
+
+    /**
+     * 分割アップロード1件の状態。received は書き込み済みの連続したバイト数。
+     */
+    public static final class UploadSession {
+        private final String id;
+        private final String username;
+        private final long size;
+        private final Path part;
+        private volatile long received;
+        private volatile Instant lastTouched = Instant.now();
+        /** チャンク書き込みなどの要求が使用中か */
+        private final AtomicBoolean busy = new AtomicBoolean();
+
+        UploadSession(String id, String username, long size, Path part) {
+            this.id = id;
+            this.username = username;
+            this.size = size;
+            this.part = part;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getReceived() {
+            return received;
+        }
+
+        void touch() {
+            lastTouched = Instant.now();
+        }
+    }
+}
@@ -5,47 +5,72 @@ import com.boardgameapp.dto.UpdateBoardGameRequest;
 import com.boardgameapp.dto.UserBoardGameResponse;
 import com.boardgameapp.entity.User;
 import com.boardgameapp.entity.UserBoardGame;
+import com.boardgameapp.monitoring.ServerTiming;
 import com.boardgameapp.repository.PlayRecordRepository;
 import com.boardgameapp.repository.UserBoardGameRepository;
 import com.boardgameapp.repository.UserRepository;
+import com.boardgameapp.resilience.SingleFlight;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 /**
  * ユーザーが所有するボードゲームの一覧・追加・更新・削除・1件取得を行うサービス。
+ * 同じユーザーの一覧の同時読み込みは {@link SingleFlight} で1回にまとめる。
  */
 @Service
+@Timed(value = "boardgame.service", histogram = true)
 public class UserBoardGameService {
 
+    /** {@link SingleFlight} 上の一覧の名前 */
+    static final String LIST = "boardgames";
+
     private final UserBoardGameRepository userBoardGameRepository;
     private final UserRepository userRepository;
     private final PlayRecordRepository playRecordRepository;
+    private final ImagePlaceholderService imagePlaceholderService;
+    private final SingleFlight singleFlight;
+    /** 一覧の読み込み用。相乗りする要求が接続を持ったまま待たないよう、まとめた後にトランザクションを始める */
+    private final TransactionTemplate readOnlyTx;
 
     public UserBoardGameService(UserBoardGameRepository userBoardGameRepository,
                                 UserRepository userRepository,
-                                PlayRecordRepository playRecordRepository) {
+                                PlayRecordRepository playRecordRepository,
+                                ImagePlaceholderService imagePlaceholderService,
+                                SingleFlight singleFlight,
+                                PlatformTransactionManager transactionManager) {
         this.userBoardGameRepository = userBoardGameRepository;
         this.userRepository = userRepository;
         this.playRecordRepository = playRecordRepository;
+        this.imagePlaceholderService = imagePlaceholderService;
+        this.singleFlight = singleFlight;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
     }
 
     /**
      * 指定ユーザー名のボードゲーム一覧を追加日時の降順で取得する。
+     * 同じユーザーの読み込みが進行中ならその結果を共有する（そのため返す一覧は変更できない）。
      *
      * @param username ユーザー名
      * @return ボードゲーム一覧
      */
-    @Transactional(readOnly = true)
     public List<UserBoardGameResponse> listByUsername(String username) {
+        return singleFlight.execute(LIST, username, () -> readOnlyTx.execute(status -> load(username)));
+    }
+
+    private List<UserBoardGameResponse> load(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        return userBoardGameRepository.findByUserIdOrderByAddedAtDesc(user.getId())
-                .stream()
+        List<UserBoardGame> games = userBoardGameRepository.findByUserIdOrderByAddedAtDesc(user.getId());
+        return ServerTiming.time(ServerTiming.MAP, () -> games.stream()
                 .map(this::toResponse)
-                .collect(Collectors.toList());
+                .toList());
     }
 
     /**
@@ -59,17 +84,8 @@ public class UserBoardGameService {
     public UserBoardGameResponse add(String username, AddBoardGameRequest request) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        UserBoardGame entity = new UserBoardGame();
-        entity.setUserId(user.getId());
-        entity.setBggId(null);
-        entity.setName(request.getName().trim());
-        entity.setThumbnailUrl(blankToNull(request.getThumbnailUrl()));
-        entity.setYearPublished(request.getYearPublished());
-        entity.setMinPlayers(request.getMinPlayers());
-        entity.setMaxPlayers(request.getMaxPlayers());
-        entity.setMinPlayTimeMinutes(request.getMinPlayTimeMinutes());
-        entity.setMaxPlayTimeMinutes(request.getMaxPlayTimeMinutes());
-        entity = userBoardGameRepository.save(entity);
+        UserBoardGame entity = userBoardGameRepository.save(newEntity(user.getId(), request));
+        singleFlight.forgetAfterCommit(username);
         return toResponse(entity);
     }
 
@@ -87,17 +103,9 @@ public class UserBoardGameService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
         UserBoardGame entity = userBoardGameRepository.findByIdAndUserId(id, user.getId())
                 .orElseThrow(() -> new IllegalArgumentException("Board game not found"));
-        // リクエストの値をそのまま反映（null の場合はフィールドをクリア）。name は NOT NULL のため空でなければ更新
-        if (request.getName() != null && !request.getName().isBlank()) {
-            entity.setName(request.getName().trim());
-        }
-        entity.setThumbnailUrl(blankToNull(request.getThumbnailUrl()));
-        entity.setYearPublished(request.getYearPublished());
-        entity.setMinPlayers(request.getMinPlayers());
-        entity.setMaxPlayers(request.getMaxPlayers());
-        entity.setMinPlayTimeMinutes(request.getMinPlayTimeMinutes());
-        entity.setMaxPlayTimeMinutes(request.getMaxPlayTimeMinutes());
+        apply(entity, request);
         entity = userBoardGameRepository.save(entity);
+        singleFlight.forgetAfterCommit(username);
         return toResponse(entity);
     }
 
@@ -115,6 +123,7 @@ public class UserBoardGameService {
                 .orElseThrow(() -> new IllegalArgumentException("Board game not found"));
         playRecordRepository.deleteByUserBoardGameId(entity.getId());
         userBoardGameRepository.delete(entity);
+        singleFlight.forgetAfterCommit(username);
     }
 
     /**
@@ -133,6 +142,40 @@ public class UserBoardGameService {
         return toResponse(entity);
     }
 
+    /** 追加リクエストから未保存のエンティティを作る（一括操作と共通）。 */
+    UserBoardGame newEntity(Long userId, AddBoardGameRequest request) {
+        UserBoardGame entity = new UserBoardGame();
+        entity.setUserId(userId);
+        entity.setBggId(blankToNull(request.getBggId()));
+        entity.setName(request.getName().trim());
+        entity.setThumbnailUrl(blankToNull(request.getThumbnailUrl()));
+        entity.setThumbnailPlaceholder(imagePlaceholderService.lookup(entity.getThumbnailUrl()));
+        entity.setYearPublished(request.getYearPublished());
+        entity.setMinPlayers(request.getMinPlayers());
+        entity.setMaxPlayers(request.getMaxPlayers());
+        entity.setMinPlayTimeMinutes(request.getMinPlayTimeMinutes());
+        entity.setMaxPlayTimeMinutes(request.getMaxPlayTimeMinutes());
+        return entity;
+    }
+
+    /** 更新リクエストの内容をエンティティに反映する（一括操作と共通）。 */
+    void apply(UserBoardGame entity, UpdateBoardGameRequest request) {
+        // リクエストの値をそのまま反映（null の場合はフィールドをクリア）。name は NOT NULL のため空でなければ更新
+        if (request.getName() != null && !request.getName().isBlank()) {
+            entity.setName(request.getName().trim());
+        }
+        String thumbnailUrl = blankToNull(request.getThumbnailUrl());
+        if (!Objects.equals(thumbnailUrl, entity.getThumbnailUrl())) {
+            entity.setThumbnailUrl(thumbnailUrl);
+            entity.setThumbnailPlaceholder(imagePlaceholderService.lookup(thumbnailUrl));
+        }
+        entity.setYearPublished(request.getYearPublished());
+        entity.setMinPlayers(request.getMinPlayers());
+        entity.setMaxPlayers(request.getMaxPlayers());
+        entity.setMinPlayTimeMinutes(request.getMinPlayTimeMinutes());
+        entity.setMaxPlayTimeMinutes(request.getMaxPlayTimeMinutes());
+    }
+
     /**
      * 空文字・空白のみの文字列を null に変換する。
      */
@@ -140,13 +183,14 @@ public class UserBoardGameService {
         return s != null && s.isBlank() ? null : s;
     }
 
-    /** エンティティをレスポンスDTOに変換する。 */
-    private UserBoardGameResponse toResponse(UserBoardGame e) {
+    /** エンティティをレスポンスDTOに変換する（ベンチマークから呼べるようパッケージプライベート）。 */
+    UserBoardGameResponse toResponse(UserBoardGame e) {
         UserBoardGameResponse r = new UserBoardGameResponse();
         r.setId(e.getId());
         r.setBggId(e.getBggId());
         r.setName(e.getName());
         r.setThumbnailUrl(e.getThumbnailUrl());
+        r.setThumbnailPlaceholder(e.getThumbnailPlaceholder());
         r.setYearPublished(e.getYearPublished());
         r.setMinPlayers(e.getMinPlayers());
         r.setMaxPlayers(e.getMaxPlayers());
@@ -4,41 +4,65 @@ import com.boardgameapp.dto.AddWishlistItemRequest;
 import com.boardgameapp.dto.WishlistItemResponse;
 import com.boardgameapp.entity.User;
 import com.boardgameapp.entity.WishlistItem;
+import com.boardgameapp.monitoring.ServerTiming;
 import com.boardgameapp.repository.UserRepository;
 import com.boardgameapp.repository.WishlistRepository;
+import com.boardgameapp.resilience.SingleFlight;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * ほしいものリストの一覧・追加・削除を行うサービス。
+ * 同じユーザーの一覧の同時読み込みは {@link SingleFlight} で1回にまとめる。
  */
 @Service
+@Timed(value = "boardgame.service", histogram = true)
 public class WishlistService {
 
+    /** {@link SingleFlight} 上の一覧の名前 */
+    static final String LIST = "wishlist";
+
     private final UserRepository userRepository;
     private final WishlistRepository wishlistRepository;
+    private final ImagePlaceholderService imagePlaceholderService;
+    private final SingleFlight singleFlight;
+    /** 一覧の読み込み用。相乗りする要求が接続を持ったまま待たないよう、まとめた後にトランザクションを始める */
+    private final TransactionTemplate readOnlyTx;
 
-    public WishlistService(UserRepository userRepository, WishlistRepository wishlistRepository) {
+    public WishlistService(UserRepository userRepository, WishlistRepository wishlistRepository,
+                           ImagePlaceholderService imagePlaceholderService,
+                           SingleFlight singleFlight, PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.wishlistRepository = wishlistRepository;
+        this.imagePlaceholderService = imagePlaceholderService;
+        this.singleFlight = singleFlight;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
     }
 
     /**
      * 指定ユーザーのほしいものリストを追加日の降順で取得する。
+     * 同じユーザーの読み込みが進行中ならその結果を共有する（そのため返す一覧は変更できない）。
      *
      * @param username ユーザー名
      * @return ほしいもの一覧
      */
-    @Transactional(readOnly = true)
     public List<WishlistItemResponse> listByUsername(String username) {
+        return singleFlight.execute(LIST, username, () -> readOnlyTx.execute(status -> load(username)));
+    }
+
+    private List<WishlistItemResponse> load(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        return wishlistRepository.findByUserIdOrderByAddedAtDesc(user.getId()).stream()
+        List<WishlistItem> items = wishlistRepository.findByUserIdOrderByAddedAtDesc(user.getId());
+        return ServerTiming.time(ServerTiming.MAP, () -> items.stream()
                 .map(this::toResponse)
-                .collect(Collectors.toList());
+                .toList());
     }
 
     /**
@@ -52,11 +76,8 @@ public class WishlistService {
     public WishlistItemResponse add(String username, AddWishlistItemRequest request) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        WishlistItem entity = new WishlistItem();
-        entity.setUserId(user.getId());
-        entity.setName(request.getName().trim());
-        entity.setThumbnailUrl(blankToNull(request.getThumbnailUrl()));
-        entity = wishlistRepository.save(entity);
+        WishlistItem entity = wishlistRepository.save(newEntity(user.getId(), request));
+        singleFlight.forgetAfterCommit(username);
         return toResponse(entity);
     }
 
@@ -73,6 +94,17 @@ public class WishlistService {
         WishlistItem entity = wishlistRepository.findByIdAndUserId(id, user.getId())
                 .orElseThrow(() -> new IllegalArgumentException("Wishlist item not found"));
         wishlistRepository.delete(entity);
+        singleFlight.forgetAfterCommit(username);
+    }
+
+    /** 追加リクエストから未保存のエンティティを作る（一括操作と共通）。 */
+    WishlistItem newEntity(Long userId, AddWishlistItemRequest request) {
+        WishlistItem entity = new WishlistItem();
+        entity.setUserId(userId);
+        entity.setName(request.getName().trim());
+        entity.setThumbnailUrl(blankToNull(request.getThumbnailUrl()));
+        entity.setThumbnailPlaceholder(imagePlaceholderService.lookup(entity.getThumbnailUrl()));
+        return entity;
     }
 
     /** 空文字・空白のみの文字列を null に変換する。 */
@@ -80,12 +112,13 @@ public class WishlistService {
         return s != null && s.isBlank() ? null : s;
     }
 
-    /** エンティティをレスポンスDTOに変換する。 */
-    private WishlistItemResponse toResponse(WishlistItem e) {
+    /** エンティティをレスポンスDTOに変換する（ベンチマークから呼べるようパッケージプライベート）。 */
+    WishlistItemResponse toResponse(WishlistItem e) {
         WishlistItemResponse r = new WishlistItemResponse();
         r.setId(e.getId());
         r.setName(e.getName());
         r.setThumbnailUrl(e.getThumbnailUrl());
+        r.setThumbnailPlaceholder(e.getThumbnailPlaceholder());
         r.setAddedAt(e.getAddedAt());
         return r;
     }
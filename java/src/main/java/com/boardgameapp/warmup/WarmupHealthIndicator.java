@@ -0,0 +1,33 @@
+package com.boardgameapp.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * JIT ウォームアップの進み具合を返すヘルスインジケータ（readiness グループに含める）。
+ * ウォームアップ中は OUT_OF_SERVICE、終了・失敗・無効なら UP を返す。
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final WarmupRunner warmupRunner;
+
+    public WarmupHealthIndicator(WarmupRunner warmupRunner) {
+        this.warmupRunner = warmupRunner;
+    }
+
+    @Override
+    public Health health() {
+        WarmupRunner.State state = warmupRunner.getState();
+        Health.Builder builder = switch (state) {
+            case PENDING, RUNNING -> Health.outOfService();
+            case DISABLED, DONE, FAILED -> Health.up();
+        };
+        return builder
+                .withDetail("state", state)
+                .withDetail("iterations", warmupRunner.getCompletedIterations() + "/" + warmupRunner.getIterations())
+                .withDetail("elapsedMs", warmupRunner.getElapsedMs())
+                .build();
+    }
+}
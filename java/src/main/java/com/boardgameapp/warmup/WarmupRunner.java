@@ -0,0 +1,255 @@
+package com.boardgameapp.warmup;
+
+import com.boardgameapp.repository.RefreshTokenRepository;
+import com.boardgameapp.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 起動直後、準備完了（readiness）を報告する前に、実際の API に合成リクエストを流して JIT を温めるランナー。
+ * 使い捨てのユーザーを登録し、ログイン（BCrypt・JWT 発行）と所持ゲーム・プレイ記録・ほしいものの一覧・追加・更新・削除を
+ * 組み込みサーバへの HTTP で繰り返す（JWT 検証・Hibernate のクエリ計画・Jackson の変換も本番と同じ経路を通る）。
+ * 終わったら使い捨てユーザーを削除する。
+ * ApplicationRunner は ReadinessState が ACCEPTING_TRAFFIC になる前に実行されるので、その間は
+ * readiness プローブが OUT_OF_SERVICE を返す（{@link WarmupHealthIndicator} で進み具合も見える）。
+ * 失敗しても起動は止めず、WARN ログを出して準備完了に進む。app.warmup.enabled が false なら何もしない。
+ */
+@Component
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    /** ウォームアップのリクエストに付けるヘッダ。値はプロセスごとの乱数で、外部から詐称できない */
+    static final String HEADER = "X-Warmup";
+
+    /** 使い捨てユーザー名の接頭辞 */
+    static final String USERNAME_PREFIX = "warmup-";
+
+    /** 進み具合 */
+    enum State { DISABLED, PENDING, RUNNING, DONE, FAILED }
+
+    private final ApplicationContext context;
+    private final UserRepository userRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int iterations;
+    private final int logins;
+    private final Duration maxDuration;
+    private final Duration requestTimeout;
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final String requestMarker = UUID.randomUUID().toString();
+
+    private volatile State state;
+    private volatile int completedIterations;
+    private volatile long elapsedMs;
+
+    public WarmupRunner(
+            ApplicationContext context,
+            UserRepository userRepository,
+            RefreshTokenRepository refreshTokenRepository,
+            ObjectMapper objectMapper,
+            @Value("${app.warmup.enabled:false}") boolean enabled,
+            @Value("${app.warmup.iterations:200}") int iterations,
+            @Value("${app.warmup.logins:5}") int logins,
+            @Value("${app.warmup.max-duration-ms:60000}") long maxDurationMs,
+            @Value("${app.warmup.request-timeout-ms:10000}") long requestTimeoutMs) {
+        this.context = context;
+        this.userRepository = userRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.logins = logins;
+        this.maxDuration = Duration.ofMillis(maxDurationMs);
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.state = enabled ? State.PENDING : State.DISABLED;
+    }
+
+    /**
+     * ウォームアップ自身が送ったリクエストかどうか（最初のリクエストの計測やレート制限から除くため）。
+     *
+     * @param request リクエスト
+     * @return ウォームアップのリクエストなら true
+     */
+    public boolean isWarmupRequest(HttpServletRequest request) {
+        return requestMarker.equals(request.getHeader(HEADER));
+    }
+
+    State getState() {
+        return state;
+    }
+
+    int getCompletedIterations() {
+        return completedIterations;
+    }
+
+    int getIterations() {
+        return iterations;
+    }
+
+    long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        if (!(context instanceof WebServerApplicationContext web) || web.getWebServer() == null) {
+            log.warn("JIT warm-up skipped: no embedded web server");
+            state = State.DONE;
+            return;
+        }
+        state = State.RUNNING;
+        long start = System.nanoTime();
+        String username = USERNAME_PREFIX + UUID.randomUUID().toString().substring(0, 8);
+        Client client = new Client("http://localhost:" + web.getWebServer().getPort());
+        try {
+            warmUp(client, username, start);
+            state = State.DONE;
+            log.info("JIT warm-up finished: {} iterations in {} ms", completedIterations, elapsedSince(start));
+        } catch (IOException | RuntimeException e) {
+            state = State.FAILED;
+            log.warn("JIT warm-up failed after {} iterations; continuing startup", completedIterations, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            state = State.FAILED;
+        } finally {
+            elapsedMs = elapsedSince(start);
+            cleanUp(client, username);
+        }
+    }
+
+    /** 途中で失敗して残ったゲーム・ほしいものを API で消してから、使い捨てユーザーとそのリフレッシュトークンを削除する。 */
+    private void cleanUp(Client client, String username) {
+        try {
+            if (client.token != null) {
+                for (JsonNode game : client.get("/api/me/boardgames")) {
+                    client.delete("/api/me/boardgames/" + game.get("id").asLong());
+                }
+                for (JsonNode item : client.get("/api/me/wishlist")) {
+                    client.delete("/api/me/wishlist/" + item.get("id").asLong());
+                }
+            }
+            userRepository.findByUsername(username).ifPresent(user -> {
+                refreshTokenRepository.deleteByUserId(user.getId());
+                userRepository.delete(user);
+            });
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to remove JIT warm-up user {}", username, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void warmUp(Client client, String username, long start) throws IOException, InterruptedException {
+        String password = UUID.randomUUID().toString();
+        client.token = client.post("/api/auth/register", Map.of(
+                "username", username, "email", username + "@warmup.invalid", "password", password)).get("token").asText();
+        for (int i = 0; i < logins; i++) {
+            client.token = client.post("/api/auth/login", Map.of(
+                    "username", username, "password", password)).get("token").asText();
+        }
+        long deadline = start + maxDuration.toNanos();
+        for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+            client.get("/api/me/boardgames");
+            long gameId = client.post("/api/me/boardgames", Map.of(
+                    "name", "Warm-up " + i, "yearPublished", 2000 + i % 25,
+                    "minPlayers", 2, "maxPlayers", 4, "minPlayTimeMinutes", 30, "maxPlayTimeMinutes", 60))
+                    .get("id").asLong();
+            client.put("/api/me/boardgames/" + gameId, Map.of("name", "Warm-up " + i + "'"));
+            client.get("/api/me/boardgames/" + gameId);
+            long playId = client.post("/api/me/boardgames/" + gameId + "/plays", Map.of(
+                    "playedAt", LocalDate.now().minusDays(i % 365).toString(), "playerCount", 3, "memo", "warm-up"))
+                    .get("id").asLong();
+            client.put("/api/me/boardgames/" + gameId + "/plays/" + playId, Map.of(
+                    "playedAt", LocalDate.now().toString(), "playerCount", 4));
+            client.get("/api/me/boardgames/" + gameId + "/plays");
+            client.get("/api/me/plays");
+            long itemId = client.post("/api/me/wishlist", Map.of("name", "Warm-up wish " + i)).get("id").asLong();
+            client.get("/api/me/wishlist");
+            client.delete("/api/me/wishlist/" + itemId);
+            client.delete("/api/me/boardgames/" + gameId);
+            completedIterations = i + 1;
+            elapsedMs = elapsedSince(start);
+        }
+    }
+
+    private static long elapsedSince(long startNanos) {
+        return Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+    }
+
+    /** 組み込みサーバへの JSON リクエスト。2xx 以外は IOException にする。 */
+    private final class Client {
+        private final String baseUrl;
+        private String token;
+
+        Client(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        JsonNode get(String path) throws IOException, InterruptedException {
+            return send(builder(path).GET());
+        }
+
+        JsonNode post(String path, Object body) throws IOException, InterruptedException {
+            return send(builder(path).POST(json(body)));
+        }
+
+        JsonNode put(String path, Object body) throws IOException, InterruptedException {
+            return send(builder(path).PUT(json(body)));
+        }
+
+        JsonNode delete(String path) throws IOException, InterruptedException {
+            return send(builder(path).DELETE());
+        }
+
+        private HttpRequest.Builder builder(String path) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .header("Accept", "application/json")
+                    .header(HEADER, requestMarker);
+            if (token != null) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            return builder;
+        }
+
+        private HttpRequest.BodyPublisher json(Object body) throws IOException {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        }
+
+        private JsonNode send(HttpRequest.Builder builder) throws IOException, InterruptedException {
+            HttpRequest request = builder.build();
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() / 100 != 2) {
+                throw new IOException("Warm-up request " + request.method() + " " + request.uri().getPath()
+                        + " returned " + response.statusCode());
+            }
+            byte[] body = response.body();
+            return body.length == 0 ? objectMapper.nullNode() : objectMapper.readTree(body);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.boardgameapp.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.metrics.scrape-username=scraper",
+        "app.metrics.scrape-password=scrape-secret"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("アクチュエータの認可")
+class ActuatorSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void ヘルスチェックは認証なしで呼べる() throws Exception {
+        mockMvc.perform(get("/actuator/health/liveness")).andExpect(status().isOk());
+    }
+
+    @Test
+    void メトリクスは未認証なら401でアプリのユーザーなら403() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics").with(user("alice"))).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("scraper", "wrong")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void スクレイプ用の資格情報ならメトリクスを読める() throws Exception {
+        // テストでは Prometheus の出力が無効なので、同じ認可の /actuator/metrics で確かめる
+        mockMvc.perform(get("/actuator/metrics").with(httpBasic("scraper", "scrape-secret")))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,35 @@
+package com.boardgameapp.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("UploadResponseHeaders")
+class UploadResponseHeadersTest {
+
+    private final UploadResponseHeaders sut = new UploadResponseHeaders();
+
+    @Test
+    void SVGはCSPを付け添付ファイルとして返す() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        sut.preHandle(new MockHttpServletRequest("GET", "/api/uploads/a.SVG"), response, null);
+
+        assertThat(response.getHeader("Content-Security-Policy")).isEqualTo(UploadResponseHeaders.CONTENT_SECURITY_POLICY);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION)).isEqualTo("attachment");
+    }
+
+    @Test
+    void ラスター画像はCSPだけを付ける() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        sut.preHandle(new MockHttpServletRequest("GET", "/api/uploads/a.png"), response, null);
+
+        assertThat(response.getHeader("Content-Security-Policy")).isEqualTo(UploadResponseHeaders.CONTENT_SECURITY_POLICY);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION)).isNull();
+    }
+}
@@ -0,0 +1,406 @@
+package com.boardgameapp.controller;
+
+import com.boardgameapp.entity.PlayRecord;
+import com.boardgameapp.entity.User;
+import com.boardgameapp.entity.UserBoardGame;
+import com.boardgameapp.entity.WishlistItem;
+import com.boardgameapp.repository.PlayRecordRepository;
+import com.boardgameapp.repository.UserBoardGameRepository;
+import com.boardgameapp.repository.UserRepository;
+import com.boardgameapp.repository.WishlistRepository;
+import com.boardgameapp.security.JwtUtil;
+import com.boardgameapp.service.ImportService;
+import com.boardgameapp.service.UploadSessionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /api/me/** の各エンドポイントを実際のDB（H2）に対して MockMvc で呼び、
+ * 1リクエストで発行する SQL 文の数（Hibernate の統計）と、リクエスト処理スレッド（アップロードは専用のプールのスレッドも含む）が
+ * 確保したバイト数を予算と比べる。
+ * 文の数は行数に依存しないこと（少ないデータと多いデータで同じ）も確かめ、N+1 や1件ずつの削除を検出する。
+ * 文の数には認証フィルタがトークンのユーザーを確かめる1文を含む。
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.upload.gc.enabled=false",
+        "app.rate-limit.enabled=false",
+        // 同じユーザーで分割アップロードのセッションを繰り返し作るため
+        "app.upload.max-sessions-per-user=1000"})
+@DisplayName("/api/me/** のクエリ数・アロケーション予算")
+class ApiBudgetTest {
+
+    /** 行数に依存しないことを確かめるための、少ないデータと多いデータの件数（ゲーム数・ゲームごとのプレイ数・ほしいもの数） */
+    private static final int SMALL = 2;
+    private static final int LARGE = 30;
+
+    /** JIT・キャッシュを温めるための事前実行回数と、アロケーションを測る回数（最小値を採る） */
+    private static final int WARMUP = 30;
+    private static final int SAMPLES = 5;
+
+    private static final long KB = 1024;
+
+    /** ユーザー名と更新内容を毎回変えるための連番（同じ内容の更新は UPDATE が発行されないため） */
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserBoardGameRepository userBoardGameRepository;
+
+    @Autowired
+    private PlayRecordRepository playRecordRepository;
+
+    @Autowired
+    private WishlistRepository wishlistRepository;
+
+    @Autowired
+    private UploadSessionService uploadSessionService;
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    /**
+     * エンドポイントごとの予算。
+     *
+     * @param route 表示名
+     * @param maxStatements 1リクエストで発行してよい SQL 文の数（行数によらない）
+     * @param maxAllocatedBytes 多いデータでの1リクエストあたりの確保バイト数の上限
+     * @param request リクエストの組み立て（削除対象の作成など、計測に含めない準備もここで行う）
+     */
+    record Budget(String route, int maxStatements, long maxAllocatedBytes,
+                  Function<Fixture, MockHttpServletRequestBuilder> request) {
+        @Override
+        public String toString() {
+            return route;
+        }
+    }
+
+    static Stream<Budget> budgets() {
+        return Stream.of(
+                new Budget("GET /api/me/boardgames", 3, 768 * KB,
+                        f -> get("/api/me/boardgames")),
+                new Budget("GET /api/me/boardgames/{id}", 3, 512 * KB,
+                        f -> get("/api/me/boardgames/" + f.gameId())),
+                new Budget("POST /api/me/boardgames", 3, 512 * KB,
+                        f -> post("/api/me/boardgames").contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"name\":\"カタン\",\"minPlayers\":3,\"maxPlayers\":4}")),
+                new Budget("PUT /api/me/boardgames/{id}", 4, 512 * KB,
+                        f -> put("/api/me/boardgames/" + f.gameId()).contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"name\":\"カタン " + SEQ.incrementAndGet() + "\",\"minPlayers\":3,\"maxPlayers\":6}")),
+                new Budget("DELETE /api/me/boardgames/{id}", 5, 768 * KB,
+                        f -> delete("/api/me/boardgames/" + f.newGameWithPlays())),
+                new Budget("GET /api/me/plays", 3, 6144 * KB,
+                        f -> get("/api/me/plays")),
+                new Budget("GET /api/me/boardgames/{id}/plays", 4, 768 * KB,
+                        f -> get("/api/me/boardgames/" + f.gameId() + "/plays")),
+                new Budget("POST /api/me/boardgames/{id}/plays", 4, 512 * KB,
+                        f -> post("/api/me/boardgames/" + f.gameId() + "/plays")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"playedAt\":\"2024-05-01\",\"playerCount\":4,\"memo\":\"予算\"}")),
+                new Budget("PUT /api/me/boardgames/{id}/plays/{playId}", 4, 512 * KB,
+                        f -> put("/api/me/boardgames/" + f.gameId() + "/plays/" + f.playId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"playedAt\":\"2024-05-02\",\"playerCount\":3,\"memo\":\"" + SEQ.incrementAndGet() + "\"}")),
+                new Budget("DELETE /api/me/boardgames/{id}/plays/{playId}", 4, 512 * KB,
+                        f -> delete("/api/me/boardgames/" + f.gameId() + "/plays/" + f.newPlay())),
+                new Budget("GET /api/me/wishlist", 3, 640 * KB,
+                        f -> get("/api/me/wishlist")),
+                new Budget("POST /api/me/wishlist", 3, 512 * KB,
+                        f -> post("/api/me/wishlist").contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"name\":\"アグリコラ\"}")),
+                new Budget("DELETE /api/me/wishlist/{id}", 4, 512 * KB,
+                        f -> delete("/api/me/wishlist/" + f.newWishlistItem())),
+                new Budget("POST /api/me/batch", 7, 768 * KB,
+                        f -> post("/api/me/batch").contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"operations\":["
+                                        + "{\"op\":\"update\",\"resource\":\"boardgames\",\"id\":" + f.gameId()
+                                        + ",\"body\":{\"name\":\"カタン " + SEQ.incrementAndGet() + "\"}},"
+                                        + "{\"op\":\"create\",\"resource\":\"plays\",\"userBoardGameId\":" + f.gameId()
+                                        + ",\"body\":{\"playedAt\":\"2024-05-01\",\"playerCount\":4}},"
+                                        + "{\"op\":\"delete\",\"resource\":\"wishlist\",\"id\":" + f.newWishlistItem() + "}]}")),
+                new Budget("GET /api/me/export", 5, 8192 * KB,
+                        f -> get("/api/me/export")),
+                new Budget("POST /api/me/imports", 2, 512 * KB,
+                        f -> post("/api/me/imports").contentType(MediaType.TEXT_PLAIN)
+                                .content(f.awaitImports("name\n"))),
+                new Budget("GET /api/me/imports/{id}", 1, 512 * KB,
+                        f -> get("/api/me/imports/" + f.importId())),
+                new Budget("POST /api/me/upload-image", 1, 768 * KB,
+                        f -> post("/api/me/upload-image").contentType(MediaType.IMAGE_PNG).content(PNG)),
+                new Budget("POST /api/me/upload-sessions", 1, 512 * KB,
+                        f -> post("/api/me/upload-sessions").contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"size\":" + PNG.length + ",\"contentType\":\"image/png\"}")),
+                new Budget("GET /api/me/upload-sessions/{id}", 1, 512 * KB,
+                        f -> get("/api/me/upload-sessions/" + f.newUploadSession(false))),
+                new Budget("PUT /api/me/upload-sessions/{id}", 1, 512 * KB,
+                        f -> put("/api/me/upload-sessions/" + f.newUploadSession(false)).param("offset", "0")
+                                .contentType(MediaType.APPLICATION_OCTET_STREAM).content(PNG)),
+                new Budget("POST /api/me/upload-sessions/{id}/complete", 1, 768 * KB,
+                        f -> post("/api/me/upload-sessions/" + f.newUploadSession(true) + "/complete")),
+                new Budget("DELETE /api/me/upload-sessions/{id}", 1, 512 * KB,
+                        f -> delete("/api/me/upload-sessions/" + f.newUploadSession(false))));
+    }
+
+    private static final byte[] PNG = png();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertThat(statistics.isStatisticsEnabled()).isTrue();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("budgets")
+    void 文の数とアロケーションが予算内に収まる(Budget budget) throws Exception {
+        Fixture small = seed(SMALL);
+        Fixture large = seed(LARGE);
+        for (int i = 0; i < WARMUP; i++) {
+            perform(budget, large);
+        }
+
+        Measurement smallResult = perform(budget, small);
+        Measurement largeResult = perform(budget, large);
+        long allocated = largeResult.allocatedBytes();
+        for (int i = 1; i < SAMPLES; i++) {
+            allocated = Math.min(allocated, perform(budget, large).allocatedBytes());
+        }
+
+        assertThat(largeResult.statements())
+                .as("%s: %d 行と %d 行で SQL 文の数が変わらないこと", budget.route(), SMALL, LARGE)
+                .isEqualTo(smallResult.statements());
+        assertThat(largeResult.statements())
+                .as("%s: SQL 文の数", budget.route())
+                .isLessThanOrEqualTo(budget.maxStatements());
+        assertThat(allocated)
+                .as("%s: 1リクエストの確保バイト数", budget.route())
+                .isLessThanOrEqualTo(budget.maxAllocatedBytes());
+    }
+
+    private Measurement perform(Budget budget, Fixture fixture) throws Exception {
+        MockHttpServletRequestBuilder request = budget.request().apply(fixture)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + fixture.token());
+        long[] threadIds = handlerThreadIds();
+        statistics.clear();
+        long before = allocatedBytes(threadIds);
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        assertThat(result.getResponse().getStatus()).isBetween(200, 299);
+        long allocated = allocatedBytes(threadIds) - before;
+        return new Measurement(statistics.getPrepareStatementCount(), allocated);
+    }
+
+    /** リクエスト処理スレッド（このスレッド）と、アップロード・認証用のプールのスレッドのID。 */
+    private static long[] handlerThreadIds() {
+        return Stream.concat(Stream.of(Thread.currentThread()), Thread.getAllStackTraces().keySet().stream()
+                        .filter(t -> t.getName().startsWith("upload-") || t.getName().startsWith("auth-")))
+                .mapToLong(Thread::getId)
+                .toArray();
+    }
+
+    private static long allocatedBytes(long[] threadIds) {
+        long total = 0;
+        for (long allocated : ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(threadIds)) {
+            total += Math.max(allocated, 0);
+        }
+        return total;
+    }
+
+    /** rows 件のゲーム（各 rows 件のプレイ記録付き）と rows 件のほしいものを持つユーザーを作る。 */
+    private Fixture seed(int rows) {
+        User user = new User();
+        user.setUsername("budget" + SEQ.incrementAndGet());
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setPasswordHash("unused");
+        user = userRepository.save(user);
+        Fixture fixture = new Fixture(user.getId(), user.getUsername(), rows,
+                jwtUtil.generateToken(user.getUsername(), user.getId()));
+        for (int i = 0; i < rows; i++) {
+            fixture.newGameWithPlays();
+            fixture.newWishlistItem();
+        }
+        fixture.firstPlayId = fixture.newPlay();
+        return fixture;
+    }
+
+    /** 計測対象のユーザーと、リクエストで使う ID。 */
+    final class Fixture {
+        private final Long userId;
+        private final String username;
+        private final int rows;
+        private final String token;
+        private Long firstGameId;
+        private Long firstPlayId;
+        private String importId;
+
+        Fixture(Long userId, String username, int rows, String token) {
+            this.userId = userId;
+            this.username = username;
+            this.rows = rows;
+            this.token = token;
+        }
+
+        String token() {
+            return token;
+        }
+
+        Long gameId() {
+            return firstGameId;
+        }
+
+        Long playId() {
+            return firstPlayId;
+        }
+
+        Long newGameWithPlays() {
+            UserBoardGame game = new UserBoardGame();
+            game.setUserId(userId);
+            game.setName("ゲーム");
+            game = userBoardGameRepository.save(game);
+            if (firstGameId == null) {
+                firstGameId = game.getId();
+            }
+            List<PlayRecord> plays = new ArrayList<>();
+            for (int i = 0; i < rows; i++) {
+                plays.add(play(game.getId()));
+            }
+            playRecordRepository.saveAll(plays);
+            return game.getId();
+        }
+
+        Long newPlay() {
+            return playRecordRepository.save(play(firstGameId)).getId();
+        }
+
+        /**
+         * 前の取り込みが終わるのを待ってから、取り込むファイルを返す（同じユーザーの取り込みは同時に1件まで）。
+         * ヘッダだけのファイルにして、取り込みスレッドの SQL が計測に混ざらないようにする。
+         */
+        String awaitImports(String csv) {
+            for (int i = 0; i < 500 && (meterRegistry.get("executor.active").tag("name", "import").gauge().value() > 0
+                    || meterRegistry.get("executor.queued").tag("name", "import").gauge().value() > 0); i++) {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return csv;
+        }
+
+        /** 終わった取り込みのID（初回だけ取り込みを開始する）。 */
+        String importId() {
+            if (importId == null) {
+                try {
+                    importId = importService.start(username,
+                            new ByteArrayInputStream(awaitImports("name\n").getBytes())).getId();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return importId;
+        }
+
+        /** 分割アップロードのセッションを作る。filled なら PNG の全体を書き込んでおく。 */
+        String newUploadSession(boolean filled) {
+            try {
+                String id = uploadSessionService.create(username, PNG.length).getId();
+                if (filled) {
+                    uploadSessionService.writeChunk(username, id, 0, new ByteArrayInputStream(PNG));
+                }
+                return id;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        Long newWishlistItem() {
+            WishlistItem item = new WishlistItem();
+            item.setUserId(userId);
+            item.setName("ほしいもの");
+            return wishlistRepository.save(item).getId();
+        }
+
+        private PlayRecord play(Long gameId) {
+            PlayRecord play = new PlayRecord();
+            play.setUserId(userId);
+            play.setUserBoardGameId(gameId);
+            play.setPlayedAt(LocalDate.of(2024, 1, 1).plusDays(SEQ.get() % 365));
+            play.setPlayerCount(4);
+            play.setMemo("予算テスト");
+            return play;
+        }
+    }
+
+    private record Measurement(long statements, long allocatedBytes) {}
+
+    private static byte[] png() {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB), "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.boardgameapp.controller;
 import com.boardgameapp.dto.AuthResponse;
 import com.boardgameapp.dto.LoginRequest;
 import com.boardgameapp.dto.RegisterRequest;
+import com.boardgameapp.resilience.Bulkheads;
 import com.boardgameapp.service.AuthService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
@@ -12,18 +13,22 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(AuthController.class)
 @AutoConfigureMockMvc(addFilters = false)
+@Import({Bulkheads.class, WebMvcSliceConfig.class})
 @DisplayName("AuthController")
 class AuthControllerTest {
 
@@ -49,10 +54,13 @@ class AuthControllerTest {
             AuthResponse authResp = new AuthResponse("jwt-token", "newuser", 1L);
             when(authService.register(any(RegisterRequest.class))).thenReturn(authResp);
 
-            mockMvc.perform(post("/api/auth/register")
+            MvcResult started = mockMvc.perform(post("/api/auth/register")
                             .with(csrf())
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(objectMapper.writeValueAsString(body)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(started))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.token").value("jwt-token"))
                     .andExpect(jsonPath("$.username").value("newuser"))
@@ -88,10 +96,13 @@ class AuthControllerTest {
             AuthResponse authResp = new AuthResponse("token-xyz", "user", 2L);
             when(authService.login(any(LoginRequest.class))).thenReturn(authResp);
 
-            mockMvc.perform(post("/api/auth/login")
+            MvcResult started = mockMvc.perform(post("/api/auth/login")
                             .with(csrf())
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(objectMapper.writeValueAsString(body)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(started))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.token").value("token-xyz"))
                     .andExpect(jsonPath("$.username").value("user"));
@@ -3,14 +3,17 @@ package com.boardgameapp.controller;
 import com.boardgameapp.dto.AddBoardGameRequest;
 import com.boardgameapp.dto.UpdateBoardGameRequest;
 import com.boardgameapp.dto.UserBoardGameResponse;
+import com.boardgameapp.service.RemoteImageProxyService;
 import com.boardgameapp.service.UserBoardGameService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -32,6 +35,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(MeBoardGameController.class)
+@Import(WebMvcSliceConfig.class)
 @DisplayName("MeBoardGameController")
 class MeBoardGameControllerTest {
 
@@ -44,6 +48,14 @@ class MeBoardGameControllerTest {
     @MockBean
     private UserBoardGameService userBoardGameService;
 
+    @MockBean
+    private RemoteImageProxyService remoteImageProxyService;
+
+    @BeforeEach
+    void setUp() {
+        when(remoteImageProxyService.localize(any())).thenAnswer(inv -> inv.getArgument(0));
+    }
+
     private static final String USERNAME = "testuser";
 
     @Nested
@@ -0,0 +1,21 @@
+package com.boardgameapp.controller;
+
+import com.boardgameapp.monitoring.SlowRequestSampler;
+import com.boardgameapp.security.JwtUtil;
+import com.boardgameapp.security.RevokedTokens;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+/**
+ * {@code @WebMvcTest} のスライスに入るフィルタ（JWT 認証・計測・負荷制限）が必要とする、スライス外の Bean。
+ * JWT の検証はモックにする（各テストは @WithMockUser かフィルタ無効で認証済みにする）。
+ */
+@TestConfiguration
+@Import({SimpleMeterRegistry.class, SlowRequestSampler.class, RevokedTokens.class})
+class WebMvcSliceConfig {
+
+    @MockBean
+    private JwtUtil jwtUtil;
+}
@@ -0,0 +1,130 @@
+package com.boardgameapp.dataset;
+
+import com.boardgameapp.entity.User;
+import com.boardgameapp.repository.PlayRecordRepository;
+import com.boardgameapp.repository.UserBoardGameRepository;
+import com.boardgameapp.repository.UserRepository;
+import com.boardgameapp.service.ImageStorageService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("DatasetGenerator")
+class DatasetGeneratorTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ImageStorageService imageStorageService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserBoardGameRepository userBoardGameRepository;
+
+    @Autowired
+    private PlayRecordRepository playRecordRepository;
+
+    private DatasetGenerator generator(int users) {
+        return new DatasetGenerator(dataSource, imageStorageService, passwordEncoder,
+                users, 7, "2025-06-30", 2, 50, 30, 10, 2, 16, "password");
+    }
+
+    @Nested
+    @DisplayName("generate")
+    class Generate {
+        @Test
+        void 指定人数のユーザーと関連データを投入しIDの採番を続きから再開できる() throws Exception {
+            long usersBefore = userRepository.count();
+            long gamesBefore = userBoardGameRepository.count();
+            long playsBefore = playRecordRepository.count();
+
+            DatasetGenerator.Summary summary = generator(40).generate();
+
+            assertThat(userRepository.count() - usersBefore).isEqualTo(40);
+            assertThat(userBoardGameRepository.count() - gamesBefore).isEqualTo(summary.games()).isPositive();
+            assertThat(playRecordRepository.count() - playsBefore).isEqualTo(summary.plays()).isPositive();
+            assertThat(summary.images()).isEqualTo(2);
+
+            User user = new User();
+            user.setUsername("after-dataset");
+            user.setEmail("after-dataset@example.com");
+            user.setPasswordHash("hash");
+            assertThat(userRepository.save(user).getId()).isGreaterThan(usersBefore + 40);
+        }
+
+        @Test
+        void 同じ設定なら同じ件数のデータになる() throws Exception {
+            DatasetGenerator.Summary first = generator(20).generate();
+            DatasetGenerator.Summary second = generator(20).generate();
+
+            assertThat(second.games()).isEqualTo(first.games());
+            assertThat(second.plays()).isEqualTo(first.plays());
+            assertThat(second.wishlistItems()).isEqualTo(first.wishlistItems());
+        }
+    }
+
+    @Nested
+    @DisplayName("分布")
+    class Distributions {
+        @Test
+        void 件数は上限以下で偏りがある() {
+            SplittableRandom random = new SplittableRandom(1);
+            int[] sizes = IntStream.range(0, 10_000)
+                    .map(i -> DatasetGenerator.skewed(random, 0.2, 3, 1.1, 500))
+                    .toArray();
+
+            assertThat(IntStream.of(sizes).max().orElseThrow()).isLessThanOrEqualTo(500);
+            assertThat(IntStream.of(sizes).filter(s -> s == 0).count()).isBetween(1_500L, 2_500L);
+            double mean = IntStream.of(sizes).average().orElseThrow();
+            int median = IntStream.of(sizes).sorted().toArray()[sizes.length / 2];
+            assertThat(mean).isGreaterThan(median * 2.0);
+        }
+
+        @Test
+        void 人気タイトルほど選ばれやすい() {
+            SplittableRandom random = new SplittableRandom(1);
+            int[] counts = new int[DatasetGenerator.TITLES.size()];
+            for (int i = 0; i < 10_000; i++) {
+                counts[DatasetGenerator.zipf(random, counts.length)]++;
+            }
+
+            assertThat(counts[0]).isGreaterThan(counts[1]).isGreaterThan(counts[counts.length - 1] * 5);
+        }
+
+        @Test
+        void プレイ日は範囲内で冬と週末と連休に多い() {
+            assertThat(DatasetGenerator.seasonalWeight(LocalDate.of(2025, 1, 15)))
+                    .isGreaterThan(DatasetGenerator.seasonalWeight(LocalDate.of(2025, 7, 16)));
+            assertThat(DatasetGenerator.seasonalWeight(LocalDate.of(2025, 6, 14)))
+                    .isGreaterThan(DatasetGenerator.seasonalWeight(LocalDate.of(2025, 6, 11)));
+            assertThat(DatasetGenerator.seasonalWeight(LocalDate.of(2025, 8, 13)))
+                    .isGreaterThan(DatasetGenerator.seasonalWeight(LocalDate.of(2025, 8, 20)));
+
+            SplittableRandom random = new SplittableRandom(1);
+            LocalDate from = LocalDate.of(2024, 1, 1);
+            LocalDate to = LocalDate.of(2024, 12, 31);
+            for (int i = 0; i < 1_000; i++) {
+                assertThat(DatasetGenerator.seasonalDate(random, from, to)).isBetween(from, to);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.boardgameapp.monitoring;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ProfiledPasswordEncoder")
+class ProfiledPasswordEncoderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void ハッシュ化と照合をJFRイベントに記録し結果は委譲先と同じ() throws Exception {
+        ProfiledPasswordEncoder sut = new ProfiledPasswordEncoder(new BCryptPasswordEncoder(4));
+        Path file = dir.resolve("hash.jfr");
+
+        String hash;
+        boolean matches;
+        try (Recording recording = new Recording()) {
+            recording.enable(PasswordHashEvent.class);
+            recording.start();
+            hash = sut.encode("secret");
+            matches = sut.matches("secret", hash);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        assertThat(matches).isTrue();
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertThat(events).extracting(e -> e.getString("operation")).containsExactly("encode", "matches");
+    }
+}
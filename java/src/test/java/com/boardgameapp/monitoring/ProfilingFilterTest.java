@@ -0,0 +1,40 @@
+package com.boardgameapp.monitoring;
+
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ProfilingFilter")
+class ProfilingFilterTest {
+
+    private final ProfilingFilter sut = new ProfilingFilter(new SlowRequestSampler(1_000, 10, 0));
+
+    @Test
+    void 非同期処理に移ったリクエストは再ディスパッチが終わるまで記録を続ける() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/me/upload-image");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        sut.doFilter(request, response, (req, res) -> {
+            StandardServletAsyncWebRequest asyncWebRequest = new StandardServletAsyncWebRequest(request, response);
+            WebAsyncUtils.getAsyncManager(request).setAsyncWebRequest(asyncWebRequest);
+            asyncWebRequest.startAsync();
+        });
+        RequestProfile profile = (RequestProfile) request.getAttribute(ProfilingFilter.PROFILE_ATTRIBUTE);
+        assertThat(profile).isNotNull();
+        assertThat(profile.thread()).isNull();
+
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        sut.doFilter(request, response, (req, res) -> RequestProfile.recordQuery("select 1", 1_000));
+        RequestProfile.recordQuery("select 2", 1_000);
+
+        assertThat(profile.queryCount()).isEqualTo(1);
+    }
+}
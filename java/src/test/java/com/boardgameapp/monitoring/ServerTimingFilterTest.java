@@ -0,0 +1,105 @@
+package com.boardgameapp.monitoring;
+
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ServerTimingFilter")
+class ServerTimingFilterTest {
+
+    private final ServerTimingFilter sut = new ServerTimingFilter(false);
+
+    @Test
+    void 本文を書く前に記録した内訳をServerTimingヘッダで返す() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/me/boardgames");
+        request.addHeader(ServerTimingFilter.REQUEST_HEADER, "1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        sut.doFilter(request, response, (req, res) -> {
+            ServerTiming.record(ServerTiming.JWT, 400_000);
+            ServerTiming.record(ServerTiming.DB, 1_000_000);
+            ServerTiming.record(ServerTiming.DB, 2_000_000);
+            res.getOutputStream().write('x');
+            ServerTiming.record(ServerTiming.MAP, 1_000_000);
+        });
+
+        assertThat(response.getHeader(ServerTimingFilter.HEADER))
+                .startsWith("jwt;dur=0.40, db;dur=3.00;desc=\"2 calls\", app;dur=")
+                .doesNotContain("map");
+        assertThat(ServerTiming.isActive()).isFalse();
+    }
+
+    @Test
+    void 本文がなくてもヘッダを付けクエリのフラグでも求められる() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/api/me/wishlist/1");
+        request.setQueryString("a=1&server-timing");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        sut.doFilter(request, response,
+                (req, res) -> ServerTiming.record(ServerTiming.USER, 500_000));
+
+        assertThat(response.getHeader(ServerTimingFilter.HEADER)).startsWith("user;dur=0.50, app;dur=");
+    }
+
+    @Test
+    void 求めていないリクエストはヘッダを付けず内訳の集計だけを行う() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        boolean[] state = new boolean[2];
+
+        sut.doFilter(new MockHttpServletRequest("GET", "/api/me/boardgames"), response, (req, res) -> {
+            state[0] = ServerTiming.isActive();
+            state[1] = ServerTiming.isHeaderEnabled();
+            res.getOutputStream().write('x');
+        });
+
+        assertThat(state).containsExactly(true, false);
+        assertThat(response.getHeader(ServerTimingFilter.HEADER)).isNull();
+    }
+
+    @Test
+    void 非同期処理の内訳は再ディスパッチの終わりにまとめて返す() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/me/upload-image");
+        request.addHeader(ServerTimingFilter.REQUEST_HEADER, "1");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ServerTimingCallableInterceptor interceptor = new ServerTimingCallableInterceptor();
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+
+        sut.doFilter(request, response, (req, res) -> {
+            ServerTiming.record(ServerTiming.JWT, 400_000);
+            StandardServletAsyncWebRequest asyncWebRequest = new StandardServletAsyncWebRequest(request, response);
+            WebAsyncUtils.getAsyncManager(request).setAsyncWebRequest(asyncWebRequest);
+            asyncWebRequest.startAsync();
+        });
+        assertThat(response.getHeader(ServerTimingFilter.HEADER)).isNull();
+        assertThat(ServerTiming.isActive()).isFalse();
+
+        Thread worker = new Thread(() -> {
+            interceptor.preProcess(webRequest, () -> null);
+            ServerTiming.record(ServerTiming.DB, 1_000_000);
+            interceptor.postProcess(webRequest, () -> null, null);
+        });
+        worker.start();
+        worker.join();
+
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        sut.doFilter(request, response, (req, res) -> res.getOutputStream().write('x'));
+
+        assertThat(response.getHeader(ServerTimingFilter.HEADER)).startsWith("jwt;dur=0.40, db;dur=1.00, app;dur=");
+        assertThat(ServerTiming.isActive()).isFalse();
+    }
+
+    @Test
+    void 計測中でなければtimeは処理だけを行う() {
+        assertThat(ServerTiming.time(ServerTiming.MAP, () -> "ok")).isEqualTo("ok");
+        assertThat(ServerTiming.isActive()).isFalse();
+    }
+}
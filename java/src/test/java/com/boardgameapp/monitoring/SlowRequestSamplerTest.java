@@ -0,0 +1,63 @@
+package com.boardgameapp.monitoring;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SlowRequestSampler")
+class SlowRequestSamplerTest {
+
+    @Test
+    void しきい値を超えたリクエストだけスタックを採取しクエリを記録する() throws Exception {
+        SlowRequestSampler sut = new SlowRequestSampler(20, 2, 0);
+        RequestProfile profile = sut.start("GET", "/api/me/plays");
+        RequestProfile.recordQuery("select 1", 1_000_000);
+        RequestProfile.recordQuery("select 2", 1_000_000);
+        RequestProfile.recordQuery("select 3", 1_000_000);
+
+        sut.sample();
+        assertThat(profile.stackSnapshot()).isNull();
+        Thread.sleep(30);
+        sut.sample();
+
+        assertThat(profile.stackSnapshot()).isNotEmpty();
+        assertThat(profile.queryCount()).isEqualTo(3);
+        assertThat(profile.queriesText()).contains("1.00ms select 1", "select 2", "... 1 more").doesNotContain("select 3");
+        sut.finish(profile, 200);
+    }
+
+    @Test
+    void 終了後はクエリを記録しない() {
+        SlowRequestSampler sut = new SlowRequestSampler(1_000, 10, 0);
+        RequestProfile profile = sut.start("GET", "/api/me/boardgames");
+        sut.finish(profile, 200);
+
+        RequestProfile.recordQuery("select 1", 1_000);
+
+        assertThat(profile.queryCount()).isZero();
+    }
+
+    @Test
+    void 非同期処理を引き継いだスレッドでクエリを記録しスタックを採取する() throws Exception {
+        SlowRequestSampler sut = new SlowRequestSampler(0, 10, 0);
+        RequestProfile profile = sut.start("POST", "/api/me/upload-image");
+        sut.suspend(profile);
+        RequestProfile.recordQuery("select 0", 1_000);
+        sut.sample();
+        assertThat(profile.stackSnapshot()).isNull();
+
+        Thread worker = new Thread(() -> {
+            sut.resume(profile);
+            RequestProfile.recordQuery("select 1", 1_000);
+            sut.sample();
+            sut.suspend(profile);
+        });
+        worker.start();
+        worker.join();
+
+        assertThat(profile.queryCount()).isEqualTo(1);
+        assertThat(profile.stackSnapshot()).isNotEmpty();
+        sut.finish(profile, 200);
+    }
+}
@@ -0,0 +1,40 @@
+package com.boardgameapp.monitoring;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("StartupReporter")
+class StartupReporterTest {
+
+    @Test
+    void 子ステップの時間を除いた自身の時間の長い順に並べる() throws Exception {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+        StartupStep refresh = startup.start("spring.context.refresh");
+        StartupStep slow = startup.start("spring.beans.instantiate").tag("beanName", "slowBean");
+        Thread.sleep(60);
+        slow.end();
+        StartupStep fast = startup.start("spring.beans.instantiate").tag("beanName", "fastBean");
+        Thread.sleep(20);
+        fast.end();
+        refresh.end();
+
+        List<StartupReporter.StepTime> steps =
+                StartupReporter.slowestSteps(startup.getBufferedTimeline().getEvents(), 3);
+
+        assertThat(steps).hasSize(3);
+        assertThat(steps.get(0).tags()).isEqualTo("beanName=slowBean");
+        assertThat(steps.get(0).self()).isEqualTo(steps.get(0).total());
+        StartupReporter.StepTime fastStep = steps.stream()
+                .filter(s -> s.tags().equals("beanName=fastBean")).findFirst().orElseThrow();
+        StartupReporter.StepTime refreshStep = steps.stream()
+                .filter(s -> s.name().equals("spring.context.refresh")).findFirst().orElseThrow();
+        assertThat(refreshStep.self())
+                .isEqualTo(refreshStep.total().minus(steps.get(0).total()).minus(fastStep.total()));
+    }
+}
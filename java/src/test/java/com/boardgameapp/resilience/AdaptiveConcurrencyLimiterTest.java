@@ -0,0 +1,85 @@
+package com.boardgameapp.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AdaptiveConcurrencyLimiter")
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private AdaptiveConcurrencyLimiter newLimiter() {
+        return new AdaptiveConcurrencyLimiter(20, 4, 100, 2.0, 0.2, 600);
+    }
+
+    @Nested
+    @DisplayName("tryAcquire")
+    class TryAcquire {
+        @Test
+        void 上限に割合を掛けた数まで受け付ける() {
+            AdaptiveConcurrencyLimiter sut = newLimiter();
+
+            for (int i = 0; i < 12; i++) {
+                assertThat(sut.tryAcquire(0.6)).isPositive();
+            }
+            assertThat(sut.tryAcquire(0.6)).isEqualTo(-1);
+            assertThat(sut.tryAcquire(1.0)).isEqualTo(13);
+        }
+    }
+
+    @Nested
+    @DisplayName("release")
+    class Release {
+        @Test
+        void 応答時間が普段の許容倍を超えると上限を下げる() {
+            AdaptiveConcurrencyLimiter sut = newLimiter();
+            for (int i = 0; i < 50; i++) {
+                sut.release(10 * MS, 1);
+            }
+            double before = sut.getLimit();
+
+            for (int i = 0; i < 50; i++) {
+                sut.release(100 * MS, 20);
+            }
+
+            assertThat(sut.getLimit()).isLessThan(before / 2).isGreaterThanOrEqualTo(4);
+        }
+
+        @Test
+        void 応答時間が安定していて上限近くまで使っていれば上限を広げる() {
+            AdaptiveConcurrencyLimiter sut = newLimiter();
+
+            for (int i = 0; i < 50; i++) {
+                sut.release(10 * MS, (int) sut.getLimit());
+            }
+
+            assertThat(sut.getLimit()).isGreaterThan(20).isLessThanOrEqualTo(100);
+        }
+
+        @Test
+        void 上限の半分も使っていなければ上限を変えない() {
+            AdaptiveConcurrencyLimiter sut = newLimiter();
+
+            for (int i = 0; i < 50; i++) {
+                sut.release(10 * MS, 3);
+            }
+
+            assertThat(sut.getLimit()).isEqualTo(20);
+        }
+
+        @Test
+        void 確保した枠を返す() {
+            AdaptiveConcurrencyLimiter sut = newLimiter();
+            int inFlight = sut.tryAcquire(1.0);
+
+            sut.release(-1, inFlight);
+
+            assertThat(sut.getInFlight()).isZero();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.boardgameapp.resilience;
+
+import com.boardgameapp.service.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Bulkheads")
+class BulkheadsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    /** アップロード・認証ともに 1 スレッド・待ち行列 1 */
+    private final Bulkheads sut = new Bulkheads(registry, 1, 1, 1000, 1, 1, 500);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        sut.destroy();
+    }
+
+    private String block() throws InterruptedException {
+        release.await(5, TimeUnit.SECONDS);
+        return "done";
+    }
+
+    @Test
+    void プールごとのスレッドで実行しtimeoutを設定する() throws Exception {
+        WebAsyncTask<String> task = sut.upload(() -> Thread.currentThread().getName());
+
+        assertThat(task.getTimeout()).isEqualTo(1000);
+        assertThat(run(task)).startsWith("upload-");
+        WebAsyncTask<String> auth = sut.auth(() -> Thread.currentThread().getName());
+        assertThat(auth.getTimeout()).isEqualTo(500);
+        assertThat(run(auth)).startsWith("auth-");
+    }
+
+    @Test
+    void 待ち行列が埋まったプールはServiceBusyExceptionで断り他のプールは使える() throws Exception {
+        AsyncTaskExecutor upload = sut.upload(this::block).getExecutor();
+        upload.submit(this::block);
+        upload.submit(this::block);
+
+        assertThatThrownBy(() -> upload.submit(this::block))
+                .isInstanceOf(ServiceBusyException.class)
+                .extracting("retryAfterSeconds").isEqualTo(1L);
+        assertThat(registry.get("boardgame.bulkhead.rejected").tag("pool", "upload").counter().count())
+                .isEqualTo(1);
+
+        assertThat(run(sut.auth(() -> "ok"))).isEqualTo("ok");
+    }
+
+    /** Spring MVC と同じく、タスクの executor で callable を実行して結果を待つ。 */
+    private static String run(WebAsyncTask<String> task) throws Exception {
+        Future<?> result = task.getExecutor().submit(task.getCallable());
+        return (String) result.get(5, TimeUnit.SECONDS);
+    }
+}
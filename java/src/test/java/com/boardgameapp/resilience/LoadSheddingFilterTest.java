@@ -0,0 +1,86 @@
+package com.boardgameapp.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LoadSheddingFilter")
+class LoadSheddingFilterTest {
+
+    @Test
+    void 優先度はアップロードと認証が重く読み取りが軽い() {
+        assertThat(LoadSheddingFilter.priorityOf(new MockHttpServletRequest("POST", "/api/auth/login")))
+                .isEqualTo(LoadSheddingFilter.Priority.EXPENSIVE);
+        assertThat(LoadSheddingFilter.priorityOf(new MockHttpServletRequest("PUT", "/api/me/upload-sessions/abc")))
+                .isEqualTo(LoadSheddingFilter.Priority.EXPENSIVE);
+        assertThat(LoadSheddingFilter.priorityOf(new MockHttpServletRequest("GET", "/api/me/export")))
+                .isEqualTo(LoadSheddingFilter.Priority.EXPENSIVE);
+        assertThat(LoadSheddingFilter.priorityOf(new MockHttpServletRequest("POST", "/api/me/imports")))
+                .isEqualTo(LoadSheddingFilter.Priority.EXPENSIVE);
+        assertThat(LoadSheddingFilter.priorityOf(new MockHttpServletRequest("GET", "/api/me/imports/abc")))
+                .isEqualTo(LoadSheddingFilter.Priority.READ);
+        assertThat(LoadSheddingFilter.priorityOf(new MockHttpServletRequest("POST", "/api/me/boardgames")))
+                .isEqualTo(LoadSheddingFilter.Priority.WRITE);
+        assertThat(LoadSheddingFilter.priorityOf(new MockHttpServletRequest("GET", "/api/me/plays")))
+                .isEqualTo(LoadSheddingFilter.Priority.READ);
+    }
+
+    @Test
+    void 上限を超えた重い要求は503とRetryAfterで断り読み取りは通す() throws Exception {
+        // 上限 2: 重い要求は 1 件まで、読み取りは 2 件まで
+        LoadSheddingFilter sut = new LoadSheddingFilter(new SimpleMeterRegistry(), 2, 2, 2, 2.0, 0.2, 600);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain blocking = (req, res) -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        CompletableFuture<Void> running = CompletableFuture.runAsync(() -> {
+            try {
+                sut.doFilter(new MockHttpServletRequest("POST", "/api/me/upload-image"),
+                        new MockHttpServletResponse(), blocking);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        entered.await(5, TimeUnit.SECONDS);
+
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        sut.doFilter(new MockHttpServletRequest("POST", "/api/auth/login"), shed, (req, res) -> { });
+        MockHttpServletResponse read = new MockHttpServletResponse();
+        sut.doFilter(new MockHttpServletRequest("GET", "/api/me/boardgames"), read, (req, res) -> { });
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        assertThat(shed.getStatus()).isEqualTo(503);
+        assertThat(shed.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(read.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void 非同期で処理中の要求は完了するまで枠を持ち続ける() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LoadSheddingFilter sut = new LoadSheddingFilter(registry, 2, 2, 2, 2.0, 0.2, 600);
+        MockHttpServletRequest upload = new MockHttpServletRequest("POST", "/api/me/upload-image");
+        upload.setAsyncSupported(true);
+
+        sut.doFilter(upload, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertThat(registry.get("boardgame.load-shedding.in-flight").gauge().value()).isEqualTo(1);
+        upload.getAsyncContext().complete();
+        assertThat(registry.get("boardgame.load-shedding.in-flight").gauge().value()).isZero();
+    }
+}
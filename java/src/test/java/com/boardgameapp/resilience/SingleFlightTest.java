@@ -0,0 +1,125 @@
+package com.boardgameapp.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SingleFlight")
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlight sut = new SingleFlight(registry);
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    /** release されるまで戻らない読み込み */
+    private List<String> slowLoad() {
+        loads.incrementAndGet();
+        started.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return List.of("カタン");
+    }
+
+    private Future<List<String>> startLeader(String username) throws InterruptedException {
+        Future<List<String>> leader = executor.submit(() -> sut.execute("boardgames", username, this::slowLoad));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        return leader;
+    }
+
+    private void awaitCoalesced(double count) throws InterruptedException {
+        for (int i = 0; i < 500 && coalesced() < count; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(coalesced()).isEqualTo(count);
+    }
+
+    private double coalesced() {
+        return registry.counter("boardgame.single-flight.requests",
+                "name", "boardgames", "result", "coalesced").count();
+    }
+
+    @Test
+    void 同じユーザーの同時の読み込みは1回にまとめ結果を共有する() throws Exception {
+        Future<List<String>> leader = startLeader("alice");
+        Future<List<String>> follower = executor.submit(() -> sut.execute("boardgames", "alice", this::slowLoad));
+        awaitCoalesced(1);
+
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).containsExactly("カタン");
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isSameAs(leader.get());
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void 別のユーザーや別の一覧はまとめない() throws Exception {
+        startLeader("alice");
+
+        assertThat(sut.execute("boardgames", "bob", () -> List.of("bob"))).containsExactly("bob");
+        assertThat(sut.execute("wishlist", "alice", () -> List.of("wish"))).containsExactly("wish");
+        assertThat(coalesced()).isZero();
+    }
+
+    @Test
+    void 読み込みが終われば次の要求はまた読み込む() {
+        sut.execute("boardgames", "alice", () -> List.of("1"));
+
+        assertThat(sut.execute("boardgames", "alice", () -> List.of("2"))).containsExactly("2");
+    }
+
+    @Test
+    void リーダーの例外は相乗りした要求にも同じ例外で返す() throws Exception {
+        Future<Object> leader = executor.submit(() -> sut.execute("boardgames", "alice", () -> {
+            slowLoad();
+            throw new IllegalArgumentException("User not found");
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<Object> follower = executor.submit(() -> sut.execute("boardgames", "alice", () -> "unused"));
+        awaitCoalesced(1);
+
+        release.countDown();
+
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause().isInstanceOf(IllegalArgumentException.class).hasMessage("User not found");
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS))
+                .cause().isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void forgetした後の要求は進行中の読み込みに相乗りしない() throws Exception {
+        Future<List<String>> leader = startLeader("alice");
+
+        sut.forget("alice");
+
+        assertThat(sut.execute("boardgames", "alice", () -> List.of("after write"))).containsExactly("after write");
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).containsExactly("カタン");
+        assertThat(coalesced()).isZero();
+    }
+}
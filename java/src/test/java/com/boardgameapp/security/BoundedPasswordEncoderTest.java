@@ -0,0 +1,100 @@
+package com.boardgameapp.security;
+
+import com.boardgameapp.service.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("BoundedPasswordEncoder")
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder sut;
+
+    /** matches の途中で release を待つエンコーダ。 */
+    private final PasswordEncoder blocking = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "{hash}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return encodedPassword.equals(encode(rawPassword));
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        sut.close();
+    }
+
+    @Test
+    void 委譲先の結果をそのまま返しスレッドプール上で実行する() {
+        sut = new BoundedPasswordEncoder(new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return Thread.currentThread().getName();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return true;
+            }
+        }, 1, 1, 1_000, meterRegistry);
+
+        assertThat(sut.encode("secret")).startsWith("password-hash-");
+        assertThat(sut.matches("secret", "x")).isTrue();
+    }
+
+    @Test
+    void 待ち行列が埋まっていれば待たずにServiceBusyExceptionを投げる() throws Exception {
+        sut = new BoundedPasswordEncoder(blocking, 1, 1, 5_000, meterRegistry);
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> sut.matches("a", "{hash}a"));
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> sut.matches("b", "{hash}b"));
+        while (meterRegistry.get("executor.queued").tag("name", "password-hash").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> sut.matches("c", "{hash}c"))
+                .isInstanceOf(ServiceBusyException.class)
+                .extracting("retryAfterSeconds").isEqualTo(1L);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.get("boardgame.password-hash.busy").tag("reason", "rejected").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void 待ち時間が上限を超えればServiceBusyExceptionを投げる() {
+        sut = new BoundedPasswordEncoder(blocking, 1, 1, 50, meterRegistry);
+
+        assertThatThrownBy(() -> sut.matches("a", "{hash}a"))
+                .isInstanceOf(ServiceBusyException.class);
+        assertThat(meterRegistry.get("boardgame.password-hash.busy").tag("reason", "timeout").counter().count())
+                .isEqualTo(1);
+    }
+}
@@ -0,0 +1,63 @@
+package com.boardgameapp.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("JwtAuthenticationFilter")
+class JwtAuthenticationFilterTest {
+
+    private final JwtUtil jwtUtil = new JwtUtil("test-secret-key-must-be-at-least-256-bits-long-for-hs256", 60_000);
+    private final Set<String> existingUsers = Set.of("alice");
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final JwtAuthenticationFilter sut = new JwtAuthenticationFilter(jwtUtil,
+            username -> {
+                if (!existingUsers.contains(username)) {
+                    throw new UsernameNotFoundException("User not found: " + username);
+                }
+                return new User(username, "hash", Collections.emptyList());
+            },
+            new RevokedTokens(registry, 60_000), registry);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Authentication filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/me/boardgames");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+        sut.doFilter(request, new MockHttpServletResponse(), chain);
+        assertThat(chain.getRequest()).isNotNull();
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Test
+    void 存在するユーザーのトークンなら認証する() throws Exception {
+        Authentication auth = filter(jwtUtil.generateToken("alice", 1L));
+
+        assertThat(auth).isNotNull();
+        assertThat(auth.getName()).isEqualTo("alice");
+    }
+
+    @Test
+    void 削除されたユーザーのトークンは有効期限内でも認証しない() throws Exception {
+        Authentication auth = filter(jwtUtil.generateToken("deleted", 2L));
+
+        assertThat(auth).isNull();
+    }
+}
@@ -0,0 +1,94 @@
+package com.boardgameapp.security;
+
+import com.boardgameapp.warmup.WarmupRunner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RateLimitFilter")
+class RateLimitFilterTest {
+
+    private RateLimitFilter sut;
+
+    @BeforeEach
+    void setUp() {
+        // login: 2件, register: 1件, upload: 1件, write: 2件（いずれも1分に1件補充）
+        sut = new RateLimitFilter(new StaticListableBeanFactory().getBeanProvider(WarmupRunner.class), new SimpleMeterRegistry(), true, 100,
+                2, 1, 1, 1, 1, 1, 2, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletResponse send(String method, String path, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        sut.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private void loginAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, Collections.emptyList()));
+    }
+
+    @Test
+    void ログインはIPアドレスごとに数え上限を超えたら429とRetryAfterを返す() throws Exception {
+        assertThat(send("POST", "/api/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(send("POST", "/api/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = send("POST", "/api/auth/login", "10.0.0.1");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("60");
+        assertThat(rejected.getContentAsString()).contains("Too many requests");
+        assertThat(send("POST", "/api/auth/login", "10.0.0.2").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void 書き込みはユーザーごとに数え読み取りは数えない() throws Exception {
+        loginAs("alice");
+        send("POST", "/api/me/boardgames", "10.0.0.1");
+        send("DELETE", "/api/me/boardgames/1", "10.0.0.1");
+
+        assertThat(send("GET", "/api/me/boardgames", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(send("PUT", "/api/me/boardgames/1", "10.0.0.1").getStatus()).isEqualTo(429);
+        loginAs("bob");
+        assertThat(send("PUT", "/api/me/boardgames/1", "10.0.0.1").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void 画像アップロードは書き込みとは別の上限で数える() throws Exception {
+        loginAs("alice");
+
+        assertThat(send("POST", "/api/me/upload-image", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(send("POST", "/api/me/upload-image", "10.0.0.1").getStatus()).isEqualTo(429);
+        assertThat(send("POST", "/api/me/wishlist", "10.0.0.1").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void 分割アップロードとCSVの取り込みも画像アップロードと同じ上限で数える() throws Exception {
+        loginAs("alice");
+        assertThat(send("POST", "/api/me/upload-sessions", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(send("PUT", "/api/me/upload-sessions/s1", "10.0.0.1").getStatus()).isEqualTo(429);
+        assertThat(send("POST", "/api/me/upload-sessions/s1/complete", "10.0.0.1").getStatus()).isEqualTo(429);
+        assertThat(send("POST", "/api/me/imports", "10.0.0.1").getStatus()).isEqualTo(429);
+        assertThat(send("POST", "/api/me/upload-image", "10.0.0.1").getStatus()).isEqualTo(429);
+        assertThat(send("DELETE", "/api/me/upload-sessions/s1", "10.0.0.1").getStatus()).isEqualTo(200);
+    }
+}
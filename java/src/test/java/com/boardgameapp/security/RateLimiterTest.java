@@ -0,0 +1,73 @@
+package com.boardgameapp.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RateLimiter")
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long T0 = 1_000 * SECOND;
+
+    @Nested
+    @DisplayName("tryAcquire")
+    class TryAcquire {
+        @Test
+        void 容量分は連続で受け付けその後は補充間隔ごとに1件受け付ける() {
+            RateLimiter sut = new RateLimiter(3, 60, 100);
+
+            assertThat(sut.tryAcquire("alice", T0)).isZero();
+            assertThat(sut.tryAcquire("alice", T0)).isZero();
+            assertThat(sut.tryAcquire("alice", T0)).isZero();
+            assertThat(sut.tryAcquire("alice", T0)).isEqualTo(SECOND);
+            assertThat(sut.tryAcquire("alice", T0 + SECOND / 2)).isEqualTo(SECOND / 2);
+            assertThat(sut.tryAcquire("alice", T0 + SECOND)).isZero();
+            assertThat(sut.tryAcquire("alice", T0 + SECOND)).isPositive();
+        }
+
+        @Test
+        void キーごとに別のバケットで数える() {
+            RateLimiter sut = new RateLimiter(1, 1, 100);
+
+            assertThat(sut.tryAcquire("alice", T0)).isZero();
+            assertThat(sut.tryAcquire("alice", T0)).isPositive();
+            assertThat(sut.tryAcquire("bob", T0)).isZero();
+        }
+
+        @Test
+        void キーの数が上限に達したら最も古いバケットを捨て新しいキーは自分のバケットで数える() {
+            RateLimiter sut = new RateLimiter(1, 1, 2);
+            sut.tryAcquire("10.0.0.1", T0);
+            sut.tryAcquire("10.0.0.2", T0);
+
+            assertThat(sut.tryAcquire("10.0.0.3", T0)).isZero();
+            assertThat(sut.tryAcquire("10.0.0.4", T0)).isZero();
+            assertThat(sut.size()).isEqualTo(2);
+            assertThat(sut.tryAcquire("10.0.0.4", T0)).isPositive();
+            assertThat(sut.tryAcquire("10.0.0.3", T0)).isPositive();
+        }
+    }
+
+    @Nested
+    @DisplayName("evictIdle")
+    class EvictIdle {
+        @Test
+        void 満杯に戻ったバケットだけを捨てる() {
+            RateLimiter sut = new RateLimiter(2, 60, 100);
+            sut.tryAcquire("alice", T0);
+            sut.tryAcquire("bob", T0);
+            sut.tryAcquire("bob", T0);
+
+            sut.evictIdle(T0 + SECOND);
+
+            assertThat(sut.size()).isEqualTo(1);
+            assertThat(sut.tryAcquire("bob", T0 + SECOND)).isZero();
+            assertThat(sut.tryAcquire("bob", T0 + SECOND)).isPositive();
+        }
+    }
+}
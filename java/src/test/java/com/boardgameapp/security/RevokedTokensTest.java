@@ -0,0 +1,41 @@
+package com.boardgameapp.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RevokedTokens")
+class RevokedTokensTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RevokedTokens sut = new RevokedTokens(registry, 1_000);
+
+    @Test
+    void 失効させたjtiだけを失効済みと判定する() {
+        Date expiresAt = new Date(System.currentTimeMillis() + 60_000);
+
+        sut.revoke("revoked", expiresAt);
+
+        assertThat(sut.isRevoked("revoked", expiresAt)).isTrue();
+        assertThat(sut.isRevoked("other", expiresAt)).isFalse();
+        assertThat(registry.get("boardgame.jwt.revoked").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void 期限切れのトークンは覚えず期限を過ぎたバケットは掃除で捨てる() throws Exception {
+        sut.revoke("expired", new Date(System.currentTimeMillis() - 1));
+        Date soon = new Date(System.currentTimeMillis() + 50);
+        sut.revoke("soon", soon);
+        assertThat(sut.size()).isEqualTo(1);
+
+        Thread.sleep(1_100);
+        sut.sweep();
+
+        assertThat(sut.size()).isZero();
+        assertThat(sut.isRevoked("soon", soon)).isFalse();
+    }
+}
@@ -2,30 +2,37 @@ package com.boardgameapp.service;
 
 import com.boardgameapp.dto.AuthResponse;
 import com.boardgameapp.dto.LoginRequest;
+import com.boardgameapp.dto.RefreshRequest;
 import com.boardgameapp.dto.RegisterRequest;
 import com.boardgameapp.entity.User;
 import com.boardgameapp.repository.UserRepository;
 import com.boardgameapp.security.JwtUtil;
+import com.boardgameapp.security.RevokedTokens;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -45,7 +52,13 @@ class AuthServiceTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
-    @InjectMocks
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private RevokedTokens revokedTokens;
+
+    private TakenUserKeys takenUserKeys;
     private AuthService sut;
 
     private static final String USERNAME = "testuser";
@@ -56,6 +69,9 @@ class AuthServiceTest {
 
     @BeforeEach
     void setUp() {
+        takenUserKeys = new TakenUserKeys(userRepository, new SimpleMeterRegistry(), 1_000, 0.01);
+        sut = new AuthService(userRepository, passwordEncoder, jwtUtil, authenticationManager, takenUserKeys,
+                refreshTokenService, revokedTokens);
         savedUser = new User();
         savedUser.setId(USER_ID);
         savedUser.setUsername(USERNAME);
@@ -66,63 +82,88 @@ class AuthServiceTest {
     @Nested
     @DisplayName("register")
     class Register {
+        private RegisterRequest request() {
+            RegisterRequest request = new RegisterRequest();
+            request.setUsername(USERNAME);
+            request.setEmail(EMAIL);
+            request.setPassword(PASSWORD);
+            return request;
+        }
+
         @Test
-        void 新規ユーザーを登録しトークン付きレスポンスを返す() {
-            when(userRepository.existsByUsername(USERNAME)).thenReturn(false);
-            when(userRepository.existsByEmail(EMAIL)).thenReturn(false);
+        void 新規ユーザーは重複確認のクエリなしにINSERT1回で登録しトークン付きレスポンスを返す() {
             when(passwordEncoder.encode(PASSWORD)).thenReturn("encodedHash");
-            when(userRepository.save(any(User.class))).thenAnswer(inv -> {
+            when(userRepository.saveAndFlush(any(User.class))).thenAnswer(inv -> {
                 User u = inv.getArgument(0);
                 u.setId(USER_ID);
                 return u;
             });
             when(jwtUtil.generateToken(USERNAME, USER_ID)).thenReturn("jwt-token");
+            when(refreshTokenService.issue(USER_ID)).thenReturn("refresh-token");
 
-            RegisterRequest request = new RegisterRequest();
-            request.setUsername(USERNAME);
-            request.setEmail(EMAIL);
-            request.setPassword(PASSWORD);
-
-            AuthResponse result = sut.register(request);
+            AuthResponse result = sut.register(request());
 
             ArgumentCaptor<User> captor = ArgumentCaptor.forClass(User.class);
-            verify(userRepository).save(captor.capture());
+            verify(userRepository).saveAndFlush(captor.capture());
             assertThat(captor.getValue().getUsername()).isEqualTo(USERNAME);
             assertThat(captor.getValue().getEmail()).isEqualTo(EMAIL);
             assertThat(captor.getValue().getPasswordHash()).isEqualTo("encodedHash");
+            verify(userRepository, never()).existsByUsername(anyString());
+            verify(userRepository, never()).existsByEmail(anyString());
 
             assertThat(result.getToken()).isEqualTo("jwt-token");
+            assertThat(result.getRefreshToken()).isEqualTo("refresh-token");
             assertThat(result.getUsername()).isEqualTo(USERNAME);
             assertThat(result.getUserId()).isEqualTo(USER_ID);
+            assertThat(takenUserKeys.mightHaveUsername(USERNAME)).isTrue();
+            assertThat(takenUserKeys.mightHaveEmail(EMAIL)).isTrue();
         }
 
         @Test
-        void ユーザー名が重複していればIllegalArgumentException() {
+        void 使用済みかもしれないユーザー名はハッシュ化の前にDBで確かめ重複ならIllegalArgumentException() {
+            takenUserKeys.add(USERNAME, null);
             when(userRepository.existsByUsername(USERNAME)).thenReturn(true);
 
-            RegisterRequest request = new RegisterRequest();
-            request.setUsername(USERNAME);
-            request.setEmail(EMAIL);
-            request.setPassword(PASSWORD);
-
-            assertThatThrownBy(() -> sut.register(request))
+            assertThatThrownBy(() -> sut.register(request()))
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessage("Username already exists");
+            verify(passwordEncoder, never()).encode(anyString());
         }
 
         @Test
-        void メールが重複していればIllegalArgumentException() {
-            when(userRepository.existsByUsername(USERNAME)).thenReturn(false);
+        void 使用済みかもしれないメールがDBにあればIllegalArgumentException() {
+            takenUserKeys.add(null, EMAIL);
             when(userRepository.existsByEmail(EMAIL)).thenReturn(true);
 
-            RegisterRequest request = new RegisterRequest();
-            request.setUsername(USERNAME);
-            request.setEmail(EMAIL);
-            request.setPassword(PASSWORD);
+            assertThatThrownBy(() -> sut.register(request()))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Email already exists");
+            verify(passwordEncoder, never()).encode(anyString());
+        }
 
-            assertThatThrownBy(() -> sut.register(request))
+        @Test
+        void 同時登録で一意制約に違反したら制約名から重複した項目を返す() {
+            when(passwordEncoder.encode(PASSWORD)).thenReturn("encodedHash");
+            when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException(
+                    "duplicate", new ConstraintViolationException("duplicate", new SQLException(),
+                    "PUBLIC.UK_USERS_EMAIL_INDEX_4 ON PUBLIC.USERS(EMAIL NULLS FIRST)")));
+
+            assertThatThrownBy(() -> sut.register(request()))
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessage("Email already exists");
+            assertThat(takenUserKeys.mightHaveEmail(EMAIL)).isTrue();
+        }
+
+        @Test
+        void 制約名が分からない違反はDBで重複した項目を確かめる() {
+            when(passwordEncoder.encode(PASSWORD)).thenReturn("encodedHash");
+            when(userRepository.saveAndFlush(any(User.class)))
+                    .thenThrow(new DataIntegrityViolationException("duplicate"));
+            when(userRepository.existsByUsername(USERNAME)).thenReturn(true);
+
+            assertThatThrownBy(() -> sut.register(request()))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Username already exists");
         }
     }
 
@@ -136,6 +177,8 @@ class AuthServiceTest {
                     .thenReturn(auth);
             when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(savedUser));
             when(jwtUtil.generateToken(USERNAME, USER_ID)).thenReturn("jwt-token");
+            when(jwtUtil.getExpirationMs()).thenReturn(900_000L);
+            when(refreshTokenService.issue(USER_ID)).thenReturn("refresh-token");
 
             LoginRequest request = new LoginRequest();
             request.setUsername(USERNAME);
@@ -144,8 +187,43 @@ class AuthServiceTest {
             AuthResponse result = sut.login(request);
 
             assertThat(result.getToken()).isEqualTo("jwt-token");
+            assertThat(result.getRefreshToken()).isEqualTo("refresh-token");
+            assertThat(result.getExpiresIn()).isEqualTo(900);
             assertThat(result.getUsername()).isEqualTo(USERNAME);
             assertThat(result.getUserId()).isEqualTo(USER_ID);
         }
     }
+
+    @Nested
+    @DisplayName("refresh / logout")
+    class RefreshAndLogout {
+        @Test
+        void リフレッシュトークンを交換して新しいトークンの組を返す() {
+            when(refreshTokenService.rotate("old-refresh"))
+                    .thenReturn(new RefreshTokenService.Rotation(USER_ID, "new-refresh"));
+            when(userRepository.findById(USER_ID)).thenReturn(Optional.of(savedUser));
+            when(jwtUtil.generateToken(USERNAME, USER_ID)).thenReturn("jwt-token");
+            RefreshRequest request = new RefreshRequest();
+            request.setRefreshToken("old-refresh");
+
+            AuthResponse result = sut.refresh(request);
+
+            assertThat(result.getToken()).isEqualTo("jwt-token");
+            assertThat(result.getRefreshToken()).isEqualTo("new-refresh");
+            assertThat(result.getUsername()).isEqualTo(USERNAME);
+        }
+
+        @Test
+        void ログアウトでアクセストークンとリフレッシュトークンを失効させる() {
+            JwtUtil realJwtUtil = new JwtUtil("test-secret-key-for-unit-tests-only-0123456789", 60_000);
+            String accessToken = realJwtUtil.generateToken(USERNAME, USER_ID);
+            var claims = realJwtUtil.parseClaims(accessToken);
+            when(jwtUtil.parseClaims(accessToken)).thenReturn(claims);
+
+            sut.logout(accessToken, "refresh-token");
+
+            verify(revokedTokens).revoke(claims.getId(), claims.getExpiration());
+            verify(refreshTokenService).revoke("refresh-token");
+        }
+    }
 }
@@ -0,0 +1,227 @@
+package com.boardgameapp.service;
+
+import com.boardgameapp.dto.BatchOperation;
+import com.boardgameapp.dto.BatchResponse;
+import com.boardgameapp.dto.PlayRecordResponse;
+import com.boardgameapp.dto.UserBoardGameResponse;
+import com.boardgameapp.entity.User;
+import com.boardgameapp.entity.UserBoardGame;
+import com.boardgameapp.repository.PlayRecordRepository;
+import com.boardgameapp.repository.UserBoardGameRepository;
+import com.boardgameapp.repository.UserRepository;
+import com.boardgameapp.repository.WishlistRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("BatchService")
+class BatchServiceTest {
+
+    @Autowired
+    private BatchService sut;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserBoardGameRepository userBoardGameRepository;
+
+    @Autowired
+    private PlayRecordRepository playRecordRepository;
+
+    @Autowired
+    private WishlistRepository wishlistRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String username;
+    private Long userId;
+    private UserBoardGame catan;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("batch-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setPasswordHash("unused");
+        userId = userRepository.save(user).getId();
+        username = user.getUsername();
+
+        catan = new UserBoardGame();
+        catan.setUserId(userId);
+        catan.setName("カタン");
+        catan = userBoardGameRepository.save(catan);
+    }
+
+    private BatchOperation op(BatchOperation.Op op, BatchOperation.Resource resource, Long id, Map<String, ?> body) {
+        BatchOperation operation = new BatchOperation();
+        operation.setOp(op);
+        operation.setResource(resource);
+        operation.setId(id);
+        operation.setBody(body == null ? null : objectMapper.valueToTree(body));
+        return operation;
+    }
+
+    private BatchOperation createPlay(Long gameId, String playedAt) {
+        BatchOperation operation = op(BatchOperation.Op.CREATE, BatchOperation.Resource.PLAYS, null,
+                Map.of("playedAt", playedAt, "playerCount", 4));
+        operation.setUserBoardGameId(gameId);
+        return operation;
+    }
+
+    @Test
+    void 操作を順に実行し操作ごとの結果を返す() {
+        BatchResponse response = sut.execute(username, List.of(
+                op(BatchOperation.Op.CREATE, BatchOperation.Resource.BOARD_GAMES, null, Map.of("name", "ドミニオン")),
+                op(BatchOperation.Op.UPDATE, BatchOperation.Resource.BOARD_GAMES, catan.getId(),
+                        Map.of("name", "カタンの開拓者たち", "minPlayers", 3)),
+                createPlay(catan.getId(), "2024-01-02"),
+                op(BatchOperation.Op.CREATE, BatchOperation.Resource.WISHLIST, null, Map.of("name", "アグリコラ"))));
+
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(response.getResults()).extracting(BatchResponse.Result::getStatus)
+                .containsExactly(200, 200, 200, 200);
+        UserBoardGameResponse created = (UserBoardGameResponse) response.getResults().get(0).getData();
+        assertThat(created.getId()).isNotNull();
+        assertThat(((PlayRecordResponse) response.getResults().get(2).getData()).getUserBoardGameId())
+                .isEqualTo(catan.getId());
+        assertThat(userBoardGameRepository.findByUserIdOrderByAddedAtDesc(userId))
+                .extracting(UserBoardGame::getName)
+                .containsExactlyInAnyOrder("ドミニオン", "カタンの開拓者たち");
+        assertThat(playRecordRepository.findByUserIdOrderByPlayedAtDesc(userId)).hasSize(1);
+        assertThat(wishlistRepository.findByUserIdOrderByAddedAtDesc(userId)).hasSize(1);
+    }
+
+    @Test
+    void 削除したゲームのプレイ記録は以降の操作から見えない() {
+        Long playId = ((PlayRecordResponse) sut.execute(username, List.of(createPlay(catan.getId(), "2024-01-02")))
+                .getResults().get(0).getData()).getId();
+
+        BatchResponse response = sut.execute(username, List.of(
+                op(BatchOperation.Op.DELETE, BatchOperation.Resource.BOARD_GAMES, catan.getId(), null),
+                op(BatchOperation.Op.UPDATE, BatchOperation.Resource.PLAYS, playId, Map.of("playedAt", "2024-02-03"))));
+
+        assertThat(response.isCommitted()).isFalse();
+        assertThat(response.getResults().get(1).getError()).isEqualTo("Play record not found");
+        assertThat(userBoardGameRepository.findById(catan.getId())).isPresent();
+        assertThat(playRecordRepository.findById(playId)).isPresent();
+    }
+
+    @Test
+    void 途中の操作が失敗するとすべて取り消し失敗した操作とそれ以外を区別して返す() {
+        BatchResponse response = sut.execute(username, List.of(
+                op(BatchOperation.Op.UPDATE, BatchOperation.Resource.BOARD_GAMES, catan.getId(), Map.of("name", "変更")),
+                op(BatchOperation.Op.CREATE, BatchOperation.Resource.WISHLIST, null, Map.of("name", "アグリコラ")),
+                op(BatchOperation.Op.DELETE, BatchOperation.Resource.WISHLIST, 999_999L, null)));
+
+        assertThat(response.isCommitted()).isFalse();
+        assertThat(response.getResults()).extracting(BatchResponse.Result::getStatus)
+                .containsExactly(BatchService.NOT_APPLIED, BatchService.NOT_APPLIED, 400);
+        assertThat(response.getResults().get(2).getError()).isEqualTo("Wishlist item not found");
+        assertThat(userBoardGameRepository.findById(catan.getId()).orElseThrow().getName()).isEqualTo("カタン");
+        assertThat(wishlistRepository.findByUserIdOrderByAddedAtDesc(userId)).isEmpty();
+    }
+
+    @Test
+    void bodyの検証エラーはトランザクションを始める前に返す() {
+        BatchResponse response = sut.execute(username, List.of(
+                op(BatchOperation.Op.DELETE, BatchOperation.Resource.BOARD_GAMES, catan.getId(), null),
+                op(BatchOperation.Op.CREATE, BatchOperation.Resource.BOARD_GAMES, null, Map.of("name", " "))));
+
+        assertThat(response.isCommitted()).isFalse();
+        assertThat(response.getResults().get(1).getError()).startsWith("name: ");
+        assertThat(userBoardGameRepository.findById(catan.getId())).isPresent();
+    }
+
+    /** 外部サムネイルURLを取得しに行った回数（キャッシュに無かったもの） */
+    private double remoteFetches() {
+        return meterRegistry.get("boardgame.remote-image.cache.requests").tag("result", "miss").counter().count();
+    }
+
+    @Test
+    void 外部サムネイルはすべての操作の検証が通るまで取り込まない() {
+        double before = remoteFetches();
+
+        BatchResponse response = sut.execute(username, List.of(
+                op(BatchOperation.Op.CREATE, BatchOperation.Resource.BOARD_GAMES, null,
+                        Map.of("name", "ドミニオン", "thumbnailUrl", "http://127.0.0.1:1/" + UUID.randomUUID() + ".png")),
+                op(BatchOperation.Op.CREATE, BatchOperation.Resource.BOARD_GAMES, null, Map.of("name", " "))));
+
+        assertThat(response.isCommitted()).isFalse();
+        assertThat(remoteFetches()).isEqualTo(before);
+    }
+
+    @Test
+    void 同じ外部サムネイルは1回だけ取り込み異なるURLが上限を超えればIllegalArgumentException() {
+        String url = "http://127.0.0.1:1/" + UUID.randomUUID() + ".png";
+        List<BatchOperation> same = new ArrayList<>();
+        List<BatchOperation> distinct = new ArrayList<>();
+        for (int i = 0; i < 21; i++) {
+            same.add(op(BatchOperation.Op.CREATE, BatchOperation.Resource.WISHLIST, null,
+                    Map.of("name", "ほしいもの" + i, "thumbnailUrl", url)));
+            distinct.add(op(BatchOperation.Op.CREATE, BatchOperation.Resource.WISHLIST, null,
+                    Map.of("name", "ほしいもの" + i, "thumbnailUrl", url + "?" + i)));
+        }
+        double before = remoteFetches();
+
+        assertThat(sut.execute(username, same).isCommitted()).isTrue();
+        assertThat(remoteFetches()).isEqualTo(before + 1);
+        assertThatThrownBy(() -> sut.execute(username, distinct))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Too many remote thumbnails (max 20)");
+        assertThat(remoteFetches()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void 他のユーザーのゲームは対象にできない() {
+        User other = new User();
+        other.setUsername("batch-other-" + UUID.randomUUID());
+        other.setEmail(other.getUsername() + "@example.com");
+        other.setPasswordHash("unused");
+        userRepository.save(other);
+
+        BatchResponse response = sut.execute(other.getUsername(), List.of(
+                op(BatchOperation.Op.DELETE, BatchOperation.Resource.BOARD_GAMES, catan.getId(), null)));
+
+        assertThat(response.getResults().get(0).getError()).isEqualTo("Board game not found");
+        assertThat(userBoardGameRepository.findById(catan.getId())).isPresent();
+    }
+
+    @Test
+    void ほしいものの更新は受け付けない() {
+        BatchResponse response = sut.execute(username, List.of(
+                op(BatchOperation.Op.UPDATE, BatchOperation.Resource.WISHLIST, 1L, Map.of("name", "x"))));
+
+        assertThat(response.getResults().get(0).getError()).isEqualTo("Unsupported operation");
+    }
+
+    @Test
+    void 操作数が上限を超えればIllegalArgumentException() {
+        List<BatchOperation> operations = Collections.nCopies(501,
+                op(BatchOperation.Op.DELETE, BatchOperation.Resource.WISHLIST, 1L, null));
+
+        assertThatThrownBy(() -> sut.execute(username, operations))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Too many operations");
+    }
+}
@@ -0,0 +1,40 @@
+package com.boardgameapp.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("BloomFilter")
+class BloomFilterTest {
+
+    @Test
+    void 追加した値は必ず含まれると判定する() {
+        BloomFilter sut = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            sut.put("user" + i + "@example.com");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(sut.mightContain("user" + i + "@example.com")).isTrue();
+        }
+    }
+
+    @Test
+    void 想定件数まで追加しても誤検知率はおおむね指定どおり() {
+        BloomFilter sut = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            sut.put("user" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (sut.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(sut.getHashCount()).isEqualTo(7);
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+    }
+}
@@ -0,0 +1,45 @@
+package com.boardgameapp.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CsvReader")
+class CsvReaderTest {
+
+    @Test
+    void CsvWriterで書いた行を同じ値で読み戻す() throws Exception {
+        StringWriter out = new StringWriter();
+        new CsvWriter(out).row("カタン", "a,b", "say \"hi\"", "1\n2", null, 3);
+        CsvReader sut = new CsvReader(new StringReader("\uFEFF" + out + "x\n"), 1000);
+
+        assertThat(sut.next()).containsExactly("カタン", "a,b", "say \"hi\"", "1\n2", "", "3");
+        assertThat(sut.getLine()).isEqualTo(1);
+        assertThat(sut.next()).containsExactly("x");
+        assertThat(sut.getLine()).isEqualTo(3);
+        assertThat(sut.next()).isNull();
+    }
+
+    @Test
+    void 行末はCRだけでもよく最終行に改行がなくてもよい() throws Exception {
+        CsvReader sut = new CsvReader(new StringReader("a,b\rc,"), 1000);
+
+        assertThat(sut.next()).containsExactly("a", "b");
+        assertThat(sut.next()).containsExactly("c", "");
+        assertThat(sut.next()).isNull();
+    }
+
+    @Test
+    void 閉じていない引用符は上限の文字数で打ち切る() {
+        CsvReader sut = new CsvReader(new StringReader("\"" + "x".repeat(100)), 50);
+
+        assertThatThrownBy(sut::next)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Row too long at line 1");
+    }
+}
@@ -0,0 +1,22 @@
+package com.boardgameapp.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CsvWriter")
+class CsvWriterTest {
+
+    @Test
+    void 区切り文字や引用符や改行を含む値だけ引用符で囲む() throws Exception {
+        StringWriter out = new StringWriter();
+        CsvWriter sut = new CsvWriter(out);
+
+        sut.row("カタン", "a,b", "say \"hi\"", "1\n2", null, 3);
+
+        assertThat(out).hasToString("カタン,\"a,b\",\"say \"\"hi\"\"\",\"1\n2\",,3\r\n");
+    }
+}
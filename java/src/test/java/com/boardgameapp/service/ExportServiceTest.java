@@ -0,0 +1,196 @@
+package com.boardgameapp.service;
+
+import com.boardgameapp.entity.PlayRecord;
+import com.boardgameapp.entity.User;
+import com.boardgameapp.entity.UserBoardGame;
+import com.boardgameapp.entity.WishlistItem;
+import com.boardgameapp.repository.PlayRecordRepository;
+import com.boardgameapp.repository.UserBoardGameRepository;
+import com.boardgameapp.repository.UserRepository;
+import com.boardgameapp.repository.WishlistRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("ExportService")
+class ExportServiceTest {
+
+    @Autowired
+    private ExportService sut;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserBoardGameRepository userBoardGameRepository;
+
+    @Autowired
+    private PlayRecordRepository playRecordRepository;
+
+    @Autowired
+    private WishlistRepository wishlistRepository;
+
+    @Autowired
+    private ImageStorageService imageStorageService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String username;
+    private UserBoardGame catan;
+    private String imageUrl;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        User user = new User();
+        user.setUsername("export-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setPasswordHash("unused");
+        Long userId = userRepository.save(user).getId();
+        username = user.getUsername();
+
+        imageUrl = imageStorageService.store(new ByteArrayInputStream(TestImages.encode("png", 20, 10))).url();
+
+        catan = new UserBoardGame();
+        catan.setUserId(userId);
+        catan.setName("カタン, 拡張入り");
+        catan.setThumbnailUrl(imageUrl);
+        catan = userBoardGameRepository.save(catan);
+
+        PlayRecord play = new PlayRecord();
+        play.setUserId(userId);
+        play.setUserBoardGameId(catan.getId());
+        play.setPlayedAt(LocalDate.of(2024, 1, 2));
+        play.setMemo("楽しかった\n\"また遊ぶ\"");
+        playRecordRepository.save(play);
+
+        WishlistItem wish = new WishlistItem();
+        wish.setUserId(userId);
+        wish.setName("アグリコラ");
+        wish.setThumbnailUrl(imageUrl);
+        wishlistRepository.save(wish);
+    }
+
+    private String export(ExportService.Format format, ExportService.Section section) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sut.export(username, format, section, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void NDJSONは1行1件で種類と個別APIと同じ項目を持つ() throws Exception {
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : export(ExportService.Format.NDJSON, null).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+
+        assertThat(lines).extracting(l -> l.get("type").asText()).containsExactly("boardgame", "play", "wishlist");
+        assertThat(lines.get(0).get("name").asText()).isEqualTo("カタン, 拡張入り");
+        assertThat(lines.get(1).get("userBoardGameId").asLong()).isEqualTo(catan.getId());
+        assertThat(lines.get(1).get("memo").asText()).isEqualTo("楽しかった\n\"また遊ぶ\"");
+    }
+
+    @Test
+    void CSVはBOMとヘッダ付きで値をエスケープする() throws Exception {
+        String csv = export(ExportService.Format.CSV, ExportService.Section.PLAYS);
+
+        assertThat(csv).startsWith("\uFEFFid,userBoardGameId,name,bggId,playedAt,playerCount,memo,createdAt\r\n");
+        assertThat(csv).contains("," + catan.getId() + ",\"カタン, 拡張入り\",,2024-01-02,,\"楽しかった\n\"\"また遊ぶ\"\"\",");
+    }
+
+    @Test
+    void ZIPは種類ごとのCSVと参照しているアップロード画像を1回ずつ含む() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sut.export(username, ExportService.Format.ZIP, null, out);
+
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries.put(entry.getName(), zip.readAllBytes());
+            }
+        }
+
+        String filename = imageUrl.substring(ImageStorageService.URL_PREFIX.length());
+        assertThat(entries).containsOnlyKeys("boardgames.csv", "plays.csv", "wishlist.csv", "images/" + filename);
+        assertThat(entries.get("images/" + filename)).isEqualTo(Files.readAllBytes(
+                imageStorageService.getUploadDir().resolve(filename)));
+        assertThat(new String(entries.get("wishlist.csv"), StandardCharsets.UTF_8)).contains("アグリコラ");
+    }
+
+    @Test
+    void 未対応の形式や種類はIllegalArgumentException() {
+        assertThatThrownBy(() -> ExportService.Format.of("xml")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ExportService.Section.of(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void 同時に行えるエクスポートの数を超えたらServiceBusyException() throws Exception {
+        // 既定の max-concurrent（2件）を、書き出しの途中で止めた2件で使い切る
+        CountDownLatch writing = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        OutputStream blocked = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                writing.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        List<CompletableFuture<Void>> running = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            running.add(CompletableFuture.runAsync(() -> {
+                try {
+                    sut.export(username, ExportService.Format.NDJSON, null, blocked);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        try {
+            assertThat(writing.await(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> export(ExportService.Format.NDJSON, null))
+                    .isInstanceOf(ServiceBusyException.class);
+        } finally {
+            release.countDown();
+        }
+        CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        assertThat(export(ExportService.Format.NDJSON, null)).contains("カタン");
+    }
+}
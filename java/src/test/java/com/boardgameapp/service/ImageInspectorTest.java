@@ -0,0 +1,111 @@
+package com.boardgameapp.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ImageInspector")
+class ImageInspectorTest {
+
+    @TempDir
+    Path dir;
+
+    private final ImageInspector sut = new ImageInspector(4_000, 4_000, 4_000_000, 32, 1, 0);
+
+    private Path write(String name, byte[] data) throws Exception {
+        return Files.write(dir.resolve(name), data);
+    }
+
+    @Nested
+    @DisplayName("readHeader")
+    class ReadHeader {
+        @Test
+        void 各形式のヘッダから寸法を読む() throws Exception {
+            for (String format : new String[]{"png", "jpg", "gif", "bmp"}) {
+                Path file = write("a." + format, TestImages.encode(format, 123, 45));
+
+                ImageInspector.ImageInfo info = sut.readHeader(file, format);
+
+                assertThat(info.width()).as(format).isEqualTo(123);
+                assertThat(info.height()).as(format).isEqualTo(45);
+            }
+        }
+
+        @Test
+        void WebPのVP8Xヘッダから寸法を読む() throws Exception {
+            ByteBuffer buf = ByteBuffer.allocate(30).order(ByteOrder.LITTLE_ENDIAN);
+            buf.put("RIFF".getBytes()).putInt(22).put("WEBPVP8X".getBytes()).putInt(10).putInt(0);
+            buf.put(24, (byte) 199).put(27, (byte) 99);
+            Path file = write("a.webp", buf.array());
+
+            ImageInspector.ImageInfo info = sut.readHeader(file, "webp");
+
+            assertThat(info.width()).isEqualTo(200);
+            assertThat(info.height()).isEqualTo(100);
+        }
+
+        @Test
+        void SOFの無いJPEGはIllegalArgumentException() throws Exception {
+            Path file = write("a.jpg", new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xD9});
+
+            assertThatThrownBy(() -> sut.readHeader(file, "jpg"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Invalid image header");
+        }
+    }
+
+    @Nested
+    @DisplayName("validate")
+    class Validate {
+        @Test
+        void 長辺が上限以下になるよう間引いて展開する() throws Exception {
+            Path file = write("a.png", TestImages.encode("png", 320, 80));
+
+            ImageInspector.ImageInfo info = sut.validate(file, "png");
+
+            assertThat(info.width()).isEqualTo(320);
+            assertThat(info.preview().getWidth()).isLessThanOrEqualTo(32);
+            assertThat(info.preview().getHeight()).isLessThanOrEqualTo(32);
+        }
+
+        @Test
+        void 総画素数が上限を超えればIllegalArgumentException() throws Exception {
+            Path file = write("a.png", TestImages.pngHeader(3_000, 3_000));
+
+            assertThatThrownBy(() -> sut.validate(file, "png"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Image dimensions exceed limit");
+        }
+
+        @Test
+        void GIFの論理画面が小さくてもフレームが上限を超えればIllegalArgumentException() throws Exception {
+            byte[] gif = TestImages.encode("gif", 2_100, 2_000);
+            // 論理画面サイズだけを 1x1 に書き換える（フレームの寸法はそのまま）
+            ByteBuffer.wrap(gif).order(ByteOrder.LITTLE_ENDIAN).putShort(6, (short) 1).putShort(8, (short) 1);
+            Path file = write("a.gif", gif);
+
+            assertThat(sut.readHeader(file, "gif").width()).isEqualTo(1);
+            assertThatThrownBy(() -> sut.validate(file, "gif"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Image dimensions exceed limit");
+        }
+
+        @Test
+        void 展開枠が空いていなければServiceBusyException() throws Exception {
+            ImageInspector busy = new ImageInspector(4_000, 4_000, 4_000_000, 32, 0, 0);
+            Path file = write("a.png", TestImages.encode("png", 8, 8));
+
+            assertThatThrownBy(() -> busy.validate(file, "png"))
+                    .isInstanceOf(ServiceBusyException.class);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.boardgameapp.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.file.Path;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ImagePlaceholderService")
+class ImagePlaceholderServiceTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private ImagePlaceholderService newService() {
+        return new ImagePlaceholderService(uploadDir.toString(), 16);
+    }
+
+    @Nested
+    @DisplayName("create / lookup")
+    class CreateAndLookup {
+        @Test
+        void 長辺16px以下のPNGのdataURIを作りサムネイルURLから引ける() throws Exception {
+            ImagePlaceholderService sut = newService();
+            BufferedImage preview = new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+
+            String dataUri = sut.create("a.png", preview);
+
+            assertThat(dataUri).startsWith("data:image/png;base64,").hasSizeLessThanOrEqualTo(ImagePlaceholderService.MAX_LENGTH);
+            byte[] png = Base64.getDecoder().decode(dataUri.substring(dataUri.indexOf(',') + 1));
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(png));
+            assertThat(decoded.getWidth()).isEqualTo(16);
+            assertThat(decoded.getHeight()).isEqualTo(8);
+            assertThat(sut.lookup("/api/uploads/a.png")).isEqualTo(dataUri);
+        }
+
+        @Test
+        void 外部URLやプレースホルダのない画像はnull() throws Exception {
+            ImagePlaceholderService sut = newService();
+
+            assertThat(sut.create("b.webp", null)).isNull();
+            assertThat(sut.lookup("/api/uploads/b.webp")).isNull();
+            assertThat(sut.lookup("https://example.com/a.png")).isNull();
+            assertThat(sut.lookup("/api/uploads/../a.png")).isNull();
+            assertThat(sut.lookup(null)).isNull();
+        }
+    }
+}
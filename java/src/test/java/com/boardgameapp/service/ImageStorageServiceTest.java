@@ -0,0 +1,129 @@
+package com.boardgameapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ImageStorageService")
+class ImageStorageServiceTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private ImageStorageService newService(long maxBytes, int maxConcurrent) {
+        ImageInspector inspector = new ImageInspector(1_000, 1_000, 500_000, 64, 1, 0);
+        return new ImageStorageService(inspector, new ImagePlaceholderService(uploadDir.toString(), 16),
+                new SimpleMeterRegistry(), uploadDir.toString(), maxBytes, maxConcurrent, 0);
+    }
+
+    private void assertUploadDirEmpty() throws Exception {
+        try (var files = Files.list(uploadDir)) {
+            assertThat(files).noneMatch(Files::isRegularFile);
+        }
+    }
+
+    @Nested
+    @DisplayName("store")
+    class Store {
+        @Test
+        void マジックナンバーで形式を判定して保存する() throws Exception {
+            byte[] data = TestImages.encode("png", 40, 30);
+
+            ImageStorageService.StoredImage stored =
+                    newService(1_000_000, 1).store(new ByteArrayInputStream(data));
+
+            assertThat(stored.filename()).endsWith(".png");
+            assertThat(stored.url()).isEqualTo("/api/uploads/" + stored.filename());
+            assertThat(stored.size()).isEqualTo(data.length);
+            assertThat(stored.info().width()).isEqualTo(40);
+            assertThat(stored.info().height()).isEqualTo(30);
+            assertThat(stored.placeholder()).startsWith("data:image/png;base64,");
+            assertThat(Files.readAllBytes(stored.path())).isEqualTo(data);
+        }
+
+        @Test
+        void マジックナンバーが画像でなければIllegalArgumentException() {
+            assertThatThrownBy(() -> newService(1_000, 1).store(new ByteArrayInputStream(new byte[]{1, 2, 3})))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Unsupported image type");
+        }
+
+        @Test
+        void SVGはスクリプトを含められるため受け付けない() throws Exception {
+            byte[] svg = "<svg xmlns=\"http://www.w3.org/2000/svg\"><script>alert(1)</script></svg>".getBytes();
+
+            assertThatThrownBy(() -> newService(1_000_000, 1).store(new ByteArrayInputStream(svg)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Unsupported image type");
+            assertUploadDirEmpty();
+        }
+
+        @Test
+        void 寸法が上限を超える画像は展開せずに拒否しファイルを残さない() throws Exception {
+            byte[] huge = TestImages.pngHeader(50_000, 50_000);
+
+            assertThatThrownBy(() -> newService(1_000_000, 1).store(new ByteArrayInputStream(huge)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Image dimensions exceed limit");
+            assertUploadDirEmpty();
+        }
+
+        @Test
+        void ヘッダだけ正しい壊れた画像は拒否する() throws Exception {
+            byte[] corrupt = Arrays.copyOf(TestImages.pngHeader(10, 10), 200);
+
+            assertThatThrownBy(() -> newService(1_000_000, 1).store(new ByteArrayInputStream(corrupt)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Corrupt image");
+            assertUploadDirEmpty();
+        }
+
+        @Test
+        void 上限を超えたら例外を投げ書きかけのファイルを残さない() throws Exception {
+            byte[] data = Arrays.copyOf(TestImages.pngHeader(10, 10), 1_001);
+
+            assertThatThrownBy(() -> newService(1_000, 1).store(new ByteArrayInputStream(data)))
+                    .isInstanceOf(MaxUploadSizeExceededException.class);
+            assertUploadDirEmpty();
+        }
+
+        @Test
+        void 同時アップロード枠が空いていなければServiceBusyException() {
+            byte[] data = TestImages.encode("png", 4, 4);
+
+            assertThatThrownBy(() -> newService(1_000, 0).store(new ByteArrayInputStream(data)))
+                    .isInstanceOf(ServiceBusyException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("sniffExtension")
+    class SniffExtension {
+        @Test
+        void 主要な画像形式のマジックナンバーを判定する() {
+            byte[] jpeg = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0};
+            byte[] png = TestImages.pngHeader(1, 1);
+            byte[] gif = "GIF89a".getBytes();
+            byte[] webp = "RIFF\0\0\0\0WEBPVP8 ".getBytes();
+            byte[] svg = "<?xml version=\"1.0\"?>\n<svg xmlns=\"http://www.w3.org/2000/svg\"/>".getBytes();
+
+            assertThat(ImageStorageService.sniffExtension(jpeg, jpeg.length)).isEqualTo("jpg");
+            assertThat(ImageStorageService.sniffExtension(png, png.length)).isEqualTo("png");
+            assertThat(ImageStorageService.sniffExtension(gif, gif.length)).isEqualTo("gif");
+            assertThat(ImageStorageService.sniffExtension(webp, webp.length)).isEqualTo("webp");
+            assertThat(ImageStorageService.sniffExtension(svg, svg.length)).isNull();
+            assertThat(ImageStorageService.sniffExtension(new byte[]{'h', 'i'}, 2)).isNull();
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.boardgameapp.service;
+
+import com.boardgameapp.dto.ImportJobResponse;
+import com.boardgameapp.entity.PlayRecord;
+import com.boardgameapp.entity.User;
+import com.boardgameapp.entity.UserBoardGame;
+import com.boardgameapp.repository.PlayRecordRepository;
+import com.boardgameapp.repository.UserBoardGameRepository;
+import com.boardgameapp.repository.UserRepository;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = {"app.import.chunk-size=2", "app.import.max-remote-thumbnails=2",
+        "app.upload.remote.allow-private-hosts=true"})
+@ActiveProfiles("test")
+@DisplayName("ImportService")
+class ImportServiceTest {
+
+    @Autowired
+    private ImportService sut;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserBoardGameRepository userBoardGameRepository;
+
+    @Autowired
+    private PlayRecordRepository playRecordRepository;
+
+    private String username;
+    private Long userId;
+    private UserBoardGame catan;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("import-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setPasswordHash("unused");
+        userId = userRepository.save(user).getId();
+        username = user.getUsername();
+
+        catan = new UserBoardGame();
+        catan.setUserId(userId);
+        catan.setName("Catan");
+        catan = userBoardGameRepository.save(catan);
+    }
+
+    private ImportService.ImportJob importCsv(String csv) throws Exception {
+        return importCsv(username, csv);
+    }
+
+    private ImportService.ImportJob importCsv(String username, String csv) throws Exception {
+        ImportService.ImportJob job = sut.start(username,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        for (int i = 0; i < 500 && (job.getStatus() == ImportService.Status.QUEUED
+                || job.getStatus() == ImportService.Status.RUNNING); i++) {
+            Thread.sleep(20);
+        }
+        return job;
+    }
+
+    @Test
+    void BGGのコレクションを取り込み既存のゲームは照合してBGG_IDを埋める() throws Exception {
+        ImportService.ImportJob job = importCsv("""
+                objectname,objectid,own,yearpublished,minplayers,maxplayers,minplaytime,maxplaytime
+                catan,13,1,1995,3,4,60,120
+                Carcassonne,822,1,2000,2,5,30,45
+                Agricola,31260,0,2007,1,5,30,150
+                "Carcassonne, Big Box",822,1,0,0,0,0,0
+                """);
+
+        assertThat(job.getStatus()).isEqualTo(ImportService.Status.COMPLETED);
+        assertThat(job.getRowsRead()).isEqualTo(4);
+        assertThat(job.getGamesCreated()).isEqualTo(1);
+        assertThat(job.getGamesMatched()).isEqualTo(2);
+        assertThat(job.getSkipped()).isEqualTo(1);
+        assertThat(job.getBytesRead()).isEqualTo(job.getSize());
+        assertThat(userBoardGameRepository.findById(catan.getId()).orElseThrow().getBggId()).isEqualTo("13");
+        assertThat(userBoardGameRepository.findByUserIdOrderByAddedAtDesc(userId))
+                .extracting(UserBoardGame::getName, UserBoardGame::getBggId, UserBoardGame::getMaxPlayers)
+                .containsExactlyInAnyOrder(
+                        tuple("Catan", "13", null),
+                        tuple("Carcassonne", "822", 5));
+    }
+
+    @Test
+    void プレイ記録はゲームを名前で照合し見つからなければ追加し不正な行は行番号付きで記録する() throws Exception {
+        ImportService.ImportJob job = importCsv("""
+                playedAt,name,playerCount,memo
+                2024-01-02,CATAN,4,"初プレイ
+                楽しかった"
+                2024/1/3,Azul,2,
+                not-a-date,Catan,3,
+                2024-01-04,,2,
+                2024-01-05,Azul,,
+                """);
+
+        assertThat(job.getStatus()).isEqualTo(ImportService.Status.COMPLETED);
+        assertThat(job.getPlaysCreated()).isEqualTo(3);
+        assertThat(job.getGamesCreated()).isEqualTo(1);
+        assertThat(job.getErrors())
+                .extracting(ImportJobResponse.RowError::getLine, ImportJobResponse.RowError::getMessage)
+                .containsExactly(
+                        tuple(5L, "playedAt: must be a date (yyyy-MM-dd)"),
+                        tuple(6L, "name: Game name is required"));
+        assertThat(playRecordRepository.findByUserIdOrderByPlayedAtDesc(userId))
+                .extracting(PlayRecord::getPlayedAt, PlayRecord::getMemo)
+                .containsExactly(
+                        tuple(LocalDate.of(2024, 1, 5), null),
+                        tuple(LocalDate.of(2024, 1, 3), null),
+                        tuple(LocalDate.of(2024, 1, 2), "初プレイ\n楽しかった"));
+        assertThat(userBoardGameRepository.findByUserIdOrderByAddedAtDesc(userId)).hasSize(2);
+    }
+
+    @Test
+    void 自分のエクスポートを取り込み直してもゲームは増えない() throws Exception {
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        exportService.export(username, ExportService.Format.CSV, ExportService.Section.BOARD_GAMES, exported);
+
+        ImportService.ImportJob job = importCsv(exported.toString(StandardCharsets.UTF_8));
+
+        assertThat(job.getStatus()).isEqualTo(ImportService.Status.COMPLETED);
+        assertThat(job.getGamesMatched()).isEqualTo(1);
+        assertThat(userBoardGameRepository.findByUserIdOrderByAddedAtDesc(userId)).hasSize(1);
+    }
+
+    @Test
+    void プレイ記録のエクスポートは別のアカウントに取り込め取り込み直しても重複しない() throws Exception {
+        catan.setBggId("13");
+        userBoardGameRepository.save(catan);
+        for (String memo : new String[] {"初プレイ", null, null}) {
+            PlayRecord play = new PlayRecord();
+            play.setUserId(userId);
+            play.setUserBoardGameId(catan.getId());
+            play.setPlayedAt(LocalDate.of(2024, 2, 1));
+            play.setPlayerCount(4);
+            play.setMemo(memo);
+            playRecordRepository.save(play);
+        }
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        exportService.export(username, ExportService.Format.CSV, ExportService.Section.PLAYS, exported);
+        String csv = exported.toString(StandardCharsets.UTF_8);
+        User other = new User();
+        other.setUsername("import-" + UUID.randomUUID());
+        other.setEmail(other.getUsername() + "@example.com");
+        other.setPasswordHash("unused");
+        Long otherId = userRepository.save(other).getId();
+
+        ImportService.ImportJob copied = importCsv(other.getUsername(), csv);
+        ImportService.ImportJob again = importCsv(other.getUsername(), csv);
+        ImportService.ImportJob own = importCsv(csv);
+
+        assertThat(copied.getStatus()).isEqualTo(ImportService.Status.COMPLETED);
+        assertThat(copied.getGamesCreated()).isEqualTo(1);
+        assertThat(copied.getPlaysCreated()).isEqualTo(3);
+        assertThat(userBoardGameRepository.findByUserIdOrderByAddedAtDesc(otherId))
+                .extracting(UserBoardGame::getName, UserBoardGame::getBggId)
+                .containsExactly(tuple("Catan", "13"));
+        assertThat(playRecordRepository.findByUserIdOrderByPlayedAtDesc(otherId))
+                .extracting(PlayRecord::getPlayerCount, PlayRecord::getMemo)
+                .containsExactlyInAnyOrder(tuple(4, "初プレイ"), tuple(4, null), tuple(4, null));
+        assertThat(again.getPlaysCreated()).isZero();
+        assertThat(again.getPlaysMatched()).isEqualTo(3);
+        assertThat(own.getPlaysCreated()).isZero();
+        assertThat(own.getPlaysMatched()).isEqualTo(3);
+        assertThat(playRecordRepository.findByUserIdOrderByPlayedAtDesc(otherId)).hasSize(3);
+        assertThat(playRecordRepository.findByUserIdOrderByPlayedAtDesc(userId)).hasSize(3);
+    }
+
+    @Test
+    void 外部のサムネイルURLは取り込んでローカルURLに置き換える() throws Exception {
+        byte[] png = TestImages.encode("png", 32, 24);
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/azul.png", exchange -> {
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type", "image/png");
+            exchange.sendResponseHeaders(200, png.length);
+            exchange.getResponseBody().write(png);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/azul.png";
+            ImportService.ImportJob job = importCsv("name,thumbnailUrl\nAzul," + url + "\nAZUL," + url + "\n");
+
+            assertThat(job.getStatus()).isEqualTo(ImportService.Status.COMPLETED);
+            assertThat(requests).hasValue(1);
+            assertThat(userBoardGameRepository.findByUserIdOrderByAddedAtDesc(userId))
+                    .filteredOn(game -> game.getName().equals("Azul"))
+                    .singleElement()
+                    .satisfies(game -> assertThat(game.getThumbnailUrl()).startsWith(ImageStorageService.URL_PREFIX));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void 外部のサムネイルURLを取り込むのは1回の取り込みで上限の件数までにする() throws Exception {
+        byte[] png = TestImages.encode("png", 32, 24);
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type", "image/png");
+            exchange.sendResponseHeaders(200, png.length);
+            exchange.getResponseBody().write(png);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String base = "http://127.0.0.1:" + server.getAddress().getPort() + "/" + UUID.randomUUID();
+            ImportService.ImportJob job = importCsv("name,thumbnailUrl\n"
+                    + "Azul," + base + "-azul.png\n"
+                    + "Splendor," + base + "-splendor.png\n"
+                    + "Patchwork," + base + "-patchwork.png\n"
+                    + "AZUL," + base + "-azul.png\n");
+
+            assertThat(job.getStatus()).isEqualTo(ImportService.Status.COMPLETED);
+            assertThat(requests).hasValue(2);
+            assertThat(userBoardGameRepository.findByUserIdOrderByAddedAtDesc(userId))
+                    .filteredOn(game -> game.getName().equals("Patchwork"))
+                    .singleElement()
+                    .satisfies(game -> assertThat(game.getThumbnailUrl()).isEqualTo(base + "-patchwork.png"));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void ゲームを特定できる列がなければ失敗する() throws Exception {
+        ImportService.ImportJob job = importCsv("rating,comment\n8,good\n");
+
+        assertThat(job.getStatus()).isEqualTo(ImportService.Status.FAILED);
+        assertThat(job.getMessage()).isEqualTo("Missing column: name");
+    }
+
+    @Test
+    void 他のユーザーの取り込みは取得できない() throws Exception {
+        ImportService.ImportJob job = importCsv("name\nAzul\n");
+
+        assertThatThrownBy(() -> sut.get("someone-else", job.getId()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Import not found");
+    }
+
+    @Test
+    void 取り込みのファイルを受信中なら同じユーザーの次のファイルは読まずに断る() throws Exception {
+        CountDownLatch receiving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InputStream slow = new SequenceInputStream(new ByteArrayInputStream("name\n".getBytes(StandardCharsets.UTF_8)),
+                new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        receiving.countDown();
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return -1;
+                    }
+                });
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<ImportService.ImportJob> first = pool.submit(() -> sut.start(username, slow));
+            assertThat(receiving.await(5, TimeUnit.SECONDS)).isTrue();
+            AtomicBoolean read = new AtomicBoolean();
+            InputStream second = new ByteArrayInputStream("name\nAzul\n".getBytes(StandardCharsets.UTF_8)) {
+                @Override
+                public synchronized int read(byte[] b, int off, int len) {
+                    read.set(true);
+                    return super.read(b, off, len);
+                }
+            };
+
+            assertThatThrownBy(() -> sut.start(username, second))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Import already in progress");
+            assertThat(read).isFalse();
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS).getId()).isNotNull();
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+}
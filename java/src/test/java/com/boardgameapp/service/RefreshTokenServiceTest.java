@@ -0,0 +1,101 @@
+package com.boardgameapp.service;
+
+import com.boardgameapp.entity.User;
+import com.boardgameapp.repository.RefreshTokenRepository;
+import com.boardgameapp.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("RefreshTokenService")
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("refresh-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setPasswordHash("unused");
+        userId = userRepository.save(user).getId();
+    }
+
+    /** rotate の noRollbackFor と同じく、InvalidRefreshTokenException でもコミットしてから投げ直す。 */
+    private RefreshTokenService.Rotation rotate(RefreshTokenService sut, String token) {
+        InvalidRefreshTokenException[] failure = new InvalidRefreshTokenException[1];
+        RefreshTokenService.Rotation rotation = transactionTemplate.execute(status -> {
+            try {
+                return sut.rotate(token);
+            } catch (InvalidRefreshTokenException e) {
+                failure[0] = e;
+                return null;
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        return rotation;
+    }
+
+    private RefreshTokenService service(long reuseGraceMs) {
+        return new RefreshTokenService(refreshTokenRepository, new SimpleMeterRegistry(), 60_000, reuseGraceMs);
+    }
+
+    @Test
+    void 交換すると新しいトークンを返し古いトークンは使えなくなる() {
+        RefreshTokenService sut = service(60_000);
+        String first = transactionTemplate.execute(status -> sut.issue(userId));
+
+        RefreshTokenService.Rotation rotation = rotate(sut, first);
+
+        assertThat(rotation.userId()).isEqualTo(userId);
+        assertThat(rotation.refreshToken()).isNotEqualTo(first);
+        assertThatThrownBy(() -> rotate(sut, first)).isInstanceOf(InvalidRefreshTokenException.class);
+        // grace 内の再使用は断るだけで、新しいトークンはそのまま使える
+        assertThat(rotate(sut, rotation.refreshToken()).userId()).isEqualTo(userId);
+    }
+
+    @Test
+    void grace後に使用済みのトークンが使われたら系列ごと失効させる() {
+        RefreshTokenService sut = service(0);
+        String first = transactionTemplate.execute(status -> sut.issue(userId));
+        String second = rotate(sut, first).refreshToken();
+
+        assertThatThrownBy(() -> rotate(sut, first)).isInstanceOf(InvalidRefreshTokenException.class);
+
+        assertThatThrownBy(() -> rotate(sut, second)).isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    @Test
+    void ログアウトで失効させたトークンと知らないトークンは使えない() {
+        RefreshTokenService sut = service(60_000);
+        String token = transactionTemplate.execute(status -> sut.issue(userId));
+
+        transactionTemplate.executeWithoutResult(status -> sut.revoke(token));
+
+        assertThatThrownBy(() -> rotate(sut, token)).isInstanceOf(InvalidRefreshTokenException.class);
+        assertThatThrownBy(() -> rotate(sut, "unknown")).isInstanceOf(InvalidRefreshTokenException.class);
+    }
+}
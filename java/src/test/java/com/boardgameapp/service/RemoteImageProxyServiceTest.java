@@ -0,0 +1,224 @@
+package com.boardgameapp.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RemoteImageProxyService")
+class RemoteImageProxyServiceTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final byte[] png = TestImages.encode("png", 64, 48);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/img.png", exchange -> {
+            requests.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "image/png");
+            exchange.sendResponseHeaders(200, png.length);
+            exchange.getResponseBody().write(png);
+            exchange.close();
+        });
+        server.createContext("/moved", exchange -> {
+            exchange.getResponseHeaders().add("Location", "/img.png");
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+        });
+        server.createContext("/slow.png", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "image/png");
+            exchange.sendResponseHeaders(200, png.length);
+            try {
+                // ヘッダはすぐ返し、本文を少しずつ送り続ける
+                for (byte b : png) {
+                    exchange.getResponseBody().write(b);
+                    exchange.getResponseBody().flush();
+                    Thread.sleep(50);
+                }
+            } catch (InterruptedException | IOException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.createContext("/image.svg", exchange -> {
+            byte[] svg = "<svg xmlns=\"http://www.w3.org/2000/svg\"><script>alert(1)</script></svg>"
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "image/svg+xml");
+            exchange.sendResponseHeaders(200, svg.length);
+            exchange.getResponseBody().write(svg);
+            exchange.close();
+        });
+        server.createContext("/missing", exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private RemoteImageProxyService newService(boolean allowPrivateHosts) {
+        return newService(allowPrivateHosts, 5_000);
+    }
+
+    private RemoteImageProxyService newService(boolean allowPrivateHosts, long requestTimeoutMs) {
+        ImageInspector inspector = new ImageInspector(1_000, 1_000, 1_000_000, 64, 2, 1_000);
+        ImageStorageService storage = new ImageStorageService(inspector,
+                new ImagePlaceholderService(uploadDir.toString(), 16), new SimpleMeterRegistry(),
+                uploadDir.toString(), 100_000, 4, 1_000);
+        return new RemoteImageProxyService(storage, new SimpleMeterRegistry(), true, 1_000, requestTimeoutMs, 3,
+                allowPrivateHosts, 100, 60_000);
+    }
+
+    @Test
+    void 外部画像を取り込みローカルURLに置き換え2回目は取得しない() throws Exception {
+        RemoteImageProxyService sut = newService(true);
+        release.countDown();
+
+        String local = sut.localize(baseUrl + "/img.png");
+        String again = sut.localize(baseUrl + "/img.png");
+
+        assertThat(local).startsWith(ImageStorageService.URL_PREFIX).endsWith(".png");
+        assertThat(again).isEqualTo(local);
+        assertThat(requests).hasValue(1);
+        Path stored = uploadDir.resolve(local.substring(ImageStorageService.URL_PREFIX.length()));
+        assertThat(Files.readAllBytes(stored)).isEqualTo(png);
+    }
+
+    @Test
+    void 同じURLへの同時の初回要求は1回の取得にまとめる() throws Exception {
+        RemoteImageProxyService sut = newService(true);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = List.of(
+                    pool.submit(() -> sut.localize(baseUrl + "/img.png")),
+                    pool.submit(() -> sut.localize(baseUrl + "/img.png")),
+                    pool.submit(() -> sut.localize(baseUrl + "/img.png")),
+                    pool.submit(() -> sut.localize(baseUrl + "/img.png")));
+            Thread.sleep(200);
+            release.countDown();
+
+            String first = results.get(0).get(5, TimeUnit.SECONDS);
+            assertThat(first).startsWith(ImageStorageService.URL_PREFIX);
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(first);
+            }
+            assertThat(requests).hasValue(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void リダイレクト先も取り込む() {
+        RemoteImageProxyService sut = newService(true);
+        release.countDown();
+
+        assertThat(sut.localize(baseUrl + "/moved")).startsWith(ImageStorageService.URL_PREFIX);
+    }
+
+    @Test
+    void 取得に失敗したら元のURLを返す() {
+        RemoteImageProxyService sut = newService(true);
+
+        assertThat(sut.localize(baseUrl + "/missing")).isEqualTo(baseUrl + "/missing");
+    }
+
+    @Test
+    void 取得に失敗したURLはしばらく取得し直さない() {
+        RemoteImageProxyService sut = newService(true);
+
+        assertThat(sut.localize(baseUrl + "/missing")).isEqualTo(baseUrl + "/missing");
+        assertThat(sut.localize(baseUrl + "/missing")).isEqualTo(baseUrl + "/missing");
+
+        assertThat(requests).hasValue(1);
+    }
+
+    @Test
+    void プライベートアドレスは許可しなければ取得しない() {
+        RemoteImageProxyService sut = newService(false);
+        release.countDown();
+
+        assertThat(sut.localize(baseUrl + "/img.png")).isEqualTo(baseUrl + "/img.png");
+        assertThat(requests).hasValue(0);
+    }
+
+    @Test
+    void 本文の読み込みが期限を過ぎたら打ち切り元のURLを返す() throws Exception {
+        RemoteImageProxyService sut = newService(true, 500);
+
+        long start = System.nanoTime();
+        String result = sut.localize(baseUrl + "/slow.png");
+
+        assertThat(result).isEqualTo(baseUrl + "/slow.png");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(3));
+        try (Stream<Path> files = Files.list(uploadDir)) {
+            assertThat(files.filter(Files::isRegularFile)).isEmpty();
+        }
+    }
+
+    @Test
+    void 外部のSVGは取り込まない() {
+        RemoteImageProxyService sut = newService(true);
+
+        assertThat(sut.localize(baseUrl + "/image.svg")).isEqualTo(baseUrl + "/image.svg");
+    }
+
+    @Test
+    void CGNATとIPv6のユニークローカルもプライベートアドレスとして扱う() throws Exception {
+        assertThat(RemoteImageProxyService.isPrivate(InetAddress.getByName("100.64.0.1"))).isTrue();
+        assertThat(RemoteImageProxyService.isPrivate(InetAddress.getByName("100.127.255.254"))).isTrue();
+        assertThat(RemoteImageProxyService.isPrivate(InetAddress.getByName("fd12:3456::1"))).isTrue();
+        assertThat(RemoteImageProxyService.isPrivate(InetAddress.getByName("0.1.2.3"))).isTrue();
+        assertThat(RemoteImageProxyService.isPrivate(InetAddress.getByName("100.128.0.1"))).isFalse();
+        assertThat(RemoteImageProxyService.isPrivate(InetAddress.getByName("2001:db8::1"))).isFalse();
+        assertThat(RemoteImageProxyService.isPrivate(InetAddress.getByName("93.184.216.34"))).isFalse();
+    }
+
+    @Test
+    void 外部URLでなければそのまま返す() {
+        RemoteImageProxyService sut = newService(false);
+
+        assertThat(sut.localize("/api/uploads/a.png")).isEqualTo("/api/uploads/a.png");
+        assertThat(sut.localize(null)).isNull();
+    }
+}
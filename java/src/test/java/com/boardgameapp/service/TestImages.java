@@ -0,0 +1,46 @@
+package com.boardgameapp.service;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/** テスト用の画像データを作るヘルパー。 */
+final class TestImages {
+
+    private TestImages() {
+    }
+
+    /** ImageIO で実際にエンコードした画像（左半分が赤、右半分が青）を返す。 */
+    static byte[] encode(String format, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, width / 2, height);
+        g.setColor(Color.BLUE);
+        g.fillRect(width / 2, 0, width - width / 2, height);
+        g.dispose();
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, format, out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** IHDR に指定寸法を持つだけの PNG ヘッダ（画素データは無い）を返す。 */
+    static byte[] pngHeader(int width, int height) {
+        ByteBuffer buf = ByteBuffer.allocate(33);
+        buf.put(new byte[]{(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A});
+        buf.putInt(13).put(new byte[]{'I', 'H', 'D', 'R'});
+        buf.putInt(width).putInt(height);
+        buf.put(new byte[]{8, 2, 0, 0, 0});
+        buf.putInt(0);
+        return buf.array();
+    }
+}
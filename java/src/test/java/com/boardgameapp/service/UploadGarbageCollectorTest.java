@@ -0,0 +1,135 @@
+package com.boardgameapp.service;
+
+import com.boardgameapp.repository.UserBoardGameRepository;
+import com.boardgameapp.repository.WishlistRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UploadGarbageCollector")
+class UploadGarbageCollectorTest {
+
+    @Mock
+    private UserBoardGameRepository userBoardGameRepository;
+
+    @Mock
+    private WishlistRepository wishlistRepository;
+
+    @TempDir
+    Path uploadDir;
+
+    private ImageStorageService storage;
+    private ImagePlaceholderService placeholders;
+
+    @BeforeEach
+    void setUp() {
+        placeholders = new ImagePlaceholderService(uploadDir.toString(), 16);
+        storage = new ImageStorageService(null, placeholders, new SimpleMeterRegistry(), uploadDir.toString(), 1_000, 1, 0);
+    }
+
+    private UploadGarbageCollector newCollector(int batchSize) {
+        return new UploadGarbageCollector(storage, placeholders, userBoardGameRepository, wishlistRepository,
+                true, batchSize, 1, 0);
+    }
+
+    private Path upload(String name, Duration age) throws Exception {
+        Path file = Files.writeString(uploadDir.resolve(name), "x");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(age)));
+        return file;
+    }
+
+    @Test
+    void 参照されていない古いファイルだけを削除する() throws Exception {
+        Path game = upload("a.png", Duration.ofHours(2));
+        Path wish = upload("b.png", Duration.ofHours(2));
+        Path orphan = upload("c.png", Duration.ofHours(2));
+        Path sidecar = Files.createDirectories(uploadDir.resolve(ImagePlaceholderService.PLACEHOLDER_DIR))
+                .resolve("c.png.txt");
+        Files.writeString(sidecar, "data:image/png;base64,AAAA");
+        Path fresh = upload("d.png", Duration.ofMinutes(5));
+        when(userBoardGameRepository.findReferencedThumbnailUrls(anyCollection()))
+                .thenReturn(List.of("/api/uploads/a.png"));
+        when(wishlistRepository.findReferencedThumbnailUrls(anyCollection()))
+                .thenReturn(List.of("/api/uploads/b.png"));
+
+        int deleted = newCollector(100).sweepBatch();
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(orphan).doesNotExist();
+        assertThat(sidecar).doesNotExist();
+        assertThat(game).exists();
+        assertThat(wish).exists();
+        assertThat(fresh).exists();
+    }
+
+    @Test
+    void バッチ単位でファイル名順に進み末尾まで来たら先頭に戻る() throws Exception {
+        upload("a.png", Duration.ofHours(2));
+        upload("b.png", Duration.ofHours(2));
+        upload("c.png", Duration.ofHours(2));
+        when(userBoardGameRepository.findReferencedThumbnailUrls(anyCollection()))
+                .thenAnswer(inv -> List.copyOf(inv.<java.util.Collection<String>>getArgument(0)));
+        when(wishlistRepository.findReferencedThumbnailUrls(anyCollection())).thenReturn(List.of());
+        UploadGarbageCollector sut = newCollector(2);
+
+        sut.sweepBatch();
+        upload("0.png", Duration.ofHours(2));
+        when(userBoardGameRepository.findReferencedThumbnailUrls(anyCollection())).thenReturn(List.of());
+        int second = sut.sweepBatch();
+        int third = sut.sweepBatch();
+
+        assertThat(second).as("2回目は c.png だけを調べる").isEqualTo(1);
+        assertThat(uploadDir.resolve("c.png")).doesNotExist();
+        assertThat(third).as("3回目は先頭に戻り 0.png, a.png を調べる").isEqualTo(2);
+        assertThat(uploadDir.resolve("b.png")).exists();
+    }
+
+    @Test
+    void サブディレクトリは対象外() throws Exception {
+        Files.createDirectories(uploadDir.resolve("sub"));
+
+        assertThat(newCollector(100).sweepBatch()).isZero();
+    }
+
+    @Test
+    void 定期実行は削除を待たずに戻り専用のスレッドで間隔を空けて消す() throws Exception {
+        upload("a.png", Duration.ofHours(2));
+        upload("b.png", Duration.ofHours(2));
+        when(userBoardGameRepository.findReferencedThumbnailUrls(anyCollection())).thenReturn(List.of());
+        when(wishlistRepository.findReferencedThumbnailUrls(anyCollection())).thenReturn(List.of());
+        // 毎秒1件: 2件目の削除まで約1秒空く
+        UploadGarbageCollector sut = new UploadGarbageCollector(storage, placeholders, userBoardGameRepository,
+                wishlistRepository, true, 100, 1, 1);
+        try {
+            long start = System.nanoTime();
+            sut.scheduledSweep();
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(500));
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (Files.exists(uploadDir.resolve("b.png")) && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            assertThat(uploadDir.resolve("a.png")).doesNotExist();
+            assertThat(uploadDir.resolve("b.png")).doesNotExist();
+        } finally {
+            sut.destroy();
+        }
+    }
+}
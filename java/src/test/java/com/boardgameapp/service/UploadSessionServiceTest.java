@@ -0,0 +1,209 @@
+package com.boardgameapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+@DisplayName("UploadSessionService")
+class UploadSessionServiceTest {
+
+    private static final String USERNAME = "testuser";
+
+    @TempDir
+    Path uploadDir;
+
+    @TempDir
+    Path sessionDir;
+
+    private UploadSessionService sut;
+    private byte[] png;
+    private int third;
+
+    @BeforeEach
+    void setUp() {
+        sut = new UploadSessionService(newStorage(), sessionDir.toString(), 30, 2);
+        png = TestImages.encode("png", 300, 200);
+        third = png.length / 3;
+    }
+
+    private ImageStorageService newStorage() {
+        ImageInspector inspector = new ImageInspector(1_000, 1_000, 1_000_000, 64, 1, 0);
+        return new ImageStorageService(inspector, new ImagePlaceholderService(uploadDir.toString(), 16),
+                new SimpleMeterRegistry(), uploadDir.toString(), 10_000, 2, 0);
+    }
+
+    private ByteArrayInputStream slice(int from, int to) {
+        return new ByteArrayInputStream(Arrays.copyOfRange(png, from, to));
+    }
+
+    @Nested
+    @DisplayName("create")
+    class Create {
+        @Test
+        void partファイルは配信されるディレクトリの外に置く() throws Exception {
+            sut.create(USERNAME, png.length);
+
+            try (var parts = Files.list(sessionDir)) {
+                assertThat(parts).hasSize(1);
+            }
+            try (var served = Files.list(uploadDir)) {
+                assertThat(served).isEmpty();
+            }
+        }
+
+        @Test
+        void 開いているセッションが上限に達したらIllegalArgumentException() throws Exception {
+            UploadSessionService.UploadSession first = sut.create(USERNAME, png.length);
+            sut.create(USERNAME, png.length);
+
+            assertThatThrownBy(() -> sut.create(USERNAME, png.length))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Too many upload sessions");
+            assertThat(sut.create("otheruser", png.length)).isNotNull();
+
+            sut.cancel(USERNAME, first.getId());
+            assertThat(sut.create(USERNAME, png.length)).isNotNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("writeChunk / complete")
+    class WriteAndComplete {
+        @Test
+        void チャンクを順に書き込み完了すると公開ファイルになる() throws Exception {
+            UploadSessionService.UploadSession session = sut.create(USERNAME, png.length);
+
+            sut.writeChunk(USERNAME, session.getId(), 0, slice(0, third));
+            sut.writeChunk(USERNAME, session.getId(), third, slice(third, png.length));
+            ImageStorageService.StoredImage stored = sut.complete(USERNAME, session.getId());
+
+            assertThat(stored.filename()).endsWith(".png");
+            assertThat(Files.readAllBytes(stored.path())).isEqualTo(png);
+            assertThatThrownBy(() -> sut.get(USERNAME, session.getId()))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        void 受信済み範囲の再送は上書きとして受け付ける() throws Exception {
+            UploadSessionService.UploadSession session = sut.create(USERNAME, png.length);
+            sut.writeChunk(USERNAME, session.getId(), 0, slice(0, 2 * third));
+
+            UploadSessionService.UploadSession resumed =
+                    sut.writeChunk(USERNAME, session.getId(), third, slice(third, png.length));
+
+            assertThat(resumed.getReceived()).isEqualTo(png.length);
+            assertThat(Files.readAllBytes(sut.complete(USERNAME, session.getId()).path())).isEqualTo(png);
+        }
+
+        @Test
+        void 受信済みオフセットより先のチャンクはUploadOffsetMismatchException() throws Exception {
+            UploadSessionService.UploadSession session = sut.create(USERNAME, png.length);
+            sut.writeChunk(USERNAME, session.getId(), 0, slice(0, third));
+
+            assertThatThrownBy(() -> sut.writeChunk(USERNAME, session.getId(), 2 * third, slice(2 * third, png.length)))
+                    .isInstanceOf(UploadOffsetMismatchException.class)
+                    .extracting("expectedOffset").isEqualTo((long) third);
+        }
+
+        @Test
+        void 全チャンク受信前の完了はUploadOffsetMismatchException() throws Exception {
+            UploadSessionService.UploadSession session = sut.create(USERNAME, png.length);
+            sut.writeChunk(USERNAME, session.getId(), 0, slice(0, third));
+
+            assertThatThrownBy(() -> sut.complete(USERNAME, session.getId()))
+                    .isInstanceOf(UploadOffsetMismatchException.class);
+        }
+
+        @Test
+        void 他のユーザーのセッションは見つからない() throws Exception {
+            UploadSessionService.UploadSession session = sut.create(USERNAME, png.length);
+
+            assertThatThrownBy(() -> sut.get("other", session.getId()))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Upload session not found");
+        }
+    }
+
+    @Nested
+    @DisplayName("expireSessions")
+    class ExpireSessions {
+        @Test
+        void 期限切れのセッションはpartファイルごと削除する() throws Exception {
+            UploadSessionService expiring = new UploadSessionService(newStorage(), sessionDir.toString(), 0, 2);
+            UploadSessionService.UploadSession session = expiring.create(USERNAME, png.length);
+            Thread.sleep(5);
+
+            expiring.expireSessions();
+
+            assertThatThrownBy(() -> expiring.get(USERNAME, session.getId()))
+                    .isInstanceOf(IllegalArgumentException.class);
+            try (var parts = Files.list(sessionDir)) {
+                assertThat(parts).isEmpty();
+            }
+        }
+
+        @Test
+        void 書き込み中のセッションは待たずに飛ばし同じセッションへの同時の書き込みは断る() throws Exception {
+            UploadSessionService expiring = new UploadSessionService(newStorage(), sessionDir.toString(), 0, 2);
+            UploadSessionService.UploadSession session = expiring.create(USERNAME, png.length);
+            CountDownLatch reading = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            // 送信の遅いクライアント: 最初の読み込みで止まる
+            InputStream slow = new InputStream() {
+                @Override
+                public int read() {
+                    return -1;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    reading.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    }
+                    return -1;
+                }
+            };
+            Thread writer = new Thread(() -> {
+                try {
+                    expiring.writeChunk(USERNAME, session.getId(), 0, slow);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.start();
+            assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+
+            try {
+                Thread.sleep(5);
+                assertTimeoutPreemptively(Duration.ofSeconds(2), expiring::expireSessions);
+                assertThat(expiring.get(USERNAME, session.getId())).isSameAs(session);
+                assertThatThrownBy(() -> expiring.writeChunk(USERNAME, session.getId(), 0, slice(0, third)))
+                        .isInstanceOf(UploadOffsetMismatchException.class);
+            } finally {
+                release.countDown();
+                writer.join();
+            }
+        }
+    }
+}
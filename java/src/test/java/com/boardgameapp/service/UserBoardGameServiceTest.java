@@ -8,6 +8,8 @@ import com.boardgameapp.entity.UserBoardGame;
 import com.boardgameapp.repository.PlayRecordRepository;
 import com.boardgameapp.repository.UserBoardGameRepository;
 import com.boardgameapp.repository.UserRepository;
+import com.boardgameapp.resilience.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -16,7 +18,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -41,6 +45,15 @@ class UserBoardGameServiceTest {
     @Mock
     private PlayRecordRepository playRecordRepository;
 
+    @Mock
+    private ImagePlaceholderService imagePlaceholderService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(new SimpleMeterRegistry());
+
     @InjectMocks
     private UserBoardGameService sut;
 
@@ -82,6 +95,18 @@ class UserBoardGameServiceTest {
             assertThat(result.get(0).getName()).isEqualTo("カタン");
             assertThat(result.get(0).getId()).isEqualTo(10L);
             assertThat(result.get(0).getYearPublished()).isEqualTo(1995);
+            verify(singleFlight).execute(eq(UserBoardGameService.LIST), eq(USERNAME), any());
+        }
+
+        @Test
+        void 相乗りした呼び出し元と共有するため返す一覧は変更できない() {
+            when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
+            when(userBoardGameRepository.findByUserIdOrderByAddedAtDesc(USER_ID))
+                    .thenReturn(List.of(savedGame));
+
+            List<UserBoardGameResponse> result = sut.listByUsername(USERNAME);
+
+            assertThatThrownBy(() -> result.remove(0)).isInstanceOf(UnsupportedOperationException.class);
         }
 
         @Test
@@ -108,6 +133,7 @@ class UserBoardGameServiceTest {
 
             AddBoardGameRequest request = new AddBoardGameRequest();
             request.setName(" カルカソンヌ ");
+            request.setBggId("822");
             request.setThumbnailUrl("https://example.com/img.png");
             request.setYearPublished(2000);
             request.setMinPlayers(2);
@@ -120,6 +146,7 @@ class UserBoardGameServiceTest {
             UserBoardGame saved = captor.getValue();
             assertThat(saved.getUserId()).isEqualTo(USER_ID);
             assertThat(saved.getName()).isEqualTo("カルカソンヌ");
+            assertThat(saved.getBggId()).isEqualTo("822");
             assertThat(saved.getThumbnailUrl()).isEqualTo("https://example.com/img.png");
             assertThat(saved.getYearPublished()).isEqualTo(2000);
             assertThat(saved.getMinPlayers()).isEqualTo(2);
@@ -148,6 +175,21 @@ class UserBoardGameServiceTest {
             verify(userBoardGameRepository).save(captor.capture());
             assertThat(captor.getValue().getThumbnailUrl()).isNull();
         }
+
+        @Test
+        void アップロード画像のプレースホルダを保存しレスポンスに含める() {
+            when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
+            when(imagePlaceholderService.lookup("/api/uploads/a.png")).thenReturn("data:image/png;base64,AAAA");
+            when(userBoardGameRepository.save(any(UserBoardGame.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            AddBoardGameRequest request = new AddBoardGameRequest();
+            request.setName("test");
+            request.setThumbnailUrl("/api/uploads/a.png");
+
+            UserBoardGameResponse result = sut.add(USERNAME, request);
+
+            assertThat(result.getThumbnailPlaceholder()).isEqualTo("data:image/png;base64,AAAA");
+        }
     }
 
     @Nested
@@ -202,6 +244,7 @@ class UserBoardGameServiceTest {
 
             verify(playRecordRepository).deleteByUserBoardGameId(10L);
             verify(userBoardGameRepository).delete(savedGame);
+            verify(singleFlight).forgetAfterCommit(USERNAME);
         }
     }
 
@@ -0,0 +1,51 @@
+package com.boardgameapp.warmup;
+
+import com.boardgameapp.entity.User;
+import com.boardgameapp.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.warmup.enabled=true",
+        "app.warmup.iterations=3",
+        "app.warmup.logins=1"
+})
+@ActiveProfiles("test")
+@DisplayName("WarmupRunner")
+class WarmupRunnerTest {
+
+    @Autowired
+    private WarmupRunner warmupRunner;
+
+    @Autowired
+    private WarmupHealthIndicator warmupHealthIndicator;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void 起動時に指定回数APIをなぞり使い捨てユーザーを削除する() {
+        assertThat(warmupRunner.getState()).isEqualTo(WarmupRunner.State.DONE);
+        assertThat(warmupRunner.getCompletedIterations()).isEqualTo(3);
+        assertThat(userRepository.findAll()).extracting(User::getUsername)
+                .noneMatch(name -> name.startsWith(WarmupRunner.USERNAME_PREFIX));
+        assertThat(warmupHealthIndicator.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void 終了後はreadinessプローブがUPを返す() {
+        String body = restTemplate.getForObject("/actuator/health/readiness", String.class);
+
+        assertThat(body).contains("\"status\":\"UP\"");
+    }
+}
@@ -0,0 +1,117 @@
+package com.boardgameapp.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 対象APIへの非同期HTTPクライアント。JSON の組み立てと応答の読み取りだけを持ち、計測は呼び出し側で行う。
+ */
+final class ApiClient {
+
+    private final HttpClient http;
+    private final URI baseUri;
+    private final Duration timeout;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    ApiClient(URI baseUri, Duration timeout) {
+        this.baseUri = baseUri;
+        this.timeout = timeout;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    URI baseUri() {
+        return baseUri;
+    }
+
+    /**
+     * JSON ボディ付き（body が null ならボディなし）のリクエストを送る。
+     *
+     * @param method HTTP メソッド
+     * @param path /api から始まるパス
+     * @param token JWT（null なら Authorization を付けない）
+     * @param body JSON に変換するオブジェクト
+     * @return 応答
+     */
+    CompletableFuture<Response> json(String method, String path, String token, Object body) {
+        HttpRequest.BodyPublisher publisher = body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(toJson(body));
+        HttpRequest.Builder builder = request(path, token).method(method, publisher);
+        if (body != null) {
+            builder.header("Content-Type", "application/json");
+        }
+        return send(builder.build());
+    }
+
+    /**
+     * バイト列をそのままボディとして送る（画像のストリーミングアップロード）。
+     */
+    CompletableFuture<Response> bytes(String method, String path, String token, String contentType, byte[] body) {
+        HttpRequest request = request(path, token)
+                .header("Content-Type", contentType)
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        return send(request);
+    }
+
+    /** 応答ボディを JSON として読む。 */
+    JsonNode read(Response response) {
+        try {
+            return mapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    ObjectMapper mapper() {
+        return mapper;
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(timeout)
+                .header("Accept", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private CompletableFuture<Response> send(HttpRequest request) {
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(r -> new Response(r.statusCode(), r.body()));
+    }
+
+    private byte[] toJson(Object body) {
+        try {
+            return mapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * HTTP 応答。
+     *
+     * @param status ステータスコード
+     * @param body ボディ
+     */
+    record Response(int status, byte[] body) {
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+}
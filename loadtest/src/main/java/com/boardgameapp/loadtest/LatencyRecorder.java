@@ -0,0 +1,84 @@
+package com.boardgameapp.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * エンドポイントごとの応答時間を HDR ヒストグラム（マイクロ秒、有効桁3桁）に記録する。
+ * 記録は複数スレッドから同時に行われ、{@link #reset()} でウォームアップ分を捨てる。
+ */
+final class LatencyRecorder {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * 1リクエストの結果を記録する。
+     *
+     * @param route 集計キー
+     * @param latencyNanos 予定送信時刻（閉モデルでは送信時刻）から応答までの時間
+     * @param status ステータスコード。応答がなかった場合は 0
+     */
+    void record(String route, long latencyNanos, int status) {
+        Endpoint e = endpoint(route);
+        e.recorder.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        e.statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    /** 同時実行数の上限で送れなかったリクエストを数える。 */
+    void dropped(String route) {
+        endpoint(route).dropped.increment();
+    }
+
+    /** 対象がなく送らなかった操作を数える。 */
+    void skipped(String route) {
+        endpoint(route).skipped.increment();
+    }
+
+    /** これまでの記録を捨てる（ウォームアップの終了時）。 */
+    void reset() {
+        for (Endpoint e : endpoints.values()) {
+            e.recorder.getIntervalHistogram();
+            e.statuses.clear();
+            e.dropped.reset();
+            e.skipped.reset();
+        }
+    }
+
+    /** reset 以降の記録をエンドポイント名順に取り出す。 */
+    Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> result = new TreeMap<>();
+        endpoints.forEach((route, e) -> {
+            Map<Integer, Long> statuses = new TreeMap<>();
+            e.statuses.forEach((status, count) -> statuses.put(status, count.sum()));
+            result.put(route, new Snapshot(e.recorder.getIntervalHistogram(), statuses, e.dropped.sum(), e.skipped.sum()));
+        });
+        return result;
+    }
+
+    private Endpoint endpoint(String route) {
+        return endpoints.computeIfAbsent(route, r -> new Endpoint());
+    }
+
+    private static final class Endpoint {
+        final Recorder recorder = new Recorder(3);
+        final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        final LongAdder dropped = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+    }
+
+    /**
+     * 1エンドポイントの記録。
+     *
+     * @param histogram 応答時間（マイクロ秒）
+     * @param statuses ステータスコード別の件数（0 は応答なし）
+     * @param dropped 送れなかった件数
+     * @param skipped 対象がなく送らなかった件数
+     */
+    record Snapshot(Histogram histogram, Map<Integer, Long> statuses, long dropped, long skipped) {}
+}
@@ -0,0 +1,168 @@
+package com.boardgameapp.loadtest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 設定した比重で操作を選び、仮想ユーザーに割り当てて送る。
+ * <ul>
+ *   <li>開モデル（rate &gt; 0）: 到着率どおりの予定時刻に送信し、応答時間は予定時刻から測る。
+ *       サーバが遅れても送信を控えないため、待ち行列による遅延（coordinated omission）も結果に出る。</li>
+ *   <li>閉モデル（rate = 0）: 仮想ユーザーごとのスレッドが応答を待ってから次を送る。</li>
+ * </ul>
+ */
+final class LoadRunner {
+
+    private final LoadTestOptions options;
+    private final Operation.Workload workload;
+    private final List<VirtualUser> users;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final Operation[] table;
+
+    LoadRunner(LoadTestOptions options, Operation.Workload workload, List<VirtualUser> users) {
+        this.options = options;
+        this.workload = workload;
+        this.users = users;
+        this.table = weightTable(options.mix());
+    }
+
+    /**
+     * ウォームアップと計測を行い、計測区間の記録を返す。
+     *
+     * @return エンドポイントごとの記録と、計測区間の秒数
+     */
+    Result run() throws InterruptedException {
+        System.out.printf("ウォームアップ %ds、計測 %ds（%s）%n", options.warmup().toSeconds(),
+                options.duration().toSeconds(), options.rate() > 0 ? "開モデル " + options.rate() + " req/s" : "閉モデル");
+        long start = System.nanoTime();
+        long measureStart = start + options.warmup().toNanos();
+        long end = measureStart + options.duration().toNanos();
+        if (options.rate() > 0) {
+            runOpen(start, measureStart, end);
+        } else {
+            runClosed(measureStart, end);
+        }
+        return new Result(recorder.snapshot(), options.duration().toMillis() / 1000.0);
+    }
+
+    private void runOpen(long start, long measureStart, long end) throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(options.seed());
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        double meanIntervalNanos = 1e9 / options.rate();
+        boolean measuring = false;
+        long next = start;
+        while (next < end) {
+            sleepUntil(next);
+            if (!measuring && next >= measureStart) {
+                recorder.reset();
+                measuring = true;
+            }
+            long intended = next;
+            VirtualUser user = users.get(random.nextInt(users.size()));
+            Operation op = table[random.nextInt(table.length)];
+            if (!inFlight.tryAcquire()) {
+                recorder.dropped(op.route());
+            } else {
+                CompletableFuture<ApiClient.Response> future = send(op, user, random);
+                if (future == null) {
+                    inFlight.release();
+                    recorder.skipped(op.route());
+                } else {
+                    future.whenComplete((res, error) -> {
+                        inFlight.release();
+                        recorder.record(op.route(), System.nanoTime() - intended, error == null ? res.status() : 0);
+                    });
+                }
+            }
+            next += options.poisson()
+                    ? (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos)
+                    : (long) meanIntervalNanos;
+        }
+        // 計測終了時点で未完了のリクエストは応答まで待って記録する
+        inFlight.tryAcquire(options.maxInFlight(), options.requestTimeout().toMillis() + 1000, TimeUnit.MILLISECONDS);
+    }
+
+    private void runClosed(long measureStart, long end) throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(users.size());
+        Thread resetter = new Thread(() -> {
+            sleepUntil(measureStart);
+            recorder.reset();
+        }, "loadtest-warmup");
+        resetter.setDaemon(true);
+        resetter.start();
+        for (int i = 0; i < users.size(); i++) {
+            VirtualUser user = users.get(i);
+            SplittableRandom random = new SplittableRandom(options.seed() * 31 + i);
+            Thread t = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < end) {
+                        Operation op = table[random.nextInt(table.length)];
+                        long sent = System.nanoTime();
+                        CompletableFuture<ApiClient.Response> future = send(op, user, random);
+                        if (future == null) {
+                            recorder.skipped(op.route());
+                            continue;
+                        }
+                        int status;
+                        try {
+                            status = future.join().status();
+                        } catch (RuntimeException e) {
+                            status = 0;
+                        }
+                        recorder.record(op.route(), System.nanoTime() - sent, status);
+                        if (!options.thinkTime().isZero()) {
+                            LockSupport.parkNanos(options.thinkTime().toNanos());
+                        }
+                    }
+                } finally {
+                    finished.countDown();
+                }
+            }, "loadtest-vu-" + i);
+            t.setDaemon(true);
+            t.start();
+        }
+        finished.await();
+    }
+
+    private CompletableFuture<ApiClient.Response> send(Operation op, VirtualUser user, SplittableRandom random) {
+        try {
+            return op.execute(workload, user, random);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static void sleepUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /** 比重の数だけ操作を並べた表（一様乱数で引くと比重どおりに選ばれる）。 */
+    private static Operation[] weightTable(Map<Operation, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        Operation[] table = new Operation[total];
+        int i = 0;
+        for (Map.Entry<Operation, Integer> e : mix.entrySet()) {
+            for (int w = 0; w < e.getValue(); w++) {
+                table[i++] = e.getKey();
+            }
+        }
+        return table;
+    }
+
+    /**
+     * 計測結果。
+     *
+     * @param endpoints エンドポイントごとの記録
+     * @param seconds 計測区間の秒数
+     */
+    record Result(Map<String, LatencyRecorder.Snapshot> endpoints, double seconds) {}
+}
@@ -0,0 +1,98 @@
+package com.boardgameapp.loadtest;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 負荷試験のエントリポイント。
+ * <ol>
+ *   <li>バックエンドをメモリ上の H2 で起動する（--target 指定時は既存サーバを使う）</li>
+ *   <li>API 経由でユーザーとデータを投入する</li>
+ *   <li>ログイン・一覧・プレイ記録・ほしいもの・アップロードを混ぜた負荷をかけ、エンドポイントごとに記録する</li>
+ *   <li>結果を表示・保存し、--compare 指定時は過去の結果と比べる（回帰があれば終了コード 1）</li>
+ * </ol>
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> positional = new ArrayList<>();
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args, positional);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        String command = positional.isEmpty() ? "run" : positional.get(0);
+        int exitCode = switch (command) {
+            case "run" -> run(options);
+            case "compare" -> {
+                if (positional.size() != 3) {
+                    System.err.println(LoadTestOptions.USAGE);
+                    yield 2;
+                }
+                yield compare(RunReport.load(Path.of(positional.get(1))), RunReport.load(Path.of(positional.get(2))),
+                        options.threshold());
+            }
+            default -> {
+                System.err.println(LoadTestOptions.USAGE);
+                yield 2;
+            }
+        };
+        System.exit(exitCode);
+    }
+
+    private static int run(LoadTestOptions options) throws Exception {
+        Path workDir = Files.createTempDirectory("boardgame-loadtest");
+        try (ServerProcess server = options.target() == null
+                ? ServerProcess.start(options.serverJar(), options.serverJvmArgs(), workDir)
+                : null) {
+            URI baseUri = server != null ? server.baseUri() : URI.create(options.target());
+            ApiClient api = new ApiClient(baseUri, options.requestTimeout());
+            List<VirtualUser> users = new Seeder(api, options).seed();
+            LoadRunner.Result result = new LoadRunner(options,
+                    new Operation.Workload(api, uploadImage(options.seed())), users).run();
+            RunReport report = RunReport.of(options, result);
+            report.print(System.out);
+            System.out.println("保存しました: " + report.save(options.resultsDir(), result));
+            if (options.compareWith() != null) {
+                return compare(RunReport.load(options.compareWith()), report, options.threshold());
+            }
+            return 0;
+        }
+    }
+
+    private static int compare(RunReport base, RunReport current, double threshold) {
+        return ReportComparison.compare(base, current, threshold, System.out).isEmpty() ? 0 : 1;
+    }
+
+    /** アップロード用の小さな PNG（ボードゲームの箱写真程度の寸法）を作る。 */
+    private static byte[] uploadImage(long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        BufferedImage image = new BufferedImage(320, 240, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < image.getHeight(); y += 8) {
+            int rgb = random.nextInt(0x1000000);
+            for (int x = 0; x < image.getWidth(); x++) {
+                for (int dy = 0; dy < 8; dy++) {
+                    image.setRGB(x, y + dy, rgb ^ (x * 0x010101));
+                }
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
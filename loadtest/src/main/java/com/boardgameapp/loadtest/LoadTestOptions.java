@@ -0,0 +1,234 @@
+package com.boardgameapp.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 負荷試験の設定。コマンドライン引数 {@code --key=value} から作る。
+ *
+ * @param target 既存サーバのベースURL。null ならバックエンドの実行用 jar を起動する
+ * @param serverJar 起動するバックエンドの実行用 jar
+ * @param serverJvmArgs 起動するバックエンドに渡す JVM オプション
+ * @param users 仮想ユーザー数（開モデルでは送信先ユーザーの母数、閉モデルでは同時実行数）
+ * @param gamesPerUser ユーザーごとに投入する所持ゲーム数
+ * @param playsPerGame 所持ゲームごとに投入するプレイ記録数
+ * @param wishlistPerUser ユーザーごとに投入するほしいもの数
+ * @param rate 開モデルの到着率（リクエスト/秒）。0 なら閉モデル（仮想ユーザーが応答を待って次を送る）
+ * @param poisson 到着間隔を指数分布にするか（false なら等間隔）
+ * @param maxInFlight 開モデルで同時に未完了にできるリクエスト数。超えた分は送らずに dropped として数える
+ * @param thinkTime 閉モデルでの送信間隔
+ * @param warmup 計測前のウォームアップ時間
+ * @param duration 計測時間
+ * @param requestTimeout 1リクエストのタイムアウト
+ * @param mix 操作ごとの比重
+ * @param seed 投入データ・到着間隔・操作の選択に使う乱数の種
+ * @param name 実行名（結果ファイル名）
+ * @param resultsDir 結果の保存先
+ * @param compareWith 比較する過去の結果（JSON）。null なら比較しない
+ * @param threshold 回帰とみなす p99 の悪化・スループットの低下の割合（%）
+ */
+record LoadTestOptions(
+        String target,
+        Path serverJar,
+        List<String> serverJvmArgs,
+        int users,
+        int gamesPerUser,
+        int playsPerGame,
+        int wishlistPerUser,
+        double rate,
+        boolean poisson,
+        int maxInFlight,
+        Duration thinkTime,
+        Duration warmup,
+        Duration duration,
+        Duration requestTimeout,
+        Map<Operation, Integer> mix,
+        long seed,
+        String name,
+        Path resultsDir,
+        Path compareWith,
+        double threshold) {
+
+    static final String USAGE = """
+            使い方: java -jar target/loadtest.jar [run] [--key=value ...]
+                    java -jar target/loadtest.jar compare <base.json> <current.json> [--threshold=10]
+
+              --target=URL              既存のサーバに負荷をかける（省略時はバックエンドをメモリ上の H2 で起動）
+              --server-jar=PATH         起動するバックエンドの jar（既定: ../java/target/boardgame-backend-0.0.1-SNAPSHOT-exec.jar）
+              --server-jvm-args="..."   起動するバックエンドの JVM オプション（空白区切り）
+              --users=50                仮想ユーザー数
+              --games-per-user=20       投入する所持ゲーム数/ユーザー
+              --plays-per-game=5        投入するプレイ記録数/ゲーム
+              --wishlist-per-user=5     投入するほしいもの数/ユーザー
+              --rate=100                到着率（リクエスト/秒）。0 で閉モデル
+              --arrival=poisson         到着間隔: poisson | constant
+              --max-in-flight=1000      開モデルの同時未完了リクエスト数の上限
+              --think-time=0ms          閉モデルの送信間隔
+              --warmup=15s              計測前のウォームアップ
+              --duration=60s            計測時間
+              --timeout=10s             1リクエストのタイムアウト
+              --mix=list-games:30,...   操作の比重（指定しない操作は既定値、0 で無効）
+              --seed=42                 乱数の種
+              --name=NAME               実行名（既定: 日時）
+              --results-dir=results     結果の保存先
+              --compare=PATH            過去の結果と比較する
+              --threshold=10            回帰とみなす p99 悪化・スループット低下（%）
+            """;
+
+    /**
+     * 引数を解析する。位置引数（サブコマンドやファイル）は positional に入れる。
+     *
+     * @param args コマンドライン引数
+     * @param positional 位置引数の格納先
+     * @return 設定
+     * @throws IllegalArgumentException 不明なオプションや不正な値の場合
+     */
+    static LoadTestOptions parse(String[] args, List<String> positional) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                int eq = arg.indexOf('=');
+                if (eq < 0) {
+                    throw new IllegalArgumentException("Option needs a value: " + arg);
+                }
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            } else {
+                positional.add(arg);
+            }
+        }
+        Options o = new Options(values);
+        String arrival = o.string("arrival", "poisson");
+        if (!arrival.equals("poisson") && !arrival.equals("constant")) {
+            throw new IllegalArgumentException("arrival must be poisson or constant");
+        }
+        LoadTestOptions options = new LoadTestOptions(
+                o.string("target", null),
+                Path.of(o.string("server-jar", "../java/target/boardgame-backend-0.0.1-SNAPSHOT-exec.jar")),
+                splitArgs(o.string("server-jvm-args", "")),
+                o.integer("users", 50),
+                o.integer("games-per-user", 20),
+                o.integer("plays-per-game", 5),
+                o.integer("wishlist-per-user", 5),
+                Double.parseDouble(o.string("rate", "100")),
+                arrival.equals("poisson"),
+                o.integer("max-in-flight", 1000),
+                o.duration("think-time", "0ms"),
+                o.duration("warmup", "15s"),
+                o.duration("duration", "60s"),
+                o.duration("timeout", "10s"),
+                parseMix(o.string("mix", "")),
+                Long.parseLong(o.string("seed", "42")),
+                o.string("name", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))),
+                Path.of(o.string("results-dir", "results")),
+                o.path("compare"),
+                Double.parseDouble(o.string("threshold", "10")));
+        o.checkUnused();
+        if (options.users() < 1 || options.gamesPerUser() < 1) {
+            throw new IllegalArgumentException("users and games-per-user must be at least 1");
+        }
+        return options;
+    }
+
+    /** 実行条件を結果ファイルに残すための一覧。 */
+    Map<String, String> describe() {
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("target", target != null ? target : serverJar.getFileName().toString());
+        settings.put("users", String.valueOf(users));
+        settings.put("dataset", gamesPerUser + " games x " + playsPerGame + " plays, " + wishlistPerUser + " wishlist");
+        settings.put("model", rate > 0 ? "open " + rate + "/s " + (poisson ? "poisson" : "constant") : "closed");
+        settings.put("warmup", warmup.toString());
+        settings.put("duration", duration.toString());
+        settings.put("mix", mix.entrySet().stream()
+                .map(e -> e.getKey().key() + ":" + e.getValue())
+                .reduce((a, b) -> a + "," + b).orElse(""));
+        settings.put("seed", String.valueOf(seed));
+        return settings;
+    }
+
+    private static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (Operation op : Operation.values()) {
+            mix.put(op, op.defaultWeight());
+        }
+        if (!spec.isBlank()) {
+            for (String part : spec.split(",")) {
+                String[] kv = part.trim().split(":");
+                if (kv.length != 2) {
+                    throw new IllegalArgumentException("mix entries must be key:weight");
+                }
+                mix.put(Operation.byKey(kv[0]), Integer.parseInt(kv[1]));
+            }
+        }
+        mix.values().removeIf(w -> w <= 0);
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("mix has no operations");
+        }
+        return mix;
+    }
+
+    private static List<String> splitArgs(String value) {
+        List<String> list = new ArrayList<>();
+        for (String s : value.trim().split("\\s+")) {
+            if (!s.isEmpty()) {
+                list.add(s);
+            }
+        }
+        return list;
+    }
+
+    /** "500ms" "15s" "2m" 形式の時間を解析する。 */
+    static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        throw new IllegalArgumentException("Invalid duration: " + value);
+    }
+
+    /** 読み取ったオプションを記録し、綴り間違いを検出する。 */
+    private static final class Options {
+        private final Map<String, String> values;
+
+        Options(Map<String, String> values) {
+            this.values = new HashMap<>(values);
+        }
+
+        String string(String key, String defaultValue) {
+            String v = values.remove(key);
+            return v != null ? v : defaultValue;
+        }
+
+        int integer(String key, int defaultValue) {
+            String v = values.remove(key);
+            return v != null ? Integer.parseInt(v) : defaultValue;
+        }
+
+        Duration duration(String key, String defaultValue) {
+            return parseDuration(string(key, defaultValue));
+        }
+
+        Path path(String key) {
+            String v = values.remove(key);
+            return v != null ? Path.of(v) : null;
+        }
+
+        void checkUnused() {
+            if (!values.isEmpty()) {
+                throw new IllegalArgumentException("Unknown options: " + values.keySet());
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.boardgameapp.loadtest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 負荷試験で送る操作。route は集計のキー（パス変数はテンプレートのまま）で、既定の比重を持つ。
+ * 操作の結果で仮想ユーザーの状態（トークン・ほしいもののID）を更新する。
+ */
+enum Operation {
+
+    LOGIN("login", "POST /api/auth/login", 2) {
+        @Override
+        CompletableFuture<ApiClient.Response> execute(Workload w, VirtualUser user, SplittableRandom random) {
+            return w.api().json("POST", "/api/auth/login", null,
+                            Map.of("username", user.username(), "password", VirtualUser.PASSWORD))
+                    .thenApply(res -> {
+                        if (res.ok()) {
+                            user.setToken(w.api().read(res).path("token").asText());
+                        }
+                        return res;
+                    });
+        }
+    },
+    LIST_GAMES("list-games", "GET /api/me/boardgames", 30) {
+        @Override
+        CompletableFuture<ApiClient.Response> execute(Workload w, VirtualUser user, SplittableRandom random) {
+            return w.api().json("GET", "/api/me/boardgames", user.token(), null);
+        }
+    },
+    GET_GAME("get-game", "GET /api/me/boardgames/{id}", 10) {
+        @Override
+        CompletableFuture<ApiClient.Response> execute(Workload w, VirtualUser user, SplittableRandom random) {
+            return w.api().json("GET", "/api/me/boardgames/" + anyGame(user, random), user.token(), null);
+        }
+    },
+    LIST_PLAYS("list-plays", "GET /api/me/plays", 15) {
+        @Override
+        CompletableFuture<ApiClient.Response> execute(Workload w, VirtualUser user, SplittableRandom random) {
+            return w.api().json("GET", "/api/me/plays", user.token(), null);
+        }
+    },
+    LIST_GAME_PLAYS("list-game-plays", "GET /api/me/boardgames/{id}/plays", 10) {
+        @Override
+        CompletableFuture<ApiClient.Response> execute(Workload w, VirtualUser user, SplittableRandom random) {
+            return w.api().json("GET", "/api/me/boardgames/" + anyGame(user, random) + "/plays", user.token(), null);
+        }
+    },
+    ADD_PLAY("add-play", "POST /api/me/boardgames/{id}/plays", 10) {
+        @Override
+        CompletableFuture<ApiClient.Response> execute(Workload w, VirtualUser user, SplittableRandom random) {
+            return w.api().json("POST", "/api/me/boardgames/" + anyGame(user, random) + "/plays", user.token(),
+                    playBody(random));
+        }
+    },
+    LIST_WISHLIST("list-wishlist", "GET /api/me/wishlist", 8) {
+        @Override
+        CompletableFuture<ApiClient.Response> execute(Workload w, VirtualUser user, SplittableRandom random) {
+            return w.api().json("GET", "/api/me/wishlist", user.token(), null);
+        }
+    },
+    ADD_WISHLIST("add-wishlist", "POST /api/me/wishlist", 5) {
+        @Override
+        CompletableFuture<ApiClient.Response> execute(Workload w, VirtualUser user, SplittableRandom random) {
+            return w.api().json("POST", "/api/me/wishlist", user.token(), wishlistBody(random))
+                    .thenApply(res -> {
+                        if (res.ok()) {
+                            user.wishlistIds().add(w.api().read(res).path("id").asLong());
+                        }
+                        return res;
+                    });
+        }
+    },
+    DELETE_WISHLIST("delete-wishlist", "DELETE /api/me/wishlist/{id}", 5) {
+        @Override
+        CompletableFuture<ApiClient.Response> execute(Workload w, VirtualUser user, SplittableRandom random) {
+            Long id = user.wishlistIds().pollFirst();
+            if (id == null) {
+                return null;
+            }
+            return w.api().json("DELETE", "/api/me/wishlist/" + id, user.token(), null);
+        }
+    },
+    UPLOAD("upload", "POST /api/me/upload-image", 5) {
+        @Override
+        CompletableFuture<ApiClient.Response> execute(Workload w, VirtualUser user, SplittableRandom random) {
+            return w.api().bytes("POST", "/api/me/upload-image", user.token(), "image/png", w.image());
+        }
+    };
+
+    static final List<String> GAME_NAMES = List.of(
+            "カタン", "カルカソンヌ", "ドミニオン", "アグリコラ", "宝石の煌き", "パンデミック", "ウイングスパン", "テラフォーミング・マーズ");
+
+    private final String key;
+    private final String route;
+    private final int defaultWeight;
+
+    Operation(String key, String route, int defaultWeight) {
+        this.key = key;
+        this.route = route;
+        this.defaultWeight = defaultWeight;
+    }
+
+    String key() {
+        return key;
+    }
+
+    String route() {
+        return route;
+    }
+
+    int defaultWeight() {
+        return defaultWeight;
+    }
+
+    /**
+     * 操作を送る。
+     *
+     * @return 応答。対象がなく送らなかった場合は null
+     */
+    abstract CompletableFuture<ApiClient.Response> execute(Workload w, VirtualUser user, SplittableRandom random);
+
+    static Operation byKey(String key) {
+        for (Operation op : values()) {
+            if (op.key.equals(key)) {
+                return op;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + key);
+    }
+
+    static Map<String, Object> playBody(SplittableRandom random) {
+        return Map.of(
+                "playedAt", LocalDate.now().minusDays(random.nextInt(730)).toString(),
+                "playerCount", 2 + random.nextInt(4),
+                "memo", "負荷試験 " + random.nextInt(1000));
+    }
+
+    static Map<String, Object> wishlistBody(SplittableRandom random) {
+        return Map.of("name", GAME_NAMES.get(random.nextInt(GAME_NAMES.size())) + " 拡張 " + random.nextInt(100));
+    }
+
+    private static long anyGame(VirtualUser user, SplittableRandom random) {
+        List<Long> ids = user.gameIds();
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    /**
+     * 操作に必要な共有物。
+     *
+     * @param api クライアント
+     * @param image アップロードする画像（PNG）
+     */
+    record Workload(ApiClient api, byte[] image) {}
+}
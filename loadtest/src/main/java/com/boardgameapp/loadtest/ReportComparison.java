@@ -0,0 +1,64 @@
+package com.boardgameapp.loadtest;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 2回の実行結果をエンドポイントごとに比べ、スループットと p99 の変化を表示する。
+ * p99 が閾値を超えて悪化したか、スループットが閾値を超えて下がったエンドポイントを回帰として扱う。
+ */
+final class ReportComparison {
+
+    private ReportComparison() {
+    }
+
+    /**
+     * 比較結果を表示する。
+     *
+     * @param base 基準の結果
+     * @param current 比べる結果
+     * @param thresholdPercent 回帰とみなす変化の割合（%）
+     * @return 回帰したエンドポイントの一覧
+     */
+    static List<String> compare(RunReport base, RunReport current, double thresholdPercent, PrintStream out) {
+        List<String> regressions = new ArrayList<>();
+        out.printf("%n== %s → %s（回帰の閾値 %.0f%%）%n", base.name(), current.name(), thresholdPercent);
+        if (!base.settings().equals(current.settings())) {
+            out.println("注意: 実行条件が異なります");
+            base.settings().forEach((k, v) -> {
+                String other = current.settings().get(k);
+                if (!v.equals(other)) {
+                    out.printf("  %-9s %s → %s%n", k, v, other);
+                }
+            });
+        }
+        out.printf("%n%-38s %10s %10s %8s   %9s %9s %8s%n",
+                "endpoint", "req/s 前", "後", "変化", "p99 前", "後", "変化");
+        for (RunReport.EndpointStats cur : current.endpoints()) {
+            RunReport.EndpointStats old = base.endpoint(cur.route());
+            if (old == null) {
+                out.printf("%-38s （新規）%n", cur.route());
+                continue;
+            }
+            double throughputChange = change(old.throughput(), cur.throughput());
+            double p99Change = change(old.p99(), cur.p99());
+            boolean regressed = throughputChange < -thresholdPercent || p99Change > thresholdPercent;
+            if (regressed) {
+                regressions.add(cur.route());
+            }
+            out.printf("%-38s %10.1f %10.1f %+7.1f%%   %9.1f %9.1f %+7.1f%%%s%n",
+                    cur.route(), old.throughput(), cur.throughput(), throughputChange,
+                    old.p99(), cur.p99(), p99Change, regressed ? "  ← 回帰" : "");
+        }
+        out.println(regressions.isEmpty() ? "回帰はありません" : "回帰: " + regressions);
+        return regressions;
+    }
+
+    private static double change(double before, double after) {
+        if (before == 0) {
+            return after == 0 ? 0 : 100;
+        }
+        return (after - before) / before * 100;
+    }
+}
@@ -0,0 +1,127 @@
+package com.boardgameapp.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 1回の実行結果。JSON で保存し、後の実行と {@link ReportComparison} で比較する。
+ *
+ * @param name 実行名
+ * @param startedAt 実行日時
+ * @param settings 実行条件
+ * @param seconds 計測区間の秒数
+ * @param endpoints エンドポイントごとの集計（最後に全体の集計 {@value #TOTAL}）
+ */
+record RunReport(String name, String startedAt, Map<String, String> settings, double seconds,
+                 List<EndpointStats> endpoints) {
+
+    static final String TOTAL = "TOTAL";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    /**
+     * 1エンドポイントの集計。時間はミリ秒。
+     *
+     * @param route エンドポイント
+     * @param count 応答を記録した件数
+     * @param errors 2xx 以外（応答なしを含む）の件数
+     * @param dropped 同時実行数の上限で送れなかった件数
+     * @param throughput 1秒あたりの件数
+     * @param statuses ステータスコード別の件数（"0" は応答なし）
+     */
+    record EndpointStats(String route, long count, long errors, long dropped, double throughput,
+                         double mean, double p50, double p90, double p99, double p999, double max,
+                         Map<String, Long> statuses) {
+
+        static EndpointStats of(String route, Histogram h, Map<Integer, Long> statuses, long dropped, double seconds) {
+            Map<String, Long> byStatus = new LinkedHashMap<>();
+            long errors = 0;
+            for (Map.Entry<Integer, Long> e : statuses.entrySet()) {
+                byStatus.put(String.valueOf(e.getKey()), e.getValue());
+                if (e.getKey() < 200 || e.getKey() >= 300) {
+                    errors += e.getValue();
+                }
+            }
+            return new EndpointStats(route, h.getTotalCount(), errors, dropped, h.getTotalCount() / seconds,
+                    h.getMean() / 1000, ms(h, 50), ms(h, 90), ms(h, 99), ms(h, 99.9), h.getMaxValue() / 1000.0,
+                    byStatus);
+        }
+
+        private static double ms(Histogram h, double percentile) {
+            return h.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+
+    /** 計測結果から作る。全エンドポイントを合算した行を最後に加える。 */
+    static RunReport of(LoadTestOptions options, LoadRunner.Result result) {
+        List<EndpointStats> stats = new ArrayList<>();
+        Histogram total = new Histogram(3);
+        Map<Integer, Long> totalStatuses = new LinkedHashMap<>();
+        long totalDropped = 0;
+        for (Map.Entry<String, LatencyRecorder.Snapshot> e : result.endpoints().entrySet()) {
+            LatencyRecorder.Snapshot s = e.getValue();
+            stats.add(EndpointStats.of(e.getKey(), s.histogram(), s.statuses(), s.dropped(), result.seconds()));
+            total.add(s.histogram());
+            s.statuses().forEach((status, count) -> totalStatuses.merge(status, count, Long::sum));
+            totalDropped += s.dropped();
+        }
+        stats.add(EndpointStats.of(TOTAL, total, totalStatuses, totalDropped, result.seconds()));
+        return new RunReport(options.name(), Instant.now().toString(), options.describe(), result.seconds(), stats);
+    }
+
+    EndpointStats endpoint(String route) {
+        return endpoints.stream().filter(e -> e.route().equals(route)).findFirst().orElse(null);
+    }
+
+    void print(PrintStream out) {
+        out.printf("%n== %s（%.0f 秒）%n", name, seconds);
+        settings.forEach((k, v) -> out.printf("  %-9s %s%n", k, v));
+        out.printf("%n%-38s %8s %9s %6s %7s %8s %8s %8s %8s %8s%n",
+                "endpoint", "count", "req/s", "err", "drop", "p50", "p90", "p99", "p99.9", "max");
+        for (EndpointStats e : endpoints) {
+            out.printf("%-38s %8d %9.1f %6d %7d %8.1f %8.1f %8.1f %8.1f %8.1f%n",
+                    e.route(), e.count(), e.throughput(), e.errors(), e.dropped(),
+                    e.p50(), e.p90(), e.p99(), e.p999(), e.max());
+        }
+        out.println("（時間はミリ秒）");
+    }
+
+    /**
+     * 結果を {@code <dir>/<name>.json} に保存し、ヒストグラムを HdrHistogram のログ形式（{@code .hlog}）でも残す。
+     *
+     * @return JSON ファイルのパス
+     */
+    Path save(Path dir, LoadRunner.Result result) throws IOException {
+        Files.createDirectories(dir);
+        Path json = dir.resolve(name + ".json");
+        MAPPER.writeValue(json.toFile(), this);
+        try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(name + ".hlog")))) {
+            HistogramLogWriter writer = new HistogramLogWriter(out);
+            writer.outputComment("BoardGame App load test " + name + " (microseconds)");
+            writer.outputLogFormatVersion();
+            writer.outputLegend();
+            result.endpoints().forEach((route, s) -> {
+                Histogram h = s.histogram();
+                h.setTag(route.replace(' ', '_'));
+                writer.outputIntervalHistogram(h);
+            });
+        }
+        return json;
+    }
+
+    static RunReport load(Path json) throws IOException {
+        return MAPPER.readValue(json.toFile(), RunReport.class);
+    }
+}
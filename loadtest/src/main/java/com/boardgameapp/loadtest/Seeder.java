@@ -0,0 +1,136 @@
+package com.boardgameapp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 計測前に API 経由でユーザーと所持ゲーム・プレイ記録・ほしいものを投入する。
+ * 内容はユーザーごとの乱数の種から決まり、同じ設定なら毎回同じデータになる。
+ * 既存サーバで同名ユーザーが登録済みの場合はログインしてそのまま使う。
+ * サーバが混雑（503）やレート制限（429）で断った要求は、少し待って送り直す。
+ */
+final class Seeder {
+
+    private static final int PARALLELISM = 8;
+    private static final int MAX_RETRIES = 30;
+    private static final long RETRY_DELAY_MS = 1_000;
+
+    private final ApiClient api;
+    private final LoadTestOptions options;
+
+    Seeder(ApiClient api, LoadTestOptions options) {
+        this.api = api;
+        this.options = options;
+    }
+
+    List<VirtualUser> seed() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(PARALLELISM);
+        AtomicInteger done = new AtomicInteger();
+        try {
+            List<Future<VirtualUser>> futures = new ArrayList<>();
+            for (int i = 0; i < options.users(); i++) {
+                int index = i;
+                futures.add(pool.submit(() -> {
+                    VirtualUser user = seedUser(index);
+                    int n = done.incrementAndGet();
+                    if (n % 10 == 0 || n == options.users()) {
+                        System.out.printf("データ投入: %d/%d ユーザー%n", n, options.users());
+                    }
+                    return user;
+                }));
+            }
+            List<VirtualUser> users = new ArrayList<>();
+            for (Future<VirtualUser> f : futures) {
+                users.add(f.get());
+            }
+            return users;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private VirtualUser seedUser(int index) {
+        SplittableRandom random = new SplittableRandom(options.seed() * 31 + index);
+        VirtualUser user = new VirtualUser("lt" + options.seed() + "u" + index);
+        ApiClient.Response registered = expectStatus(send("POST", "/api/auth/register", null, Map.of(
+                "username", user.username(),
+                "email", user.username() + "@loadtest.example",
+                "password", VirtualUser.PASSWORD)), 200, 400);
+        if (registered.status() == 400) {
+            registered = expectStatus(send("POST", "/api/auth/login", null, Map.of(
+                    "username", user.username(), "password", VirtualUser.PASSWORD)), 200);
+            user.setToken(api.read(registered).path("token").asText());
+            for (JsonNode game : api.read(expectStatus(send("GET", "/api/me/boardgames", user.token(), null), 200))) {
+                user.gameIds().add(game.path("id").asLong());
+            }
+            for (JsonNode item : api.read(expectStatus(send("GET", "/api/me/wishlist", user.token(), null), 200))) {
+                user.wishlistIds().add(item.path("id").asLong());
+            }
+            return user;
+        }
+        user.setToken(api.read(registered).path("token").asText());
+        for (int g = 0; g < options.gamesPerUser(); g++) {
+            long id = api.read(expectStatus(send("POST", "/api/me/boardgames", user.token(), gameBody(g, random)), 200))
+                    .path("id").asLong();
+            user.gameIds().add(id);
+            List<CompletableFuture<ApiClient.Response>> plays = new ArrayList<>();
+            for (int p = 0; p < options.playsPerGame(); p++) {
+                plays.add(send("POST", "/api/me/boardgames/" + id + "/plays", user.token(),
+                        Operation.playBody(random)));
+            }
+            plays.forEach(f -> expectStatus(f, 200));
+        }
+        for (int w = 0; w < options.wishlistPerUser(); w++) {
+            user.wishlistIds().add(api.read(expectStatus(send("POST", "/api/me/wishlist", user.token(),
+                    Operation.wishlistBody(random)), 200)).path("id").asLong());
+        }
+        return user;
+    }
+
+    private static Map<String, Object> gameBody(int index, SplittableRandom random) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("name", Operation.GAME_NAMES.get(random.nextInt(Operation.GAME_NAMES.size())) + " #" + index);
+        body.put("yearPublished", 1995 + random.nextInt(30));
+        body.put("minPlayers", 1 + random.nextInt(2));
+        body.put("maxPlayers", 4 + random.nextInt(3));
+        body.put("minPlayTimeMinutes", 15 + random.nextInt(4) * 15);
+        body.put("maxPlayTimeMinutes", 60 + random.nextInt(4) * 30);
+        return body;
+    }
+
+    /** 要求を送る。503・429 なら待って送り直す（サーバの処理枠やレート制限に当たった場合）。 */
+    private CompletableFuture<ApiClient.Response> send(String method, String path, String token, Object body) {
+        return send(method, path, token, body, 0);
+    }
+
+    private CompletableFuture<ApiClient.Response> send(String method, String path, String token, Object body,
+                                                       int attempt) {
+        return api.json(method, path, token, body).thenCompose(res ->
+                (res.status() == 503 || res.status() == 429) && attempt < MAX_RETRIES
+                        ? CompletableFuture.runAsync(() -> { },
+                                CompletableFuture.delayedExecutor(RETRY_DELAY_MS, TimeUnit.MILLISECONDS))
+                                .thenCompose(ignored -> send(method, path, token, body, attempt + 1))
+                        : CompletableFuture.completedFuture(res));
+    }
+
+    private static ApiClient.Response expectStatus(CompletableFuture<ApiClient.Response> future, int... expected) {
+        ApiClient.Response res = future.join();
+        for (int status : expected) {
+            if (res.status() == status) {
+                return res;
+            }
+        }
+        throw new IllegalStateException("Seeding failed with status " + res.status() + ": " + new String(res.body()));
+    }
+}
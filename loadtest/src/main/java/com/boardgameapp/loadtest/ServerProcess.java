@@ -0,0 +1,113 @@
+package com.boardgameapp.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * バックエンドの実行用 jar を別プロセスで起動する。負荷生成側と JVM（GC・CPU）を分けて計測を歪めないようにする。
+ * DB はメモリ上の H2 を毎回作り直し、アップロード先は作業ディレクトリに置く。出力は server.log に書く。
+ */
+final class ServerProcess implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final Process process;
+    private final URI baseUri;
+
+    private ServerProcess(Process process, URI baseUri) {
+        this.process = process;
+        this.baseUri = baseUri;
+    }
+
+    /**
+     * サーバを起動し、ヘルスチェックが通るまで待つ。
+     *
+     * @param jar バックエンドの実行用 jar
+     * @param jvmArgs JVM オプション
+     * @param workDir アップロード先とログの置き場
+     */
+    static ServerProcess start(Path jar, List<String> jvmArgs, Path workDir) throws IOException, InterruptedException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalArgumentException("Server jar not found: " + jar.toAbsolutePath()
+                    + " (run mvn package in java/ first)");
+        }
+        int port = freePort();
+        Path uploadDir = Files.createDirectories(workDir.resolve("uploads"));
+        Path log = workDir.resolve("server.log");
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toAbsolutePath().toString());
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+        command.add("--spring.jpa.hibernate.ddl-auto=create");
+        command.add("--app.upload.dir=" + uploadDir);
+        command.add("--app.upload.gc.enabled=false");
+        // 仮想ユーザーは全員同じ IP から来るので、IP 単位のレート制限は外す
+        command.add("--app.rate-limit.enabled=false");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        ServerProcess server = new ServerProcess(process, URI.create("http://localhost:" + port));
+        try {
+            server.awaitHealthy();
+        } catch (IOException | RuntimeException | InterruptedException e) {
+            server.close();
+            throw e;
+        }
+        System.out.printf("サーバを起動しました: %s（ログ: %s）%n", server.baseUri, log);
+        return server;
+    }
+
+    URI baseUri() {
+        return baseUri;
+    }
+
+    private void awaitHealthy() throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest health = HttpRequest.newBuilder(baseUri.resolve("/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IOException("Server exited with code " + process.exitValue());
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // まだ待ち受けていない
+            }
+            Thread.sleep(250);
+        }
+        throw new IOException("Server did not become healthy within " + STARTUP_TIMEOUT);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(20, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.boardgameapp.loadtest;
+
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 仮想ユーザー。ログイン情報と、操作の対象にする所持ゲーム・ほしいもののIDを持つ。
+ * 開モデルでは複数のリクエストが同じユーザーに同時に割り当たるため、状態はスレッドセーフにする。
+ */
+final class VirtualUser {
+
+    static final String PASSWORD = "loadtest-password";
+
+    private final String username;
+    private volatile String token;
+    private final List<Long> gameIds = new CopyOnWriteArrayList<>();
+    private final Deque<Long> wishlistIds = new ConcurrentLinkedDeque<>();
+
+    VirtualUser(String username) {
+        this.username = username;
+    }
+
+    String username() {
+        return username;
+    }
+
+    String token() {
+        return token;
+    }
+
+    void setToken(String token) {
+        this.token = token;
+    }
+
+    List<Long> gameIds() {
+        return gameIds;
+    }
+
+    Deque<Long> wishlistIds() {
+        return wishlistIds;
+    }
+}